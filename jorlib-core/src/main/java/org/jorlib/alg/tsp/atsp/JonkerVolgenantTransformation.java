@@ -0,0 +1,386 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * JonkerVolgenantTransformation.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.atsp;
+
+import java.io.BufferedReader;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.ComputedDistances;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Read-only view of the symmetric TSP with {@code 2N} nodes obtained from an
+ * asymmetric TSP with {@code N} nodes by the transformation of Jonker and
+ * Volgenant.  Distances are computed from the asymmetric table on demand, so
+ * the view requires O(1) memory beyond the underlying table, and symmetric
+ * algorithms such as {@link org.jorlib.alg.tsp.localsearch.TwoOpt} or
+ * {@link org.jorlib.alg.tsp.bounds.HeldKarpBound} can be applied to
+ * asymmetric instances.  The snapshot returned by {@link #freeze()}, which
+ * these algorithms take, is equally lazy: it computes its distances from the
+ * frozen asymmetric table.
+ * <p>
+ * Node {@code i < N} is the head of node {@code i} of the asymmetric instance
+ * and node {@code N + i} is its tail.  The dummy edge between {@code i} and
+ * {@code N + i} has length zero, and the edge between {@code N + i} and
+ * {@code j} has the length of the arc from {@code i} to {@code j} plus a
+ * penalty {@code M}.  Edges between two heads or two tails are forbidden.  A
+ * tour which contains every dummy edge alternates between heads and tails;
+ * read in the direction where every head is followed by its tail, it
+ * traverses the arcs of a directed tour, and its length is {@code NM} plus
+ * the length of that tour.  Since {@code M} exceeds the length of every
+ * directed tour, tours which omit a dummy edge are always longer, and
+ * forbidden edges have a length exceeding every tour without them.
+ *
+ * @author Joris Kinable
+ */
+public class JonkerVolgenantTransformation extends DistanceTable {
+
+	/**
+	 * The asymmetric distance table.
+	 */
+	private final DistanceTable distanceTable;
+
+	/**
+	 * The number of nodes of the asymmetric instance.
+	 */
+	private final int size;
+
+	/**
+	 * The penalty added to every edge between a tail and a head.
+	 */
+	private final double penalty;
+
+	/**
+	 * The distances of the symmetric instance.
+	 */
+	private final Distances distances;
+
+	/**
+	 * Constructs the transformation of an asymmetric instance, with a penalty
+	 * exceeding the length of every directed tour.  Computing the penalty
+	 * takes O(N<sup>2</sup>) distance queries but no additional memory.
+	 *
+	 * @param distanceTable the asymmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @throws IllegalArgumentException if an arc has an infinite length
+	 */
+	public JonkerVolgenantTransformation(DistanceTable distanceTable) {
+		this(distanceTable, defaultPenalty(distanceTable));
+	}
+
+	/**
+	 * Constructs the transformation of an asymmetric instance.
+	 *
+	 * @param distanceTable the asymmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param penalty the penalty added to every edge between a tail and a
+	 *        head, which must exceed the length of every directed tour and
+	 *        of every arc
+	 * @throws IllegalArgumentException if the penalty is not positive and
+	 *         finite
+	 */
+	public JonkerVolgenantTransformation(DistanceTable distanceTable, double penalty) {
+		super();
+
+		if (!(penalty > 0) || Double.isInfinite(penalty)) {
+			throw new IllegalArgumentException("penalty must be positive and finite");
+		}
+
+		this.distanceTable = distanceTable;
+		this.size = distanceTable.listNodes().length;
+		this.penalty = penalty;
+
+		this.distances = new Distances(distanceTable, size, penalty);
+	}
+
+	/**
+	 * Returns one plus the sum over the nodes of the longest arc leaving the
+	 * node, which exceeds the length of every directed tour and of every arc.
+	 *
+	 * @param distanceTable the asymmetric distance table
+	 * @return the penalty
+	 * @throws IllegalArgumentException if an arc has an infinite length
+	 */
+	private static double defaultPenalty(DistanceTable distanceTable) {
+		int n = distanceTable.listNodes().length;
+		double penalty = 1.0;
+
+		for (int i = 0; i < n; i++) {
+			double longest = 0.0;
+
+			for (int j = 0; j < n; j++) {
+				if (i != j) {
+					longest = Math.max(longest, distanceTable.getDistanceBetween(i, j));
+				}
+			}
+
+			penalty += longest;
+		}
+
+		if (Double.isInfinite(penalty)) {
+			throw new IllegalArgumentException("arcs must have finite lengths");
+		}
+
+		return penalty;
+	}
+
+	/**
+	 * Returns the asymmetric distance table.
+	 *
+	 * @return the asymmetric distance table
+	 */
+	public DistanceTable getDistanceTable() {
+		return distanceTable;
+	}
+
+	/**
+	 * Returns the penalty added to every edge between a tail and a head.
+	 *
+	 * @return the penalty added to every edge between a tail and a head
+	 */
+	public double getPenalty() {
+		return penalty;
+	}
+
+	/**
+	 * Returns the number of nodes of the symmetric instance, which is twice
+	 * the number of nodes of the asymmetric instance.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return 2 * size;
+	}
+
+	@Override
+	public int[] listNodes() {
+		int[] nodes = new int[2 * size];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = i;
+		}
+
+		return nodes;
+	}
+
+	@Override
+	public int[] getNeighborsOf(int id) {
+		checkNode(id);
+		int[] neighbors = new int[2 * size - 1];
+		int index = 0;
+
+		for (int i = 0; i < 2 * size; i++) {
+			if (i != id) {
+				neighbors[index++] = i;
+			}
+		}
+
+		return neighbors;
+	}
+
+	@Override
+	public boolean isNeighbor(int id1, int id2) {
+		checkNode(id1);
+		checkNode(id2);
+		return id1 != id2;
+	}
+
+	@Override
+	public double getDistanceBetween(int id1, int id2) {
+		checkNode(id1);
+		checkNode(id2);
+		return distances.distance(id1, id2);
+	}
+
+	/**
+	 * Checks that a node identifier is valid.
+	 *
+	 * @param id the identifier of the node
+	 * @throws IllegalArgumentException if the node does not exist
+	 */
+	private void checkNode(int id) {
+		if ((id < 0) || (id > 2 * size - 1)) {
+			throw new IllegalArgumentException("no node with identifier " + id);
+		}
+	}
+
+	/**
+	 * Converts a tour of the symmetric instance to a directed tour of the
+	 * asymmetric instance, which visits the heads in the direction in which
+	 * most of them are followed by their tails.  If the tour contains every
+	 * dummy edge, the length of the directed tour is the length of the tour
+	 * minus {@code NM}.  This takes O(N) time.
+	 *
+	 * @param tour the tour of the symmetric instance
+	 * @return the directed tour
+	 * @throws IllegalArgumentException if the tour does not match the number
+	 *         of nodes
+	 */
+	public TSPLibTour toDirected(TSPLibTour tour) {
+		int[] nodes = tour.toArray();
+		int n = nodes.length;
+
+		if (n != 2 * size) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		int forward = 0;
+		int backward = 0;
+
+		for (int k = 0; k < n; k++) {
+			if (nodes[k] < size) {
+				if (nodes[(k + 1) % n] == nodes[k] + size) {
+					forward++;
+				} else if (nodes[(k + n - 1) % n] == nodes[k] + size) {
+					backward++;
+				}
+			}
+		}
+
+		int[] directed = new int[size];
+		int index = 0;
+
+		for (int k = 0; k < n; k++) {
+			int id = nodes[(forward >= backward) ? k : n - 1 - k];
+
+			if (id < size) {
+				directed[index++] = id;
+			}
+		}
+
+		return TSPLibTour.createTour(directed);
+	}
+
+	/**
+	 * Converts a directed tour of the asymmetric instance to the tour of the
+	 * symmetric instance which follows every head by its tail.  This takes
+	 * O(N) time.
+	 *
+	 * @param tour the directed tour
+	 * @return the tour of the symmetric instance
+	 * @throws IllegalArgumentException if the tour does not match the number
+	 *         of nodes
+	 */
+	public TSPLibTour toSymmetric(TSPLibTour tour) {
+		int[] directed = tour.toArray();
+
+		if (directed.length != size) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		int[] nodes = new int[2 * size];
+
+		for (int k = 0; k < size; k++) {
+			nodes[2 * k] = directed[k];
+			nodes[2 * k + 1] = directed[k] + size;
+		}
+
+		return TSPLibTour.createTour(nodes);
+	}
+
+	/**
+	 * Returns a snapshot of this view which computes its distances on demand
+	 * from the frozen asymmetric table, so freezing requires no memory beyond
+	 * that table.
+	 *
+	 * @return the frozen view
+	 */
+	@Override
+	public FrozenDistanceTable freeze() {
+		return FrozenDistanceTable.of(2 * size, new Distances(distanceTable.freeze(), size, penalty));
+	}
+
+	/**
+	 * Distances are computed from the asymmetric table, so this view cannot
+	 * be loaded.
+	 *
+	 * @param reader the reader
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void load(BufferedReader reader) {
+		throw new UnsupportedOperationException("transformed distance tables are read-only");
+	}
+
+	/**
+	 * The distances of the symmetric instance, computed from an asymmetric
+	 * table.
+	 */
+	private static final class Distances implements ComputedDistances {
+
+		/**
+		 * The asymmetric distance table.
+		 */
+		private final DistanceTable distanceTable;
+
+		/**
+		 * The number of nodes of the asymmetric instance.
+		 */
+		private final int size;
+
+		/**
+		 * The penalty added to every edge between a tail and a head.
+		 */
+		private final double penalty;
+
+		/**
+		 * The length of forbidden edges.
+		 */
+		private final double forbidden;
+
+		Distances(DistanceTable distanceTable, int size, double penalty) {
+			this.distanceTable = distanceTable;
+			this.size = size;
+			this.penalty = penalty;
+
+			// exceeds 2N edges between tails and heads, each shorter than
+			// twice the penalty
+			this.forbidden = 4.0 * size * penalty + 1.0;
+		}
+
+		@Override
+		public double distance(int id1, int id2) {
+			if (id1 == id2) {
+				return 0.0;
+			} else if ((id1 < size) == (id2 < size)) {
+				return forbidden;
+			}
+
+			int head = Math.min(id1, id2);
+			int tail = Math.max(id1, id2) - size;
+
+			if (head == tail) {
+				return 0.0;
+			} else {
+				return distanceTable.getDistanceBetween(tail, head) + penalty;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,555 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * HeldKarpBound.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.bounds;
+
+import java.util.Arrays;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.alg.util.Primitives;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Held-Karp lower bound for the symmetric TSP.  A 1-tree is a spanning tree on
+ * the nodes {@code 1, ..., N-1} together with two edges incident to node
+ * {@code 0}; since every tour is a 1-tree, the weight of a minimum 1-tree is a
+ * lower bound on the length of a tour.  Adding a penalty {@code pi[i]} to both
+ * ends of every edge changes the length of every tour by
+ * {@code 2 * sum(pi)}, so
+ * <pre>
+ *     w(pi) = (weight of a minimum 1-tree under c(i,j) + pi[i] + pi[j]) - 2 * sum(pi)
+ * </pre>
+ * is a lower bound for every choice of penalties.  The bound is maximized by
+ * subgradient optimization: penalties of nodes with degree above 2 in the
+ * 1-tree are increased and those of leaves are decreased, following the step
+ * size schedule and the update direction
+ * {@code 0.6 (d[i] - 2) + 0.4 (d'[i] - 2)} of Volgenant and Jonker, where
+ * {@code d} and {@code d'} are the degrees in the current and the previous
+ * 1-tree.  The optimization stops when a 1-tree is a tour, which is then
+ * optimal, or when the iteration limit or the time limit is reached.
+ * <p>
+ * Without candidate lists, minimum 1-trees are computed by Prim's algorithm
+ * on the complete graph in O(N^2) time.  With candidate lists, the
+ * subgradient optimization applies Kruskal's algorithm to the candidate graph
+ * in O(Nk log Nk) time per iteration; as such a tree may use edges which are
+ * not minimal in the complete graph, its value is only an estimate, which
+ * may exceed the optimum.  The penalties with the best estimate are therefore
+ * evaluated once more by Prim's algorithm on the complete graph, and only
+ * that value is reported as the bound, so the bound is valid in both modes.
+ * If the candidate graph is disconnected, Prim's algorithm is used
+ * throughout.
+ * <p>
+ * The penalties maximizing the bound are retained and may be passed to
+ * another run by {@link #setPenalties(double[])}, which then warm-starts from
+ * them.
+ *
+ * @author Joris Kinable
+ */
+public class HeldKarpBound {
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The candidate neighbors of each node, or {@code null} to use the
+	 * complete graph.
+	 */
+	private final CandidateLists candidates;
+
+	/**
+	 * The first node of each candidate edge, or {@code null} if the edges
+	 * were not collected yet.
+	 */
+	private int[] tails;
+
+	/**
+	 * The second node of each candidate edge.
+	 */
+	private int[] heads;
+
+	/**
+	 * The time limit in milliseconds, or {@code 0} if there is none.
+	 */
+	private long timeLimit;
+
+	/**
+	 * The maximum number of iterations, or {@code -1} to use the default.
+	 */
+	private int maxIterations = -1;
+
+	/**
+	 * The penalty of each node; initially the penalties to start from, after
+	 * a run the penalties maximizing the bound.
+	 */
+	private double[] penalties;
+
+	/**
+	 * The best bound found by the last run.
+	 */
+	private double bound = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * The number of iterations performed by the last run.
+	 */
+	private int iterations;
+
+	/**
+	 * Whether the last run found a 1-tree which is a tour.
+	 */
+	private boolean tour;
+
+	/**
+	 * Constructs a Held-Karp bound computing 1-trees on the complete graph.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 */
+	public HeldKarpBound(DistanceTable distanceTable) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+		this.candidates = null;
+		this.penalties = new double[this.distanceTable.size()];
+	}
+
+	/**
+	 * Constructs a Held-Karp bound computing 1-trees on the graph formed by the
+	 * given candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public HeldKarpBound(DistanceTable distanceTable, CandidateLists candidates) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+
+		if (candidates.size() != this.distanceTable.size()) {
+			throw new IllegalArgumentException("candidate lists do not match the number of nodes");
+		}
+
+		this.candidates = candidates;
+		this.penalties = new double[this.distanceTable.size()];
+	}
+
+	/**
+	 * Sets the time limit of each run.
+	 *
+	 * @param timeLimit the time limit in milliseconds, or {@code 0} to remove
+	 *        the limit
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Sets the maximum number of iterations of each run.  By default, the
+	 * number of iterations equals the number of nodes, and is at least 100.
+	 *
+	 * @param maxIterations the maximum number of iterations, at least
+	 *        {@code 3}
+	 * @throws IllegalArgumentException if {@code maxIterations} is less than
+	 *         {@code 3}
+	 */
+	public void setMaxIterations(int maxIterations) {
+		if (maxIterations < 3) {
+			throw new IllegalArgumentException("at least 3 iterations are required");
+		}
+
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Sets the penalties from which the next run starts, e.g. the penalties
+	 * returned by a previous run on the same instance.
+	 *
+	 * @param penalties the penalty of each node, which are copied
+	 * @throws IllegalArgumentException if the number of penalties does not
+	 *         match the number of nodes
+	 */
+	public void setPenalties(double[] penalties) {
+		if (penalties.length != distanceTable.size()) {
+			throw new IllegalArgumentException("penalties do not match the number of nodes");
+		}
+
+		this.penalties = penalties.clone();
+	}
+
+	/**
+	 * Maximizes the bound by subgradient optimization, starting from the
+	 * current penalties.  With candidate lists, the penalties are optimized on
+	 * the candidate graph and the returned bound is their value on the
+	 * complete graph.
+	 *
+	 * @return the best bound found
+	 * @throws IllegalStateException if the instance has fewer than 3 nodes
+	 */
+	public double compute() {
+		int n = distanceTable.size();
+
+		if (n < 3) {
+			throw new IllegalStateException("the bound requires at least 3 nodes");
+		}
+
+		int limit = (maxIterations < 0) ? Math.max(100, n) : maxIterations;
+		long start = System.nanoTime();
+		double[] pi = penalties.clone();
+		int[] degree = new int[n];
+		int[] previous = new int[n];
+		double step = 0.0;
+
+		bound = Double.NEGATIVE_INFINITY;
+		iterations = 0;
+		tour = false;
+
+		for (int k = 1; k <= limit; k++) {
+			double value = oneTree(pi, degree, candidates == null);
+			iterations = k;
+
+			if (value > bound) {
+				bound = value;
+				System.arraycopy(pi, 0, penalties, 0, n);
+			}
+
+			tour = isTour(degree);
+
+			if (tour || ((timeLimit > 0) && ((System.nanoTime() - start) / 1000000L >= timeLimit))) {
+				break;
+			}
+
+			if (k == 1) {
+				// a tenth of the average penalized edge of the first 1-tree
+				step = 0.1 * Math.abs(value) / n;
+				System.arraycopy(degree, 0, previous, 0, n);
+
+				if (step == 0.0) {
+					step = 1.0;
+				}
+			}
+
+			double t = stepSize(step, k, limit);
+
+			for (int i = 0; i < n; i++) {
+				pi[i] += t * (0.6 * (degree[i] - 2) + 0.4 * (previous[i] - 2));
+			}
+
+			int[] swap = previous;
+			previous = degree;
+			degree = swap;
+		}
+
+		if (candidates != null) {
+			// estimates on the candidate graph are not bounds
+			bound = oneTree(penalties, degree, true);
+			tour = isTour(degree);
+		}
+
+		return bound;
+	}
+
+	/**
+	 * Returns the step size of the given iteration.  The step sizes decrease
+	 * from {@code t1} in the first to {@code 0} in the last iteration, with a
+	 * constant second difference.
+	 *
+	 * @param t1 the initial step size
+	 * @param k the iteration, starting at {@code 1}
+	 * @param m the number of iterations
+	 * @return the step size
+	 */
+	static double stepSize(double t1, int k, int m) {
+		return t1 * ((k - 1) * (2.0 * m - 5) / (2.0 * (m - 1)) - (k - 2)
+				+ (k - 1) * (k - 2) / (2.0 * (m - 1) * (m - 2)));
+	}
+
+	/**
+	 * Returns {@code true} if every node has degree 2; {@code false}
+	 * otherwise.
+	 *
+	 * @param degree the degree of each node
+	 * @return {@code true} if every node has degree 2; {@code false} otherwise
+	 */
+	private static boolean isTour(int[] degree) {
+		for (int d : degree) {
+			if (d != 2) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Computes a minimum 1-tree under the given penalties.
+	 *
+	 * @param pi the penalty of each node
+	 * @param degree receives the degree of each node in the 1-tree
+	 * @param complete whether to compute the 1-tree on the complete graph
+	 *        rather than on the candidate graph
+	 * @return the lower bound {@code w(pi)} if {@code complete} is set or
+	 *         there are no candidates; an estimate of it otherwise
+	 */
+	private double oneTree(double[] pi, int[] degree, boolean complete) {
+		Arrays.fill(degree, 0);
+		double weight = Double.NaN;
+
+		if (!complete) {
+			weight = kruskal(pi, degree);
+		}
+
+		if (Double.isNaN(weight)) {
+			Arrays.fill(degree, 0);
+			weight = prim(pi, degree);
+		}
+
+		// connect node 0 by its two cheapest edges
+		int n = distanceTable.size();
+		double first = Double.POSITIVE_INFINITY;
+		double second = Double.POSITIVE_INFINITY;
+		int firstNode = -1;
+		int secondNode = -1;
+
+		for (int j = 1; j < n; j++) {
+			double c = cost(pi, 0, j);
+
+			if ((firstNode < 0) || (c < first)) {
+				second = first;
+				secondNode = firstNode;
+				first = c;
+				firstNode = j;
+			} else if ((secondNode < 0) || (c < second)) {
+				second = c;
+				secondNode = j;
+			}
+		}
+
+		degree[0] = 2;
+		degree[firstNode]++;
+		degree[secondNode]++;
+		weight += first + second;
+
+		double sum = 0.0;
+
+		for (double p : pi) {
+			sum += p;
+		}
+
+		return weight - 2 * sum;
+	}
+
+	/**
+	 * Computes a minimum spanning tree on the nodes {@code 1, ..., N-1} of the
+	 * complete graph by Prim's algorithm.
+	 *
+	 * @param pi the penalty of each node
+	 * @param degree receives the degree of each node in the tree
+	 * @return the weight of the tree
+	 */
+	private double prim(double[] pi, int[] degree) {
+		int n = distanceTable.size();
+		double[] keys = new double[n];
+		int[] parents = new int[n];
+		boolean[] inTree = new boolean[n];
+		Arrays.fill(keys, Double.POSITIVE_INFINITY);
+		inTree[0] = true;
+		keys[1] = 0.0;
+		parents[1] = -1;
+		double weight = 0.0;
+
+		for (int k = 1; k < n; k++) {
+			int u = -1;
+
+			for (int v = 1; v < n; v++) {
+				if (!inTree[v] && ((u < 0) || (keys[v] < keys[u]))) {
+					u = v;
+				}
+			}
+
+			inTree[u] = true;
+
+			if (parents[u] >= 0) {
+				weight += keys[u];
+				degree[u]++;
+				degree[parents[u]]++;
+			}
+
+			for (int v = 1; v < n; v++) {
+				if (!inTree[v]) {
+					double c = cost(pi, u, v);
+
+					if (c < keys[v]) {
+						keys[v] = c;
+						parents[v] = u;
+					}
+				}
+			}
+		}
+
+		return weight;
+	}
+
+	/**
+	 * Computes a minimum spanning tree on the nodes {@code 1, ..., N-1} of the
+	 * candidate graph by Kruskal's algorithm.
+	 *
+	 * @param pi the penalty of each node
+	 * @param degree receives the degree of each node in the tree
+	 * @return the weight of the tree, or {@code NaN} if the candidate graph
+	 *         restricted to these nodes is disconnected
+	 */
+	private double kruskal(double[] pi, int[] degree) {
+		int n = distanceTable.size();
+
+		if (tails == null) {
+			edges();
+		}
+
+		int count = tails.length;
+		double[] costs = new double[count];
+		long[] keys = new long[count];
+
+		for (int e = 0; e < count; e++) {
+			costs[e] = cost(pi, tails[e], heads[e]);
+			keys[e] = Primitives.key(costs[e], e);
+		}
+
+		Arrays.sort(keys);
+
+		int[] parent = new int[n];
+		double weight = 0.0;
+		int added = 0;
+
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+
+		for (int k = 0; (k < count) && (added < n - 2); k++) {
+			int e = (int)keys[k];
+			int ru = Primitives.find(parent, tails[e]);
+			int rv = Primitives.find(parent, heads[e]);
+
+			if (ru != rv) {
+				parent[ru] = rv;
+				weight += costs[e];
+				degree[tails[e]]++;
+				degree[heads[e]]++;
+				added++;
+			}
+		}
+
+		return (added == n - 2) ? weight : Double.NaN;
+	}
+
+	/**
+	 * Collects the candidate edges between the nodes {@code 1, ..., N-1}, each
+	 * edge once.
+	 */
+	private void edges() {
+		int n = distanceTable.size();
+		int count = 0;
+
+		for (int i = 1; i < n; i++) {
+			count += candidates.get(i).length;
+		}
+
+		int[] t = new int[count];
+		int[] h = new int[count];
+		count = 0;
+
+		for (int i = 1; i < n; i++) {
+			for (int j : candidates.get(i)) {
+				if ((j != 0) && ((i < j) || !Primitives.contains(candidates.get(j), i))) {
+					t[count] = i;
+					h[count] = j;
+					count++;
+				}
+			}
+		}
+
+		tails = Arrays.copyOf(t, count);
+		heads = Arrays.copyOf(h, count);
+	}
+
+	/**
+	 * Returns the penalized cost of an edge.
+	 *
+	 * @param pi the penalty of each node
+	 * @param i the identifier of the first node
+	 * @param j the identifier of the second node
+	 * @return the penalized cost of the edge
+	 */
+	private double cost(double[] pi, int i, int j) {
+		return distanceTable.getDistanceBetween(i, j) + pi[i] + pi[j];
+	}
+
+	/**
+	 * Returns the best bound found by the last run.
+	 *
+	 * @return the best bound found by the last run, or negative infinity if
+	 *         {@link #compute()} was not called
+	 */
+	public double getBound() {
+		return bound;
+	}
+
+	/**
+	 * Returns the penalties for which the best bound was found by the last
+	 * run, or the penalties to start from if {@link #compute()} was not
+	 * called.
+	 *
+	 * @return the penalty of each node
+	 */
+	public double[] getPenalties() {
+		return penalties.clone();
+	}
+
+	/**
+	 * Returns the number of iterations performed by the last run.
+	 *
+	 * @return the number of iterations performed by the last run
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Returns {@code true} if the last run found a minimum 1-tree of the
+	 * complete graph which is a tour, in which case the bound equals the
+	 * length of an optimal tour.  Tours formed by 1-trees of the candidate
+	 * graph do not count.
+	 *
+	 * @return {@code true} if the last run found a 1-tree which is a tour;
+	 *         {@code false} otherwise
+	 */
+	public boolean isOptimal() {
+		return tour;
+	}
+
+}
@@ -0,0 +1,168 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CheapestInsertionHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Cheapest insertion heuristic: starting from a tour visiting only the given
+ * node, the node which can be inserted at the lowest increase in length is
+ * inserted at its best position until all nodes are visited.  The distances
+ * may be asymmetric.
+ * <p>
+ * The cheapest insertion position of every unvisited node is cached.  After
+ * an insertion, the cache of a node is updated in O(1) time using the two new
+ * edges, unless its cached position was the replaced edge, in which case the
+ * position is recomputed in O(N) time.  This typically takes O(N^2) time in
+ * total.
+ *
+ * @author Joris Kinable
+ */
+public class CheapestInsertionHeuristic extends ConstructionHeuristic {
+
+	/**
+	 * Constructs a cheapest insertion heuristic.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 */
+	public CheapestInsertionHeuristic(DistanceTable distanceTable) {
+		super(distanceTable);
+	}
+
+	@Override
+	public String getName() {
+		return "cheapest insertion";
+	}
+
+	@Override
+	protected int[] build(int start) {
+		int n = distanceTable.size();
+		int[] successors = new int[n];
+
+		if (n == 0) {
+			return successors;
+		}
+
+		// the unvisited nodes are kept in the first positions of this array
+		int[] unvisited = new int[n - 1];
+		int remaining = 0;
+
+		// the tail of the edge at which each node is inserted most cheaply
+		int[] tails = new int[n];
+		double[] costs = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			if (i != start) {
+				unvisited[remaining++] = i;
+				tails[i] = start;
+				costs[i] = d(start, i) + d(i, start);
+			}
+		}
+
+		successors[start] = start;
+
+		while (remaining > 0) {
+			int best = 0;
+
+			for (int k = 1; k < remaining; k++) {
+				if (costs[unvisited[k]] < costs[unvisited[best]]) {
+					best = k;
+				}
+			}
+
+			int x = unvisited[best];
+			unvisited[best] = unvisited[--remaining];
+
+			// replace the edge (i, j) by the edges (i, x) and (x, j)
+			int i = tails[x];
+			int j = successors[i];
+			successors[i] = x;
+			successors[x] = j;
+
+			for (int k = 0; k < remaining; k++) {
+				int y = unvisited[k];
+
+				if (tails[y] == i) {
+					recompute(successors, start, y, tails, costs);
+				} else {
+					update(i, x, y, tails, costs);
+					update(x, j, y, tails, costs);
+				}
+			}
+		}
+
+		return toOrder(successors, start);
+	}
+
+	/**
+	 * Updates the cached insertion position of a node if inserting it into
+	 * the given edge is cheaper.
+	 *
+	 * @param i the tail of the edge
+	 * @param j the head of the edge
+	 * @param y the identifier of the node
+	 * @param tails the tail of the cached insertion edge of each node
+	 * @param costs the cost of the cached insertion of each node
+	 */
+	private void update(int i, int j, int y, int[] tails, double[] costs) {
+		double cost = d(i, y) + d(y, j) - d(i, j);
+
+		if (cost < costs[y]) {
+			tails[y] = i;
+			costs[y] = cost;
+		}
+	}
+
+	/**
+	 * Recomputes the cheapest insertion position of a node by scanning all
+	 * edges of the tour.
+	 *
+	 * @param successors the successor of each visited node
+	 * @param start the identifier of a visited node
+	 * @param y the identifier of the node
+	 * @param tails the tail of the cached insertion edge of each node
+	 * @param costs the cost of the cached insertion of each node
+	 */
+	private void recompute(int[] successors, int start, int y, int[] tails, double[] costs) {
+		costs[y] = Double.POSITIVE_INFINITY;
+		int i = start;
+
+		do {
+			int j = successors[i];
+			double cost = d(i, y) + d(y, j) - d(i, j);
+
+			if (cost < costs[y]) {
+				tails[y] = i;
+				costs[y] = cost;
+			}
+
+			i = j;
+		} while (i != start);
+	}
+
+}
@@ -0,0 +1,342 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ChristofidesHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import java.util.Arrays;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.alg.util.Primitives;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Christofides-style heuristic for the symmetric TSP: a minimum spanning tree
+ * is computed by Prim's algorithm in O(N^2) time, the nodes of odd degree in
+ * the tree are matched, and an Euler tour of the tree and the matching edges,
+ * starting at the given node, is shortcut into a tour by skipping nodes which
+ * were already visited.
+ * <p>
+ * Unlike Christofides' algorithm, the odd nodes are not matched by a minimum
+ * weight perfect matching but greedily: candidate edges between odd nodes are
+ * scanned by increasing length, after which the nodes left unmatched are
+ * matched to their nearest unmatched node.  The approximation guarantee of
+ * 3/2 is therefore lost, but the heuristic runs in O(N^2) time.
+ *
+ * @author Joris Kinable
+ */
+public class ChristofidesHeuristic extends ConstructionHeuristic {
+
+	/**
+	 * The candidate neighbors of each node, ordered by increasing distance.
+	 */
+	private final CandidateLists candidates;
+
+	/**
+	 * Constructs a Christofides-style heuristic using the 10 nearest neighbors
+	 * of every node as candidates for the matching.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 */
+	public ChristofidesHeuristic(DistanceTable distanceTable) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, 10));
+	}
+
+	/**
+	 * Constructs a Christofides-style heuristic using the given candidates
+	 * for the matching.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node, ordered by
+	 *        increasing distance
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public ChristofidesHeuristic(DistanceTable distanceTable, CandidateLists candidates) {
+		super(distanceTable);
+
+		if (candidates.size() != this.distanceTable.size()) {
+			throw new IllegalArgumentException("candidate lists do not match the number of nodes");
+		}
+
+		this.candidates = candidates;
+	}
+
+	@Override
+	public String getName() {
+		return "Christofides";
+	}
+
+	@Override
+	protected int[] build(int start) {
+		int n = distanceTable.size();
+
+		if (n < 3) {
+			int[] order = new int[n];
+
+			for (int i = 0; i < n; i++) {
+				order[i] = (start + i) % n;
+			}
+
+			return order;
+		}
+
+		// the edges of the multigraph: the tree followed by the matching
+		int[] tails = new int[n - 1 + n / 2];
+		int[] heads = new int[tails.length];
+		int[] degree = new int[n];
+		int edges = spanningTree(tails, heads, degree);
+		edges = match(tails, heads, degree, edges);
+
+		return shortcut(eulerTour(tails, heads, edges, start), n);
+	}
+
+	/**
+	 * Computes a minimum spanning tree by Prim's algorithm.
+	 *
+	 * @param tails receives the first end point of each tree edge
+	 * @param heads receives the second end point of each tree edge
+	 * @param degree receives the degree of each node in the tree
+	 * @return the number of tree edges
+	 */
+	private int spanningTree(int[] tails, int[] heads, int[] degree) {
+		int n = distanceTable.size();
+		double[] keys = new double[n];
+		int[] parents = new int[n];
+		boolean[] inTree = new boolean[n];
+		Arrays.fill(keys, Double.POSITIVE_INFINITY);
+		keys[0] = 0.0;
+		parents[0] = -1;
+		int edges = 0;
+
+		for (int k = 0; k < n; k++) {
+			int u = -1;
+
+			for (int v = 0; v < n; v++) {
+				if (!inTree[v] && ((u < 0) || (keys[v] < keys[u]))) {
+					u = v;
+				}
+			}
+
+			inTree[u] = true;
+
+			if (parents[u] >= 0) {
+				tails[edges] = parents[u];
+				heads[edges] = u;
+				degree[u]++;
+				degree[parents[u]]++;
+				edges++;
+			}
+
+			for (int v = 0; v < n; v++) {
+				if (!inTree[v]) {
+					double distance = d(u, v);
+
+					if (distance < keys[v]) {
+						keys[v] = distance;
+						parents[v] = u;
+					}
+				}
+			}
+		}
+
+		return edges;
+	}
+
+	/**
+	 * Greedily matches the nodes of odd degree and appends the matching edges.
+	 *
+	 * @param tails the first end point of each edge
+	 * @param heads the second end point of each edge
+	 * @param degree the degree of each node in the tree
+	 * @param edges the number of edges
+	 * @return the new number of edges
+	 */
+	private int match(int[] tails, int[] heads, int[] degree, int edges) {
+		int n = degree.length;
+		boolean[] unmatched = new boolean[n];
+		int count = 0;
+
+		for (int i = 0; i < n; i++) {
+			unmatched[i] = (degree[i] % 2 == 1);
+		}
+
+		for (int i = 0; i < n; i++) {
+			if (unmatched[i]) {
+				for (int j : candidates.get(i)) {
+					if (unmatched[j] && (i < j)) {
+						count++;
+					}
+				}
+			}
+		}
+
+		// candidate edges between odd nodes, packed as in GreedyEdgeHeuristic
+		long[] keys = new long[count];
+		int[] candidateTails = new int[count];
+		int[] candidateHeads = new int[count];
+		count = 0;
+
+		for (int i = 0; i < n; i++) {
+			if (unmatched[i]) {
+				for (int j : candidates.get(i)) {
+					if (unmatched[j] && (i < j)) {
+						candidateTails[count] = i;
+						candidateHeads[count] = j;
+						keys[count] = Primitives.key(d(i, j), count);
+						count++;
+					}
+				}
+			}
+		}
+
+		Arrays.sort(keys);
+
+		for (long key : keys) {
+			int u = candidateTails[(int)key];
+			int v = candidateHeads[(int)key];
+
+			if (unmatched[u] && unmatched[v]) {
+				unmatched[u] = false;
+				unmatched[v] = false;
+				tails[edges] = u;
+				heads[edges] = v;
+				edges++;
+			}
+		}
+
+		// match the remaining odd nodes to their nearest unmatched node
+		int[] remaining = new int[n];
+		int size = 0;
+
+		for (int i = 0; i < n; i++) {
+			if (unmatched[i]) {
+				remaining[size++] = i;
+			}
+		}
+
+		while (size > 0) {
+			int u = remaining[--size];
+			int nearest = 0;
+
+			for (int k = 1; k < size; k++) {
+				if (d(u, remaining[k]) < d(u, remaining[nearest])) {
+					nearest = k;
+				}
+			}
+
+			tails[edges] = u;
+			heads[edges] = remaining[nearest];
+			edges++;
+			remaining[nearest] = remaining[--size];
+		}
+
+		return edges;
+	}
+
+	/**
+	 * Returns an Euler tour of a connected multigraph whose nodes all have
+	 * even degree, computed by Hierholzer's algorithm.
+	 *
+	 * @param tails the first end point of each edge
+	 * @param heads the second end point of each edge
+	 * @param edges the number of edges
+	 * @param start the identifier of the first node
+	 * @return the nodes of the closed walk in reverse order, ending at the
+	 *         first node
+	 */
+	private int[] eulerTour(int[] tails, int[] heads, int edges, int start) {
+		int n = distanceTable.size();
+		int[] offsets = new int[n + 1];
+
+		for (int e = 0; e < edges; e++) {
+			offsets[tails[e] + 1]++;
+			offsets[heads[e] + 1]++;
+		}
+
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		int[] incident = new int[2 * edges];
+		int[] pointers = Arrays.copyOf(offsets, n);
+
+		for (int e = 0; e < edges; e++) {
+			incident[pointers[tails[e]]++] = e;
+			incident[pointers[heads[e]]++] = e;
+		}
+
+		System.arraycopy(offsets, 0, pointers, 0, n);
+		boolean[] used = new boolean[edges];
+		int[] stack = new int[edges + 1];
+		int[] circuit = new int[edges + 1];
+		int top = 0;
+		int length = 0;
+		stack[top++] = start;
+
+		while (top > 0) {
+			int v = stack[top - 1];
+
+			while ((pointers[v] < offsets[v + 1]) && used[incident[pointers[v]]]) {
+				pointers[v]++;
+			}
+
+			if (pointers[v] < offsets[v + 1]) {
+				int e = incident[pointers[v]++];
+				used[e] = true;
+				stack[top++] = (tails[e] == v) ? heads[e] : tails[e];
+			} else {
+				circuit[length++] = stack[--top];
+			}
+		}
+
+		return circuit;
+	}
+
+	/**
+	 * Shortcuts a closed walk visiting every node into a tour.
+	 *
+	 * @param walk the nodes in reverse order of the walk
+	 * @param n the number of nodes
+	 * @return the nodes in the order they are first visited
+	 */
+	private static int[] shortcut(int[] walk, int n) {
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int count = 0;
+
+		for (int k = walk.length - 1; k >= 0; k--) {
+			if (!visited[walk[k]]) {
+				visited[walk[k]] = true;
+				order[count++] = walk[k];
+			}
+		}
+
+		return order;
+	}
+
+}
@@ -0,0 +1,178 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ConstructionHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Skeleton of a heuristic constructing a tour from scratch, e.g. as the
+ * starting tour of a local search or as an upper bound.  Nodes are identified
+ * by {@code 0, 1, ..., N-1}.
+ * <p>
+ * Heuristics keep no state between runs: all working memory is allocated by
+ * {@link #build(int)}, and the distance table is an immutable
+ * {@link FrozenDistanceTable}.  A single instance may therefore construct
+ * tours from several starting nodes concurrently, see
+ * {@link MultiStartConstruction}.
+ *
+ * @author Joris Kinable
+ */
+public abstract class ConstructionHeuristic {
+
+	/**
+	 * The distance table.
+	 */
+	protected final FrozenDistanceTable distanceTable;
+
+	/**
+	 * Constructs a heuristic for the given distance table.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 */
+	protected ConstructionHeuristic(DistanceTable distanceTable) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+	}
+
+	/**
+	 * Returns the name of this heuristic.
+	 *
+	 * @return the name of this heuristic
+	 */
+	public abstract String getName();
+
+	/**
+	 * Returns {@code true} if the tour depends on the starting node;
+	 * {@code false} if every starting node yields the same tour, in which case
+	 * {@link MultiStartConstruction} runs the heuristic only once.
+	 *
+	 * @return {@code true} if the tour depends on the starting node;
+	 *         {@code false} otherwise
+	 */
+	public boolean isStartDependent() {
+		return true;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return distanceTable.size();
+	}
+
+	/**
+	 * Constructs a tour.
+	 *
+	 * @param start the identifier of the starting node
+	 * @return the tour
+	 * @throws IllegalArgumentException if no node exists with the given
+	 *         identifier
+	 */
+	public TSPLibTour construct(int start) {
+		checkStart(start);
+		return TSPLibTour.createTour(build(start));
+	}
+
+	/**
+	 * Constructs a tour and returns the nodes in the order they are visited.
+	 * The starting node is valid, and the tour starts at the starting node if
+	 * the heuristic depends on it.
+	 *
+	 * @param start the identifier of the starting node
+	 * @return the nodes in the order they are visited
+	 */
+	protected abstract int[] build(int start);
+
+	/**
+	 * Throws an exception if the given starting node does not exist.  The
+	 * empty instance accepts any starting node.
+	 *
+	 * @param start the identifier of the starting node
+	 * @throws IllegalArgumentException if no node exists with the given
+	 *         identifier
+	 */
+	void checkStart(int start) {
+		int n = distanceTable.size();
+
+		if ((n > 0) && ((start < 0) || (start > n-1))) {
+			throw new IllegalArgumentException("no node with identifier " + start);
+		}
+	}
+
+	/**
+	 * Returns the nodes of a tour in the order they are visited, given the
+	 * successor of each node.
+	 *
+	 * @param successors the successor of each node
+	 * @param start the identifier of the first node
+	 * @return the nodes in the order they are visited
+	 */
+	static int[] toOrder(int[] successors, int start) {
+		int[] order = new int[successors.length];
+		int node = start;
+
+		for (int i = 0; i < order.length; i++) {
+			order[i] = node;
+			node = successors[node];
+		}
+
+		return order;
+	}
+
+	/**
+	 * Returns the length of a tour.
+	 *
+	 * @param order the nodes in the order they are visited
+	 * @return the length of the tour
+	 */
+	double length(int[] order) {
+		double length = 0.0;
+
+		for (int i = 0; i < order.length; i++) {
+			length += d(order[i], order[(i + 1 == order.length) ? 0 : i + 1]);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Returns the distance between two nodes.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the distance between the two nodes
+	 */
+	protected final double d(int id1, int id2) {
+		return distanceTable.getDistanceBetween(id1, id2);
+	}
+
+}
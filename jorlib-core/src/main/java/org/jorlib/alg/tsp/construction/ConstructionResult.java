@@ -0,0 +1,133 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ConstructionResult.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+/**
+ * The outcome of a single run of a {@link ConstructionHeuristic}: the tour,
+ * its length and the time needed to construct it.
+ *
+ * @author Joris Kinable
+ */
+public class ConstructionResult {
+
+	/**
+	 * The name of the heuristic.
+	 */
+	private final String heuristic;
+
+	/**
+	 * The identifier of the starting node.
+	 */
+	private final int start;
+
+	/**
+	 * The nodes in the order they are visited.
+	 */
+	private final int[] order;
+
+	/**
+	 * The length of the tour.
+	 */
+	private final double length;
+
+	/**
+	 * The time needed to construct the tour, in nanoseconds.
+	 */
+	private final long time;
+
+	/**
+	 * Constructs a new result.
+	 *
+	 * @param heuristic the name of the heuristic
+	 * @param start the identifier of the starting node
+	 * @param order the nodes in the order they are visited, which are not
+	 *        copied
+	 * @param length the length of the tour
+	 * @param time the time needed to construct the tour, in nanoseconds
+	 */
+	ConstructionResult(String heuristic, int start, int[] order, double length, long time) {
+		super();
+		this.heuristic = heuristic;
+		this.start = start;
+		this.order = order;
+		this.length = length;
+		this.time = time;
+	}
+
+	/**
+	 * Returns the name of the heuristic.
+	 *
+	 * @return the name of the heuristic
+	 */
+	public String getHeuristic() {
+		return heuristic;
+	}
+
+	/**
+	 * Returns the identifier of the starting node.
+	 *
+	 * @return the identifier of the starting node
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the tour.
+	 *
+	 * @return the tour
+	 */
+	public TSPLibTour getTour() {
+		return TSPLibTour.createTour(order);
+	}
+
+	/**
+	 * Returns the length of the tour.
+	 *
+	 * @return the length of the tour
+	 */
+	public double getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the time needed to construct the tour, in milliseconds.
+	 *
+	 * @return the time needed to construct the tour, in milliseconds
+	 */
+	public double getTime() {
+		return time / 1000000.0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s from %d: length %.1f in %.3f ms", heuristic, start, length, getTime());
+	}
+
+}
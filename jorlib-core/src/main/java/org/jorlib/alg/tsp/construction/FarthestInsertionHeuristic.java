@@ -0,0 +1,130 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * FarthestInsertionHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Farthest insertion heuristic: starting from a tour visiting only the given
+ * node, the unvisited node farthest away from the tour, i.e. whose distance
+ * to the nearest visited node is largest, is inserted at the position
+ * increasing the length of the tour the least, until all nodes are visited.
+ * Both steps scan all nodes, so the heuristic takes O(N^2) time.  The
+ * distances may be asymmetric, in which case the distance from a visited to
+ * an unvisited node is used for the selection.
+ *
+ * @author Joris Kinable
+ */
+public class FarthestInsertionHeuristic extends ConstructionHeuristic {
+
+	/**
+	 * Constructs a farthest insertion heuristic.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 */
+	public FarthestInsertionHeuristic(DistanceTable distanceTable) {
+		super(distanceTable);
+	}
+
+	@Override
+	public String getName() {
+		return "farthest insertion";
+	}
+
+	@Override
+	protected int[] build(int start) {
+		int n = distanceTable.size();
+		int[] successors = new int[n];
+
+		if (n == 0) {
+			return successors;
+		}
+
+		// the unvisited nodes are kept in the first positions of this array
+		int[] unvisited = new int[n - 1];
+		int remaining = 0;
+
+		// the distance from the tour to each unvisited node
+		double[] distances = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			if (i != start) {
+				unvisited[remaining++] = i;
+				distances[i] = d(start, i);
+			}
+		}
+
+		successors[start] = start;
+		int size = 1;
+
+		while (remaining > 0) {
+			int farthest = 0;
+
+			for (int k = 1; k < remaining; k++) {
+				if (distances[unvisited[k]] > distances[unvisited[farthest]]) {
+					farthest = k;
+				}
+			}
+
+			int x = unvisited[farthest];
+			unvisited[farthest] = unvisited[--remaining];
+
+			// find the edge (i, j) at which x is inserted most cheaply
+			int tail = start;
+
+			if (size > 1) {
+				double best = Double.POSITIVE_INFINITY;
+				int i = start;
+
+				do {
+					int j = successors[i];
+					double cost = d(i, x) + d(x, j) - d(i, j);
+
+					if (cost < best) {
+						tail = i;
+						best = cost;
+					}
+
+					i = j;
+				} while (i != start);
+			}
+
+			successors[x] = successors[tail];
+			successors[tail] = x;
+			size++;
+
+			for (int k = 0; k < remaining; k++) {
+				int y = unvisited[k];
+				distances[y] = Math.min(distances[y], d(x, y));
+			}
+		}
+
+		return toOrder(successors, start);
+	}
+
+}
@@ -0,0 +1,272 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * GreedyEdgeHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import java.util.Arrays;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.alg.util.Primitives;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Greedy edge heuristic for the symmetric TSP: the candidate edges are scanned
+ * by increasing length, and an edge is added to the tour if both end points
+ * have fewer than two tour edges and the edge does not close a cycle, which is
+ * tested with a union-find structure.  The resulting paths, or fragments, are
+ * then joined into a tour by repeatedly connecting the end of the current
+ * fragment to the nearest end point of a remaining fragment.
+ * <p>
+ * Only the edges of the candidate lists are sorted, which takes O(Nk log Nk)
+ * time.  The edges are sorted as packed primitive keys holding the length in
+ * single precision, so edges whose lengths differ by less than the precision
+ * of a {@code float} are scanned in an arbitrary but deterministic order.  The
+ * tour does not depend on the starting node.
+ *
+ * @author Joris Kinable
+ */
+public class GreedyEdgeHeuristic extends ConstructionHeuristic {
+
+	/**
+	 * The candidate neighbors of each node, ordered by increasing distance.
+	 */
+	private final CandidateLists candidates;
+
+	/**
+	 * Constructs a greedy edge heuristic using the 10 nearest neighbors of
+	 * every node as candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 */
+	public GreedyEdgeHeuristic(DistanceTable distanceTable) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, 10));
+	}
+
+	/**
+	 * Constructs a greedy edge heuristic using the given candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node, ordered by
+	 *        increasing distance
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public GreedyEdgeHeuristic(DistanceTable distanceTable, CandidateLists candidates) {
+		super(distanceTable);
+
+		if (candidates.size() != this.distanceTable.size()) {
+			throw new IllegalArgumentException("candidate lists do not match the number of nodes");
+		}
+
+		this.candidates = candidates;
+	}
+
+	@Override
+	public String getName() {
+		return "greedy edge";
+	}
+
+	@Override
+	public boolean isStartDependent() {
+		return false;
+	}
+
+	@Override
+	protected int[] build(int start) {
+		int n = distanceTable.size();
+		int[] adjacent = new int[2 * n];
+		int[] degree = new int[n];
+		Arrays.fill(adjacent, -1);
+
+		int count = 0;
+
+		for (int i = 0; i < n; i++) {
+			count += candidates.get(i).length;
+		}
+
+		int[] tails = new int[count];
+		int[] heads = new int[count];
+		long[] keys = sortedEdges(tails, heads);
+		int[] parent = distanceTable.listNodes();
+		int edges = 0;
+
+		for (int k = 0; (k < keys.length) && (edges < n - 1); k++) {
+			int index = (int)keys[k];
+			int u = tails[index];
+			int v = heads[index];
+
+			if ((degree[u] < 2) && (degree[v] < 2)) {
+				int ru = Primitives.find(parent, u);
+				int rv = Primitives.find(parent, v);
+
+				if (ru != rv) {
+					parent[ru] = rv;
+					adjacent[2 * u + degree[u]++] = v;
+					adjacent[2 * v + degree[v]++] = u;
+					edges++;
+				}
+			}
+		}
+
+		return join(adjacent, degree);
+	}
+
+	/**
+	 * Returns the candidate edges sorted by increasing length.  Each edge is
+	 * packed into a key holding its length in the upper and its index in the
+	 * lower 32 bits.  Edges listed by both end points occur twice.
+	 *
+	 * @param tails receives the first end point of each edge
+	 * @param heads receives the second end point of each edge
+	 * @return the sorted keys
+	 */
+	private long[] sortedEdges(int[] tails, int[] heads) {
+		int n = distanceTable.size();
+		long[] keys = new long[tails.length];
+		int count = 0;
+
+		for (int i = 0; i < n; i++) {
+			for (int j : candidates.get(i)) {
+				tails[count] = i;
+				heads[count] = j;
+				keys[count] = Primitives.key(d(i, j), count);
+				count++;
+			}
+		}
+
+		Arrays.parallelSort(keys);
+		return keys;
+	}
+
+	/**
+	 * Joins the fragments into a tour.  Starting from the end point with the
+	 * smallest identifier, each fragment is traversed to its other end, which
+	 * is connected to the nearest end point of a remaining fragment.  Isolated
+	 * nodes form fragments of their own.
+	 *
+	 * @param adjacent the up to two neighbors of each node in the fragments
+	 * @param degree the number of neighbors of each node
+	 * @return the nodes in the order they are visited
+	 */
+	private int[] join(int[] adjacent, int[] degree) {
+		int n = degree.length;
+		int[] order = new int[n];
+
+		// the end points of the remaining fragments
+		int[] ends = new int[n];
+		int[] position = new int[n];
+		int remaining = 0;
+		Arrays.fill(position, -1);
+
+		for (int i = 0; i < n; i++) {
+			if (degree[i] < 2) {
+				position[i] = remaining;
+				ends[remaining++] = i;
+			}
+		}
+
+		int count = 0;
+		int current = (remaining > 0) ? ends[0] : 0;
+
+		while (count < n) {
+			// traverse the fragment starting at the current end point
+			int previous = -1;
+			int node = current;
+			remaining = removeEnd(ends, position, remaining, node);
+
+			while (true) {
+				order[count++] = node;
+				int next = adjacent[2 * node];
+
+				if ((next == previous) || (next < 0)) {
+					next = adjacent[2 * node + 1];
+				}
+
+				if ((next < 0) || (next == previous)) {
+					break;
+				}
+
+				previous = node;
+				node = next;
+			}
+
+			remaining = removeEnd(ends, position, remaining, node);
+
+			if (count == n) {
+				break;
+			}
+
+			// connect to the nearest remaining end point
+			current = -1;
+
+			for (int candidate : candidates.get(node)) {
+				if (position[candidate] >= 0) {
+					current = candidate;
+					break;
+				}
+			}
+
+			if (current < 0) {
+				double best = Double.POSITIVE_INFINITY;
+
+				for (int k = 0; k < remaining; k++) {
+					double distance = d(node, ends[k]);
+
+					if ((current < 0) || (distance < best)) {
+						current = ends[k];
+						best = distance;
+					}
+				}
+			}
+		}
+
+		return order;
+	}
+
+	/**
+	 * Removes an end point from the remaining end points, if present.
+	 *
+	 * @param ends the remaining end points
+	 * @param position the position of each remaining end point, or {@code -1}
+	 * @param remaining the number of remaining end points
+	 * @param id the identifier of the end point
+	 * @return the new number of remaining end points
+	 */
+	private static int removeEnd(int[] ends, int[] position, int remaining, int id) {
+		if (position[id] < 0) {
+			return remaining;
+		}
+
+		int last = ends[--remaining];
+		ends[position[id]] = last;
+		position[last] = position[id];
+		position[id] = -1;
+		return remaining;
+	}
+
+}
@@ -0,0 +1,227 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * HilbertCurve.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.distanceFunctions.GeographicalDistance;
+import org.jorlib.io.tspLibReader.graph.Node;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+
+/**
+ * Orders planar points along a Hilbert curve.  The points are scaled to a
+ * grid of 2<sup>16</sup> by 2<sup>16</sup> cells covering their bounding
+ * square, the position of each cell along the curve is packed together with
+ * the point into a primitive {@code long} key, and the keys are sorted in
+ * parallel.  Ordering N points therefore takes O(N log N) time and O(N)
+ * memory, and never evaluates a distance.
+ * <p>
+ * Since points which are close along the curve are close in the plane, the
+ * order serves both as a tour and as a locality-preserving renumbering of the
+ * nodes.  Node coordinates of instances with edge weight type
+ * {@code EUC_2D}, {@code CEIL_2D}, {@code ATT}, {@code MAN_2D} and
+ * {@code MAX_2D} are used as they are.  Coordinates of {@code GEO} instances,
+ * given as latitude and longitude in the TSPLIB {@code DDD.MM} format, are
+ * first mapped by an equirectangular projection centered at the mean latitude.
+ *
+ * @author Joris Kinable
+ */
+public final class HilbertCurve {
+
+	/**
+	 * The number of bits of each quantized coordinate.
+	 */
+	public static final int BITS = 16;
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private HilbertCurve() {
+		super();
+	}
+
+	/**
+	 * Returns the nodes ordered along the Hilbert curve.
+	 *
+	 * @param coordinates the two-dimensional node coordinates, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @return the nodes ordered along the curve
+	 * @throws IllegalArgumentException if a node does not have exactly two
+	 *         coordinates
+	 */
+	public static int[] order(NodeCoordinates coordinates) {
+		int n = coordinates.size();
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			Node node = coordinates.get(i);
+
+			if ((node == null) || (node.getPosition().length != 2)) {
+				throw new IllegalArgumentException("node " + i + " does not have two coordinates");
+			}
+
+			xs[i] = node.getPosition()[0];
+			ys[i] = node.getPosition()[1];
+		}
+
+		if (coordinates.getDistanceFunction() instanceof GeographicalDistance) {
+			project(xs, ys);
+		}
+
+		return order(xs, ys);
+	}
+
+	/**
+	 * Returns a tour visiting the nodes in the order of the Hilbert curve.
+	 *
+	 * @param coordinates the two-dimensional node coordinates, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @return the tour
+	 * @throws IllegalArgumentException if a node does not have exactly two
+	 *         coordinates
+	 */
+	public static TSPLibTour tour(NodeCoordinates coordinates) {
+		return TSPLibTour.createTour(order(coordinates));
+	}
+
+	/**
+	 * Returns the points ordered along the Hilbert curve.
+	 *
+	 * @param xs the first coordinate of each point
+	 * @param ys the second coordinate of each point
+	 * @return the indices of the points ordered along the curve
+	 * @throws IllegalArgumentException if the arrays differ in length
+	 */
+	public static int[] order(final double[] xs, final double[] ys) {
+		final int n = xs.length;
+
+		if (ys.length != n) {
+			throw new IllegalArgumentException("coordinate arrays differ in length");
+		}
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+
+		// scale both axes alike to preserve the shape of the instance
+		final double originX = minX;
+		final double originY = minY;
+		double range = Math.max(maxX - minX, maxY - minY);
+		final double scale = (range > 0) ? ((1 << BITS) - 1) / range : 0.0;
+		final long[] keys = new long[n];
+
+		// indices take 2 * BITS = 32 bits, leaving 31 bits for the point
+		IntStream.range(0, n).parallel().forEach(i -> {
+			int x = (int)((xs[i] - originX) * scale);
+			int y = (int)((ys[i] - originY) * scale);
+			keys[i] = (index(x, y) << 31) | i;
+		});
+
+		Arrays.parallelSort(keys);
+		int[] order = new int[n];
+
+		for (int i = 0; i < n; i++) {
+			order[i] = (int)(keys[i] & Integer.MAX_VALUE);
+		}
+
+		return order;
+	}
+
+	/**
+	 * Returns the position of a grid cell along the Hilbert curve covering
+	 * the grid of 2<sup>{@link #BITS}</sup> by 2<sup>{@link #BITS}</sup>
+	 * cells.
+	 *
+	 * @param x the column of the cell
+	 * @param y the row of the cell
+	 * @return the position of the cell along the curve
+	 */
+	public static long index(int x, int y) {
+		int side = 1 << BITS;
+		long index = 0;
+
+		for (int s = side >>> 1; s > 0; s >>>= 1) {
+			int rx = ((x & s) != 0) ? 1 : 0;
+			int ry = ((y & s) != 0) ? 1 : 0;
+			index += (long)s * s * ((3 * rx) ^ ry);
+
+			// rotate the quadrant so that the curve enters at its origin
+			if (ry == 0) {
+				if (rx == 1) {
+					x = side - 1 - x;
+					y = side - 1 - y;
+				}
+
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Replaces geographical coordinates by their equirectangular projection.
+	 * Latitudes and longitudes are converted to radians as in
+	 * {@link GeographicalDistance}; longitudes are scaled by the cosine of the
+	 * mean latitude, so that distances near the mean latitude are preserved.
+	 *
+	 * @param latitudes the latitude of each point, replaced by the first
+	 *        projected coordinate
+	 * @param longitudes the longitude of each point, replaced by the second
+	 *        projected coordinate
+	 */
+	private static void project(double[] latitudes, double[] longitudes) {
+		int n = latitudes.length;
+		double mean = 0.0;
+
+		for (int i = 0; i < n; i++) {
+			latitudes[i] = GeographicalDistance.toGeographical(latitudes[i]);
+			longitudes[i] = GeographicalDistance.toGeographical(longitudes[i]);
+			mean += latitudes[i] / n;
+		}
+
+		double factor = Math.cos(mean);
+
+		for (int i = 0; i < n; i++) {
+			longitudes[i] *= factor;
+		}
+	}
+
+}
@@ -0,0 +1,224 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * MultiStartConstruction.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+/**
+ * Runs a set of {@link ConstructionHeuristic construction heuristics} from a
+ * set of starting nodes in parallel and returns the shortest tour.  Every run
+ * is timed, so the results can be used to pick the fastest heuristic whose
+ * tours are good enough.  Heuristics which do not depend on the starting node
+ * run only once.
+ * <p>
+ * The heuristics only read their immutable distance tables, so the runs share
+ * them without copies or locks.  Heuristics sharing one table should be
+ * created from the same {@link org.jorlib.io.tspLibReader.graph.FrozenDistanceTable}
+ * to avoid storing it several times.
+ *
+ * @author Joris Kinable
+ */
+public class MultiStartConstruction {
+
+	/**
+	 * The heuristics.
+	 */
+	private final List<ConstructionHeuristic> heuristics;
+
+	/**
+	 * The starting nodes.
+	 */
+	private int[] starts = {0};
+
+	/**
+	 * The results of the last run.
+	 */
+	private List<ConstructionResult> results = Collections.emptyList();
+
+	/**
+	 * The shortest tour of the last run, or {@code null} if none.
+	 */
+	private ConstructionResult best;
+
+	/**
+	 * Constructs an empty multi-start construction.
+	 */
+	public MultiStartConstruction() {
+		super();
+		heuristics = new ArrayList<ConstructionHeuristic>();
+	}
+
+	/**
+	 * Adds a heuristic.
+	 *
+	 * @param heuristic the heuristic
+	 * @throws IllegalArgumentException if the heuristic is defined on a
+	 *         different number of nodes than the heuristics added before
+	 */
+	public void addHeuristic(ConstructionHeuristic heuristic) {
+		if (!heuristics.isEmpty() && (heuristics.get(0).size() != heuristic.size())) {
+			throw new IllegalArgumentException("heuristics must be defined on the same number of nodes");
+		}
+
+		heuristics.add(heuristic);
+	}
+
+	/**
+	 * Sets the starting nodes.  By default, every heuristic starts at node
+	 * {@code 0} only.
+	 *
+	 * @param starts the identifiers of the starting nodes
+	 * @throws IllegalArgumentException if no starting node is given
+	 */
+	public void setStarts(int... starts) {
+		if (starts.length == 0) {
+			throw new IllegalArgumentException("at least one starting node is required");
+		}
+
+		this.starts = starts.clone();
+	}
+
+	/**
+	 * Sets distinct starting nodes drawn uniformly at random.
+	 *
+	 * @param count the number of starting nodes, which is reduced to the
+	 *        number of nodes if larger
+	 * @param seed the seed of the random number generator
+	 * @throws IllegalArgumentException if no heuristic was added or if
+	 *         {@code count} is not positive
+	 */
+	public void setRandomStarts(int count, long seed) {
+		if (heuristics.isEmpty()) {
+			throw new IllegalArgumentException("the heuristics must be added first");
+		}
+
+		if (count < 1) {
+			throw new IllegalArgumentException("at least one starting node is required");
+		}
+
+		int n = heuristics.get(0).size();
+		int[] nodes = new int[n];
+		SplittableRandom random = new SplittableRandom(seed);
+
+		for (int i = 0; i < n; i++) {
+			nodes[i] = i;
+		}
+
+		// partial Fisher-Yates shuffle
+		count = Math.max(1, Math.min(count, n));
+
+		for (int i = 0; i < Math.min(count, n - 1); i++) {
+			int j = i + random.nextInt(n - i);
+			int t = nodes[i];
+			nodes[i] = nodes[j];
+			nodes[j] = t;
+		}
+
+		starts = Arrays.copyOf(nodes, count);
+	}
+
+	/**
+	 * Runs every heuristic from every starting node in parallel and returns
+	 * the shortest tour.  Ties are broken in favour of the heuristic added
+	 * first and the starting node given first.
+	 *
+	 * @return the shortest tour
+	 * @throws IllegalStateException if no heuristic was added
+	 * @throws IllegalArgumentException if a starting node does not exist
+	 */
+	public TSPLibTour solve() {
+		if (heuristics.isEmpty()) {
+			throw new IllegalStateException("no heuristic was added");
+		}
+
+		// the runs, each identified by a heuristic and a starting node
+		final List<ConstructionHeuristic> runHeuristics = new ArrayList<ConstructionHeuristic>();
+		final List<Integer> runStarts = new ArrayList<Integer>();
+
+		for (ConstructionHeuristic heuristic : heuristics) {
+			for (int start : starts) {
+				heuristic.checkStart(start);
+				runHeuristics.add(heuristic);
+				runStarts.add(start);
+
+				if (!heuristic.isStartDependent()) {
+					break;
+				}
+			}
+		}
+
+		final ConstructionResult[] runs = new ConstructionResult[runHeuristics.size()];
+
+		IntStream.range(0, runs.length).parallel().forEach(k -> {
+			ConstructionHeuristic heuristic = runHeuristics.get(k);
+			int start = runStarts.get(k);
+			long begin = System.nanoTime();
+			int[] order = heuristic.build(start);
+			long time = System.nanoTime() - begin;
+			runs[k] = new ConstructionResult(heuristic.getName(), start, order, heuristic.length(order), time);
+		});
+
+		results = Collections.unmodifiableList(Arrays.asList(runs));
+		best = runs[0];
+
+		for (ConstructionResult result : runs) {
+			if (result.getLength() < best.getLength()) {
+				best = result;
+			}
+		}
+
+		return best.getTour();
+	}
+
+	/**
+	 * Returns the results of the last run, ordered by heuristic and starting
+	 * node.
+	 *
+	 * @return the results of the last run
+	 */
+	public List<ConstructionResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * Returns the result of the last run with the shortest tour, or
+	 * {@code null} if {@link #solve()} was not called.
+	 *
+	 * @return the result with the shortest tour, or {@code null}
+	 */
+	public ConstructionResult getBestResult() {
+		return best;
+	}
+
+}
@@ -0,0 +1,142 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * NearestNeighborHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Nearest neighbor heuristic: starting from the given node, the tour proceeds
+ * to the nearest unvisited node until all nodes are visited.  The candidate
+ * list of the current node is scanned first; only if all candidates were
+ * visited are all unvisited nodes scanned.  If the candidates are the nearest
+ * neighbors of each node, the tour is therefore identical to the exact nearest
+ * neighbor tour, while most steps take O(k) instead of O(N) time.  The
+ * distances may be asymmetric.
+ *
+ * @author Joris Kinable
+ */
+public class NearestNeighborHeuristic extends ConstructionHeuristic {
+
+	/**
+	 * The candidate neighbors of each node, ordered by increasing distance.
+	 */
+	private final CandidateLists candidates;
+
+	/**
+	 * Constructs a nearest neighbor heuristic using the 10 nearest neighbors of
+	 * every node as candidates.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 */
+	public NearestNeighborHeuristic(DistanceTable distanceTable) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, 10));
+	}
+
+	/**
+	 * Constructs a nearest neighbor heuristic using the given candidates.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node, ordered by
+	 *        increasing distance
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public NearestNeighborHeuristic(DistanceTable distanceTable, CandidateLists candidates) {
+		super(distanceTable);
+
+		if (candidates.size() != this.distanceTable.size()) {
+			throw new IllegalArgumentException("candidate lists do not match the number of nodes");
+		}
+
+		this.candidates = candidates;
+	}
+
+	@Override
+	public String getName() {
+		return "nearest neighbor";
+	}
+
+	@Override
+	protected int[] build(int start) {
+		int n = distanceTable.size();
+		int[] order = new int[n];
+
+		if (n == 0) {
+			return order;
+		}
+
+		// unvisited nodes are kept in the first positions of this array
+		int[] unvisited = distanceTable.listNodes();
+		int[] index = distanceTable.listNodes();
+		int remaining = n;
+		int current = start;
+
+		for (int i = 0; i < n; i++) {
+			order[i] = current;
+
+			// remove the current node from the unvisited nodes
+			int last = unvisited[--remaining];
+			unvisited[index[current]] = last;
+			index[last] = index[current];
+			index[current] = -1;
+
+			if (remaining == 0) {
+				break;
+			}
+
+			int next = -1;
+
+			for (int candidate : candidates.get(current)) {
+				if (index[candidate] >= 0) {
+					next = candidate;
+					break;
+				}
+			}
+
+			if (next < 0) {
+				double best = Double.POSITIVE_INFINITY;
+
+				for (int k = 0; k < remaining; k++) {
+					double distance = d(current, unvisited[k]);
+
+					if ((next < 0) || (distance < best)) {
+						next = unvisited[k];
+						best = distance;
+					}
+				}
+			}
+
+			current = next;
+		}
+
+		return order;
+	}
+
+}
@@ -0,0 +1,78 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * SpaceFillingCurveHeuristic.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+
+/**
+ * Space-filling curve heuristic for planar instances: the nodes are visited in
+ * the order in which a {@link HilbertCurve} passes them.  The order is
+ * computed once, in O(N log N) time and without evaluating a distance, when
+ * the heuristic is constructed; this makes the heuristic suitable as a
+ * near-instant starting tour for local search on instances with millions of
+ * nodes.  Its tours are typically 25 to 40% longer than optimal.  The tour
+ * does not depend on the starting node.
+ *
+ * @author Joris Kinable
+ */
+public class SpaceFillingCurveHeuristic extends ConstructionHeuristic {
+
+	/**
+	 * The nodes ordered along the Hilbert curve.
+	 */
+	private final int[] order;
+
+	/**
+	 * Constructs a space-filling curve heuristic.
+	 *
+	 * @param coordinates the two-dimensional node coordinates, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}; see {@link HilbertCurve} for
+	 *        the supported edge weight types
+	 * @throws IllegalArgumentException if a node does not have exactly two
+	 *         coordinates
+	 */
+	public SpaceFillingCurveHeuristic(NodeCoordinates coordinates) {
+		super(coordinates);
+		order = HilbertCurve.order(coordinates);
+	}
+
+	@Override
+	public String getName() {
+		return "space-filling curve";
+	}
+
+	@Override
+	public boolean isStartDependent() {
+		return false;
+	}
+
+	@Override
+	protected int[] build(int start) {
+		return order.clone();
+	}
+
+}
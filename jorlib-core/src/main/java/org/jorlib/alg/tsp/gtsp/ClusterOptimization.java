@@ -0,0 +1,398 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ClusterOptimization.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.gtsp;
+
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Local search for the generalized traveling salesman problem which alternates
+ * between the choice of nodes and the order of the clusters.
+ * <p>
+ * For a fixed cluster order, {@link #optimize(int[])} chooses the best node of
+ * every cluster by a shortest path through the layered graph whose layers are
+ * the clusters in their order.  The cycle is cut at the smallest cluster, and
+ * one shortest path is computed from each of its nodes back to itself, which
+ * takes O(|C<sub>min</sub>| &middot; &Sigma; |C<sub>i</sub>| |C<sub>i+1</sub>|)
+ * time using two rows of path lengths and one array of predecessors.
+ * <p>
+ * {@link #improve(GTSPSolution)} repeats this after 2-opt over the cluster
+ * sequence, which reverses segments of the tour through the chosen nodes,
+ * until neither step shortens the tour.  A move is evaluated in constant time
+ * from the prefix sums of the forward and backward lengths of the tour, so
+ * asymmetric instances are handled exactly.
+ *
+ * @author Joris Kinable
+ */
+public class ClusterOptimization {
+
+	/**
+	 * The minimum improvement of a move, which guards against cycling on
+	 * rounding errors.
+	 */
+	private static final double EPSILON = 1e-9;
+
+	/**
+	 * The evaluator holding the clusters and distances.
+	 */
+	private final GTSPEvaluator evaluator;
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The nodes of each cluster.
+	 */
+	private final int[][] clusters;
+
+	/**
+	 * The lengths of the shortest paths to the nodes of the previous layer.
+	 */
+	private final double[] previous;
+
+	/**
+	 * The lengths of the shortest paths to the nodes of the current layer.
+	 */
+	private final double[] current;
+
+	/**
+	 * The position in the previous layer of the predecessor of every node on
+	 * its shortest path, stored layer after layer.
+	 */
+	private final int[] predecessors;
+
+	/**
+	 * Constructs the local search.
+	 *
+	 * @param evaluator the evaluator holding the clusters and distances
+	 */
+	public ClusterOptimization(GTSPEvaluator evaluator) {
+		super();
+		this.evaluator = evaluator;
+		this.distanceTable = evaluator.getDistanceTable();
+		this.clusters = evaluator.clusters();
+		int largest = 0;
+
+		for (int[] cluster : clusters) {
+			largest = Math.max(largest, cluster.length);
+		}
+
+		previous = new double[largest];
+		current = new double[largest];
+		predecessors = new int[distanceTable.size()];
+	}
+
+	/**
+	 * Returns the best choice of nodes for a cluster order.
+	 *
+	 * @param clusterOrder the clusters in the order they are visited
+	 * @return the solution visiting the clusters in the given order with the
+	 *         shortest length
+	 * @throws IllegalArgumentException if the order does not contain every
+	 *         cluster once
+	 */
+	public GTSPSolution optimize(int[] clusterOrder) {
+		int m = clusters.length;
+		checkOrder(clusterOrder);
+
+		// cut the cycle at the smallest cluster
+		int first = 0;
+
+		for (int i = 1; i < m; i++) {
+			if (clusters[clusterOrder[i]].length < clusters[clusterOrder[first]].length) {
+				first = i;
+			}
+		}
+
+		int[] order = new int[m];
+
+		for (int i = 0; i < m; i++) {
+			order[i] = clusterOrder[(first + i) % m];
+		}
+
+		int[] start = clusters[order[0]];
+		int best = 0;
+		double length = Double.POSITIVE_INFINITY;
+
+		for (int s = 0; s < start.length; s++) {
+			double candidate = shortestCycle(order, start[s]);
+
+			if (candidate < length) {
+				length = candidate;
+				best = s;
+			}
+		}
+
+		// recompute the best cycle and follow its predecessors
+		int[] nodes = new int[m];
+		nodes[0] = start[best];
+
+		if (m > 1) {
+			shortestCycle(order, nodes[0]);
+			int[] last = clusters[order[m-1]];
+			int position = closing(last, nodes[0]);
+			int offset = distanceTable.size() - start.length - last.length;
+
+			for (int i = m - 1; i > 0; i--) {
+				int[] layer = clusters[order[i]];
+				nodes[i] = layer[position];
+				position = predecessors[offset + position];
+				offset -= clusters[order[i-1]].length;
+			}
+		}
+
+		return new GTSPSolution(order, nodes, evaluator.length(nodes));
+	}
+
+	/**
+	 * Returns the length of the shortest cycle through the clusters in their
+	 * order which visits a given node of the first cluster, storing the
+	 * predecessors and the path lengths to the last layer in
+	 * {@link #previous}.
+	 *
+	 * @param order the clusters in the order they are visited
+	 * @param source the node of the first cluster
+	 * @return the length of the shortest cycle
+	 */
+	private double shortestCycle(int[] order, int source) {
+		int m = order.length;
+
+		if (m == 1) {
+			return distanceTable.getDistanceBetween(source, source);
+		}
+
+		int[] layer = clusters[order[1]];
+
+		for (int v = 0; v < layer.length; v++) {
+			previous[v] = distanceTable.getDistanceBetween(source, layer[v]);
+			predecessors[v] = 0;
+		}
+
+		int offset = layer.length;
+
+		for (int i = 2; i < m; i++) {
+			int[] from = layer;
+			layer = clusters[order[i]];
+
+			for (int v = 0; v < layer.length; v++) {
+				double shortest = Double.POSITIVE_INFINITY;
+				int predecessor = 0;
+
+				for (int u = 0; u < from.length; u++) {
+					double length = previous[u] + distanceTable.getDistanceBetween(from[u], layer[v]);
+
+					if (length < shortest) {
+						shortest = length;
+						predecessor = u;
+					}
+				}
+
+				current[v] = shortest;
+				predecessors[offset + v] = predecessor;
+			}
+
+			System.arraycopy(current, 0, previous, 0, layer.length);
+			offset += layer.length;
+		}
+
+		int position = closing(layer, source);
+		return previous[position] + distanceTable.getDistanceBetween(layer[position], source);
+	}
+
+	/**
+	 * Returns the position in the last layer of the node which closes the
+	 * shortest cycle back to the source, given the path lengths in
+	 * {@link #previous}.
+	 *
+	 * @param layer the nodes of the last layer
+	 * @param source the node of the first cluster
+	 * @return the position of the closing node in the last layer
+	 */
+	private int closing(int[] layer, int source) {
+		int position = 0;
+		double shortest = Double.POSITIVE_INFINITY;
+
+		for (int u = 0; u < layer.length; u++) {
+			double length = previous[u] + distanceTable.getDistanceBetween(layer[u], source);
+
+			if (length < shortest) {
+				shortest = length;
+				position = u;
+			}
+		}
+
+		return position;
+	}
+
+	/**
+	 * Checks that an order contains every cluster once.
+	 *
+	 * @param clusterOrder the clusters in the order they are visited
+	 * @throws IllegalArgumentException if the order does not contain every
+	 *         cluster once
+	 */
+	private void checkOrder(int[] clusterOrder) {
+		boolean[] seen = new boolean[clusters.length];
+
+		if (clusterOrder.length != clusters.length) {
+			throw new IllegalArgumentException("order must contain every cluster once");
+		}
+
+		for (int k : clusterOrder) {
+			if ((k < 0) || (k > clusters.length-1) || seen[k]) {
+				throw new IllegalArgumentException("order must contain every cluster once");
+			}
+
+			seen[k] = true;
+		}
+	}
+
+	/**
+	 * Returns a local optimum found from the clusters in their natural order.
+	 *
+	 * @return the local optimum
+	 */
+	public GTSPSolution solve() {
+		int[] order = new int[clusters.length];
+
+		for (int k = 0; k < order.length; k++) {
+			order[k] = k;
+		}
+
+		return solve(order);
+	}
+
+	/**
+	 * Returns a local optimum found from a cluster order.
+	 *
+	 * @param clusterOrder the clusters in the order they are visited
+	 * @return the local optimum
+	 * @throws IllegalArgumentException if the order does not contain every
+	 *         cluster once
+	 */
+	public GTSPSolution solve(int[] clusterOrder) {
+		return improve(optimize(clusterOrder));
+	}
+
+	/**
+	 * Improves a solution by alternating 2-opt over the cluster sequence with
+	 * the optimization of the chosen nodes, until neither shortens the tour.
+	 *
+	 * @param solution the solution
+	 * @return the improved solution, which is never longer than the given one
+	 */
+	public GTSPSolution improve(GTSPSolution solution) {
+		GTSPSolution best = solution;
+
+		while (true) {
+			int[] nodes = best.getNodes();
+
+			if (!twoOpt(nodes)) {
+				return best;
+			}
+
+			GTSPSolution candidate = evaluator.evaluate(nodes);
+			candidate = optimize(candidate.getClusterOrder());
+
+			if (candidate.getLength() > best.getLength() - EPSILON) {
+				return best;
+			}
+
+			best = candidate;
+		}
+	}
+
+	/**
+	 * Applies improving 2-opt moves to a tour until none remains, choosing
+	 * the best move in every pass.
+	 *
+	 * @param nodes the nodes in the order they are visited, which are
+	 *        reordered
+	 * @return {@code true} if the tour was shortened; {@code false} otherwise
+	 */
+	private boolean twoOpt(int[] nodes) {
+		int m = nodes.length;
+
+		if (m < 4) {
+			return false;
+		}
+
+		// forward[k] and backward[k] are the lengths of the path through the
+		// first k + 1 nodes traversed forward and backward
+		double[] forward = new double[m];
+		double[] backward = new double[m];
+		boolean improved = false;
+
+		while (true) {
+			for (int k = 1; k < m; k++) {
+				forward[k] = forward[k-1] + distanceTable.getDistanceBetween(nodes[k-1], nodes[k]);
+				backward[k] = backward[k-1] + distanceTable.getDistanceBetween(nodes[k], nodes[k-1]);
+			}
+
+			double bestDelta = -EPSILON;
+			int bestI = -1;
+			int bestJ = -1;
+
+			// reverse the segment nodes[i+1..j]
+			for (int i = 0; i < m - 2; i++) {
+				int a = nodes[i];
+				int b = nodes[i+1];
+
+				for (int j = i + 2; j < m; j++) {
+					int c = nodes[j];
+					int d = nodes[(j + 1) % m];
+					double delta = distanceTable.getDistanceBetween(a, c)
+							+ (backward[j] - backward[i+1])
+							+ distanceTable.getDistanceBetween(b, d)
+							- distanceTable.getDistanceBetween(a, b)
+							- (forward[j] - forward[i+1])
+							- distanceTable.getDistanceBetween(c, d);
+
+					if (delta < bestDelta) {
+						bestDelta = delta;
+						bestI = i;
+						bestJ = j;
+					}
+				}
+			}
+
+			if (bestI < 0) {
+				return improved;
+			}
+
+			for (int i = bestI + 1, j = bestJ; i < j; i++, j--) {
+				int t = nodes[i];
+				nodes[i] = nodes[j];
+				nodes[j] = t;
+			}
+
+			improved = true;
+		}
+	}
+
+}
@@ -0,0 +1,252 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * GTSPEvaluator.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.gtsp;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jorlib.io.tspLibReader.GTSPLibInstance;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * The clusters and distances of a generalized traveling salesman problem,
+ * stored in primitive arrays, together with the evaluation of tours.  A
+ * tour of a GTSP instance visits exactly one node of each cluster.  Nodes are
+ * identified by {@code 0, 1, ..., N-1} and clusters by
+ * {@code 0, 1, ..., M-1}; the identifiers of {@link GTSPLibInstance}, which
+ * start at {@code 1}, are converted on construction.  Distances may be
+ * asymmetric, in which case tours are traversed in the given order.
+ *
+ * @author Joris Kinable
+ */
+public class GTSPEvaluator {
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The nodes of each cluster.
+	 */
+	private final int[][] clusters;
+
+	/**
+	 * The cluster of each node.
+	 */
+	private final int[] clusterOf;
+
+	/**
+	 * Constructs an evaluator for a GTSP instance.
+	 *
+	 * @param instance the GTSP instance
+	 * @throws IllegalArgumentException if the clusters do not partition the
+	 *         nodes
+	 */
+	public GTSPEvaluator(GTSPLibInstance instance) {
+		this(instance.getDistanceTable(), toClusters(instance.getClusters()));
+	}
+
+	/**
+	 * Constructs an evaluator from the distances and the clusters.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param clusters the nodes of each cluster, which are copied
+	 * @throws IllegalArgumentException if the clusters do not partition the
+	 *         nodes
+	 */
+	public GTSPEvaluator(DistanceTable distanceTable, int[][] clusters) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+		int n = this.distanceTable.size();
+		this.clusters = new int[clusters.length][];
+		this.clusterOf = new int[n];
+		Arrays.fill(clusterOf, -1);
+		int count = 0;
+
+		for (int k = 0; k < clusters.length; k++) {
+			if (clusters[k].length == 0) {
+				throw new IllegalArgumentException("cluster " + k + " is empty");
+			}
+
+			this.clusters[k] = clusters[k].clone();
+
+			for (int id : clusters[k]) {
+				if ((id < 0) || (id > n-1) || (clusterOf[id] >= 0)) {
+					throw new IllegalArgumentException("clusters must contain every node once");
+				}
+
+				clusterOf[id] = k;
+				count++;
+			}
+		}
+
+		if (count != n) {
+			throw new IllegalArgumentException("clusters must contain every node once");
+		}
+	}
+
+	/**
+	 * Converts the clusters of a {@link GTSPLibInstance} to arrays of node
+	 * identifiers starting at {@code 0}.
+	 *
+	 * @param clusters the clusters, whose node identifiers start at {@code 1}
+	 * @return the clusters
+	 */
+	private static int[][] toClusters(List<Integer>[] clusters) {
+		int[][] result = new int[clusters.length][];
+
+		for (int k = 0; k < clusters.length; k++) {
+			result[k] = new int[clusters[k].size()];
+
+			for (int i = 0; i < result[k].length; i++) {
+				result[k][i] = clusters[k].get(i) - 1;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the distance table.
+	 *
+	 * @return the distance table
+	 */
+	public FrozenDistanceTable getDistanceTable() {
+		return distanceTable;
+	}
+
+	/**
+	 * Returns the number of clusters.
+	 *
+	 * @return the number of clusters
+	 */
+	public int getClusterCount() {
+		return clusters.length;
+	}
+
+	/**
+	 * Returns the nodes of a cluster.
+	 *
+	 * @param k the cluster
+	 * @return a copy of the nodes of the cluster
+	 */
+	public int[] getCluster(int k) {
+		return clusters[k].clone();
+	}
+
+	/**
+	 * Returns the cluster of a node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the cluster of the node
+	 */
+	public int getClusterOf(int id) {
+		return clusterOf[id];
+	}
+
+	/**
+	 * Returns the nodes of all clusters, without copying them.
+	 *
+	 * @return the nodes of each cluster
+	 */
+	int[][] clusters() {
+		return clusters;
+	}
+
+	/**
+	 * Returns the cluster of every node, without copying it.
+	 *
+	 * @return the cluster of every node
+	 */
+	int[] clusterOf() {
+		return clusterOf;
+	}
+
+	/**
+	 * Returns the length of a tour, including the edge from its last node
+	 * back to its first node.
+	 *
+	 * @param nodes the nodes in the order they are visited
+	 * @return the length of the tour
+	 */
+	public double length(int[] nodes) {
+		return distanceTable.length(nodes, 0, nodes.length);
+	}
+
+	/**
+	 * Returns {@code true} if a tour visits exactly one node of each cluster;
+	 * {@code false} otherwise.
+	 *
+	 * @param nodes the nodes in the order they are visited
+	 * @return {@code true} if the tour visits exactly one node of each
+	 *         cluster; {@code false} otherwise
+	 */
+	public boolean isFeasible(int[] nodes) {
+		if (nodes.length != clusters.length) {
+			return false;
+		}
+
+		boolean[] visited = new boolean[clusters.length];
+
+		for (int id : nodes) {
+			if ((id < 0) || (id > clusterOf.length-1) || visited[clusterOf[id]]) {
+				return false;
+			}
+
+			visited[clusterOf[id]] = true;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Evaluates a tour.
+	 *
+	 * @param nodes the nodes in the order they are visited, one in each
+	 *        cluster
+	 * @return the solution formed by the tour
+	 * @throws IllegalArgumentException if the tour does not visit exactly one
+	 *         node of each cluster
+	 */
+	public GTSPSolution evaluate(int[] nodes) {
+		if (!isFeasible(nodes)) {
+			throw new IllegalArgumentException("tour does not visit every cluster once");
+		}
+
+		int[] order = new int[nodes.length];
+
+		for (int i = 0; i < nodes.length; i++) {
+			order[i] = clusterOf[nodes[i]];
+		}
+
+		return new GTSPSolution(order, nodes, length(nodes));
+	}
+
+}
@@ -0,0 +1,129 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * GTSPSolution.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.gtsp;
+
+import java.util.Arrays;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+/**
+ * A solution of a generalized traveling salesman problem: the order in which
+ * the clusters are visited, the node visited in each cluster, and the length
+ * of the resulting tour.  Solutions are immutable.
+ *
+ * @author Joris Kinable
+ */
+public final class GTSPSolution {
+
+	/**
+	 * The clusters in the order they are visited.
+	 */
+	private final int[] clusterOrder;
+
+	/**
+	 * The node visited in each cluster, in the order of {@link #clusterOrder}.
+	 */
+	private final int[] nodes;
+
+	/**
+	 * The length of the tour.
+	 */
+	private final double length;
+
+	/**
+	 * Constructs a solution.
+	 *
+	 * @param clusterOrder the clusters in the order they are visited, which
+	 *        are copied
+	 * @param nodes the node visited in each cluster, in the order of the
+	 *        clusters, which are copied
+	 * @param length the length of the tour
+	 * @throws IllegalArgumentException if the arrays differ in length
+	 */
+	public GTSPSolution(int[] clusterOrder, int[] nodes, double length) {
+		super();
+
+		if (clusterOrder.length != nodes.length) {
+			throw new IllegalArgumentException("cluster order and nodes differ in length");
+		}
+
+		this.clusterOrder = clusterOrder.clone();
+		this.nodes = nodes.clone();
+		this.length = length;
+	}
+
+	/**
+	 * Returns the number of clusters.
+	 *
+	 * @return the number of clusters
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the clusters in the order they are visited.
+	 *
+	 * @return a copy of the cluster order
+	 */
+	public int[] getClusterOrder() {
+		return clusterOrder.clone();
+	}
+
+	/**
+	 * Returns the nodes in the order they are visited, one in each cluster.
+	 *
+	 * @return a copy of the visited nodes
+	 */
+	public int[] getNodes() {
+		return nodes.clone();
+	}
+
+	/**
+	 * Returns the length of the tour.
+	 *
+	 * @return the length of the tour
+	 */
+	public double getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the tour through the visited nodes.
+	 *
+	 * @return the tour through the visited nodes
+	 */
+	public TSPLibTour toTour() {
+		return TSPLibTour.createTour(nodes.clone());
+	}
+
+	@Override
+	public String toString() {
+		return "length: " + length + ", nodes: " + Arrays.toString(nodes);
+	}
+
+}
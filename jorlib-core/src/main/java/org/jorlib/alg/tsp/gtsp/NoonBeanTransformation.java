@@ -0,0 +1,405 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * NoonBeanTransformation.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.gtsp;
+
+import java.io.BufferedReader;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.ComputedDistances;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Read-only view of the asymmetric TSP obtained from a GTSP instance by the
+ * transformation of Noon and Bean.  The view has the same nodes as the GTSP
+ * instance, and its distances are computed on demand, so no transformed
+ * matrix is materialized, not even by the snapshot returned by
+ * {@link #freeze()} which ATSP algorithms take.
+ * <p>
+ * The nodes of every cluster are linked into a cycle of zero-length arcs in
+ * the order in which they are listed.  The arc from node {@code v} to a node
+ * {@code w} of another cluster has the distance from the successor of
+ * {@code v} on its cycle to {@code w}, plus a penalty {@code M}.  All other
+ * arcs within a cluster are forbidden.  A tour which visits every cluster in
+ * one piece enters the cluster at some node, follows the zero cycle forward
+ * to the predecessor of the entry node, and then pays the distance from the
+ * entry node onwards; its length is {@code mM} plus the length of the GTSP tour
+ * through the entry nodes, where {@code m} is the number of clusters.  Since
+ * {@code M} exceeds the length of every GTSP tour, tours which enter a
+ * cluster more than once are always longer, and forbidden arcs have a length
+ * exceeding every tour without them.
+ *
+ * @author Joris Kinable
+ */
+public class NoonBeanTransformation extends DistanceTable {
+
+	/**
+	 * The evaluator holding the clusters and distances of the GTSP instance.
+	 */
+	private final GTSPEvaluator evaluator;
+
+	/**
+	 * The successor of every node on the zero cycle of its cluster.
+	 */
+	private final int[] successors;
+
+	/**
+	 * The penalty added to every arc between clusters.
+	 */
+	private final double penalty;
+
+	/**
+	 * The frozen view, which computes the transformed distances on demand.
+	 */
+	private final FrozenDistanceTable frozen;
+
+	/**
+	 * Constructs the transformation of a GTSP instance, with a penalty
+	 * exceeding the length of every GTSP tour.  Computing the penalty takes
+	 * O(N<sup>2</sup>) distance queries but no additional memory.
+	 *
+	 * @param evaluator the evaluator holding the clusters and distances
+	 */
+	public NoonBeanTransformation(GTSPEvaluator evaluator) {
+		this(evaluator, defaultPenalty(evaluator));
+	}
+
+	/**
+	 * Constructs the transformation of a GTSP instance.
+	 *
+	 * @param evaluator the evaluator holding the clusters and distances
+	 * @param penalty the penalty added to every arc between clusters, which
+	 *        must exceed the length of every GTSP tour and of every arc
+	 *        between clusters
+	 * @throws IllegalArgumentException if the penalty is not positive and
+	 *         finite
+	 */
+	public NoonBeanTransformation(GTSPEvaluator evaluator, double penalty) {
+		super();
+
+		if (!(penalty > 0) || Double.isInfinite(penalty)) {
+			throw new IllegalArgumentException("penalty must be positive and finite");
+		}
+
+		this.evaluator = evaluator;
+		this.penalty = penalty;
+		int n = evaluator.getDistanceTable().size();
+		successors = new int[n];
+
+		for (int[] cluster : evaluator.clusters()) {
+			for (int i = 0; i < cluster.length; i++) {
+				successors[cluster[i]] = cluster[(i + 1) % cluster.length];
+			}
+		}
+
+		frozen = FrozenDistanceTable.of(n, new Distances(evaluator.getDistanceTable(),
+				evaluator.clusterOf(), successors, penalty));
+	}
+
+	/**
+	 * Returns one plus the sum over the clusters of the longest arc leaving
+	 * the cluster, which exceeds the length of every GTSP tour and of every
+	 * arc between clusters.
+	 *
+	 * @param evaluator the evaluator holding the clusters and distances
+	 * @return the penalty
+	 * @throws IllegalArgumentException if an arc between clusters has an
+	 *         infinite length
+	 */
+	private static double defaultPenalty(GTSPEvaluator evaluator) {
+		FrozenDistanceTable distanceTable = evaluator.getDistanceTable();
+		int n = distanceTable.size();
+		double penalty = 1.0;
+
+		for (int[] cluster : evaluator.clusters()) {
+			double longest = 0.0;
+
+			for (int v : cluster) {
+				for (int w = 0; w < n; w++) {
+					if (evaluator.getClusterOf(w) != evaluator.getClusterOf(v)) {
+						longest = Math.max(longest, distanceTable.getDistanceBetween(v, w));
+					}
+				}
+			}
+
+			penalty += longest;
+		}
+
+		if (Double.isInfinite(penalty)) {
+			throw new IllegalArgumentException("distances between clusters must be finite");
+		}
+
+		return penalty;
+	}
+
+	/**
+	 * Returns the evaluator of the GTSP instance.
+	 *
+	 * @return the evaluator of the GTSP instance
+	 */
+	public GTSPEvaluator getEvaluator() {
+		return evaluator;
+	}
+
+	/**
+	 * Returns the penalty added to every arc between clusters.
+	 *
+	 * @return the penalty added to every arc between clusters
+	 */
+	public double getPenalty() {
+		return penalty;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return successors.length;
+	}
+
+	@Override
+	public int[] listNodes() {
+		int[] nodes = new int[successors.length];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = i;
+		}
+
+		return nodes;
+	}
+
+	@Override
+	public int[] getNeighborsOf(int id) {
+		checkNode(id);
+		int[] neighbors = new int[successors.length-1];
+		int index = 0;
+
+		for (int i = 0; i < successors.length; i++) {
+			if (i != id) {
+				neighbors[index++] = i;
+			}
+		}
+
+		return neighbors;
+	}
+
+	@Override
+	public boolean isNeighbor(int id1, int id2) {
+		checkNode(id1);
+		checkNode(id2);
+		return id1 != id2;
+	}
+
+	@Override
+	public double getDistanceBetween(int id1, int id2) {
+		return frozen.getDistanceBetween(id1, id2);
+	}
+
+	/**
+	 * Checks that a node identifier is valid.
+	 *
+	 * @param id the identifier of the node
+	 * @throws IllegalArgumentException if the node does not exist
+	 */
+	private void checkNode(int id) {
+		if ((id < 0) || (id > successors.length-1)) {
+			throw new IllegalArgumentException("no node with identifier " + id);
+		}
+	}
+
+	/**
+	 * Converts a tour of the transformed instance to a GTSP solution which
+	 * visits the clusters in the order they are first entered, at the node
+	 * where they are first entered.  If the tour visits every cluster in one
+	 * piece, the length of the solution is the length of the tour minus
+	 * {@code mM}.  This takes O(N) time.
+	 *
+	 * @param tour the tour of the transformed instance
+	 * @return the GTSP solution
+	 * @throws IllegalArgumentException if the tour does not visit every node
+	 */
+	public GTSPSolution toSolution(TSPLibTour tour) {
+		int[] nodes = tour.toArray();
+		int n = successors.length;
+
+		if (nodes.length != n) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		// start right after a change of cluster, so no cluster is split
+		// between the end and the start of the sequence
+		int start = 0;
+
+		while ((start < n) && (evaluator.getClusterOf(nodes[start]) ==
+				evaluator.getClusterOf(nodes[(start + n - 1) % n]))) {
+			start++;
+		}
+
+		if (start == n) {
+			start = 0;
+		}
+
+		int m = evaluator.getClusterCount();
+		boolean[] entered = new boolean[m];
+		int[] entries = new int[m];
+		int count = 0;
+		int previous = -1;
+
+		for (int i = 0; i < n; i++) {
+			int id = nodes[(start + i) % n];
+			int cluster = evaluator.getClusterOf(id);
+
+			if ((cluster != previous) && !entered[cluster]) {
+				entered[cluster] = true;
+				entries[count++] = id;
+			}
+
+			previous = cluster;
+		}
+
+		if (count != m) {
+			throw new IllegalArgumentException("tour does not visit every cluster");
+		}
+
+		return evaluator.evaluate(entries);
+	}
+
+	/**
+	 * Converts a GTSP solution to the tour of the transformed instance which
+	 * enters every cluster at its chosen node and then traverses the zero
+	 * cycle of the cluster.  This takes O(N) time.
+	 *
+	 * @param solution the GTSP solution
+	 * @return the tour of the transformed instance
+	 * @throws IllegalArgumentException if the solution does not visit every
+	 *         cluster once
+	 */
+	public TSPLibTour toTour(GTSPSolution solution) {
+		int[] entries = solution.getNodes();
+
+		if (!evaluator.isFeasible(entries)) {
+			throw new IllegalArgumentException("solution does not visit every cluster once");
+		}
+
+		int[] nodes = new int[successors.length];
+		int index = 0;
+
+		for (int entry : entries) {
+			int id = entry;
+
+			do {
+				nodes[index++] = id;
+				id = successors[id];
+			} while (id != entry);
+		}
+
+		return TSPLibTour.createTour(nodes);
+	}
+
+	/**
+	 * Returns a snapshot of this view which computes its distances on demand,
+	 * so freezing requires no memory beyond the GTSP instance.
+	 *
+	 * @return the frozen view
+	 */
+	@Override
+	public FrozenDistanceTable freeze() {
+		return frozen;
+	}
+
+	/**
+	 * Distances are computed from the GTSP instance, so this view cannot be
+	 * loaded.
+	 *
+	 * @param reader the reader
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void load(BufferedReader reader) {
+		throw new UnsupportedOperationException("transformed distance tables are read-only");
+	}
+
+	/**
+	 * The distances of the transformed instance, computed from the GTSP
+	 * instance.
+	 */
+	private static final class Distances implements ComputedDistances {
+
+		/**
+		 * The distance table of the GTSP instance.
+		 */
+		private final FrozenDistanceTable distanceTable;
+
+		/**
+		 * The cluster of every node.
+		 */
+		private final int[] clusterOf;
+
+		/**
+		 * The successor of every node on the zero cycle of its cluster.
+		 */
+		private final int[] successors;
+
+		/**
+		 * The penalty added to every arc between clusters.
+		 */
+		private final double penalty;
+
+		/**
+		 * The length of forbidden arcs.
+		 */
+		private final double forbidden;
+
+		Distances(FrozenDistanceTable distanceTable, int[] clusterOf, int[] successors, double penalty) {
+			this.distanceTable = distanceTable;
+			this.clusterOf = clusterOf;
+			this.successors = successors;
+			this.penalty = penalty;
+
+			// exceeds n arcs between clusters, each shorter than twice the
+			// penalty
+			this.forbidden = 2.0 * successors.length * penalty + 1.0;
+		}
+
+		@Override
+		public double distance(int id1, int id2) {
+			if (id1 == id2) {
+				return 0.0;
+			} else if (clusterOf[id1] != clusterOf[id2]) {
+				return distanceTable.getDistanceBetween(successors[id1], id2) + penalty;
+			} else if (successors[id1] == id2) {
+				return 0.0;
+			} else {
+				return forbidden;
+			}
+		}
+
+	}
+
+}
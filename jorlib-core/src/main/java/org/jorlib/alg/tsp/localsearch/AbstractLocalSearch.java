@@ -0,0 +1,378 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * AbstractLocalSearch.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Skeleton of a first-improvement local search driven by don't-look bits.
+ * Nodes whose don't-look bit is cleared are kept in a first-in first-out
+ * queue; initially every node is queued.  The neighborhood of each dequeued
+ * node is searched by {@link #improveNode(MutableTour, int)}, which applies the
+ * first improving move it finds and clears the don't-look bits of the end
+ * points of the changed edges through {@link #activate(int)}.  A node whose
+ * neighborhood contains no improving move keeps its bit set until it is
+ * activated again.
+ * <p>
+ * The search stops at a local optimum, or earlier when the time limit or the
+ * iteration limit is reached.  Each iteration applies one improving move.
+ *
+ * @author Joris Kinable
+ */
+public abstract class AbstractLocalSearch {
+
+	/**
+	 * The minimum decrease in length for a move to be considered improving.
+	 */
+	protected static final double EPSILON = 1e-9;
+
+	/**
+	 * The default minimum number of nodes for which {@link #createTour(int[])}
+	 * returns a {@link TwoLevelListTour}.
+	 */
+	public static final int DEFAULT_TWO_LEVEL_THRESHOLD = 2000;
+
+	/**
+	 * The number of nodes processed between two checks of the time limit.
+	 */
+	private static final int CLOCK_INTERVAL = 256;
+
+	/**
+	 * The distance table.
+	 */
+	protected final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The candidate neighbors of each node.
+	 */
+	protected final CandidateLists candidates;
+
+	/**
+	 * The minimum number of nodes for which {@link #createTour(int[])} returns
+	 * a {@link TwoLevelListTour}.
+	 */
+	private int twoLevelThreshold = DEFAULT_TWO_LEVEL_THRESHOLD;
+
+	/**
+	 * The time limit in milliseconds, or {@code 0} if there is none.
+	 */
+	private long timeLimit;
+
+	/**
+	 * The maximum number of iterations, or {@code 0} if there is none.
+	 */
+	private long iterationLimit;
+
+	/**
+	 * The total change in length achieved by the last search.
+	 */
+	private double improvement;
+
+	/**
+	 * The number of moves applied by the last search.
+	 */
+	private long iterations;
+
+	/**
+	 * The number of moves evaluated by the last search.
+	 */
+	private long evaluations;
+
+	/**
+	 * {@code true} if the last search stopped because of the time limit or
+	 * iteration limit; {@code false} if it reached a local optimum.
+	 */
+	private boolean interrupted;
+
+	/**
+	 * The circular queue of nodes whose don't-look bit is cleared.
+	 */
+	private int[] queue;
+
+	/**
+	 * Whether each node is in the queue, i.e. has its don't-look bit cleared.
+	 */
+	private boolean[] queued;
+
+	/**
+	 * The position of the first node in the queue.
+	 */
+	private int head;
+
+	/**
+	 * The number of nodes in the queue.
+	 */
+	private int count;
+
+	/**
+	 * Constructs a local search using the given candidates.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	protected AbstractLocalSearch(DistanceTable distanceTable, CandidateLists candidates) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+		this.candidates = candidates;
+
+		if (candidates.size() != this.distanceTable.size()) {
+			throw new IllegalArgumentException("candidate lists do not match the number of nodes");
+		}
+	}
+
+	/**
+	 * Sets the time limit of each search.
+	 *
+	 * @param timeLimit the time limit in milliseconds, or {@code 0} to remove
+	 *        the limit
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Sets the maximum number of iterations, i.e. applied moves, of each
+	 * search.
+	 *
+	 * @param iterationLimit the maximum number of iterations, or {@code 0} to
+	 *        remove the limit
+	 */
+	public void setIterationLimit(long iterationLimit) {
+		this.iterationLimit = iterationLimit;
+	}
+
+	/**
+	 * Sets the minimum number of nodes for which {@link #createTour(int[])}
+	 * returns a {@link TwoLevelListTour} rather than an {@link ArrayTour}.
+	 *
+	 * @param twoLevelThreshold the minimum number of nodes, or
+	 *        {@link Integer#MAX_VALUE} to always use an {@code ArrayTour}
+	 */
+	public void setTwoLevelThreshold(int twoLevelThreshold) {
+		this.twoLevelThreshold = twoLevelThreshold;
+	}
+
+	/**
+	 * Creates a tour visiting the nodes in the given order, using the
+	 * representation best suited to the number of nodes: an {@link ArrayTour}
+	 * on small instances, where its O(1) queries outweigh its O(N) reversals,
+	 * and a {@link TwoLevelListTour} from the two-level threshold onwards.
+	 *
+	 * @param nodes the nodes in the order they are visited
+	 * @return the tour
+	 * @throws IllegalArgumentException if the nodes are not a permutation of
+	 *         {@code 0, 1, ..., N-1}
+	 */
+	public MutableTour createTour(int[] nodes) {
+		if (nodes.length >= twoLevelThreshold) {
+			return new TwoLevelListTour(nodes);
+		} else {
+			return new ArrayTour(nodes);
+		}
+	}
+
+	/**
+	 * Improves the given TSPLIB tour and returns the result as a new tour.
+	 *
+	 * @param tour the tour to improve, which is not modified
+	 * @return the improved tour
+	 */
+	public TSPLibTour improve(TSPLibTour tour) {
+		MutableTour result = createTour(tour.toArray());
+		improve(result);
+		return result.toTour();
+	}
+
+	/**
+	 * Improves the given tour in place, starting with the don't-look bit of
+	 * every node cleared.
+	 *
+	 * @param tour the tour to improve
+	 * @return the change in length, which is zero or negative
+	 * @throws IllegalArgumentException if the size of the tour does not match
+	 *         the number of nodes
+	 */
+	public double improve(MutableTour tour) {
+		return improve(tour, tour.toArray());
+	}
+
+	/**
+	 * Improves the given tour in place, starting with only the don't-look
+	 * bits of the given nodes cleared.  This is useful to repair a local
+	 * optimum after a perturbation which only changed the edges of a few
+	 * nodes.
+	 *
+	 * @param tour the tour to improve
+	 * @param active the nodes whose don't-look bits are initially cleared
+	 * @return the change in length, which is zero or negative
+	 * @throws IllegalArgumentException if the size of the tour does not match
+	 *         the number of nodes
+	 */
+	public double improve(MutableTour tour, int[] active) {
+		int n = tour.size();
+
+		if (n != distanceTable.size()) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		long deadline = (timeLimit > 0) ? System.nanoTime() + timeLimit*1000000L : Long.MAX_VALUE;
+		improvement = 0.0;
+		iterations = 0;
+		evaluations = 0;
+		interrupted = false;
+
+		if ((queue == null) || (queue.length != n)) {
+			queue = new int[n];
+			queued = new boolean[n];
+		} else {
+			// reset the don't-look bits left over by an interrupted search
+			for (int k = 0; k < count; k++) {
+				queued[queue[(head + k) % n]] = false;
+			}
+		}
+
+		head = 0;
+		count = 0;
+
+		for (int id : active) {
+			activate(id);
+		}
+
+		int processed = 0;
+
+		while (count > 0) {
+			if ((++processed % CLOCK_INTERVAL == 0) && (System.nanoTime() > deadline)) {
+				interrupted = true;
+				break;
+			}
+
+			int a = queue[head];
+			queued[a] = false;
+			head = (head + 1 == n) ? 0 : head + 1;
+			count--;
+
+			while (improveNode(tour, a)) {
+				if ((iterationLimit > 0) && (iterations >= iterationLimit)) {
+					interrupted = true;
+					return improvement;
+				}
+			}
+		}
+
+		return improvement;
+	}
+
+	/**
+	 * Searches the neighborhood of the given node for an improving move and
+	 * applies the first one found.  Implementations must report the applied
+	 * move through {@link #moveApplied(double)} and activate the end points of
+	 * the changed edges through {@link #activate(int)}.
+	 *
+	 * @param tour the tour
+	 * @param a the node whose neighborhood is searched
+	 * @return {@code true} if an improving move was applied; {@code false}
+	 *         otherwise
+	 */
+	protected abstract boolean improveNode(MutableTour tour, int a);
+
+	/**
+	 * Clears the don't-look bit of the given node, adding it to the queue.
+	 *
+	 * @param id the identifier of the node
+	 */
+	protected final void activate(int id) {
+		if (!queued[id]) {
+			int n = queue.length;
+			int tail = head + count;
+			queued[id] = true;
+			queue[(tail >= n) ? tail - n : tail] = id;
+			count++;
+		}
+	}
+
+	/**
+	 * Records that a move was evaluated.
+	 */
+	protected final void moveEvaluated() {
+		evaluations++;
+	}
+
+	/**
+	 * Records that an improving move was applied.
+	 *
+	 * @param delta the change in length caused by the move
+	 */
+	protected final void moveApplied(double delta) {
+		improvement += delta;
+		iterations++;
+	}
+
+	/**
+	 * Returns the total change in length achieved by the last search, which
+	 * is zero or negative.
+	 *
+	 * @return the total change in length achieved by the last search
+	 */
+	public double getImprovement() {
+		return improvement;
+	}
+
+	/**
+	 * Returns the number of moves applied by the last search.
+	 *
+	 * @return the number of moves applied by the last search
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Returns the number of moves evaluated by the last search.
+	 *
+	 * @return the number of moves evaluated by the last search
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Returns {@code true} if the last search stopped because of the time
+	 * limit or iteration limit; {@code false} if it reached a local optimum.
+	 *
+	 * @return {@code true} if the last search was interrupted; {@code false}
+	 *         otherwise
+	 */
+	public boolean isInterrupted() {
+		return interrupted;
+	}
+
+}
@@ -0,0 +1,347 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ArrayTour.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * A tour over the nodes {@code 0, 1, ..., N-1} stored as a primitive array of
+ * nodes together with the inverse array of positions.  Successors,
+ * predecessors and betweenness queries take O(1) time; reversing a path and
+ * moving a segment take time linear in the length of the shorter side of the
+ * tour.  Moving a segment preserves the orientation of the tour, so it is
+ * suitable for asymmetric instances.
+ *
+ * @author Joris Kinable
+ */
+public class ArrayTour implements MutableTour {
+
+	/**
+	 * The nodes in the order they are visited.
+	 */
+	private final int[] order;
+
+	/**
+	 * The position of each node in {@link #order}.
+	 */
+	private final int[] position;
+
+	/**
+	 * Constructs a tour visiting the nodes in the given order.
+	 *
+	 * @param nodes the nodes in the order they are visited
+	 * @throws IllegalArgumentException if the nodes are not a permutation of
+	 *         {@code 0, 1, ..., N-1}
+	 */
+	public ArrayTour(int... nodes) {
+		super();
+		order = nodes.clone();
+		position = new int[nodes.length];
+
+		boolean[] seen = new boolean[nodes.length];
+
+		for (int i = 0; i < nodes.length; i++) {
+			int id = nodes[i];
+
+			if ((id < 0) || (id > nodes.length-1) || seen[id]) {
+				throw new IllegalArgumentException("nodes must be a permutation of 0, 1, ..., N-1");
+			}
+
+			seen[id] = true;
+			position[id] = i;
+		}
+	}
+
+	/**
+	 * Constructs a tour visiting the nodes of the given TSPLIB tour.
+	 *
+	 * @param tour the TSPLIB tour
+	 * @throws IllegalArgumentException if the tour is not a permutation of
+	 *         {@code 0, 1, ..., N-1}
+	 */
+	public ArrayTour(TSPLibTour tour) {
+		this(tour.toArray());
+	}
+
+	/**
+	 * Replaces the order of this tour by the order of another tour over the
+	 * same nodes in O(N) time.  No memory is allocated if the other tour is an
+	 * {@code ArrayTour}.
+	 *
+	 * @param other the tour to copy
+	 * @throws IllegalArgumentException if the tours differ in size
+	 */
+	public void copyFrom(MutableTour other) {
+		if (other.size() != order.length) {
+			throw new IllegalArgumentException("tours differ in size");
+		}
+
+		if (other instanceof ArrayTour) {
+			System.arraycopy(((ArrayTour)other).order, 0, order, 0, order.length);
+			System.arraycopy(((ArrayTour)other).position, 0, position, 0, position.length);
+		} else {
+			int[] nodes = other.toArray();
+
+			for (int i = 0; i < nodes.length; i++) {
+				order[i] = nodes[i];
+				position[nodes[i]] = i;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of nodes in this tour.
+	 *
+	 * @return the number of nodes in this tour
+	 */
+	public int size() {
+		return order.length;
+	}
+
+	/**
+	 * Returns the node at the given position.
+	 *
+	 * @param index the position, {@code 0 <= index < size()}
+	 * @return the node at the given position
+	 */
+	public int get(int index) {
+		return order[index];
+	}
+
+	/**
+	 * Returns the position of the given node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the position of the node
+	 */
+	public int indexOf(int id) {
+		return position[id];
+	}
+
+	/**
+	 * Returns the node visited after the given node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the successor of the node
+	 */
+	public int next(int id) {
+		int index = position[id] + 1;
+		return order[(index == order.length) ? 0 : index];
+	}
+
+	/**
+	 * Returns the node visited before the given node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the predecessor of the node
+	 */
+	public int prev(int id) {
+		int index = position[id];
+		return order[(index == 0) ? order.length-1 : index-1];
+	}
+
+	/**
+	 * Returns {@code true} if node {@code b} is visited when travelling from
+	 * node {@code a} to node {@code c} in the direction of the tour, end points
+	 * included; {@code false} otherwise.
+	 *
+	 * @param a the identifier of the first node
+	 * @param b the identifier of the node to test
+	 * @param c the identifier of the last node
+	 * @return {@code true} if {@code b} lies on the path from {@code a} to
+	 *         {@code c}; {@code false} otherwise
+	 */
+	public boolean between(int a, int b, int c) {
+		int pa = position[a];
+		int pb = position[b];
+		int pc = position[c];
+
+		if (pa <= pc) {
+			return (pa <= pb) && (pb <= pc);
+		} else {
+			return (pa <= pb) || (pb <= pc);
+		}
+	}
+
+	/**
+	 * Reverses the path from node {@code from} to node {@code to}, following
+	 * the direction of the tour.  Since reversing a path of a cycle yields the
+	 * same cycle as reversing its complement, the shorter of the two is
+	 * reversed; the orientation of the tour may therefore change.
+	 *
+	 * @param from the identifier of the first node of the path
+	 * @param to the identifier of the last node of the path
+	 */
+	public void reverse(int from, int to) {
+		int n = order.length;
+		int i = position[from];
+		int j = position[to];
+		int length = j - i + 1;
+
+		if (length <= 0) {
+			length += n;
+		}
+
+		if (2*length > n) {
+			i = j + 1;
+			length = n - length;
+		}
+
+		reverseRange(i, length);
+	}
+
+	/**
+	 * Moves the path from node {@code first} to node {@code last}, following
+	 * the direction of the tour, so that it is visited directly after node
+	 * {@code after}.  If {@code reversed} is {@code true}, the path is visited
+	 * from {@code last} to {@code first} instead.  The rest of the tour keeps
+	 * its orientation.
+	 *
+	 * @param first the identifier of the first node of the path
+	 * @param last the identifier of the last node of the path
+	 * @param after the identifier of the node after which the path is placed,
+	 *        which must not lie on the path
+	 * @param reversed {@code true} if the path is reversed; {@code false}
+	 *        otherwise
+	 */
+	public void moveSegment(int first, int last, int after, boolean reversed) {
+		int n = order.length;
+		int length = position[last] - position[first] + 1;
+
+		if (length <= 0) {
+			length += n;
+		}
+
+		// the nodes following the path up to and including after, and the
+		// nodes following after up to the path
+		int following = position[after] - position[last];
+
+		if (following < 0) {
+			following += n;
+		}
+
+		int preceding = n - length - following;
+
+		// exchange the path with the shorter of the two sides
+		if (following <= preceding) {
+			rotate(position[first], length, following);
+		} else {
+			rotate(position[after] + 1, preceding, length);
+		}
+
+		if (reversed) {
+			reverseRange(position[first], length);
+		}
+	}
+
+	/**
+	 * Exchanges two adjacent blocks of positions, preserving the order within
+	 * each block.
+	 *
+	 * @param start the first position of the first block
+	 * @param length1 the length of the first block
+	 * @param length2 the length of the second block
+	 */
+	private void rotate(int start, int length1, int length2) {
+		if ((length1 > 0) && (length2 > 0)) {
+			reverseRange(start, length1);
+			reverseRange(start + length1, length2);
+			reverseRange(start, length1 + length2);
+		}
+	}
+
+	/**
+	 * Reverses the nodes at the given positions, wrapping around the end of
+	 * the array.
+	 *
+	 * @param start the first position
+	 * @param length the number of positions
+	 */
+	private void reverseRange(int start, int length) {
+		int n = order.length;
+		int i = start % n;
+		int j = (start + length - 1) % n;
+
+		for (int k = length/2; k > 0; k--) {
+			int a = order[i];
+			int b = order[j];
+			order[i] = b;
+			position[b] = i;
+			order[j] = a;
+			position[a] = j;
+
+			if (++i == n) {
+				i = 0;
+			}
+
+			if (--j < 0) {
+				j = n - 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of this tour.
+	 *
+	 * @param distanceTable the distance table
+	 * @return the length of this tour
+	 */
+	public double length(DistanceTable distanceTable) {
+		double result = 0.0;
+
+		for (int i = 0; i < order.length; i++) {
+			result += distanceTable.getDistanceBetween(order[i], order[(i+1 == order.length) ? 0 : i+1]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the nodes in the order they are visited.
+	 *
+	 * @return the nodes in the order they are visited
+	 */
+	public int[] toArray() {
+		return order.clone();
+	}
+
+	/**
+	 * Returns this tour as a TSPLIB tour.
+	 *
+	 * @return this tour as a TSPLIB tour
+	 */
+	public TSPLibTour toTour() {
+		return TSPLibTour.createTour(order);
+	}
+
+	@Override
+	public String toString() {
+		return toTour().toString();
+	}
+
+}
@@ -0,0 +1,223 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CandidateLists.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.stream.IntStream;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * A list of candidate neighbors for every node of a TSP instance.  Local
+ * search heuristics only consider moves which introduce an edge between a node
+ * and one of its candidates, which reduces the size of their neighborhoods
+ * from O(N^2) to O(Nk).
+ * <p>
+ * Nodes are identified by {@code 0, 1, ..., N-1}.  The candidates of a node
+ * are ordered by preference, e.g. by increasing distance, which allows search
+ * procedures to stop scanning a list as soon as the gain criterion fails.
+ *
+ * @author Joris Kinable
+ */
+public class CandidateLists {
+
+	/**
+	 * The candidates of each node, ordered by preference.
+	 */
+	private final int[][] candidates;
+
+	/**
+	 * Constructs candidate lists from the given arrays.
+	 *
+	 * @param candidates the candidates of each node, ordered by preference
+	 * @throws IllegalArgumentException if a node is its own candidate, or if a
+	 *         candidate is not a node
+	 */
+	public CandidateLists(int[][] candidates) {
+		super();
+		this.candidates = new int[candidates.length][];
+
+		for (int i = 0; i < candidates.length; i++) {
+			for (int candidate : candidates[i]) {
+				if ((candidate < 0) || (candidate > candidates.length-1) || (candidate == i)) {
+					throw new IllegalArgumentException("invalid candidate " + candidate + " for node " + i);
+				}
+			}
+
+			this.candidates[i] = candidates[i].clone();
+		}
+	}
+
+	/**
+	 * Constructs candidate lists which were already validated, without copying
+	 * them.
+	 *
+	 * @param candidates the candidates of each node, ordered by preference
+	 * @param trusted unused; distinguishes this constructor
+	 */
+	CandidateLists(int[][] candidates, boolean trusted) {
+		super();
+		this.candidates = candidates;
+	}
+
+	/**
+	 * Returns candidate lists containing the {@code k} nearest neighbors of
+	 * every node, ordered by increasing distance.  Nodes with fewer than
+	 * {@code k} neighbors receive all their neighbors.  The lists of the nodes
+	 * are computed in parallel; on a complete graph this takes O(N^2 log k)
+	 * time in total.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param k the maximum number of candidates per node
+	 * @return the candidate lists
+	 * @throws IllegalArgumentException if {@code k} is negative
+	 * @throws IllegalStateException if the node identifiers are not {@code 0,
+	 *         1, ..., N-1}
+	 */
+	public static CandidateLists nearestNeighbors(DistanceTable distanceTable, final int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("number of candidates must be non-negative");
+		}
+
+		final FrozenDistanceTable table = distanceTable.freeze();
+		final int[][] candidates = new int[table.size()][];
+
+		IntStream.range(0, table.size()).parallel().forEach(i -> {
+			candidates[i] = nearest(table, i, k);
+		});
+
+		return new CandidateLists(candidates, true);
+	}
+
+	/**
+	 * Returns the {@code k} nearest neighbors of a node, ordered by increasing
+	 * distance.  A bounded max-heap keeps the best candidates seen so far.
+	 *
+	 * @param table the distance table
+	 * @param id the identifier of the node
+	 * @param k the maximum number of candidates
+	 * @return the nearest neighbors of the node
+	 */
+	private static int[] nearest(FrozenDistanceTable table, int id, int k) {
+		int[] neighbors = table.getNeighborsOf(id);
+		int capacity = Math.min(k, neighbors.length);
+		int[] heap = new int[capacity];
+		double[] keys = new double[capacity];
+		int size = 0;
+
+		for (int neighbor : neighbors) {
+			double distance = table.getDistanceBetween(id, neighbor);
+
+			if (size < capacity) {
+				// sift up
+				int child = size++;
+
+				while (child > 0) {
+					int parent = (child-1) / 2;
+
+					if (keys[parent] >= distance) {
+						break;
+					}
+
+					heap[child] = heap[parent];
+					keys[child] = keys[parent];
+					child = parent;
+				}
+
+				heap[child] = neighbor;
+				keys[child] = distance;
+			} else if ((capacity > 0) && (distance < keys[0])) {
+				siftDown(heap, keys, size, neighbor, distance);
+			}
+		}
+
+		// repeatedly move the farthest candidate to the end of the heap
+		for (int last = size-1; last > 0; last--) {
+			int neighbor = heap[last];
+			double distance = keys[last];
+			heap[last] = heap[0];
+			keys[last] = keys[0];
+			siftDown(heap, keys, last, neighbor, distance);
+		}
+
+		return heap;
+	}
+
+	/**
+	 * Replaces the root of a max-heap and restores the heap property.
+	 *
+	 * @param heap the nodes in the heap
+	 * @param keys the distances of the nodes in the heap
+	 * @param size the number of elements in the heap
+	 * @param neighbor the node replacing the root
+	 * @param distance the distance of the node replacing the root
+	 */
+	private static void siftDown(int[] heap, double[] keys, int size, int neighbor, double distance) {
+		int parent = 0;
+
+		while (2*parent+1 < size) {
+			int child = 2*parent+1;
+
+			if ((child+1 < size) && (keys[child+1] > keys[child])) {
+				child++;
+			}
+
+			if (keys[child] <= distance) {
+				break;
+			}
+
+			heap[parent] = heap[child];
+			keys[parent] = keys[child];
+			parent = child;
+		}
+
+		heap[parent] = neighbor;
+		keys[parent] = distance;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return candidates.length;
+	}
+
+	/**
+	 * Returns the candidates of the given node, ordered by preference.  The
+	 * returned array must not be modified.
+	 *
+	 * @param id the identifier of the node
+	 * @return the candidates of the node
+	 */
+	public int[] get(int id) {
+		return candidates[id];
+	}
+
+}
@@ -0,0 +1,386 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * IteratedLinKernighan.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.SplittableRandom;
+
+import org.jorlib.alg.tsp.construction.NearestNeighborHeuristic;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Iterated Lin-Kernighan heuristic for the symmetric TSP.  The initial tour is
+ * improved by {@link LinKernighan}, after which the search alternates between
+ * perturbing the best tour by a random double-bridge move (a <i>kick</i>) and
+ * repairing it by Lin-Kernighan.  The repaired tour replaces the best tour if
+ * it is shorter.
+ * <p>
+ * Kicks are segment-local: the three segments exchanged by a double-bridge
+ * move together span at most {@link #setKickLength(int) a bounded number} of
+ * consecutive nodes, and only the don't-look bits of the eight end points of
+ * the changed edges are cleared.  The moves made by a kick and the following
+ * repair are recorded in a {@link JournaledTour}, so an unsuccessful kick is
+ * undone by rolling back these moves instead of restoring a copy of the best
+ * tour.  The cost of a kick therefore does not grow with the size of the
+ * instance.
+ * <p>
+ * The search runs until the time limit or the maximum number of kicks is
+ * reached.  Runs with the same seed and kick limit, and no time limit, are
+ * deterministic.
+ *
+ * @author Joris Kinable
+ */
+public class IteratedLinKernighan {
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The candidate neighbors of each node.
+	 */
+	private final CandidateLists candidates;
+
+	/**
+	 * The local search repairing kicked tours.
+	 */
+	private final LinKernighan linKernighan;
+
+	/**
+	 * The time limit in milliseconds, or {@code 0} if there is none.
+	 */
+	private long timeLimit;
+
+	/**
+	 * The maximum number of kicks, or {@code -1} to use the number of nodes.
+	 */
+	private long maxKicks = -1;
+
+	/**
+	 * The maximum number of consecutive nodes spanned by a kick.
+	 */
+	private int kickLength = 50;
+
+	/**
+	 * The seed of the random number generator.
+	 */
+	private long seed;
+
+	/**
+	 * The length of the best tour found by the last run.
+	 */
+	private double bestLength;
+
+	/**
+	 * The number of kicks performed by the last run.
+	 */
+	private long kicks;
+
+	/**
+	 * The number of kicks which led to a shorter tour in the last run.
+	 */
+	private long improvingKicks;
+
+	/**
+	 * Constructs an iterated Lin-Kernighan heuristic using the 8 nearest
+	 * neighbors of every node as candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 */
+	public IteratedLinKernighan(DistanceTable distanceTable) {
+		this(distanceTable.freeze(), 8);
+	}
+
+	/**
+	 * Constructs an iterated Lin-Kernighan heuristic using the {@code k}
+	 * nearest neighbors of every node as candidates, computed from the same
+	 * snapshot the search uses.
+	 *
+	 * @param distanceTable the snapshot of the symmetric distance table
+	 * @param k the number of candidates per node
+	 */
+	private IteratedLinKernighan(FrozenDistanceTable distanceTable, int k) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, k));
+	}
+
+	/**
+	 * Constructs an iterated Lin-Kernighan heuristic using the given
+	 * candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public IteratedLinKernighan(DistanceTable distanceTable, CandidateLists candidates) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+		this.candidates = candidates;
+		this.linKernighan = new LinKernighan(this.distanceTable, candidates);
+	}
+
+	/**
+	 * Returns the Lin-Kernighan search used to repair kicked tours, e.g. to
+	 * change its maximum depth.
+	 *
+	 * @return the Lin-Kernighan search
+	 */
+	public LinKernighan getLinKernighan() {
+		return linKernighan;
+	}
+
+	/**
+	 * Sets the time limit of each run.
+	 *
+	 * @param timeLimit the time limit in milliseconds, or {@code 0} to remove
+	 *        the limit
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Sets the maximum number of kicks of each run.  By default, the number of
+	 * kicks equals the number of nodes.
+	 *
+	 * @param maxKicks the maximum number of kicks
+	 */
+	public void setMaxKicks(long maxKicks) {
+		this.maxKicks = maxKicks;
+	}
+
+	/**
+	 * Sets the maximum number of consecutive nodes spanned by a kick.
+	 *
+	 * @param kickLength the maximum number of consecutive nodes spanned by a
+	 *        kick, at least {@code 4}
+	 * @throws IllegalArgumentException if {@code kickLength} is less than
+	 *         {@code 4}
+	 */
+	public void setKickLength(int kickLength) {
+		if (kickLength < 4) {
+			throw new IllegalArgumentException("kick length must be at least 4");
+		}
+
+		this.kickLength = kickLength;
+	}
+
+	/**
+	 * Sets the seed of the random number generator.
+	 *
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Runs the heuristic from a {@link NearestNeighborHeuristic nearest
+	 * neighbor tour} built from the candidate lists, starting at a node drawn
+	 * with the seed of this heuristic.
+	 *
+	 * @return the best tour found
+	 */
+	public TSPLibTour solve() {
+		int n = distanceTable.size();
+		int start = (n == 0) ? 0 : new SplittableRandom(seed).nextInt(n);
+		return solve(new NearestNeighborHeuristic(distanceTable, candidates).construct(start));
+	}
+
+	/**
+	 * Runs the heuristic from the given tour.
+	 *
+	 * @param initial the initial tour, which is not modified
+	 * @return the best tour found
+	 * @throws IllegalArgumentException if the tour is not a permutation of the
+	 *         nodes
+	 */
+	public TSPLibTour solve(TSPLibTour initial) {
+		MutableTour initialTour = linKernighan.createTour(initial.toArray());
+		int n = initialTour.size();
+
+		if (n != distanceTable.size()) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		long start = System.nanoTime();
+		long limit = (maxKicks < 0) ? n : maxKicks;
+		SplittableRandom random = new SplittableRandom(seed);
+		kicks = 0;
+		improvingKicks = 0;
+
+		linKernighan.setTimeLimit(timeLimit);
+		linKernighan.improve(initialTour);
+		bestLength = initialTour.length(distanceTable);
+
+		if (n < 8) {
+			return initialTour.toTour();
+		}
+
+		// the tour is the best tour between kicks
+		JournaledTour tour = new JournaledTour(initialTour);
+		int[] active = new int[8];
+		int span = Math.min(kickLength, n - 1);
+
+		while (kicks < limit) {
+			long remaining = (timeLimit > 0) ? timeLimit - (System.nanoTime() - start) / 1000000L : 0;
+
+			if ((timeLimit > 0) && (remaining <= 0)) {
+				break;
+			}
+
+			kicks++;
+			double length = bestLength + kick(tour, random, span, active);
+			linKernighan.setTimeLimit(Math.max(0, remaining));
+			length += linKernighan.improve(tour, active);
+
+			if (length < bestLength - AbstractLocalSearch.EPSILON) {
+				tour.commit();
+				bestLength = length;
+				improvingKicks++;
+			} else {
+				tour.rollback();
+			}
+		}
+
+		// avoid accumulating rounding errors in the reported length
+		bestLength = tour.length(distanceTable);
+		return tour.toTour();
+	}
+
+	/**
+	 * Applies a random segment-local double-bridge move: three consecutive
+	 * segments following a random node are reordered without reversing them,
+	 * i.e. the tour {@code p A B C q} becomes {@code p C B A q}, replacing four
+	 * edges.
+	 *
+	 * @param tour the tour
+	 * @param random the random number generator
+	 * @param span the maximum number of nodes spanned by the segments
+	 * @param active receives the end points of the changed edges
+	 * @return the change in length
+	 */
+	private double kick(MutableTour tour, SplittableRandom random, int span, int[] active) {
+		int n = tour.size();
+
+		// choose segment lengths a, b, c >= 1 with a + b + c <= span - 1
+		int a, b, c;
+
+		do {
+			a = 1 + random.nextInt(span - 3);
+			b = 1 + random.nextInt(span - 3);
+			c = 1 + random.nextInt(span - 3);
+		} while (a + b + c > span - 1);
+
+		int p = random.nextInt(n);
+		int a1 = tour.next(p);
+		int a2 = walk(tour, a1, a - 1);
+		int b1 = tour.next(a2);
+		int b2 = walk(tour, b1, b - 1);
+		int c1 = tour.next(b2);
+		int c2 = walk(tour, c1, c - 1);
+		int q = tour.next(c2);
+
+		// p A B C q becomes p C B A q, i.e. (p, a1), (a2, b1), (b2, c1), (c2, q)
+		// are replaced by (p, c1), (c2, b1), (b2, a1), (a2, q)
+		double delta = d(p, c1) + d(c2, b1) + d(b2, a1) + d(a2, q)
+				- d(p, a1) - d(a2, b1) - d(b2, c1) - d(c2, q);
+
+		tour.moveSegment(c1, c2, p, false);
+		tour.moveSegment(a1, a2, b2, false);
+
+		active[0] = p;
+		active[1] = a1;
+		active[2] = a2;
+		active[3] = b1;
+		active[4] = b2;
+		active[5] = c1;
+		active[6] = c2;
+		active[7] = q;
+		return delta;
+	}
+
+	/**
+	 * Returns the node reached by following the tour for the given number of
+	 * steps.
+	 *
+	 * @param tour the tour
+	 * @param id the identifier of the starting node
+	 * @param steps the number of steps
+	 * @return the node reached
+	 */
+	private static int walk(MutableTour tour, int id, int steps) {
+		for (int k = 0; k < steps; k++) {
+			id = tour.next(id);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Returns the distance between two nodes.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the distance between the two nodes
+	 */
+	private double d(int id1, int id2) {
+		return distanceTable.getDistanceBetween(id1, id2);
+	}
+
+	/**
+	 * Returns the length of the best tour found by the last run.
+	 *
+	 * @return the length of the best tour found by the last run
+	 */
+	public double getBestLength() {
+		return bestLength;
+	}
+
+	/**
+	 * Returns the number of kicks performed by the last run.
+	 *
+	 * @return the number of kicks performed by the last run
+	 */
+	public long getKicks() {
+		return kicks;
+	}
+
+	/**
+	 * Returns the number of kicks which led to a shorter tour in the last run.
+	 *
+	 * @return the number of improving kicks in the last run
+	 */
+	public long getImprovingKicks() {
+		return improvingKicks;
+	}
+
+}
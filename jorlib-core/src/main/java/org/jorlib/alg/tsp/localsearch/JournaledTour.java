@@ -0,0 +1,257 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * JournaledTour.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.Arrays;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * A tour which records the path reversals and segment moves applied to an
+ * underlying {@link MutableTour}, so they can be undone.  The recorded
+ * operations are either kept by {@link #commit()} or undone in reverse order
+ * by {@link #rollback()}; both take time proportional to the operations
+ * recorded since the last commit, rather than the O(N) time of restoring a
+ * copy of the tour.
+ * <p>
+ * A rollback restores the cyclic order of the nodes and, as far as the
+ * underlying tour allows, its orientation: reversals may be undone by
+ * reversing the complement of a path, see {@link MutableTour#reverse(int, int)}.
+ *
+ * @author Joris Kinable
+ */
+public class JournaledTour implements MutableTour {
+
+	/**
+	 * Journal entry for a path reversal, or a reversed segment move which
+	 * leaves the path in place.
+	 */
+	private static final int REVERSE = 0;
+
+	/**
+	 * Journal entry for a segment move.
+	 */
+	private static final int MOVE = 1;
+
+	/**
+	 * Journal entry for a reversed segment move.
+	 */
+	private static final int MOVE_REVERSED = 2;
+
+	/**
+	 * The number of integers stored per journal entry.
+	 */
+	private static final int ENTRY = 6;
+
+	/**
+	 * The underlying tour.
+	 */
+	private final MutableTour tour;
+
+	/**
+	 * The recorded operations, {@value #ENTRY} integers each: the kind of the
+	 * operation, the first and the last node of the path, its predecessor and
+	 * successor before the operation, and the node after which a segment was
+	 * moved.
+	 */
+	private int[] journal = new int[16 * ENTRY];
+
+	/**
+	 * The number of integers used in {@link #journal}.
+	 */
+	private int count;
+
+	/**
+	 * Constructs a journal over the given tour, which must only be modified
+	 * through this object afterwards.
+	 *
+	 * @param tour the underlying tour
+	 */
+	public JournaledTour(MutableTour tour) {
+		super();
+		this.tour = tour;
+	}
+
+	/**
+	 * Returns the underlying tour.  Modifying it directly invalidates the
+	 * journal.
+	 *
+	 * @return the underlying tour
+	 */
+	public MutableTour getTour() {
+		return tour;
+	}
+
+	/**
+	 * Returns the number of operations recorded since the last commit.
+	 *
+	 * @return the number of recorded operations
+	 */
+	public int getJournalSize() {
+		return count / ENTRY;
+	}
+
+	/**
+	 * Keeps the operations recorded since the last commit.  This takes O(1)
+	 * time.
+	 */
+	public void commit() {
+		count = 0;
+	}
+
+	/**
+	 * Undoes the operations recorded since the last commit, most recent
+	 * first.
+	 */
+	public void rollback() {
+		while (count > 0) {
+			count -= ENTRY;
+			int kind = journal[count];
+			int first = journal[count+1];
+			int last = journal[count+2];
+			int p = journal[count+3];
+			int q = journal[count+4];
+			int after = journal[count+5];
+
+			if (kind != REVERSE) {
+				// undoing later operations may have changed the orientation, so
+				// the directions of the path and of the edge (p, q) are read off
+				// the tour
+				int x = (kind == MOVE) ? first : last;
+				int y = (kind == MOVE) ? last : first;
+				int start = (tour.next(after) == x) ? x : y;
+				int anchor = (tour.next(p) == q) ? p : q;
+				int head = (anchor == p) ? first : last;
+				tour.moveSegment(start, (start == x) ? y : x, anchor, start != head);
+			} else if (p == last) {
+				// the whole tour was reversed
+				tour.reverse(first, tour.prev(first));
+			} else if (tour.next(p) == last) {
+				// the path now runs from last to first after p
+				tour.reverse(last, first);
+			} else {
+				// the underlying tour reversed the complement of the path
+				tour.reverse(first, last);
+			}
+		}
+	}
+
+	/**
+	 * Appends an operation to the journal.
+	 *
+	 * @param kind the kind of the operation
+	 * @param first the first node of the path
+	 * @param last the last node of the path
+	 * @param p the predecessor of the path before the operation
+	 * @param q the successor of the path before the operation
+	 * @param after the node after which a segment was moved, or {@code -1}
+	 */
+	private void record(int kind, int first, int last, int p, int q, int after) {
+		if (count == journal.length) {
+			journal = Arrays.copyOf(journal, 2 * journal.length);
+		}
+
+		journal[count] = kind;
+		journal[count+1] = first;
+		journal[count+2] = last;
+		journal[count+3] = p;
+		journal[count+4] = q;
+		journal[count+5] = after;
+		count += ENTRY;
+	}
+
+	@Override
+	public int size() {
+		return tour.size();
+	}
+
+	@Override
+	public int next(int id) {
+		return tour.next(id);
+	}
+
+	@Override
+	public int prev(int id) {
+		return tour.prev(id);
+	}
+
+	@Override
+	public boolean between(int a, int b, int c) {
+		return tour.between(a, b, c);
+	}
+
+	@Override
+	public void reverse(int from, int to) {
+		if (from != to) {
+			record(REVERSE, from, to, tour.prev(from), tour.next(to), -1);
+		}
+
+		tour.reverse(from, to);
+	}
+
+	@Override
+	public void moveSegment(int first, int last, int after, boolean reversed) {
+		int p = tour.prev(first);
+
+		if (after != p) {
+			record(reversed ? MOVE_REVERSED : MOVE, first, last, p, tour.next(last), after);
+		} else if (reversed && (first != last)) {
+			// the path stays in place, so the move amounts to a reversal
+			record(REVERSE, first, last, p, tour.next(last), -1);
+		}
+
+		tour.moveSegment(first, last, after, reversed);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The copy cannot be undone, so the journal is cleared.
+	 */
+	@Override
+	public void copyFrom(MutableTour other) {
+		tour.copyFrom((other instanceof JournaledTour) ? ((JournaledTour)other).tour : other);
+		count = 0;
+	}
+
+	@Override
+	public double length(DistanceTable distanceTable) {
+		return tour.length(distanceTable);
+	}
+
+	@Override
+	public int[] toArray() {
+		return tour.toArray();
+	}
+
+	@Override
+	public TSPLibTour toTour() {
+		return tour.toTour();
+	}
+
+}
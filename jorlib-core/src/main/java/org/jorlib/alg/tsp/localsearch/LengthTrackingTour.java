@@ -0,0 +1,624 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * LengthTrackingTour.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * A tour bound to a distance table which keeps its length up to date as it is
+ * modified, so the length never has to be recomputed by walking the whole
+ * tour.  Path reversals, segment moves and node swaps are applied to an
+ * underlying {@link MutableTour} and update the cached length from the changed edges
+ * only.  The change in length of a move can also be queried without applying
+ * it, e.g. by {@link #deltaTwoOpt(int, int, int, int)}.
+ * <p>
+ * On symmetric distance tables, every update and query takes O(1) time on top
+ * of the underlying operation.  On asymmetric tables, reversing a path also
+ * reverses the direction of its internal edges; the length of the tour in both
+ * directions is therefore tracked, and reversals and reversed segment moves
+ * sum the internal edges of the shorter of the path and its complement.
+ * Reversals always apply to the given path, so the rest of the tour keeps its
+ * direction of travel even if the underlying tour reverses the complement;
+ * this tour then traverses the underlying tour backwards.
+ * <p>
+ * For debugging, the cached length can be compared against a full
+ * recomputation after every given number of updates, see
+ * {@link #setVerificationInterval(int)}.
+ *
+ * @author Joris Kinable
+ */
+public class LengthTrackingTour implements MutableTour {
+
+	/**
+	 * The relative difference between the cached and the recomputed length
+	 * tolerated by {@link #verify()}.
+	 */
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * The underlying tour.
+	 */
+	private final MutableTour tour;
+
+	/**
+	 * The distance table given at construction.
+	 */
+	private final DistanceTable source;
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * {@code true} if the distance table is symmetric; {@code false}
+	 * otherwise.
+	 */
+	private final boolean symmetric;
+
+	/**
+	 * The length of the tour in its direction of travel.
+	 */
+	private double length;
+
+	/**
+	 * The length of the tour travelled in the opposite direction, only
+	 * maintained for asymmetric distance tables.
+	 */
+	private double reverseLength;
+
+	/**
+	 * The sum of the internal edges of the last path passed to
+	 * {@link #sumPath(int, int)}, in the direction of travel.
+	 */
+	private double forwardSum;
+
+	/**
+	 * The sum of the internal edges of the last path passed to
+	 * {@link #sumPath(int, int)}, against the direction of travel.
+	 */
+	private double backwardSum;
+
+	/**
+	 * {@code true} if this tour is travelled in the opposite direction of the
+	 * underlying tour; {@code false} otherwise.
+	 */
+	private boolean flipped;
+
+	/**
+	 * The number of updates between two verifications of the cached length,
+	 * or {@code 0} if verification is disabled.
+	 */
+	private int verificationInterval;
+
+	/**
+	 * The number of updates since the last verification.
+	 */
+	private int updates;
+
+	/**
+	 * Constructs a tour tracking the length of the given tour, which is
+	 * computed once in O(N) time.  The underlying tour must only be modified
+	 * through this object afterwards.
+	 *
+	 * @param tour the underlying tour
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param symmetric {@code true} if the distance table is symmetric, which
+	 *        enables O(1) updates for reversals; {@code false} otherwise
+	 * @throws IllegalArgumentException if the tour does not match the number of
+	 *         nodes
+	 */
+	public LengthTrackingTour(MutableTour tour, DistanceTable distanceTable, boolean symmetric) {
+		super();
+		this.tour = tour;
+		this.source = distanceTable;
+		this.distanceTable = distanceTable.freeze();
+		this.symmetric = symmetric;
+
+		if (tour.size() != this.distanceTable.size()) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		recompute();
+	}
+
+	/**
+	 * Recomputes the cached lengths by walking the whole tour.
+	 */
+	private void recompute() {
+		length = computeLength(true);
+		reverseLength = symmetric ? length : computeLength(false);
+		updates = 0;
+	}
+
+	/**
+	 * Computes the length of the tour by walking it.
+	 *
+	 * @param forward {@code true} for the direction of travel; {@code false}
+	 *        for the opposite direction
+	 * @return the length of the tour
+	 */
+	private double computeLength(boolean forward) {
+		int[] nodes = toArray();
+		double result = 0.0;
+
+		for (int i = 0; i < nodes.length; i++) {
+			int a = nodes[i];
+			int b = nodes[(i+1 == nodes.length) ? 0 : i+1];
+			result += forward ? d(a, b) : d(b, a);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the distance from one node to another.
+	 *
+	 * @param id1 the identifier of the node where the edge starts
+	 * @param id2 the identifier of the node where the edge ends
+	 * @return the distance from {@code id1} to {@code id2}
+	 */
+	private double d(int id1, int id2) {
+		return distanceTable.getDistanceBetween(id1, id2);
+	}
+
+	/**
+	 * Returns the underlying tour, which may be travelled in the opposite
+	 * direction.  Modifying it directly invalidates the cached length.
+	 *
+	 * @return the underlying tour
+	 */
+	public MutableTour getTour() {
+		return tour;
+	}
+
+	/**
+	 * Returns the cached length of this tour in O(1) time.
+	 *
+	 * @return the length of this tour
+	 */
+	public double length() {
+		return length;
+	}
+
+	/**
+	 * Sets the number of updates after which the cached length is verified
+	 * against a full recomputation.  Verification takes O(N) time and is
+	 * intended for debugging.
+	 *
+	 * @param verificationInterval the number of updates between two
+	 *        verifications, or {@code 0} to disable verification
+	 */
+	public void setVerificationInterval(int verificationInterval) {
+		this.verificationInterval = verificationInterval;
+		this.updates = 0;
+	}
+
+	/**
+	 * Compares the cached length against a full recomputation.
+	 *
+	 * @throws IllegalStateException if the cached length differs from the
+	 *         recomputed length
+	 */
+	public void verify() {
+		check(length, computeLength(true));
+
+		if (!symmetric) {
+			check(reverseLength, computeLength(false));
+		}
+	}
+
+	/**
+	 * Compares a cached length against a recomputed length.
+	 *
+	 * @param cached the cached length
+	 * @param actual the recomputed length
+	 * @throws IllegalStateException if the lengths differ
+	 */
+	private static void check(double cached, double actual) {
+		if (Math.abs(cached - actual) > TOLERANCE * Math.max(1.0, Math.abs(actual))) {
+			throw new IllegalStateException("cached length " + cached + " differs from actual length " + actual);
+		}
+	}
+
+	/**
+	 * Counts an update, verifying the cached length if the verification
+	 * interval is reached.
+	 */
+	private void updated() {
+		if ((verificationInterval > 0) && (++updates >= verificationInterval)) {
+			updates = 0;
+			verify();
+		}
+	}
+
+	/**
+	 * Sums the internal edges of the path from {@code first} to {@code last}
+	 * into {@link #forwardSum} and {@link #backwardSum}.  The path and its
+	 * complement are walked in lockstep, so this takes time linear in the
+	 * length of the shorter of the two.
+	 *
+	 * @param first the first node of the path
+	 * @param last the last node of the path
+	 */
+	private void sumPath(int first, int last) {
+		int p = prev(first);
+		int q = next(last);
+		double pathForward = 0.0;
+		double pathBackward = 0.0;
+		double restForward = 0.0;
+		double restBackward = 0.0;
+		int x = first;
+		int y = q;
+
+		while (true) {
+			if (x == last) {
+				forwardSum = pathForward;
+				backwardSum = pathBackward;
+				return;
+			}
+
+			int nx = next(x);
+			pathForward += d(x, nx);
+			pathBackward += d(nx, x);
+			x = nx;
+
+			if (y == p) {
+				// the path consists of everything but the complement and the two connecting edges
+				forwardSum = length - restForward - d(p, first) - d(last, q);
+				backwardSum = reverseLength - restBackward - d(first, p) - d(q, last);
+				return;
+			}
+
+			int ny = next(y);
+			restForward += d(y, ny);
+			restBackward += d(ny, y);
+			y = ny;
+		}
+	}
+
+	/**
+	 * Returns the change in length of replacing the tour edges (a, b) and
+	 * (c, d) by (a, c) and (b, d), where {@code b = next(a)} and
+	 * {@code d = next(c)}, which reverses the path from b to c.  This takes
+	 * O(1) time on symmetric distance tables.
+	 *
+	 * @param a the first end point of the first removed edge
+	 * @param b the second end point of the first removed edge
+	 * @param c the first end point of the second removed edge
+	 * @param d the second end point of the second removed edge
+	 * @return the change in length
+	 */
+	public double deltaTwoOpt(int a, int b, int c, int d) {
+		double delta = d(a, c) + d(b, d) - d(a, b) - d(c, d);
+
+		if (!symmetric) {
+			sumPath(b, c);
+			delta += backwardSum - forwardSum;
+		}
+
+		return delta;
+	}
+
+	/**
+	 * Returns the change in length of reversing the path from {@code from} to
+	 * {@code to}.  This takes O(1) time on symmetric distance tables.
+	 *
+	 * @param from the identifier of the first node of the path
+	 * @param to the identifier of the last node of the path
+	 * @return the change in length
+	 */
+	public double deltaReverse(int from, int to) {
+		int p = prev(from);
+		int q = next(to);
+
+		if (from == to) {
+			return 0.0;
+		} else if (q == from) {
+			// reversing the whole tour changes its direction of travel
+			return reverseLength - length;
+		}
+
+		return deltaTwoOpt(p, from, to, q);
+	}
+
+	/**
+	 * Returns the change in length of moving the path from {@code first} to
+	 * {@code last} after node {@code after}, as done by
+	 * {@link #moveSegment(int, int, int, boolean)}.  This takes O(1) time on
+	 * symmetric distance tables or if the path is not reversed.
+	 *
+	 * @param first the identifier of the first node of the path
+	 * @param last the identifier of the last node of the path
+	 * @param after the identifier of the node after which the path is placed,
+	 *        which must not lie on the path
+	 * @param reversed {@code true} if the path is reversed; {@code false}
+	 *        otherwise
+	 * @return the change in length
+	 */
+	public double deltaMoveSegment(int first, int last, int after, boolean reversed) {
+		int p = prev(first);
+		int q = next(last);
+
+		if (after == p) {
+			return reversed ? deltaReverse(first, last) : 0.0;
+		}
+
+		int s = next(after);
+		double delta = d(p, q) - d(p, first) - d(last, q) - d(after, s);
+
+		if (reversed) {
+			delta += d(after, last) + d(first, s);
+
+			if (!symmetric) {
+				sumPath(first, last);
+				delta += backwardSum - forwardSum;
+			}
+		} else {
+			delta += d(after, first) + d(last, s);
+		}
+
+		return delta;
+	}
+
+	/**
+	 * Returns the change in length of exchanging the positions of two nodes in
+	 * O(1) time.
+	 *
+	 * @param a the identifier of the first node
+	 * @param b the identifier of the second node
+	 * @return the change in length
+	 */
+	public double deltaSwap(int a, int b) {
+		if ((a == b) || (tour.size() < 3)) {
+			return 0.0;
+		}
+
+		if (next(b) == a) {
+			int swap = a;
+			a = b;
+			b = swap;
+		}
+
+		int pa = prev(a);
+		int na = next(a);
+		int pb = prev(b);
+		int nb = next(b);
+
+		if (na == b) {
+			// pa a b nb becomes pa b a nb
+			return d(pa, b) + d(b, a) + d(a, nb) - d(pa, a) - d(a, b) - d(b, nb);
+		} else {
+			return d(pa, b) + d(b, na) + d(pb, a) + d(a, nb) - d(pa, a) - d(a, na) - d(pb, b) - d(b, nb);
+		}
+	}
+
+	@Override
+	public void reverse(int from, int to) {
+		if (from == to) {
+			return;
+		}
+
+		int p = prev(from);
+		int q = next(to);
+
+		if (q == from) {
+			// reversing the whole tour only changes its direction of travel
+			flipped = !flipped;
+			double swap = length;
+			length = reverseLength;
+			reverseLength = swap;
+			updated();
+			return;
+		}
+
+		double forward = d(p, to) + d(from, q) - d(p, from) - d(to, q);
+		double backward = forward;
+
+		if (!symmetric) {
+			// the internal edges of the path change direction
+			sumPath(from, to);
+			forward += backwardSum - forwardSum;
+			backward = d(to, p) + d(q, from) - d(from, p) - d(q, to) + forwardSum - backwardSum;
+		}
+
+		if (flipped) {
+			tour.reverse(to, from);
+		} else {
+			tour.reverse(from, to);
+		}
+
+		length += forward;
+		reverseLength += backward;
+
+		// the underlying tour may have reversed the complement instead
+		if (next(p) != to) {
+			flipped = !flipped;
+		}
+
+		updated();
+	}
+
+	@Override
+	public void moveSegment(int first, int last, int after, boolean reversed) {
+		int p = prev(first);
+		int q = next(last);
+
+		if (after == p) {
+			// the path stays in place, which reverse also guarantees
+			if (reversed) {
+				reverse(first, last);
+			}
+
+			return;
+		}
+
+		int s = next(after);
+		double forward = deltaMoveSegment(first, last, after, reversed);
+		double backward = forward;
+
+		if (!symmetric) {
+			backward = d(q, p) - d(first, p) - d(q, last) - d(s, after);
+
+			if (reversed) {
+				// deltaMoveSegment left the sums of the path in the fields
+				backward += d(last, after) + d(s, first) + forwardSum - backwardSum;
+			} else {
+				backward += d(first, after) + d(s, last);
+			}
+		}
+
+		if (flipped) {
+			tour.moveSegment(last, first, s, reversed);
+		} else {
+			tour.moveSegment(first, last, after, reversed);
+		}
+
+		length += forward;
+		reverseLength += backward;
+		updated();
+	}
+
+	/**
+	 * Exchanges the positions of two nodes.  The rest of the tour keeps its
+	 * orientation.
+	 *
+	 * @param a the identifier of the first node
+	 * @param b the identifier of the second node
+	 */
+	public void swap(int a, int b) {
+		if ((a == b) || (tour.size() < 3)) {
+			return;
+		}
+
+		int pa = prev(a);
+		int pb = prev(b);
+
+		if (pb == a) {
+			moveSegment(a, a, b, false);
+		} else if (pa == b) {
+			moveSegment(b, b, a, false);
+		} else {
+			// pa a .. pb b becomes pa .. pb b a, then pa b .. pb a
+			moveSegment(a, a, b, false);
+			moveSegment(b, b, pa, false);
+		}
+	}
+
+	@Override
+	public int size() {
+		return tour.size();
+	}
+
+	@Override
+	public int next(int id) {
+		return flipped ? tour.prev(id) : tour.next(id);
+	}
+
+	@Override
+	public int prev(int id) {
+		return flipped ? tour.next(id) : tour.prev(id);
+	}
+
+	@Override
+	public boolean between(int a, int b, int c) {
+		return flipped ? tour.between(c, b, a) : tour.between(a, b, c);
+	}
+
+	@Override
+	public void copyFrom(MutableTour other) {
+		if (other instanceof LengthTrackingTour) {
+			LengthTrackingTour tracked = (LengthTrackingTour)other;
+			tour.copyFrom(tracked.tour);
+			flipped = tracked.flipped;
+
+			if ((tracked.distanceTable == distanceTable) && (tracked.symmetric == symmetric)) {
+				length = tracked.length;
+				reverseLength = tracked.reverseLength;
+				updated();
+				return;
+			}
+		} else {
+			tour.copyFrom(other);
+			flipped = false;
+		}
+
+		recompute();
+	}
+
+	/**
+	 * Returns the length of this tour.  If the given distance table is the
+	 * one this tour is bound to, the cached length is returned in O(1) time.
+	 *
+	 * @param distanceTable the distance table
+	 * @return the length of this tour
+	 */
+	@Override
+	public double length(DistanceTable distanceTable) {
+		if ((distanceTable == source) || (distanceTable == this.distanceTable)) {
+			return length;
+		} else {
+			int[] nodes = toArray();
+			double result = 0.0;
+
+			for (int i = 0; i < nodes.length; i++) {
+				result += distanceTable.getDistanceBetween(nodes[i], nodes[(i+1 == nodes.length) ? 0 : i+1]);
+			}
+
+			return result;
+		}
+	}
+
+	@Override
+	public int[] toArray() {
+		int[] result = tour.toArray();
+
+		if (flipped) {
+			for (int i = 0, j = result.length-1; i < j; i++, j--) {
+				int swap = result[i];
+				result[i] = result[j];
+				result[j] = swap;
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public TSPLibTour toTour() {
+		return TSPLibTour.createTour(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return toTour().toString();
+	}
+
+}
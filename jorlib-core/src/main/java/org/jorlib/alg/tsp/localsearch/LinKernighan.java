@@ -0,0 +1,550 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * LinKernighan.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Lin-Kernighan variable-depth search for the symmetric TSP.  Starting from a
+ * node t1 and a tour edge (t1, t2), the search repeatedly adds an edge (t2,
+ * t3) to a candidate t3 and removes the edge (t3, t4) which allows the tour to
+ * be closed by (t4, t1); t4 then takes the role of t2.  Each such step is a
+ * 2-opt move, so the tour remains a Hamiltonian cycle throughout.  The chain
+ * is extended while the cumulative gain, excluding the closing edge, stays
+ * positive.  Up to {@link #SECOND_LEVEL_BREADTH} alternatives are tried at the
+ * second step; beyond, each step follows the candidate which maximizes |(t3,
+ * t4)| - |(t2, t3)|.  Once the chain ends, the best tour encountered along it is
+ * kept, or the tour is restored if none improved.
+ * <p>
+ * At the first level every candidate t3 is tried, and the alternative first
+ * step of Lin and Kernighan is considered as well: removing (t3, t4) with t4
+ * on the other side of t3, which would split the tour, and repairing it with a
+ * third exchange (t4, t5), (t5, t6).  The search therefore covers all
+ * sequential 3-opt moves, including segment insertions without reversal, as
+ * well as deeper sequential moves up to the maximum depth.
+ * <p>
+ * Flips are performed on the {@link MutableTour} representation chosen by
+ * {@link #createTour(int[])}: an {@link ArrayTour}, whose flips take time
+ * linear in the length of the shorter side of the tour, or on large instances
+ * a {@link TwoLevelListTour}, whose flips take O(&radic;N) time.
+ *
+ * @author Joris Kinable
+ */
+public class LinKernighan extends AbstractLocalSearch {
+
+	/**
+	 * The default maximum number of steps in a chain.
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 50;
+
+	/**
+	 * The number of alternatives tried at the second step of a chain.
+	 */
+	public static final int SECOND_LEVEL_BREADTH = 5;
+
+	/**
+	 * The maximum number of steps in a chain.
+	 */
+	private int maxDepth;
+
+	/**
+	 * The applied 2-opt moves of the current chain, four nodes per move.
+	 */
+	private int[] log;
+
+	/**
+	 * The number of applied 2-opt moves of the current chain.
+	 */
+	private int logSize;
+
+	/**
+	 * The end points of the edges added by the current chain, two nodes per
+	 * edge.
+	 */
+	private int[] added;
+
+	/**
+	 * The number of edges added by the current chain.
+	 */
+	private int addedSize;
+
+	/**
+	 * The best gain found along the current chain.
+	 */
+	private double bestGain;
+
+	/**
+	 * The number of 2-opt moves of the current chain yielding the best gain.
+	 */
+	private int bestLogSize;
+
+	/**
+	 * Constructs a Lin-Kernighan search using the 8 nearest neighbors of every
+	 * node as candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 */
+	public LinKernighan(DistanceTable distanceTable) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, 8));
+	}
+
+	/**
+	 * Constructs a Lin-Kernighan search using the given candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public LinKernighan(DistanceTable distanceTable, CandidateLists candidates) {
+		super(distanceTable, candidates);
+		setMaxDepth(DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Sets the maximum number of steps in a chain.
+	 *
+	 * @param maxDepth the maximum number of steps, at least {@code 1}
+	 * @throws IllegalArgumentException if {@code maxDepth} is less than
+	 *         {@code 1}
+	 */
+	public void setMaxDepth(int maxDepth) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("maximum depth must be at least 1");
+		}
+
+		this.maxDepth = maxDepth;
+		log = new int[4*(maxDepth+3)];
+		added = new int[2*(maxDepth+3)];
+	}
+
+	/**
+	 * Returns the distance between two nodes.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the distance between the two nodes
+	 */
+	private double d(int id1, int id2) {
+		return distanceTable.getDistanceBetween(id1, id2);
+	}
+
+	/**
+	 * Returns the neighbor of a node in the given direction.
+	 *
+	 * @param tour the tour
+	 * @param id the identifier of the node
+	 * @param forward {@code true} for the successor, {@code false} for the
+	 *        predecessor
+	 * @return the neighbor of the node
+	 */
+	private static int succ(MutableTour tour, int id, boolean forward) {
+		return forward ? tour.next(id) : tour.prev(id);
+	}
+
+	/**
+	 * Returns the neighbor of a node opposite to the given direction.
+	 *
+	 * @param tour the tour
+	 * @param id the identifier of the node
+	 * @param forward {@code true} for the predecessor, {@code false} for the
+	 *        successor
+	 * @return the neighbor of the node
+	 */
+	private static int pred(MutableTour tour, int id, boolean forward) {
+		return forward ? tour.prev(id) : tour.next(id);
+	}
+
+	/**
+	 * Replaces the tour edges (a, b) and (c, d) by (a, c) and (b, d), where
+	 * either {@code b = next(a)} and {@code d = next(c)}, or {@code b =
+	 * prev(a)} and {@code d = prev(c)}, and records the move.
+	 *
+	 * @param tour the tour
+	 * @param a the first end point of the first removed edge
+	 * @param b the second end point of the first removed edge
+	 * @param c the first end point of the second removed edge
+	 * @param d the second end point of the second removed edge
+	 */
+	private void move(MutableTour tour, int a, int b, int c, int d) {
+		flip(tour, a, b, c, d);
+		log[logSize++] = a;
+		log[logSize++] = b;
+		log[logSize++] = c;
+		log[logSize++] = d;
+	}
+
+	/**
+	 * Replaces the tour edges (a, b) and (c, d) by (a, c) and (b, d).
+	 *
+	 * @param tour the tour
+	 * @param a the first end point of the first removed edge
+	 * @param b the second end point of the first removed edge
+	 * @param c the first end point of the second removed edge
+	 * @param d the second end point of the second removed edge
+	 */
+	private static void flip(MutableTour tour, int a, int b, int c, int d) {
+		if (tour.next(a) == b) {
+			tour.reverse(b, c);
+		} else {
+			tour.reverse(a, d);
+		}
+	}
+
+	/**
+	 * Undoes the most recent moves until only the given number remain.
+	 *
+	 * @param tour the tour
+	 * @param size the number of moves to keep, times four
+	 */
+	private void undo(MutableTour tour, int size) {
+		while (logSize > size) {
+			int d = log[--logSize];
+			int c = log[--logSize];
+			int b = log[--logSize];
+			int a = log[--logSize];
+
+			// replace (a, c) and (b, d) by (a, b) and (c, d)
+			flip(tour, a, c, b, d);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the edge between two nodes was added by the
+	 * current chain; {@code false} otherwise.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return {@code true} if the edge was added by the current chain
+	 */
+	private boolean isAdded(int id1, int id2) {
+		for (int i = 0; i < addedSize; i += 2) {
+			if (((added[i] == id1) && (added[i+1] == id2)) ||
+					((added[i] == id2) && (added[i+1] == id1))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Records an edge added by the current chain.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 */
+	private void addEdge(int id1, int id2) {
+		added[addedSize++] = id1;
+		added[addedSize++] = id2;
+	}
+
+	/**
+	 * Records the gain of closing the tour at the current state of the chain.
+	 *
+	 * @param gain the gain of closing the tour
+	 */
+	private void recordGain(double gain) {
+		if (gain > bestGain) {
+			bestGain = gain;
+			bestLogSize = logSize;
+		}
+	}
+
+	@Override
+	protected boolean improveNode(MutableTour tour, int t1) {
+		if (tour.size() < 5) {
+			return false;
+		}
+
+		for (int direction = 0; direction < 2; direction++) {
+			int t2 = (direction == 0) ? tour.next(t1) : tour.prev(t1);
+			double g0 = d(t1, t2);
+
+			for (int t3 : candidates.get(t2)) {
+				double g1 = g0 - d(t2, t3);
+
+				if (g1 <= EPSILON) {
+					break;
+				}
+
+				// the orientation may change when the tour is restored
+				boolean forward = (tour.next(t1) == t2);
+
+				if ((t3 == t1) || (t3 == succ(tour, t2, forward))) {
+					continue;
+				}
+
+				// standard step: t4 precedes t3, so closing with (t4, t1) yields a tour
+				int t4 = pred(tour, t3, forward);
+				begin();
+				addEdge(t2, t3);
+				moveEvaluated();
+				move(tour, t1, t2, t4, t3);
+				double g = g1 + d(t4, t3);
+				recordGain(g - d(t4, t1));
+				extend(tour, t1, t4, g, 1);
+
+				if (commit(tour)) {
+					return true;
+				}
+
+				// alternative step: t4 follows t3 and the tour is repaired by (t4, t5), (t5, t6)
+				forward = (tour.next(t1) == t2);
+				t4 = succ(tour, t3, forward);
+
+				if (t4 == t1) {
+					continue;
+				}
+
+				double g2 = g1 + d(t3, t4);
+
+				for (int t5 : candidates.get(t4)) {
+					double g3 = g2 - d(t4, t5);
+
+					if (g3 <= EPSILON) {
+						break;
+					}
+
+					forward = (tour.next(t1) == t2);
+
+					if ((t5 == t3) || (t5 == t4) || !between(tour, t2, t5, t3, forward)) {
+						continue;
+					}
+
+					for (int option = 0; option < 2; option++) {
+						boolean after = (option == 0);
+
+						// t6 follows t5: the segments t2..t5 and t6..t3 are swapped;
+						// t6 precedes t5: both segments t2..t6 and t5..t3 are reversed
+						if ((after && (t5 == t3)) || (!after && (t5 == t2))) {
+							continue;
+						}
+
+						int t6 = after ? succ(tour, t5, forward) : pred(tour, t5, forward);
+						begin();
+						addEdge(t2, t3);
+						addEdge(t4, t5);
+						moveEvaluated();
+
+						if (after) {
+							move(tour, t1, t2, t3, t4);
+							move(tour, t1, t3, t6, t5);
+							move(tour, t3, t5, t2, t4);
+						} else {
+							move(tour, t1, t2, t6, t5);
+							move(tour, t2, t5, t3, t4);
+						}
+
+						g = g3 + d(t5, t6);
+						recordGain(g - d(t6, t1));
+						extend(tour, t1, t6, g, 3);
+
+						if (commit(tour)) {
+							return true;
+						}
+
+						forward = (tour.next(t1) == t2);
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns {@code true} if node {@code b} lies on the path from {@code a} to
+	 * {@code c} in the given direction; {@code false} otherwise.
+	 *
+	 * @param tour the tour
+	 * @param a the first node of the path
+	 * @param b the node to test
+	 * @param c the last node of the path
+	 * @param forward the direction of the path
+	 * @return {@code true} if {@code b} lies on the path; {@code false}
+	 *         otherwise
+	 */
+	private static boolean between(MutableTour tour, int a, int b, int c, boolean forward) {
+		return forward ? tour.between(a, b, c) : tour.between(c, b, a);
+	}
+
+	/**
+	 * Starts a new chain.
+	 */
+	private void begin() {
+		logSize = 0;
+		addedSize = 0;
+		bestGain = EPSILON;
+		bestLogSize = -1;
+	}
+
+	/**
+	 * Extends the current chain with standard steps, where the edge (t1, t2)
+	 * is the edge closing the tour.  At the second step, up to
+	 * {@link #SECOND_LEVEL_BREADTH} alternatives are tried in the order of the
+	 * candidate list; deeper steps only follow the best alternative.
+	 *
+	 * @param tour the tour
+	 * @param t1 the first node of the chain
+	 * @param t2 the last node of the chain
+	 * @param gain the cumulative gain of the chain, excluding the closing edge
+	 * @param depth the number of steps of the chain
+	 */
+	private void extend(MutableTour tour, int t1, int t2, double gain, int depth) {
+		if (depth >= maxDepth) {
+			return;
+		}
+
+		if (depth > 1) {
+			extendGreedily(tour, t1, t2, gain, depth);
+			return;
+		}
+
+		int logMark = logSize;
+		int addedMark = addedSize;
+		int tried = 0;
+
+		for (int t3 : candidates.get(t2)) {
+			double g = gain - d(t2, t3);
+
+			if ((g <= EPSILON) || (tried >= SECOND_LEVEL_BREADTH)) {
+				break;
+			}
+
+			boolean forward = (tour.next(t1) == t2);
+
+			if ((t3 == t1) || (t3 == succ(tour, t2, forward))) {
+				continue;
+			}
+
+			int t4 = pred(tour, t3, forward);
+
+			if (isAdded(t3, t4)) {
+				continue;
+			}
+
+			tried++;
+			moveEvaluated();
+			addEdge(t2, t3);
+			move(tour, t1, t2, t4, t3);
+			g += d(t4, t3);
+			recordGain(g - d(t4, t1));
+			extendGreedily(tour, t1, t4, g, depth + 1);
+
+			if (bestLogSize >= 0) {
+				return;
+			}
+
+			undo(tour, logMark);
+			addedSize = addedMark;
+		}
+	}
+
+	/**
+	 * Extends the current chain with standard steps, following at each step
+	 * the candidate t3 which maximizes |(t3, t4)| - |(t2, t3)|.
+	 *
+	 * @param tour the tour
+	 * @param t1 the first node of the chain
+	 * @param t2 the last node of the chain
+	 * @param gain the cumulative gain of the chain, excluding the closing edge
+	 * @param depth the number of steps of the chain
+	 */
+	private void extendGreedily(MutableTour tour, int t1, int t2, double gain, int depth) {
+		for (; depth < maxDepth; depth++) {
+			boolean forward = (tour.next(t1) == t2);
+			int bestT3 = -1;
+			int bestT4 = -1;
+			double bestValue = Double.NEGATIVE_INFINITY;
+
+			for (int t3 : candidates.get(t2)) {
+				double g = gain - d(t2, t3);
+
+				if (g <= EPSILON) {
+					break;
+				}
+
+				if ((t3 == t1) || (t3 == succ(tour, t2, forward))) {
+					continue;
+				}
+
+				int t4 = pred(tour, t3, forward);
+
+				if (isAdded(t3, t4)) {
+					continue;
+				}
+
+				double value = d(t4, t3) - d(t2, t3);
+
+				if (value > bestValue) {
+					bestValue = value;
+					bestT3 = t3;
+					bestT4 = t4;
+				}
+			}
+
+			if (bestT3 < 0) {
+				return;
+			}
+
+			moveEvaluated();
+			addEdge(t2, bestT3);
+			move(tour, t1, t2, bestT4, bestT3);
+			gain += bestValue;
+			recordGain(gain - d(bestT4, t1));
+			t2 = bestT4;
+		}
+	}
+
+	/**
+	 * Ends the current chain, keeping the moves up to the best gain and
+	 * undoing the others.
+	 *
+	 * @param tour the tour
+	 * @return {@code true} if the chain improved the tour; {@code false}
+	 *         otherwise
+	 */
+	private boolean commit(MutableTour tour) {
+		if (bestLogSize < 0) {
+			undo(tour, 0);
+			return false;
+		}
+
+		undo(tour, bestLogSize);
+		moveApplied(-bestGain);
+
+		for (int i = 0; i < bestLogSize; i++) {
+			activate(log[i]);
+		}
+
+		return true;
+	}
+
+}
@@ -0,0 +1,137 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * MutableTour.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * A mutable tour over the nodes {@code 0, 1, ..., N-1} supporting the
+ * operations needed by local search: successor, predecessor and betweenness
+ * queries, path reversals and segment moves.  Implementations trade the cost
+ * of queries against the cost of updates; see {@link ArrayTour} and
+ * {@link TwoLevelListTour}.
+ *
+ * @author Joris Kinable
+ */
+public interface MutableTour {
+
+	/**
+	 * Returns the number of nodes in this tour.
+	 *
+	 * @return the number of nodes in this tour
+	 */
+	public int size();
+
+	/**
+	 * Returns the node visited after the given node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the successor of the node
+	 */
+	public int next(int id);
+
+	/**
+	 * Returns the node visited before the given node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the predecessor of the node
+	 */
+	public int prev(int id);
+
+	/**
+	 * Returns {@code true} if node {@code b} is visited when travelling from
+	 * node {@code a} to node {@code c} in the direction of the tour, end points
+	 * included; {@code false} otherwise.
+	 *
+	 * @param a the identifier of the first node
+	 * @param b the identifier of the node to test
+	 * @param c the identifier of the last node
+	 * @return {@code true} if {@code b} lies on the path from {@code a} to
+	 *         {@code c}; {@code false} otherwise
+	 */
+	public boolean between(int a, int b, int c);
+
+	/**
+	 * Reverses the path from node {@code from} to node {@code to}, following
+	 * the direction of the tour.  Since reversing a path of a cycle yields the
+	 * same cycle as reversing its complement, implementations may reverse the
+	 * complement instead; the orientation of the tour may therefore change.
+	 *
+	 * @param from the identifier of the first node of the path
+	 * @param to the identifier of the last node of the path
+	 */
+	public void reverse(int from, int to);
+
+	/**
+	 * Moves the path from node {@code first} to node {@code last}, following
+	 * the direction of the tour, so that it is visited directly after node
+	 * {@code after}.  If {@code reversed} is {@code true}, the path is visited
+	 * from {@code last} to {@code first} instead.  The rest of the tour keeps
+	 * its orientation.
+	 *
+	 * @param first the identifier of the first node of the path
+	 * @param last the identifier of the last node of the path
+	 * @param after the identifier of the node after which the path is placed,
+	 *        which must not lie on the path
+	 * @param reversed {@code true} if the path is reversed; {@code false}
+	 *        otherwise
+	 */
+	public void moveSegment(int first, int last, int after, boolean reversed);
+
+	/**
+	 * Replaces the order of this tour by the order of another tour over the
+	 * same nodes.
+	 *
+	 * @param other the tour to copy
+	 * @throws IllegalArgumentException if the tours differ in size
+	 */
+	public void copyFrom(MutableTour other);
+
+	/**
+	 * Returns the length of this tour.
+	 *
+	 * @param distanceTable the distance table
+	 * @return the length of this tour
+	 */
+	public double length(DistanceTable distanceTable);
+
+	/**
+	 * Returns the nodes in the order they are visited.
+	 *
+	 * @return the nodes in the order they are visited
+	 */
+	public int[] toArray();
+
+	/**
+	 * Returns this tour as a TSPLIB tour.
+	 *
+	 * @return this tour as a TSPLIB tour
+	 */
+	public TSPLibTour toTour();
+
+}
@@ -0,0 +1,259 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * NodeRenumbering.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.Arrays;
+
+import org.jorlib.alg.tsp.construction.HilbertCurve;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+
+/**
+ * A renumbering of the nodes of an instance which places nodes that are close
+ * to each other at nearby identifiers.  Node identifiers of TSPLIB instances
+ * follow the order of the file, so the data of neighboring nodes is usually
+ * scattered in memory; local search, which mostly inspects nodes close to each
+ * other, then suffers from cache misses in every array indexed by node.
+ * Solving the renumbered instance obtained from {@link #apply(DistanceTable)}
+ * and translating the tour back with {@link #toOriginal(TSPLibTour)} avoids
+ * most of these misses.
+ * <p>
+ * Renumberings are computed from a {@link HilbertCurve} for instances with
+ * node coordinates, and by the reverse Cuthill-McKee algorithm for sparse
+ * graphs such as {@link org.jorlib.io.tspLibReader.graph.EdgeData}.  Node
+ * {@code i} of the renumbered instance is node {@code toOriginal(i)} of the
+ * original instance.
+ *
+ * @author Joris Kinable
+ */
+public final class NodeRenumbering {
+
+	/**
+	 * The original identifier of each renumbered node.
+	 */
+	private final int[] original;
+
+	/**
+	 * The renumbered identifier of each original node.
+	 */
+	private final int[] renumbered;
+
+	/**
+	 * Constructs a renumbering from the original identifiers of the
+	 * renumbered nodes.
+	 *
+	 * @param order the original identifier of each renumbered node, i.e. the
+	 *        original nodes in their new order
+	 * @throws IllegalArgumentException if {@code order} is not a permutation
+	 *         of {@code 0, 1, ..., N-1}
+	 */
+	public NodeRenumbering(int[] order) {
+		super();
+		int n = order.length;
+		original = order.clone();
+		renumbered = new int[n];
+		Arrays.fill(renumbered, -1);
+
+		for (int i = 0; i < n; i++) {
+			if ((order[i] < 0) || (order[i] > n-1) || (renumbered[order[i]] >= 0)) {
+				throw new IllegalArgumentException("order must contain every node once");
+			}
+
+			renumbered[order[i]] = i;
+		}
+	}
+
+	/**
+	 * Returns the renumbering which orders the nodes along a Hilbert curve.
+	 *
+	 * @param coordinates the two-dimensional node coordinates, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @return the renumbering
+	 * @throws IllegalArgumentException if a node does not have exactly two
+	 *         coordinates
+	 */
+	public static NodeRenumbering spaceFillingCurve(NodeCoordinates coordinates) {
+		return new NodeRenumbering(HilbertCurve.order(coordinates));
+	}
+
+	/**
+	 * Returns the renumbering computed by the reverse Cuthill-McKee algorithm,
+	 * which reduces the bandwidth of the adjacency matrix of a sparse graph.
+	 * Each connected component is traversed breadth-first from a node of
+	 * minimum degree, visiting the unvisited neighbors of every node by
+	 * increasing degree; the resulting order is reversed.  This takes
+	 * O(E log D) time, where D is the maximum degree.  On complete graphs
+	 * every order has the same bandwidth, so {@link #spaceFillingCurve} should
+	 * be used when coordinates are available.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @return the renumbering
+	 */
+	public static NodeRenumbering reverseCuthillMcKee(DistanceTable distanceTable) {
+		FrozenDistanceTable table = distanceTable.freeze();
+		int n = table.size();
+		int[][] adjacency = new int[n][];
+		long[] roots = new long[n];
+
+		for (int i = 0; i < n; i++) {
+			adjacency[i] = table.getNeighborsOf(i);
+			roots[i] = ((long)adjacency[i].length << 32) | i;
+		}
+
+		// candidate roots by increasing degree
+		Arrays.sort(roots);
+		boolean[] visited = new boolean[n];
+		int[] order = new int[n];
+		int count = 0;
+
+		for (long root : roots) {
+			int r = (int)root;
+
+			if (visited[r]) {
+				continue;
+			}
+
+			visited[r] = true;
+			order[count++] = r;
+
+			// the order doubles as the queue of the breadth-first search
+			for (int head = count - 1; head < count; head++) {
+				int[] neighbors = adjacency[order[head]];
+				long[] keys = new long[neighbors.length];
+				int size = 0;
+
+				for (int v : neighbors) {
+					if (!visited[v]) {
+						visited[v] = true;
+						keys[size++] = ((long)adjacency[v].length << 32) | v;
+					}
+				}
+
+				Arrays.sort(keys, 0, size);
+
+				for (int k = 0; k < size; k++) {
+					order[count++] = (int)keys[k];
+				}
+			}
+		}
+
+		for (int i = 0, j = n - 1; i < j; i++, j--) {
+			int t = order[i];
+			order[i] = order[j];
+			order[j] = t;
+		}
+
+		return new NodeRenumbering(order);
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return original.length;
+	}
+
+	/**
+	 * Returns the original identifier of a renumbered node.
+	 *
+	 * @param id the renumbered identifier
+	 * @return the original identifier
+	 */
+	public int toOriginal(int id) {
+		return original[id];
+	}
+
+	/**
+	 * Returns the renumbered identifier of an original node.
+	 *
+	 * @param id the original identifier
+	 * @return the renumbered identifier
+	 */
+	public int toRenumbered(int id) {
+		return renumbered[id];
+	}
+
+	/**
+	 * Returns the renumbered distance table, in which node {@code i} is node
+	 * {@code toOriginal(i)} of the given table.
+	 *
+	 * @param distanceTable the original distance table
+	 * @return the renumbered distance table
+	 * @throws IllegalArgumentException if the table does not match the number
+	 *         of nodes
+	 */
+	public FrozenDistanceTable apply(DistanceTable distanceTable) {
+		return distanceTable.freeze().permute(original);
+	}
+
+	/**
+	 * Translates a tour over the renumbered nodes to the original nodes.
+	 *
+	 * @param tour the tour over the renumbered nodes
+	 * @return the tour over the original nodes
+	 */
+	public TSPLibTour toOriginal(TSPLibTour tour) {
+		return TSPLibTour.createTour(translate(tour.toArray(), original));
+	}
+
+	/**
+	 * Translates a tour over the original nodes to the renumbered nodes.
+	 *
+	 * @param tour the tour over the original nodes
+	 * @return the tour over the renumbered nodes
+	 */
+	public TSPLibTour toRenumbered(TSPLibTour tour) {
+		return TSPLibTour.createTour(translate(tour.toArray(), renumbered));
+	}
+
+	/**
+	 * Replaces every node of a sequence by its image under a mapping.
+	 *
+	 * @param nodes the nodes, which are replaced
+	 * @param mapping the mapping
+	 * @return the replaced nodes
+	 * @throws IllegalArgumentException if the tour does not match the number
+	 *         of nodes
+	 */
+	private static int[] translate(int[] nodes, int[] mapping) {
+		if (nodes.length != mapping.length) {
+			throw new IllegalArgumentException("tour does not match the number of nodes");
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = mapping[nodes[i]];
+		}
+
+		return nodes;
+	}
+
+}
@@ -0,0 +1,269 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * OrOpt.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * Or-opt local search for the symmetric and asymmetric TSP.  An Or-opt move
+ * removes a segment of one to three consecutive nodes from the tour and
+ * reinserts it, possibly reversed, between two other adjacent nodes.
+ * <p>
+ * Moves are only evaluated if one of the new edges connects an end point of
+ * the segment to one of its candidates, and the scan of a candidate list stops
+ * once that edge is no shorter than the gain of removing the segment.  Every
+ * distance is taken in the direction of travel, and reinserting a segment
+ * reversed accounts for the changed direction of its internal edges, so the
+ * change in length of each move is exact for asymmetric instances and is
+ * evaluated in O(1) time.  Moves are applied in place by
+ * {@link MutableTour#moveSegment(int, int, int, boolean)}, which preserves the
+ * orientation of the remainder of the tour.
+ *
+ * @author Joris Kinable
+ */
+public class OrOpt extends AbstractLocalSearch {
+
+	/**
+	 * The maximum number of nodes in a moved segment.
+	 */
+	public static final int MAX_SEGMENT_LENGTH = 3;
+
+	/**
+	 * Constructs an Or-opt search using the 10 nearest neighbors of every node
+	 * as candidates.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 */
+	public OrOpt(DistanceTable distanceTable) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, 10));
+	}
+
+	/**
+	 * Constructs an Or-opt search using the given candidates.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public OrOpt(DistanceTable distanceTable, CandidateLists candidates) {
+		super(distanceTable, candidates);
+	}
+
+	/**
+	 * Returns the distance from one node to another.
+	 *
+	 * @param id1 the identifier of the node where the edge starts
+	 * @param id2 the identifier of the node where the edge ends
+	 * @return the distance from {@code id1} to {@code id2}
+	 */
+	private double d(int id1, int id2) {
+		return distanceTable.getDistanceBetween(id1, id2);
+	}
+
+	@Override
+	protected boolean improveNode(MutableTour tour, int a) {
+		int n = tour.size();
+
+		for (int length = 1; (length <= MAX_SEGMENT_LENGTH) && (length + 3 <= n); length++) {
+			// segments starting at a, and segments ending at a
+			int last = a;
+
+			for (int k = 1; k < length; k++) {
+				last = tour.next(last);
+			}
+
+			if (improveSegment(tour, a, last)) {
+				return true;
+			}
+
+			if (length > 1) {
+				int first = a;
+
+				for (int k = 1; k < length; k++) {
+					first = tour.prev(first);
+				}
+
+				if (improveSegment(tour, first, a)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Searches for an improving reinsertion of the path from {@code first} to
+	 * {@code last} and applies the first one found.
+	 *
+	 * @param tour the tour
+	 * @param first the first node of the segment
+	 * @param last the last node of the segment
+	 * @return {@code true} if an improving move was applied; {@code false}
+	 *         otherwise
+	 */
+	private boolean improveSegment(MutableTour tour, int first, int last) {
+		int p = tour.prev(first);
+		int q = tour.next(last);
+		double gain = d(p, first) + d(last, q) - d(p, q);
+
+		if (gain <= EPSILON) {
+			return false;
+		}
+
+		// change in the length of the internal edges when the segment is reversed
+		double reversal = 0.0;
+
+		for (int x = first; x != last; x = tour.next(x)) {
+			int y = tour.next(x);
+			reversal += d(y, x) - d(x, y);
+		}
+
+		// insert with first adjacent to one of its candidates: (c, first) or (last..first, c)
+		for (int c : candidates.get(first)) {
+			if (d(first, c) >= gain - EPSILON) {
+				break;
+			}
+
+			if (tour.between(first, c, last)) {
+				continue;
+			}
+
+			// c, first..last, succ(c)
+			int f = successor(tour, c, p, q);
+
+			if ((c != p) && apply(tour, first, last, p, q, c, f, false,
+					d(c, first) + d(last, f) - d(c, f) - gain)) {
+				return true;
+			}
+
+			// pred(c), last..first, c
+			int e = predecessor(tour, c, p, q);
+
+			if (apply(tour, first, last, p, q, e, c, true,
+					d(e, last) + d(first, c) - d(e, c) + reversal - gain)) {
+				return true;
+			}
+		}
+
+		// insert with last adjacent to one of its candidates: (last, c) or (c, last..first)
+		for (int c : candidates.get(last)) {
+			if (d(last, c) >= gain - EPSILON) {
+				break;
+			}
+
+			if (tour.between(first, c, last)) {
+				continue;
+			}
+
+			// pred(c), first..last, c
+			int e = predecessor(tour, c, p, q);
+
+			if ((c != q) && apply(tour, first, last, p, q, e, c, false,
+					d(e, first) + d(last, c) - d(e, c) - gain)) {
+				return true;
+			}
+
+			// c, last..first, succ(c)
+			int f = successor(tour, c, p, q);
+
+			if (apply(tour, first, last, p, q, c, f, true,
+					d(c, last) + d(first, f) - d(c, f) + reversal - gain)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the successor of a node in the tour from which the segment
+	 * between {@code p} and {@code q} has been removed.
+	 *
+	 * @param tour the tour
+	 * @param c the node
+	 * @param p the predecessor of the segment
+	 * @param q the successor of the segment
+	 * @return the successor of {@code c} once the segment is removed
+	 */
+	private static int successor(MutableTour tour, int c, int p, int q) {
+		return (c == p) ? q : tour.next(c);
+	}
+
+	/**
+	 * Returns the predecessor of a node in the tour from which the segment
+	 * between {@code p} and {@code q} has been removed.
+	 *
+	 * @param tour the tour
+	 * @param c the node
+	 * @param p the predecessor of the segment
+	 * @param q the successor of the segment
+	 * @return the predecessor of {@code c} once the segment is removed
+	 */
+	private static int predecessor(MutableTour tour, int c, int p, int q) {
+		return (c == q) ? p : tour.prev(c);
+	}
+
+	/**
+	 * Applies the reinsertion of a segment between two adjacent nodes if it
+	 * is improving.
+	 *
+	 * @param tour the tour
+	 * @param first the first node of the segment
+	 * @param last the last node of the segment
+	 * @param p the predecessor of the segment
+	 * @param q the successor of the segment
+	 * @param before the node preceding the segment after the move
+	 * @param after the node following the segment after the move
+	 * @param reversed {@code true} if the segment is reversed
+	 * @param delta the change in length caused by the move
+	 * @return {@code true} if the move is improving and was applied;
+	 *         {@code false} otherwise
+	 */
+	private boolean apply(MutableTour tour, int first, int last, int p, int q,
+			int before, int after, boolean reversed, double delta) {
+		moveEvaluated();
+
+		if (delta >= -EPSILON) {
+			return false;
+		}
+
+		tour.moveSegment(first, last, before, reversed);
+		moveApplied(delta);
+		activate(p);
+		activate(q);
+		activate(first);
+		activate(last);
+		activate(before);
+		activate(after);
+		return true;
+	}
+
+}
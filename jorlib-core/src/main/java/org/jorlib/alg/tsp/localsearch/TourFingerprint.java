@@ -0,0 +1,251 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TourFingerprint.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+/**
+ * A 128-bit fingerprint of a tour, computed in the style of Zobrist hashing as
+ * the sum, modulo 2<sup>64</sup>, of pseudo-random keys of its undirected
+ * edges.  Since a tour is determined by its set of undirected edges, the
+ * fingerprint does not depend on the starting node or the direction of the
+ * tour: rotated and reflected tours have the same fingerprint, whereas
+ * different tours collide with probability about 2<sup>-128</sup>.
+ * <p>
+ * The key of an edge is derived from its end points by a mixing function, so
+ * no table of keys is needed.  Because the keys are summed, the fingerprint
+ * can be updated in O(1) time when edges are removed from or added to a tour,
+ * e.g. by {@link #twoOptMove(int, int, int, int)}.  Fingerprints are mutable;
+ * use {@link #copy()} before using one as a key in a hash table.
+ *
+ * @author Joris Kinable
+ */
+public final class TourFingerprint {
+
+	/**
+	 * The seed of the keys summed in the upper 64 bits.
+	 */
+	private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * The seed of the keys summed in the lower 64 bits.
+	 */
+	private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+
+	/**
+	 * The upper 64 bits of the fingerprint.
+	 */
+	private long high;
+
+	/**
+	 * The lower 64 bits of the fingerprint.
+	 */
+	private long low;
+
+	/**
+	 * Constructs the fingerprint of a tour without edges.
+	 */
+	public TourFingerprint() {
+		super();
+	}
+
+	/**
+	 * Constructs a fingerprint with the given bits.
+	 *
+	 * @param high the upper 64 bits of the fingerprint
+	 * @param low the lower 64 bits of the fingerprint
+	 */
+	public TourFingerprint(long high, long low) {
+		super();
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * Returns the fingerprint of a tour given as the nodes in the order they
+	 * are visited.
+	 *
+	 * @param order the nodes in the order they are visited
+	 * @return the fingerprint of the tour
+	 */
+	public static TourFingerprint of(int[] order) {
+		TourFingerprint fingerprint = new TourFingerprint();
+		int n = order.length;
+
+		for (int i = 0; i < n; i++) {
+			fingerprint.addEdge(order[i], order[(i + 1 == n) ? 0 : i + 1]);
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of a tour.
+	 *
+	 * @param tour the tour
+	 * @return the fingerprint of the tour
+	 */
+	public static TourFingerprint of(MutableTour tour) {
+		TourFingerprint fingerprint = new TourFingerprint();
+
+		for (int id = 0; id < tour.size(); id++) {
+			fingerprint.addEdge(id, tour.next(id));
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of a TSPLIB tour.
+	 *
+	 * @param tour the tour
+	 * @return the fingerprint of the tour
+	 */
+	public static TourFingerprint of(TSPLibTour tour) {
+		return of(tour.toArray());
+	}
+
+	/**
+	 * Adds an undirected edge to the fingerprint.
+	 *
+	 * @param id1 the identifier of the first end point
+	 * @param id2 the identifier of the second end point
+	 */
+	public void addEdge(int id1, int id2) {
+		long key = pack(id1, id2);
+		high += mix(key + SEED_HIGH);
+		low += mix(key + SEED_LOW);
+	}
+
+	/**
+	 * Removes an undirected edge from the fingerprint.
+	 *
+	 * @param id1 the identifier of the first end point
+	 * @param id2 the identifier of the second end point
+	 */
+	public void removeEdge(int id1, int id2) {
+		long key = pack(id1, id2);
+		high -= mix(key + SEED_HIGH);
+		low -= mix(key + SEED_LOW);
+	}
+
+	/**
+	 * Updates the fingerprint for a 2-opt move replacing the edges
+	 * {@code (a, b)} and {@code (c, d)} by the edges {@code (a, c)} and
+	 * {@code (b, d)}.
+	 *
+	 * @param a the identifier of the first end point of the first removed edge
+	 * @param b the identifier of the second end point of the first removed edge
+	 * @param c the identifier of the first end point of the second removed edge
+	 * @param d the identifier of the second end point of the second removed edge
+	 */
+	public void twoOptMove(int a, int b, int c, int d) {
+		removeEdge(a, b);
+		removeEdge(c, d);
+		addEdge(a, c);
+		addEdge(b, d);
+	}
+
+	/**
+	 * Returns the upper 64 bits of the fingerprint.
+	 *
+	 * @return the upper 64 bits of the fingerprint
+	 */
+	public long getHigh() {
+		return high;
+	}
+
+	/**
+	 * Returns the lower 64 bits of the fingerprint.
+	 *
+	 * @return the lower 64 bits of the fingerprint
+	 */
+	public long getLow() {
+		return low;
+	}
+
+	/**
+	 * Returns a copy of this fingerprint.
+	 *
+	 * @return a copy of this fingerprint
+	 */
+	public TourFingerprint copy() {
+		return new TourFingerprint(high, low);
+	}
+
+	/**
+	 * Packs an undirected edge into a single key holding the smaller end point
+	 * in the upper and the larger end point in the lower 32 bits.
+	 *
+	 * @param id1 the identifier of the first end point
+	 * @param id2 the identifier of the second end point
+	 * @return the packed edge
+	 */
+	private static long pack(int id1, int id2) {
+		int min = Math.min(id1, id2);
+		int max = Math.max(id1, id2);
+		return ((long)min << 32) | (max & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Scrambles the bits of a key using the finalizer of the SplitMix64
+	 * generator.
+	 *
+	 * @param key the key
+	 * @return the scrambled key
+	 */
+	private static long mix(long key) {
+		key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+		key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+		return key ^ (key >>> 31);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof TourFingerprint)) {
+			return false;
+		}
+
+		TourFingerprint other = (TourFingerprint)obj;
+		return (high == other.high) && (low == other.low);
+	}
+
+	@Override
+	public int hashCode() {
+		return (int)(low ^ (low >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", high, low);
+	}
+
+}
@@ -0,0 +1,324 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TourPool.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+/**
+ * A pool of distinct tours, e.g. the population of a genetic algorithm or the
+ * local optima found by a multi-start heuristic.  Tours are identified by
+ * their {@link TourFingerprint}, so a tour which equals a pooled tour up to
+ * rotation and reflection is rejected in O(1) expected time, apart from the
+ * O(N) time needed to compute its fingerprint.
+ * <p>
+ * The pool stores a copy of every accepted tour together with its length, and
+ * reports the tours in the order they were added.
+ *
+ * @author Joris Kinable
+ */
+public class TourPool {
+
+	/**
+	 * An accepted tour together with its length.
+	 */
+	private static final class Entry {
+
+		/**
+		 * The nodes in the order they are visited.
+		 */
+		private final int[] order;
+
+		/**
+		 * The length of the tour.
+		 */
+		private final double length;
+
+		/**
+		 * Constructs a new entry.
+		 *
+		 * @param order the nodes in the order they are visited
+		 * @param length the length of the tour
+		 */
+		private Entry(int[] order, double length) {
+			super();
+			this.order = order;
+			this.length = length;
+		}
+
+	}
+
+	/**
+	 * The accepted tours indexed by their fingerprint.
+	 */
+	private final Map<TourFingerprint, Entry> entries;
+
+	/**
+	 * Constructs an empty pool.
+	 */
+	public TourPool() {
+		this(16);
+	}
+
+	/**
+	 * Constructs an empty pool.
+	 *
+	 * @param expectedSize the expected number of tours
+	 */
+	public TourPool(int expectedSize) {
+		super();
+		entries = new LinkedHashMap<TourFingerprint, Entry>(Math.max(16, 2 * expectedSize));
+	}
+
+	/**
+	 * Adds a tour to the pool unless the pool contains an equivalent tour.
+	 *
+	 * @param order the nodes in the order they are visited, which are copied
+	 * @param length the length of the tour
+	 * @return {@code true} if the tour was added; {@code false} if the pool
+	 *         contains an equivalent tour
+	 */
+	public boolean add(int[] order, double length) {
+		return add(TourFingerprint.of(order), order, length);
+	}
+
+	/**
+	 * Adds a tour to the pool unless the pool contains an equivalent tour.
+	 *
+	 * @param tour the tour
+	 * @param length the length of the tour
+	 * @return {@code true} if the tour was added; {@code false} if the pool
+	 *         contains an equivalent tour
+	 */
+	public boolean add(MutableTour tour, double length) {
+		return add(TourFingerprint.of(tour), tour.toArray(), length);
+	}
+
+	/**
+	 * Adds a tour to the pool unless the pool contains an equivalent tour.
+	 *
+	 * @param tour the tour
+	 * @param length the length of the tour
+	 * @return {@code true} if the tour was added; {@code false} if the pool
+	 *         contains an equivalent tour
+	 */
+	public boolean add(TSPLibTour tour, double length) {
+		return add(tour.toArray(), length);
+	}
+
+	/**
+	 * Adds a tour with a known fingerprint to the pool unless the pool contains
+	 * an equivalent tour.  This avoids recomputing the fingerprint of a tour
+	 * whose fingerprint was maintained incrementally.
+	 *
+	 * @param fingerprint the fingerprint of the tour, which is copied
+	 * @param order the nodes in the order they are visited, which are copied
+	 * @param length the length of the tour
+	 * @return {@code true} if the tour was added; {@code false} if the pool
+	 *         contains an equivalent tour
+	 */
+	public boolean add(TourFingerprint fingerprint, int[] order, double length) {
+		if (entries.containsKey(fingerprint)) {
+			return false;
+		}
+
+		entries.put(fingerprint.copy(), new Entry(order.clone(), length));
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if the pool contains a tour with the given
+	 * fingerprint; {@code false} otherwise.
+	 *
+	 * @param fingerprint the fingerprint
+	 * @return {@code true} if the pool contains a tour with the given
+	 *         fingerprint; {@code false} otherwise
+	 */
+	public boolean contains(TourFingerprint fingerprint) {
+		return entries.containsKey(fingerprint);
+	}
+
+	/**
+	 * Returns {@code true} if the pool contains a tour equivalent to the given
+	 * tour; {@code false} otherwise.
+	 *
+	 * @param order the nodes in the order they are visited
+	 * @return {@code true} if the pool contains an equivalent tour;
+	 *         {@code false} otherwise
+	 */
+	public boolean contains(int[] order) {
+		return contains(TourFingerprint.of(order));
+	}
+
+	/**
+	 * Returns {@code true} if the pool contains a tour equivalent to the given
+	 * tour; {@code false} otherwise.
+	 *
+	 * @param tour the tour
+	 * @return {@code true} if the pool contains an equivalent tour;
+	 *         {@code false} otherwise
+	 */
+	public boolean contains(MutableTour tour) {
+		return contains(TourFingerprint.of(tour));
+	}
+
+	/**
+	 * Returns {@code true} if the pool contains a tour equivalent to the given
+	 * tour; {@code false} otherwise.
+	 *
+	 * @param tour the tour
+	 * @return {@code true} if the pool contains an equivalent tour;
+	 *         {@code false} otherwise
+	 */
+	public boolean contains(TSPLibTour tour) {
+		return contains(tour.toArray());
+	}
+
+	/**
+	 * Removes the tour with the given fingerprint from the pool.
+	 *
+	 * @param fingerprint the fingerprint
+	 * @return {@code true} if a tour was removed; {@code false} otherwise
+	 */
+	public boolean remove(TourFingerprint fingerprint) {
+		return entries.remove(fingerprint) != null;
+	}
+
+	/**
+	 * Returns the length of the tour with the given fingerprint.
+	 *
+	 * @param fingerprint the fingerprint
+	 * @return the length of the tour
+	 * @throws IllegalArgumentException if the pool contains no tour with the
+	 *         given fingerprint
+	 */
+	public double getLength(TourFingerprint fingerprint) {
+		return find(fingerprint).length;
+	}
+
+	/**
+	 * Returns the tour with the given fingerprint.
+	 *
+	 * @param fingerprint the fingerprint
+	 * @return the tour
+	 * @throws IllegalArgumentException if the pool contains no tour with the
+	 *         given fingerprint
+	 */
+	public TSPLibTour getTour(TourFingerprint fingerprint) {
+		return TSPLibTour.createTour(find(fingerprint).order);
+	}
+
+	/**
+	 * Returns the entry with the given fingerprint.
+	 *
+	 * @param fingerprint the fingerprint
+	 * @return the entry
+	 * @throws IllegalArgumentException if the pool contains no tour with the
+	 *         given fingerprint
+	 */
+	private Entry find(TourFingerprint fingerprint) {
+		Entry entry = entries.get(fingerprint);
+
+		if (entry == null) {
+			throw new IllegalArgumentException("no tour with fingerprint " + fingerprint);
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Returns the fingerprints of the tours in the order they were added.
+	 *
+	 * @return the fingerprints of the tours in the order they were added
+	 */
+	public List<TourFingerprint> fingerprints() {
+		List<TourFingerprint> result = new ArrayList<TourFingerprint>(entries.size());
+
+		for (TourFingerprint fingerprint : entries.keySet()) {
+			result.add(fingerprint.copy());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the tours in the order they were added.
+	 *
+	 * @return the tours in the order they were added
+	 */
+	public List<TSPLibTour> tours() {
+		List<TSPLibTour> result = new ArrayList<TSPLibTour>(entries.size());
+
+		for (Entry entry : entries.values()) {
+			result.add(TSPLibTour.createTour(entry.order));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the fingerprint of the shortest tour in the pool, or
+	 * {@code null} if the pool is empty.
+	 *
+	 * @return the fingerprint of the shortest tour, or {@code null} if the pool
+	 *         is empty
+	 */
+	public TourFingerprint best() {
+		TourFingerprint best = null;
+		double bestLength = Double.POSITIVE_INFINITY;
+
+		for (Map.Entry<TourFingerprint, Entry> entry : entries.entrySet()) {
+			if ((best == null) || (entry.getValue().length < bestLength)) {
+				best = entry.getKey();
+				bestLength = entry.getValue().length;
+			}
+		}
+
+		return (best == null) ? null : best.copy();
+	}
+
+	/**
+	 * Returns the number of tours in the pool.
+	 *
+	 * @return the number of tours in the pool
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Removes all tours from the pool.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+}
@@ -0,0 +1,547 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TwoLevelListTour.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * A tour over the nodes {@code 0, 1, ..., N-1} stored as a two-level doubly
+ * linked list, as proposed by Fredman et al. (1995).  The tour is divided into
+ * segments of about &radic;N consecutive nodes.  The segments form a doubly
+ * linked list, in which each segment carries a rank and a reversal bit; the
+ * nodes of a segment occupy a contiguous range of a primitive array, which is
+ * traversed backwards if the reversal bit is set.
+ * <p>
+ * Successors, predecessors and betweenness queries take O(1) time.  A path is
+ * reversed by splitting the segments containing its end points, reversing the
+ * order of the segments in between and toggling their reversal bits, or, if
+ * the path lies within a single segment, by reversing it in place.  Both take
+ * O(&radic;N) time.  Splits increase the number of segments; once it has
+ * doubled, the list is rebuilt in O(N) time, so reversals take O(&radic;N)
+ * amortized time.  This makes the representation preferable to
+ * {@link ArrayTour} on large instances, where the reversed paths are long.
+ * <p>
+ * Reversals and segment moves preserve the orientation of the rest of the
+ * tour, so this representation is also suitable for asymmetric instances.
+ *
+ * @author Joris Kinable
+ */
+public class TwoLevelListTour implements MutableTour {
+
+	/**
+	 * The nodes, where each segment occupies a contiguous range.
+	 */
+	private int[] order;
+
+	/**
+	 * The buffer receiving the nodes when the list is rebuilt.
+	 */
+	private int[] buffer;
+
+	/**
+	 * The position of each node in {@link #order}.
+	 */
+	private final int[] position;
+
+	/**
+	 * The segment containing each node.
+	 */
+	private final int[] segment;
+
+	/**
+	 * The number of nodes per segment when the list is built.
+	 */
+	private final int groupSize;
+
+	/**
+	 * The first position of each segment in {@link #order}.
+	 */
+	private final int[] lo;
+
+	/**
+	 * The last position of each segment in {@link #order}.
+	 */
+	private final int[] hi;
+
+	/**
+	 * Whether each segment is traversed from {@code hi} to {@code lo}.
+	 */
+	private final boolean[] reversed;
+
+	/**
+	 * The segment following each segment.
+	 */
+	private final int[] nextSegment;
+
+	/**
+	 * The segment preceding each segment.
+	 */
+	private final int[] prevSegment;
+
+	/**
+	 * The rank of each segment, counted from the segment with rank {@code 0}.
+	 */
+	private final int[] rank;
+
+	/**
+	 * The segments of the path being reversed.
+	 */
+	private final int[] path;
+
+	/**
+	 * The number of segments.
+	 */
+	private int segments;
+
+	/**
+	 * Constructs a tour visiting the nodes in the given order.
+	 *
+	 * @param nodes the nodes in the order they are visited
+	 * @throws IllegalArgumentException if the nodes are not a permutation of
+	 *         {@code 0, 1, ..., N-1}
+	 */
+	public TwoLevelListTour(int... nodes) {
+		super();
+		int n = nodes.length;
+		order = new int[n];
+		buffer = nodes.clone();
+		position = new int[n];
+		segment = new int[n];
+
+		boolean[] seen = new boolean[n];
+
+		for (int id : nodes) {
+			if ((id < 0) || (id > n-1) || seen[id]) {
+				throw new IllegalArgumentException("nodes must be a permutation of 0, 1, ..., N-1");
+			}
+
+			seen[id] = true;
+		}
+
+		groupSize = Math.max(1, (int)Math.ceil(Math.sqrt(n)));
+		int capacity = 2*((n + groupSize - 1) / groupSize) + 2;
+		lo = new int[capacity];
+		hi = new int[capacity];
+		reversed = new boolean[capacity];
+		nextSegment = new int[capacity];
+		prevSegment = new int[capacity];
+		rank = new int[capacity];
+		path = new int[capacity];
+		build();
+	}
+
+	/**
+	 * Constructs a tour visiting the nodes of the given TSPLIB tour.
+	 *
+	 * @param tour the TSPLIB tour
+	 * @throws IllegalArgumentException if the tour is not a permutation of
+	 *         {@code 0, 1, ..., N-1}
+	 */
+	public TwoLevelListTour(TSPLibTour tour) {
+		this(tour.toArray());
+	}
+
+	/**
+	 * Rebuilds the list from the nodes in {@link #buffer}, dividing them into
+	 * segments of {@link #groupSize} nodes.
+	 */
+	private void build() {
+		int[] swap = order;
+		order = buffer;
+		buffer = swap;
+
+		int n = order.length;
+		segments = (n + groupSize - 1) / groupSize;
+
+		for (int s = 0; s < segments; s++) {
+			lo[s] = s*groupSize;
+			hi[s] = Math.min(n, (s+1)*groupSize) - 1;
+			reversed[s] = false;
+			nextSegment[s] = (s+1 == segments) ? 0 : s+1;
+			prevSegment[s] = (s == 0) ? segments-1 : s-1;
+			rank[s] = s;
+
+			for (int i = lo[s]; i <= hi[s]; i++) {
+				position[order[i]] = i;
+				segment[order[i]] = s;
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the list unless at least two more segments can be created.
+	 */
+	private void ensureCapacity() {
+		if (segments + 2 > lo.length) {
+			fill(buffer);
+			build();
+		}
+	}
+
+	/**
+	 * Writes the nodes in the order they are visited to the given array,
+	 * starting with the first node of the segment with rank {@code 0}.
+	 *
+	 * @param result the array receiving the nodes
+	 */
+	private void fill(int[] result) {
+		int k = 0;
+		int s = first();
+
+		for (int i = 0; i < segments; i++) {
+			if (reversed[s]) {
+				for (int j = hi[s]; j >= lo[s]; j--) {
+					result[k++] = order[j];
+				}
+			} else {
+				for (int j = lo[s]; j <= hi[s]; j++) {
+					result[k++] = order[j];
+				}
+			}
+
+			s = nextSegment[s];
+		}
+	}
+
+	/**
+	 * Returns the segment with rank {@code 0}.
+	 *
+	 * @return the segment with rank {@code 0}
+	 */
+	private int first() {
+		for (int s = 0; s < segments; s++) {
+			if (rank[s] == 0) {
+				return s;
+			}
+		}
+
+		throw new IllegalStateException("no segment with rank 0");
+	}
+
+	/**
+	 * Returns the first node of a segment in the direction of the tour.
+	 *
+	 * @param s the segment
+	 * @return the first node of the segment
+	 */
+	private int head(int s) {
+		return order[reversed[s] ? hi[s] : lo[s]];
+	}
+
+	/**
+	 * Returns the last node of a segment in the direction of the tour.
+	 *
+	 * @param s the segment
+	 * @return the last node of the segment
+	 */
+	private int tail(int s) {
+		return order[reversed[s] ? lo[s] : hi[s]];
+	}
+
+	@Override
+	public void copyFrom(MutableTour other) {
+		if (other.size() != order.length) {
+			throw new IllegalArgumentException("tours differ in size");
+		}
+
+		if (other instanceof TwoLevelListTour) {
+			TwoLevelListTour tour = (TwoLevelListTour)other;
+			int n = order.length;
+			System.arraycopy(tour.order, 0, order, 0, n);
+			System.arraycopy(tour.position, 0, position, 0, n);
+			System.arraycopy(tour.segment, 0, segment, 0, n);
+			segments = tour.segments;
+			System.arraycopy(tour.lo, 0, lo, 0, segments);
+			System.arraycopy(tour.hi, 0, hi, 0, segments);
+			System.arraycopy(tour.reversed, 0, reversed, 0, segments);
+			System.arraycopy(tour.nextSegment, 0, nextSegment, 0, segments);
+			System.arraycopy(tour.prevSegment, 0, prevSegment, 0, segments);
+			System.arraycopy(tour.rank, 0, rank, 0, segments);
+		} else {
+			int[] nodes = other.toArray();
+			System.arraycopy(nodes, 0, buffer, 0, nodes.length);
+			build();
+		}
+	}
+
+	@Override
+	public int size() {
+		return order.length;
+	}
+
+	@Override
+	public int next(int id) {
+		int s = segment[id];
+		int i = position[id];
+
+		if (reversed[s]) {
+			return (i == lo[s]) ? head(nextSegment[s]) : order[i-1];
+		} else {
+			return (i == hi[s]) ? head(nextSegment[s]) : order[i+1];
+		}
+	}
+
+	@Override
+	public int prev(int id) {
+		int s = segment[id];
+		int i = position[id];
+
+		if (reversed[s]) {
+			return (i == hi[s]) ? tail(prevSegment[s]) : order[i+1];
+		} else {
+			return (i == lo[s]) ? tail(prevSegment[s]) : order[i-1];
+		}
+	}
+
+	/**
+	 * Returns {@code true} if node {@code a} is visited no later than node
+	 * {@code b}, starting from the first node of the segment with rank
+	 * {@code 0}; {@code false} otherwise.
+	 *
+	 * @param a the identifier of the first node
+	 * @param b the identifier of the second node
+	 * @return {@code true} if {@code a} is visited no later than {@code b}
+	 */
+	private boolean sequence(int a, int b) {
+		int sa = segment[a];
+		int sb = segment[b];
+
+		if (sa != sb) {
+			return rank[sa] < rank[sb];
+		} else if (reversed[sa]) {
+			return position[a] >= position[b];
+		} else {
+			return position[a] <= position[b];
+		}
+	}
+
+	@Override
+	public boolean between(int a, int b, int c) {
+		if (sequence(a, c)) {
+			return sequence(a, b) && sequence(b, c);
+		} else {
+			return sequence(a, b) || sequence(b, c);
+		}
+	}
+
+	@Override
+	public void reverse(int from, int to) {
+		if (from == to) {
+			return;
+		}
+
+		if (next(to) == from) {
+			reverseAll();
+			return;
+		}
+
+		int s = segment[from];
+
+		if ((s == segment[to]) && sequence(from, to)) {
+			reverseRange(Math.min(position[from], position[to]), Math.max(position[from], position[to]));
+			return;
+		}
+
+		ensureCapacity();
+
+		if (from != head(segment[from])) {
+			split(from);
+		}
+
+		if (to != tail(segment[to])) {
+			split(next(to));
+		}
+
+		reverseSegments(segment[from], segment[to]);
+	}
+
+	/**
+	 * Reverses the nodes at the given positions of a single segment.
+	 *
+	 * @param i the first position
+	 * @param j the last position
+	 */
+	private void reverseRange(int i, int j) {
+		for (; i < j; i++, j--) {
+			int a = order[i];
+			int b = order[j];
+			order[i] = b;
+			position[b] = i;
+			order[j] = a;
+			position[a] = j;
+		}
+	}
+
+	/**
+	 * Splits the segment containing the given node so that the node becomes
+	 * the first node of a new segment, which follows the remainder of the
+	 * original segment.
+	 *
+	 * @param id the identifier of the node, which must not be the first node
+	 *        of its segment
+	 */
+	private void split(int id) {
+		int s = segment[id];
+		int t = segments++;
+		int i = position[id];
+
+		if (reversed[s]) {
+			lo[t] = lo[s];
+			hi[t] = i;
+			lo[s] = i + 1;
+		} else {
+			lo[t] = i;
+			hi[t] = hi[s];
+			hi[s] = i - 1;
+		}
+
+		for (int j = lo[t]; j <= hi[t]; j++) {
+			segment[order[j]] = t;
+		}
+
+		reversed[t] = reversed[s];
+		int u = nextSegment[s];
+		nextSegment[s] = t;
+		prevSegment[t] = s;
+		nextSegment[t] = u;
+		prevSegment[u] = t;
+
+		// shift the ranks of the segments following t up to the end of the list
+		int r = rank[s];
+
+		for (int v = t; (v == t) || (rank[v] != 0); v = nextSegment[v]) {
+			rank[v] = ++r;
+		}
+	}
+
+	/**
+	 * Reverses the order of the segments from {@code first} to {@code last}
+	 * and toggles their reversal bits.  The reversed segments keep the ranks
+	 * of the positions they occupy, wrapping around the end of the list.
+	 *
+	 * @param first the first segment
+	 * @param last the last segment
+	 */
+	private void reverseSegments(int first, int last) {
+		int before = prevSegment[first];
+		int after = nextSegment[last];
+		int r = rank[first];
+		int k = 0;
+
+		for (int s = first; ; s = nextSegment[s]) {
+			path[k++] = s;
+
+			if (s == last) {
+				break;
+			}
+		}
+
+		int previous = before;
+
+		for (int i = k-1; i >= 0; i--) {
+			int s = path[i];
+			reversed[s] = !reversed[s];
+			rank[s] = r;
+			r = (r+1 == segments) ? 0 : r+1;
+			nextSegment[previous] = s;
+			prevSegment[s] = previous;
+			previous = s;
+		}
+
+		nextSegment[previous] = after;
+		prevSegment[after] = previous;
+	}
+
+	/**
+	 * Reverses the orientation of the whole tour.
+	 */
+	private void reverseAll() {
+		for (int s = 0; s < segments; s++) {
+			int swap = nextSegment[s];
+			nextSegment[s] = prevSegment[s];
+			prevSegment[s] = swap;
+			reversed[s] = !reversed[s];
+			rank[s] = (rank[s] == 0) ? 0 : segments - rank[s];
+		}
+	}
+
+	@Override
+	public void moveSegment(int first, int last, int after, boolean reversed) {
+		if (after == prev(first)) {
+			if (reversed) {
+				reverse(first, last);
+			}
+
+			return;
+		}
+
+		// p first..last q..after s becomes p after..q last..first s, then
+		// p q..after last..first s
+		int q = next(last);
+		reverse(first, after);
+		reverse(after, q);
+
+		if (!reversed) {
+			reverse(last, first);
+		}
+	}
+
+	@Override
+	public double length(DistanceTable distanceTable) {
+		int[] nodes = toArray();
+		double result = 0.0;
+
+		for (int i = 0; i < nodes.length; i++) {
+			result += distanceTable.getDistanceBetween(nodes[i], nodes[(i+1 == nodes.length) ? 0 : i+1]);
+		}
+
+		return result;
+	}
+
+	@Override
+	public int[] toArray() {
+		int[] result = new int[order.length];
+
+		if (order.length > 0) {
+			fill(result);
+		}
+
+		return result;
+	}
+
+	@Override
+	public TSPLibTour toTour() {
+		return TSPLibTour.createTour(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return toTour().toString();
+	}
+
+}
@@ -0,0 +1,121 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TwoOpt.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * 2-opt local search for the symmetric TSP.  A 2-opt move removes two edges
+ * from the tour and reconnects the two resulting paths the other way, which
+ * reverses one of them.
+ * <p>
+ * The neighborhood is restricted by {@link CandidateLists}: a move is only
+ * evaluated if one of the new edges connects a node to one of its candidates,
+ * and the scan of a candidate list stops as soon as the new edge is no shorter
+ * than the tour edge it replaces.  Nodes whose neighborhood contains no
+ * improving move have their <i>don't-look bit</i> set and are skipped until one
+ * of their tour edges changes.  Nodes with a cleared bit are processed in
+ * first-in first-out order, and the first improving move found is applied.
+ * <p>
+ * The search stops at a local optimum, or earlier when the time limit or the
+ * iteration limit is reached.  Each iteration applies one improving move.
+ *
+ * @author Joris Kinable
+ */
+public class TwoOpt extends AbstractLocalSearch {
+
+	/**
+	 * Constructs a 2-opt search using the 10 nearest neighbors of every node
+	 * as candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 */
+	public TwoOpt(DistanceTable distanceTable) {
+		this(distanceTable, CandidateLists.nearestNeighbors(distanceTable, 10));
+	}
+
+	/**
+	 * Constructs a 2-opt search using the given candidates.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param candidates the candidate neighbors of each node
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public TwoOpt(DistanceTable distanceTable, CandidateLists candidates) {
+		super(distanceTable, candidates);
+	}
+
+	@Override
+	protected boolean improveNode(MutableTour tour, int a) {
+		for (int direction = 0; direction < 2; direction++) {
+			boolean forward = (direction == 0);
+			int b = forward ? tour.next(a) : tour.prev(a);
+			double ab = distanceTable.getDistanceBetween(a, b);
+
+			for (int c : candidates.get(a)) {
+				double ac = distanceTable.getDistanceBetween(a, c);
+
+				// the new edge (a, c) must be shorter than the removed edge (a, b)
+				if (ac >= ab - EPSILON) {
+					break;
+				}
+
+				int d = forward ? tour.next(c) : tour.prev(c);
+
+				if ((c == b) || (d == a)) {
+					continue;
+				}
+
+				moveEvaluated();
+				double delta = ac + distanceTable.getDistanceBetween(b, d)
+						- ab - distanceTable.getDistanceBetween(c, d);
+
+				if (delta < -EPSILON) {
+					// replace (a, b) and (c, d) by (a, c) and (b, d)
+					if (forward) {
+						tour.reverse(b, c);
+					} else {
+						tour.reverse(a, d);
+					}
+
+					moveApplied(delta);
+					activate(a);
+					activate(b);
+					activate(c);
+					activate(d);
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+}
@@ -0,0 +1,464 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * PrecedenceGraph.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.sop;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+/**
+ * The precedence constraints of a sequential ordering problem.  In the
+ * distance matrix of a TSPLIB SOP instance, an entry of {@code -1} in row
+ * {@code i} and column {@code j} states that node {@code j} must precede node
+ * {@code i}.  These constraints form a directed acyclic graph, which is
+ * stored as its transitive reduction and its transitive closure, both as
+ * rows of bits with one row per node.
+ * <p>
+ * The closure answers whether one node must precede another in O(1) time.
+ * The reduction, which usually has far fewer arcs than the original
+ * constraints, is also kept as adjacency arrays, so checking a sequence takes
+ * O(N + R) time, where R is the number of arcs of the reduction.  Every node
+ * is assigned a topological level: the number of arcs on the longest chain of
+ * constraints ending at the node.
+ *
+ * @author Joris Kinable
+ */
+public class PrecedenceGraph {
+
+	/**
+	 * The number of nodes.
+	 */
+	private final int size;
+
+	/**
+	 * The number of {@code long} words of a row of bits.
+	 */
+	private final int words;
+
+	/**
+	 * The rows of the transitive closure; bit {@code j} of row {@code i} is
+	 * set if node {@code i} must precede node {@code j}.
+	 */
+	private final long[] closure;
+
+	/**
+	 * The rows of the transitive reduction; bit {@code j} of row {@code i} is
+	 * set if the constraint that node {@code i} precedes node {@code j} is
+	 * not implied by the others.
+	 */
+	private final long[] reduction;
+
+	/**
+	 * The offsets of the successors and predecessors of every node in the
+	 * reduction.
+	 */
+	private final int[] successorOffsets, predecessorOffsets;
+
+	/**
+	 * The successors and predecessors of all nodes in the reduction.
+	 */
+	private final int[] successors, predecessors;
+
+	/**
+	 * The nodes in topological order.
+	 */
+	private final int[] topologicalOrder;
+
+	/**
+	 * The topological level of every node.
+	 */
+	private final int[] levels;
+
+	/**
+	 * The number of levels.
+	 */
+	private final int levelCount;
+
+	/**
+	 * Constructs the precedence graph of a TSPLIB SOP instance.
+	 *
+	 * @param instance the SOP instance
+	 * @throws IllegalArgumentException if the precedences contain a cycle
+	 */
+	public PrecedenceGraph(TSPLibInstance instance) {
+		this(instance.getDistanceTable());
+	}
+
+	/**
+	 * Constructs the precedence graph of an SOP distance matrix, in which
+	 * {@code getDistanceBetween(i, j) == -1} states that node {@code j} must
+	 * precede node {@code i}.  This takes O(N<sup>2</sup>) distance queries
+	 * and O(N<sup>3</sup> / 64) time.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @throws IllegalArgumentException if the precedences contain a cycle
+	 */
+	public PrecedenceGraph(DistanceTable distanceTable) {
+		super();
+		size = distanceTable.listNodes().length;
+		words = (size + 63) >>> 6;
+		closure = new long[size * words];
+		reduction = new long[size * words];
+		int[] inDegrees = new int[size];
+
+		// the reduction holds all constraints until it is reduced
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				if ((i != j) && (distanceTable.getDistanceBetween(i, j) == -1)) {
+					reduction[j * words + (i >>> 6)] |= 1L << i;
+					inDegrees[i]++;
+				}
+			}
+		}
+
+		topologicalOrder = new int[size];
+		int count = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (inDegrees[i] == 0) {
+				topologicalOrder[count++] = i;
+			}
+		}
+
+		// the order doubles as the queue of Kahn's algorithm
+		for (int head = 0; head < count; head++) {
+			int v = topologicalOrder[head];
+
+			for (int w = nextBit(reduction, v, 0); w >= 0; w = nextBit(reduction, v, w + 1)) {
+				if (--inDegrees[w] == 0) {
+					topologicalOrder[count++] = w;
+				}
+			}
+		}
+
+		if (count < size) {
+			throw new IllegalArgumentException("precedences contain a cycle");
+		}
+
+		// successors are complete before their predecessors are reduced
+		for (int k = size - 1; k >= 0; k--) {
+			int v = topologicalOrder[k];
+			int row = v * words;
+
+			for (int w = nextBit(reduction, v, 0); w >= 0; w = nextBit(reduction, v, w + 1)) {
+				for (int x = 0; x < words; x++) {
+					closure[row + x] |= closure[w * words + x];
+				}
+			}
+
+			for (int x = 0; x < words; x++) {
+				long direct = reduction[row + x];
+				reduction[row + x] = direct & ~closure[row + x];
+				closure[row + x] |= direct;
+			}
+		}
+
+		successorOffsets = new int[size + 1];
+		predecessorOffsets = new int[size + 1];
+
+		for (int v = 0; v < size; v++) {
+			for (int w = nextBit(reduction, v, 0); w >= 0; w = nextBit(reduction, v, w + 1)) {
+				successorOffsets[v + 1]++;
+				predecessorOffsets[w + 1]++;
+			}
+		}
+
+		for (int v = 0; v < size; v++) {
+			successorOffsets[v + 1] += successorOffsets[v];
+			predecessorOffsets[v + 1] += predecessorOffsets[v];
+		}
+
+		successors = new int[successorOffsets[size]];
+		predecessors = new int[predecessorOffsets[size]];
+		int[] filled = new int[size];
+
+		for (int v = 0; v < size; v++) {
+			int index = successorOffsets[v];
+
+			for (int w = nextBit(reduction, v, 0); w >= 0; w = nextBit(reduction, v, w + 1)) {
+				successors[index++] = w;
+				predecessors[predecessorOffsets[w] + filled[w]++] = v;
+			}
+		}
+
+		levels = new int[size];
+		int highest = -1;
+
+		for (int v : topologicalOrder) {
+			for (int k = successorOffsets[v]; k < successorOffsets[v + 1]; k++) {
+				levels[successors[k]] = Math.max(levels[successors[k]], levels[v] + 1);
+			}
+
+			highest = Math.max(highest, levels[v]);
+		}
+
+		levelCount = highest + 1;
+	}
+
+	/**
+	 * Returns the index of the first set bit of a row at or after a column,
+	 * or {@code -1} if there is none.
+	 *
+	 * @param rows the rows of bits
+	 * @param row the row
+	 * @param from the first column to inspect
+	 * @return the index of the next set bit, or {@code -1}
+	 */
+	private int nextBit(long[] rows, int row, int from) {
+		if (from >= size) {
+			return -1;
+		}
+
+		int x = from >>> 6;
+		long word = rows[row * words + x] & (-1L << from);
+
+		while (word == 0) {
+			if (++x == words) {
+				return -1;
+			}
+
+			word = rows[row * words + x];
+		}
+
+		return (x << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if node {@code i} must precede node {@code j},
+	 * directly or through other constraints; {@code false} otherwise.
+	 *
+	 * @param i the identifier of the first node
+	 * @param j the identifier of the second node
+	 * @return {@code true} if node {@code i} must precede node {@code j};
+	 *         {@code false} otherwise
+	 */
+	public boolean mustPrecede(int i, int j) {
+		return ((closure[i * words + (j >>> 6)] >>> j) & 1L) != 0;
+	}
+
+	/**
+	 * Returns {@code true} if node {@code i} may precede node {@code j}, that
+	 * is, if node {@code j} need not precede node {@code i}; {@code false}
+	 * otherwise.
+	 *
+	 * @param i the identifier of the first node
+	 * @param j the identifier of the second node
+	 * @return {@code true} if node {@code i} may precede node {@code j};
+	 *         {@code false} otherwise
+	 */
+	public boolean mayPrecede(int i, int j) {
+		return (i != j) && !mustPrecede(j, i);
+	}
+
+	/**
+	 * Returns the nodes which directly follow a node in the transitive
+	 * reduction.
+	 *
+	 * @param id the identifier of the node
+	 * @return the direct successors of the node
+	 */
+	public int[] getSuccessors(int id) {
+		return Arrays.copyOfRange(successors, successorOffsets[id], successorOffsets[id + 1]);
+	}
+
+	/**
+	 * Returns the nodes which directly precede a node in the transitive
+	 * reduction.
+	 *
+	 * @param id the identifier of the node
+	 * @return the direct predecessors of the node
+	 */
+	public int[] getPredecessors(int id) {
+		return Arrays.copyOfRange(predecessors, predecessorOffsets[id], predecessorOffsets[id + 1]);
+	}
+
+	/**
+	 * Returns the number of arcs of the transitive reduction.
+	 *
+	 * @return the number of arcs of the transitive reduction
+	 */
+	public int getArcCount() {
+		return successors.length;
+	}
+
+	/**
+	 * Returns the nodes in a topological order, in which every node follows
+	 * all nodes which must precede it.
+	 *
+	 * @return a copy of the topological order
+	 */
+	public int[] getTopologicalOrder() {
+		return topologicalOrder.clone();
+	}
+
+	/**
+	 * Returns the topological level of a node, which is the number of arcs on
+	 * the longest chain of constraints ending at the node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the level of the node
+	 */
+	public int getLevel(int id) {
+		return levels[id];
+	}
+
+	/**
+	 * Returns the number of topological levels.
+	 *
+	 * @return the number of levels
+	 */
+	public int getLevelCount() {
+		return levelCount;
+	}
+
+	/**
+	 * Returns {@code true} if a tour, read from its first node, visits every
+	 * node once and respects all precedences; {@code false} otherwise.
+	 *
+	 * @param tour the tour
+	 * @return {@code true} if the tour is feasible; {@code false} otherwise
+	 */
+	public boolean isFeasible(TSPLibTour tour) {
+		return isFeasible(tour.toArray());
+	}
+
+	/**
+	 * Returns {@code true} if a sequence visits every node once and respects
+	 * all precedences; {@code false} otherwise.  This takes O(N + R) time.
+	 *
+	 * @param sequence the nodes in the order they are visited
+	 * @return {@code true} if the sequence is feasible; {@code false}
+	 *         otherwise
+	 */
+	public boolean isFeasible(int[] sequence) {
+		if (sequence.length != size) {
+			return false;
+		}
+
+		int[] positions = positions(sequence);
+
+		if (positions == null) {
+			return false;
+		}
+
+		for (int v = 0; v < size; v++) {
+			for (int k = successorOffsets[v]; k < successorOffsets[v + 1]; k++) {
+				if (positions[successors[k]] < positions[v]) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the position of every node in a sequence, or {@code null} if
+	 * the sequence does not contain every node once.
+	 *
+	 * @param sequence the nodes in the order they are visited
+	 * @return the position of every node, or {@code null}
+	 */
+	private int[] positions(int[] sequence) {
+		int[] positions = new int[size];
+		Arrays.fill(positions, -1);
+
+		for (int k = 0; k < sequence.length; k++) {
+			int v = sequence[k];
+
+			if ((v < 0) || (v > size-1) || (positions[v] >= 0)) {
+				return null;
+			}
+
+			positions[v] = k;
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Returns the feasible sequence which deviates least from a given one: at
+	 * every step, it visits the node which appears earliest in the given
+	 * sequence among those whose predecessors have all been visited.  A
+	 * feasible sequence is returned unchanged.  This takes
+	 * O(N<sup>2</sup> / 64 + R) time.
+	 *
+	 * @param sequence the nodes in the order they are visited
+	 * @return the repaired sequence
+	 * @throws IllegalArgumentException if the sequence does not visit every
+	 *         node once
+	 */
+	public int[] repair(int[] sequence) {
+		int[] positions = (sequence.length == size) ? positions(sequence) : null;
+
+		if (positions == null) {
+			throw new IllegalArgumentException("sequence must contain every node once");
+		}
+
+		int[] inDegrees = new int[size];
+		BitSet ready = new BitSet(size);
+
+		for (int v = 0; v < size; v++) {
+			inDegrees[v] = predecessorOffsets[v + 1] - predecessorOffsets[v];
+
+			if (inDegrees[v] == 0) {
+				ready.set(positions[v]);
+			}
+		}
+
+		int[] repaired = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			int position = ready.nextSetBit(0);
+			ready.clear(position);
+			int v = sequence[position];
+			repaired[i] = v;
+
+			for (int k = successorOffsets[v]; k < successorOffsets[v + 1]; k++) {
+				if (--inDegrees[successors[k]] == 0) {
+					ready.set(positions[successors[k]]);
+				}
+			}
+		}
+
+		return repaired;
+	}
+
+}
@@ -0,0 +1,156 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * PrecedenceInsertion.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.sop;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Cheapest insertion heuristic for the sequential ordering problem which
+ * only builds feasible sequences.  Nodes are inserted in topological order,
+ * so when a node is inserted all nodes which must precede it are already in
+ * the sequence and none which must follow it are; the node is inserted at the
+ * cheapest position after its last direct predecessor in the
+ * {@link PrecedenceGraph}.  Sequences are open paths, as in TSPLIB SOP
+ * instances: the cost of a sequence does not include an arc from its last
+ * node back to its first node.  Construction takes O(N<sup>2</sup>) time.
+ *
+ * @author Joris Kinable
+ */
+public class PrecedenceInsertion {
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The precedence constraints.
+	 */
+	private final PrecedenceGraph precedences;
+
+	/**
+	 * Constructs the heuristic.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param precedences the precedence constraints
+	 * @throws IllegalArgumentException if the precedences do not match the
+	 *         number of nodes
+	 */
+	public PrecedenceInsertion(DistanceTable distanceTable, PrecedenceGraph precedences) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+		this.precedences = precedences;
+
+		if (this.distanceTable.size() != precedences.size()) {
+			throw new IllegalArgumentException("precedences do not match the number of nodes");
+		}
+	}
+
+	/**
+	 * Returns the cost of a sequence, excluding the arc from its last node
+	 * back to its first node.
+	 *
+	 * @param sequence the nodes in the order they are visited
+	 * @return the cost of the sequence
+	 */
+	public double length(int[] sequence) {
+		double length = 0.0;
+
+		for (int i = 1; i < sequence.length; i++) {
+			length += distanceTable.getDistanceBetween(sequence[i-1], sequence[i]);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Constructs a feasible sequence.
+	 *
+	 * @return the sequence, as a tour starting at its first node
+	 */
+	public TSPLibTour construct() {
+		return TSPLibTour.createTour(build());
+	}
+
+	/**
+	 * Constructs a feasible sequence.
+	 *
+	 * @return the nodes in the order they are visited
+	 */
+	public int[] build() {
+		int n = precedences.size();
+		int[] sequence = new int[n];
+		int[] positions = new int[n];
+		int count = 0;
+
+		for (int v : precedences.getTopologicalOrder()) {
+			int first = 0;
+
+			for (int u : precedences.getPredecessors(v)) {
+				first = Math.max(first, positions[u] + 1);
+			}
+
+			int best = first;
+			double cheapest = Double.POSITIVE_INFINITY;
+
+			for (int k = first; k <= count; k++) {
+				double cost = 0.0;
+
+				if (k > 0) {
+					cost += distanceTable.getDistanceBetween(sequence[k-1], v);
+				}
+
+				if (k < count) {
+					cost += distanceTable.getDistanceBetween(v, sequence[k]);
+
+					if (k > 0) {
+						cost -= distanceTable.getDistanceBetween(sequence[k-1], sequence[k]);
+					}
+				}
+
+				if (cost < cheapest) {
+					cheapest = cost;
+					best = k;
+				}
+			}
+
+			System.arraycopy(sequence, best, sequence, best + 1, count - best);
+			sequence[best] = v;
+			count++;
+
+			for (int k = best; k < count; k++) {
+				positions[sequence[k]] = k;
+			}
+		}
+
+		return sequence;
+	}
+
+}
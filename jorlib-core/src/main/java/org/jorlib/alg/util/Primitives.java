@@ -0,0 +1,105 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * Primitives.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.util;
+
+/**
+ * Helpers shared by algorithms working on primitive arrays: a disjoint-set
+ * forest stored as an array of parents, membership tests on small arrays, and
+ * the order-preserving conversion of distances to integers, which allows
+ * edges to be sorted as {@code long} keys holding the converted distance in
+ * the upper and an index in the lower 32 bits.
+ *
+ * @author Joris Kinable
+ */
+public final class Primitives {
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private Primitives() {
+		super();
+	}
+
+	/**
+	 * Returns {@code true} if the array contains the given value; {@code false}
+	 * otherwise.
+	 *
+	 * @param values the values
+	 * @param value the value
+	 * @return {@code true} if the array contains the value; {@code false}
+	 *         otherwise
+	 */
+	public static boolean contains(int[] values, int value) {
+		for (int v : values) {
+			if (v == value) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Maps a {@code float} to an {@code int} with the same order.
+	 *
+	 * @param value the value
+	 * @return an integer with the same order as the value
+	 */
+	public static int sortable(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+	}
+
+	/**
+	 * Returns a key which sorts by a value, and then by an index.
+	 *
+	 * @param value the value, which is rounded to a {@code float}
+	 * @param index the non-negative index
+	 * @return the key
+	 */
+	public static long key(double value, int index) {
+		return ((long)sortable((float)value) << 32) | index;
+	}
+
+	/**
+	 * Returns the representative of the set containing a node, compressing the
+	 * path by halving.
+	 *
+	 * @param parent the parent of each node
+	 * @param id the identifier of the node
+	 * @return the representative
+	 */
+	public static int find(int[] parent, int id) {
+		while (parent[id] != id) {
+			parent[id] = parent[parent[id]];
+			id = parent[id];
+		}
+
+		return id;
+	}
+
+}
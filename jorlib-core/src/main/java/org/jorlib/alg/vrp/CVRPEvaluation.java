@@ -0,0 +1,182 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CVRPEvaluation.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.vrp;
+
+/**
+ * The evaluation of a solution of a capacitated vehicle routing problem, as
+ * computed by {@link CVRPEvaluator}.
+ *
+ * @author Joris Kinable
+ */
+public final class CVRPEvaluation {
+
+	/**
+	 * The total distance of the routes.
+	 */
+	private final double distance;
+
+	/**
+	 * The number of routes.
+	 */
+	private final int routes;
+
+	/**
+	 * The total demand of the visited customers.
+	 */
+	private final long load;
+
+	/**
+	 * The total load in excess of the capacity, summed over all routes.
+	 */
+	private final long excess;
+
+	/**
+	 * The number of routes whose load exceeds the capacity.
+	 */
+	private final int overloadedRoutes;
+
+	/**
+	 * The number of customers which are not visited.
+	 */
+	private final int missingCustomers;
+
+	/**
+	 * The number of visits to customers which were visited before, or to
+	 * depots within a route.
+	 */
+	private final int invalidVisits;
+
+	/**
+	 * Constructs an evaluation.
+	 *
+	 * @param distance the total distance of the routes
+	 * @param routes the number of routes
+	 * @param load the total demand of the visited customers
+	 * @param excess the total load in excess of the capacity
+	 * @param overloadedRoutes the number of routes whose load exceeds the
+	 *        capacity
+	 * @param missingCustomers the number of customers which are not visited
+	 * @param invalidVisits the number of repeated visits to customers and of
+	 *        visits to depots within a route
+	 */
+	CVRPEvaluation(double distance, int routes, long load, long excess, int overloadedRoutes,
+			int missingCustomers, int invalidVisits) {
+		super();
+		this.distance = distance;
+		this.routes = routes;
+		this.load = load;
+		this.excess = excess;
+		this.overloadedRoutes = overloadedRoutes;
+		this.missingCustomers = missingCustomers;
+		this.invalidVisits = invalidVisits;
+	}
+
+	/**
+	 * Returns the total distance of the routes, including the edges from and
+	 * to the depot.
+	 *
+	 * @return the total distance of the routes
+	 */
+	public double getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns the number of routes.
+	 *
+	 * @return the number of routes
+	 */
+	public int getRoutes() {
+		return routes;
+	}
+
+	/**
+	 * Returns the total demand of the visited customers.
+	 *
+	 * @return the total demand of the visited customers
+	 */
+	public long getLoad() {
+		return load;
+	}
+
+	/**
+	 * Returns the total load in excess of the capacity, summed over all
+	 * routes.
+	 *
+	 * @return the total load in excess of the capacity
+	 */
+	public long getExcess() {
+		return excess;
+	}
+
+	/**
+	 * Returns the number of routes whose load exceeds the capacity.
+	 *
+	 * @return the number of routes whose load exceeds the capacity
+	 */
+	public int getOverloadedRoutes() {
+		return overloadedRoutes;
+	}
+
+	/**
+	 * Returns the number of customers which are not visited.
+	 *
+	 * @return the number of customers which are not visited
+	 */
+	public int getMissingCustomers() {
+		return missingCustomers;
+	}
+
+	/**
+	 * Returns the number of repeated visits to customers and of visits to
+	 * depots within a route.
+	 *
+	 * @return the number of invalid visits
+	 */
+	public int getInvalidVisits() {
+		return invalidVisits;
+	}
+
+	/**
+	 * Returns {@code true} if every customer is visited exactly once and no
+	 * route exceeds the capacity; {@code false} otherwise.
+	 *
+	 * @return {@code true} if the solution is feasible; {@code false}
+	 *         otherwise
+	 */
+	public boolean isFeasible() {
+		return (excess == 0) && (missingCustomers == 0) && (invalidVisits == 0);
+	}
+
+	@Override
+	public String toString() {
+		return "distance: " + distance + ", routes: " + routes + ", load: " + load + ", excess: " + excess
+				+ ", overloaded routes: " + overloadedRoutes + ", missing customers: " + missingCustomers
+				+ ", invalid visits: " + invalidVisits;
+	}
+
+}
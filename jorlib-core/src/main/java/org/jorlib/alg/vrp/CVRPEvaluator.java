@@ -0,0 +1,325 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CVRPEvaluator.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.vrp;
+
+import java.util.BitSet;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.VehicleRoutingTable;
+
+/**
+ * Evaluates routes and solutions of a capacitated vehicle routing problem
+ * with a single depot.  A route is given by the customers it visits in
+ * order; it implicitly starts and ends at the depot.  A solution is given
+ * either as an array of routes, or as the customers of all routes in one
+ * array together with the offset of each route, in which route {@code r}
+ * consists of {@code customers[offsets[r]], ..., customers[offsets[r+1]-1]}.
+ * <p>
+ * The demands, depots and distances are copied to primitive arrays and a
+ * {@link FrozenDistanceTable} on construction, and a solution is evaluated in
+ * a single pass over its routes, accumulating the distance, the load of each
+ * route and the visits to each customer at once.  An evaluator may be shared
+ * between threads.
+ *
+ * @author Joris Kinable
+ */
+public class CVRPEvaluator {
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The demand at each node.
+	 */
+	private final int[] demands;
+
+	/**
+	 * The depot nodes.
+	 */
+	private final BitSet depots;
+
+	/**
+	 * The depot at which the routes start and end.
+	 */
+	private final int depot;
+
+	/**
+	 * The capacity of each vehicle.
+	 */
+	private final int capacity;
+
+	/**
+	 * Constructs an evaluator for a CVRP instance.
+	 *
+	 * @param instance the CVRP instance
+	 * @throws IllegalArgumentException if the instance has no demands or no
+	 *         depot
+	 */
+	public CVRPEvaluator(TSPLibInstance instance) {
+		this(instance.getDistanceTable(), instance.getVehicleRoutingTable(), instance.getCapacity());
+	}
+
+	/**
+	 * Constructs an evaluator from the distances, demands and capacity.  The
+	 * routes start and end at the depot with the lowest identifier.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param vehicleRoutingTable the demands and depots
+	 * @param capacity the capacity of each vehicle
+	 * @throws IllegalArgumentException if there are no demands or no depot
+	 */
+	public CVRPEvaluator(DistanceTable distanceTable, VehicleRoutingTable vehicleRoutingTable, int capacity) {
+		super();
+
+		if (vehicleRoutingTable == null) {
+			throw new IllegalArgumentException("instance has no demands");
+		}
+
+		this.distanceTable = distanceTable.freeze();
+		this.demands = vehicleRoutingTable.getDemands();
+		this.depots = vehicleRoutingTable.getDepots();
+		this.depot = depots.nextSetBit(0);
+		this.capacity = capacity;
+
+		if (depot < 0) {
+			throw new IllegalArgumentException("instance has no depot");
+		}
+	}
+
+	/**
+	 * Returns the depot at which the routes start and end.
+	 *
+	 * @return the depot
+	 */
+	public int getDepot() {
+		return depot;
+	}
+
+	/**
+	 * Returns the capacity of each vehicle.
+	 *
+	 * @return the capacity of each vehicle
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the demand at a node.
+	 *
+	 * @param id the identifier of the node
+	 * @return the demand at the node
+	 */
+	public int getDemand(int id) {
+		return demands[id];
+	}
+
+	/**
+	 * Returns the distance of a route, including the edges from and to the
+	 * depot.
+	 *
+	 * @param route the array containing the customers of the route
+	 * @param from the index of the first customer, inclusive
+	 * @param to the index of the last customer, exclusive
+	 * @return the distance of the route
+	 */
+	public double routeDistance(int[] route, int from, int to) {
+		double distance = 0.0;
+		int previous = depot;
+
+		for (int i = from; i < to; i++) {
+			distance += distanceTable.getDistanceBetween(previous, route[i]);
+			previous = route[i];
+		}
+
+		return distance + distanceTable.getDistanceBetween(previous, depot);
+	}
+
+	/**
+	 * Returns the load of a route, i.e. the total demand of its customers.
+	 *
+	 * @param route the array containing the customers of the route
+	 * @param from the index of the first customer, inclusive
+	 * @param to the index of the last customer, exclusive
+	 * @return the load of the route
+	 */
+	public long routeLoad(int[] route, int from, int to) {
+		long load = 0;
+
+		for (int i = from; i < to; i++) {
+			load += demands[route[i]];
+		}
+
+		return load;
+	}
+
+	/**
+	 * Evaluates a solution given as an array of routes.
+	 *
+	 * @param routes the customers of each route in the order they are visited
+	 * @return the evaluation of the solution
+	 * @throws IllegalArgumentException if a route contains a node which does
+	 *         not exist
+	 */
+	public CVRPEvaluation evaluate(int[][] routes) {
+		Pass pass = new Pass();
+
+		for (int[] route : routes) {
+			pass.route(route, 0, route.length);
+		}
+
+		return pass.finish();
+	}
+
+	/**
+	 * Evaluates a solution given as the customers of all routes in one array.
+	 *
+	 * @param customers the customers of all routes, route by route
+	 * @param offsets the index of the first customer of each route, with one
+	 *        additional trailing entry equal to the number of customers
+	 * @return the evaluation of the solution
+	 * @throws IllegalArgumentException if the offsets are not increasing, or
+	 *         if a route contains a node which does not exist
+	 */
+	public CVRPEvaluation evaluate(int[] customers, int[] offsets) {
+		if ((offsets.length == 0) || (offsets[0] != 0) || (offsets[offsets.length-1] != customers.length)) {
+			throw new IllegalArgumentException("offsets must span the customers");
+		}
+
+		Pass pass = new Pass();
+
+		for (int r = 0; r + 1 < offsets.length; r++) {
+			if (offsets[r] > offsets[r+1]) {
+				throw new IllegalArgumentException("offsets are not increasing");
+			}
+
+			pass.route(customers, offsets[r], offsets[r+1]);
+		}
+
+		return pass.finish();
+	}
+
+	/**
+	 * Accumulates the evaluation of a solution route by route.
+	 */
+	private class Pass {
+
+		/**
+		 * The nodes which were visited.
+		 */
+		private final boolean[] visited = new boolean[demands.length];
+
+		/**
+		 * The total distance.
+		 */
+		private double distance;
+
+		/**
+		 * The number of routes.
+		 */
+		private int routes;
+
+		/**
+		 * The total load.
+		 */
+		private long load;
+
+		/**
+		 * The total load in excess of the capacity.
+		 */
+		private long excess;
+
+		/**
+		 * The number of routes whose load exceeds the capacity.
+		 */
+		private int overloadedRoutes;
+
+		/**
+		 * The number of distinct customers visited.
+		 */
+		private int customers;
+
+		/**
+		 * The number of invalid visits.
+		 */
+		private int invalidVisits;
+
+		/**
+		 * Adds a route, computing its distance and load and recording its
+		 * visits in the same loop.
+		 *
+		 * @param route the array containing the customers of the route
+		 * @param from the index of the first customer, inclusive
+		 * @param to the index of the last customer, exclusive
+		 */
+		void route(int[] route, int from, int to) {
+			int previous = depot;
+			long routeLoad = 0;
+
+			for (int i = from; i < to; i++) {
+				int id = route[i];
+				distance += distanceTable.getDistanceBetween(previous, id);
+
+				if (depots.get(id) || visited[id]) {
+					invalidVisits++;
+				} else {
+					visited[id] = true;
+					customers++;
+				}
+
+				routeLoad += demands[id];
+				previous = id;
+			}
+
+			distance += distanceTable.getDistanceBetween(previous, depot);
+			load += routeLoad;
+			routes++;
+
+			if (routeLoad > capacity) {
+				excess += routeLoad - capacity;
+				overloadedRoutes++;
+			}
+		}
+
+		/**
+		 * Returns the evaluation of the routes added so far.
+		 *
+		 * @return the evaluation
+		 */
+		CVRPEvaluation finish() {
+			int missing = demands.length - depots.cardinality() - customers;
+			return new CVRPEvaluation(distance, routes, load, excess, overloadedRoutes, missing, invalidVisits);
+		}
+
+	}
+
+}
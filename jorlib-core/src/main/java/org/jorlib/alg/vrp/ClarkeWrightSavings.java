@@ -0,0 +1,365 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ClarkeWrightSavings.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.vrp;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.alg.util.Primitives;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.VehicleRoutingTable;
+
+/**
+ * The savings algorithm of Clarke and Wright for the capacitated vehicle
+ * routing problem with a single depot and symmetric distances.  Initially,
+ * every customer is served by a route of its own.  Joining the routes of
+ * customers i and j at these customers saves
+ * <pre>
+ *     s(i,j) = d(0,i) + d(0,j) - d(i,j)
+ * </pre>
+ * where {@code 0} is the depot.  The pairs of customers are processed by
+ * decreasing savings, and two routes are joined whenever both customers are
+ * at an end of their routes, the routes differ, and their total load does not
+ * exceed the capacity.  Pairs with non-positive savings are not joined.
+ * <p>
+ * The savings are computed in parallel into a primitive {@code long} array,
+ * each entry packing the order-preserving bits of the negated saving with the
+ * index of the pair, which is sorted by {@link Arrays#parallelSort(long[])}.
+ * The routes are tracked by a union-find structure over the customers, whose
+ * representatives hold the load of their route.  For large instances, the
+ * savings may be restricted to pairs of candidate neighbors, which reduces
+ * the number of savings from O(N<sup>2</sup>) to O(Nk).
+ * <p>
+ * The routes returned by {@link #solve()} contain the customers only; they
+ * implicitly start and end at the depot, as expected by
+ * {@link CVRPEvaluator}.  Customers whose demand exceeds the capacity are
+ * served by a route of their own.
+ *
+ * @author Joris Kinable
+ */
+public class ClarkeWrightSavings {
+
+	/**
+	 * The distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The demand at each node.
+	 */
+	private final int[] demands;
+
+	/**
+	 * The depot nodes.
+	 */
+	private final BitSet depots;
+
+	/**
+	 * The depot at which the routes start and end.
+	 */
+	private final int depot;
+
+	/**
+	 * The capacity of each vehicle.
+	 */
+	private final int capacity;
+
+	/**
+	 * The candidate neighbors of each node, or {@code null} to consider all
+	 * pairs of customers.
+	 */
+	private CandidateLists candidates;
+
+	/**
+	 * Constructs the savings algorithm for a CVRP instance.
+	 *
+	 * @param instance the CVRP instance
+	 * @throws IllegalArgumentException if the instance has no demands or no
+	 *         depot
+	 */
+	public ClarkeWrightSavings(TSPLibInstance instance) {
+		this(instance.getDistanceTable(), instance.getVehicleRoutingTable(), instance.getCapacity());
+	}
+
+	/**
+	 * Constructs the savings algorithm from the distances, demands and
+	 * capacity.  The routes start and end at the depot with the lowest
+	 * identifier.
+	 *
+	 * @param distanceTable the symmetric distance table, whose nodes are
+	 *        identified by {@code 0, 1, ..., N-1}
+	 * @param vehicleRoutingTable the demands and depots
+	 * @param capacity the capacity of each vehicle
+	 * @throws IllegalArgumentException if there are no demands or no depot
+	 */
+	public ClarkeWrightSavings(DistanceTable distanceTable, VehicleRoutingTable vehicleRoutingTable, int capacity) {
+		super();
+
+		if (vehicleRoutingTable == null) {
+			throw new IllegalArgumentException("instance has no demands");
+		}
+
+		this.distanceTable = distanceTable.freeze();
+		this.demands = vehicleRoutingTable.getDemands();
+		this.depots = vehicleRoutingTable.getDepots();
+		this.depot = depots.nextSetBit(0);
+		this.capacity = capacity;
+
+		if (depot < 0) {
+			throw new IllegalArgumentException("instance has no depot");
+		}
+	}
+
+	/**
+	 * Restricts the savings to pairs of customers of which at least one is a
+	 * candidate neighbor of the other.
+	 *
+	 * @param candidates the candidate neighbors of each node, or {@code null}
+	 *        to consider all pairs of customers
+	 * @throws IllegalArgumentException if the number of candidate lists does
+	 *         not match the number of nodes
+	 */
+	public void setCandidates(CandidateLists candidates) {
+		if ((candidates != null) && (candidates.size() != distanceTable.size())) {
+			throw new IllegalArgumentException("candidate lists do not match the number of nodes");
+		}
+
+		this.candidates = candidates;
+	}
+
+	/**
+	 * Constructs the routes.
+	 *
+	 * @return the customers of each route in the order they are visited
+	 * @throws IllegalStateException if there are too many pairs of customers
+	 *         to store their savings without candidate neighbors
+	 */
+	public int[][] solve() {
+		final int n = distanceTable.size();
+		final int[] customers = new int[n];
+		int count = 0;
+
+		for (int i = 0; i < n; i++) {
+			if (!depots.get(i)) {
+				customers[count++] = i;
+			}
+		}
+
+		final int m = count;
+
+		// pair k of row r joins customers[r] and heads[k], or, without
+		// candidates, customers[r] and customers[r + 1 + k - rowStarts[r]]
+		final int[] rowLengths = new int[m];
+		final int[] heads = (candidates == null) ? null : pairs(customers, m, rowLengths);
+		final long[] rowStarts = new long[m + 1];
+
+		for (int r = 0; r < m; r++) {
+			rowStarts[r + 1] = rowStarts[r] + ((heads == null) ? (m - 1 - r) : rowLengths[r]);
+		}
+
+		if (rowStarts[m] > Integer.MAX_VALUE) {
+			throw new IllegalStateException("too many savings, restrict them to candidate neighbors");
+		}
+
+		final long[] keys = new long[(int)rowStarts[m]];
+
+		IntStream.range(0, m).parallel().forEach(r -> {
+			int i = customers[r];
+			double di = distanceTable.getDistanceBetween(depot, i);
+
+			for (int k = (int)rowStarts[r]; k < rowStarts[r + 1]; k++) {
+				int j = (heads == null) ? customers[(int)(r + 1 + k - rowStarts[r])] : heads[k];
+				double saving = di + distanceTable.getDistanceBetween(depot, j) - distanceTable.getDistanceBetween(i, j);
+
+				// decreasing savings sort first
+				keys[k] = Primitives.key(-saving, k);
+			}
+		});
+
+		Arrays.parallelSort(keys);
+
+		// the neighbors of each customer within its route, -1 for the depot
+		int[] links = new int[2 * n];
+		int[] parent = new int[n];
+		long[] loads = new long[n];
+		int zero = Primitives.sortable(-0.0f);
+		Arrays.fill(links, -1);
+
+		for (int r = 0; r < m; r++) {
+			int i = customers[r];
+			parent[i] = i;
+			loads[i] = demands[i];
+		}
+
+		for (long key : keys) {
+			if ((int)(key >> 32) >= zero) {
+				// the remaining savings are not positive
+				break;
+			}
+
+			int k = (int)key;
+			int r = row(rowStarts, k);
+			int i = customers[r];
+			int j = (heads == null) ? customers[(int)(r + 1 + k - rowStarts[r])] : heads[k];
+
+			// customers in the interior of a route cannot be joined
+			if ((links[2*i+1] >= 0) || (links[2*j+1] >= 0)) {
+				continue;
+			}
+
+			int ri = Primitives.find(parent, i);
+			int rj = Primitives.find(parent, j);
+
+			if ((ri == rj) || (loads[ri] + loads[rj] > capacity)) {
+				continue;
+			}
+
+			links[2*i + ((links[2*i] < 0) ? 0 : 1)] = j;
+			links[2*j + ((links[2*j] < 0) ? 0 : 1)] = i;
+			parent[ri] = rj;
+			loads[rj] += loads[ri];
+		}
+
+		return routes(customers, m, links);
+	}
+
+	/**
+	 * Collects the pairs of candidate neighbors, each pair once in the row of
+	 * its customer with the lower identifier.
+	 *
+	 * @param customers the customers in increasing order
+	 * @param m the number of customers
+	 * @param rowLengths receives the number of pairs in each row
+	 * @return the second customer of each pair, row by row
+	 */
+	private int[] pairs(final int[] customers, int m, int[] rowLengths) {
+		final int[][] rows = new int[m][];
+
+		IntStream.range(0, m).parallel().forEach(r -> {
+			int i = customers[r];
+			int[] neighbors = candidates.get(i);
+			int[] row = new int[neighbors.length];
+			int size = 0;
+
+			for (int j : neighbors) {
+				if ((j != i) && !depots.get(j) && ((i < j) || !Primitives.contains(candidates.get(j), i))) {
+					row[size++] = j;
+				}
+			}
+
+			rows[r] = Arrays.copyOf(row, size);
+		});
+
+		int total = 0;
+
+		for (int r = 0; r < m; r++) {
+			rowLengths[r] = rows[r].length;
+			total += rows[r].length;
+		}
+
+		int[] heads = new int[total];
+		total = 0;
+
+		for (int r = 0; r < m; r++) {
+			System.arraycopy(rows[r], 0, heads, total, rows[r].length);
+			total += rows[r].length;
+		}
+
+		return heads;
+	}
+
+	/**
+	 * Extracts the routes from the links between customers.
+	 *
+	 * @param customers the customers
+	 * @param m the number of customers
+	 * @param links the neighbors of each customer within its route
+	 * @return the customers of each route in the order they are visited
+	 */
+	private static int[][] routes(int[] customers, int m, int[] links) {
+		boolean[] done = new boolean[links.length / 2];
+		int[][] routes = new int[m][];
+		int[] route = new int[m];
+		int count = 0;
+
+		for (int r = 0; r < m; r++) {
+			int start = customers[r];
+
+			// start at an end of the route, which links to the depot
+			if (done[start] || (links[2*start+1] >= 0)) {
+				continue;
+			}
+
+			int size = 0;
+			int previous = -1;
+			int current = start;
+
+			while (current >= 0) {
+				route[size++] = current;
+				done[current] = true;
+				int next = (links[2*current] != previous) ? links[2*current] : links[2*current+1];
+				previous = current;
+				current = next;
+			}
+
+			routes[count++] = Arrays.copyOf(route, size);
+		}
+
+		return Arrays.copyOf(routes, count);
+	}
+
+	/**
+	 * Returns the row containing a pair.
+	 *
+	 * @param rowStarts the index of the first pair of each row, with one
+	 *        additional trailing entry
+	 * @param k the index of the pair
+	 * @return the row containing the pair
+	 */
+	private static int row(long[] rowStarts, int k) {
+		int low = 0;
+		int high = rowStarts.length - 2;
+
+		// the last row starting at or before k
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+
+			if (rowStarts[middle] <= k) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+}
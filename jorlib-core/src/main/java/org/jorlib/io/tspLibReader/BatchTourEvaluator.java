@@ -0,0 +1,379 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * BatchTourEvaluator.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+/**
+ * Computes the lengths of many tours in parallel, e.g. of the population of
+ * an evolutionary algorithm.  The tours are given either as separate arrays
+ * or as one flat buffer, in which tour {@code t} occupies the entries
+ * {@code t*N, ..., t*N + N-1}, and their lengths are written to an array
+ * supplied by the caller.  The tours are split into chunks of roughly equal
+ * work which are evaluated on a {@link ForkJoinPool}, reading the distances
+ * directly from a {@link FrozenDistanceTable} snapshot through
+ * {@link FrozenDistanceTable#length(int[], int, int)}.
+ * <p>
+ * Optionally, the evaluator checks that every tour is a Hamiltonian cycle
+ * right after computing its length, while the tour is still in the cache,
+ * marking visited nodes in an array shared by all tours of a task.  The
+ * length of a tour which is not a Hamiltonian cycle is reported as
+ * {@code NaN}.  A tour visiting an adjacent pair of nodes which are not
+ * connected in a sparse graph has infinite length, and is not a Hamiltonian
+ * cycle either.
+ * <p>
+ * An evaluator may be shared between threads once configured.
+ *
+ * @author Joris Kinable
+ */
+public class BatchTourEvaluator {
+
+	/**
+	 * The minimum number of nodes evaluated by a single task.
+	 */
+	private static final int THRESHOLD = 1 << 14;
+
+	/**
+	 * The snapshot of the distance table.
+	 */
+	private final FrozenDistanceTable distanceTable;
+
+	/**
+	 * The pool evaluating the tours.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * {@code true} if tours are checked to be Hamiltonian cycles;
+	 * {@code false} otherwise.
+	 */
+	private boolean checkHamiltonicity;
+
+	/**
+	 * Constructs an evaluator running on the common pool.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 */
+	public BatchTourEvaluator(DistanceTable distanceTable) {
+		this(distanceTable, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs an evaluator running on the given pool.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param pool the pool evaluating the tours
+	 */
+	public BatchTourEvaluator(DistanceTable distanceTable, ForkJoinPool pool) {
+		super();
+		this.distanceTable = distanceTable.freeze();
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets whether tours are checked to be Hamiltonian cycles.  By default,
+	 * tours are not checked.
+	 *
+	 * @param checkHamiltonicity {@code true} to check that tours are
+	 *        Hamiltonian cycles; {@code false} otherwise
+	 */
+	public void setCheckHamiltonicity(boolean checkHamiltonicity) {
+		this.checkHamiltonicity = checkHamiltonicity;
+	}
+
+	/**
+	 * Computes the lengths of the tours in a flat buffer.
+	 *
+	 * @param tours the buffer, in which tour {@code t} occupies the entries
+	 *        {@code t*N, ..., t*N + N-1}
+	 * @param n the number of nodes of each tour
+	 * @param lengths receives the length of each tour, or {@code NaN} if
+	 *        Hamiltonicity is checked and the tour is not a Hamiltonian cycle
+	 * @return the number of tours which are not Hamiltonian cycles, or
+	 *         {@code 0} if Hamiltonicity is not checked
+	 * @throws IllegalArgumentException if the length of the buffer is not a
+	 *         multiple of {@code n}, if {@code lengths} is shorter than the
+	 *         number of tours, or if a tour contains a node which does not
+	 *         exist
+	 */
+	public int evaluate(final int[] tours, final int n, double[] lengths) {
+		if ((n == 0) ? (tours.length != 0) : (tours.length % n != 0)) {
+			throw new IllegalArgumentException("buffer length is not a multiple of " + n);
+		}
+
+		int count = (n == 0) ? 0 : tours.length / n;
+		return evaluate(count, n, lengths, new Source() {
+			@Override
+			public int[] array(int t) {
+				return tours;
+			}
+
+			@Override
+			public int offset(int t) {
+				return t * n;
+			}
+
+			@Override
+			public int length(int t) {
+				return n;
+			}
+		});
+	}
+
+	/**
+	 * Computes the lengths of the given tours.
+	 *
+	 * @param tours the tours, each given as the nodes in the order they are
+	 *        visited
+	 * @param lengths receives the length of each tour, or {@code NaN} if
+	 *        Hamiltonicity is checked and the tour is not a Hamiltonian cycle
+	 * @return the number of tours which are not Hamiltonian cycles, or
+	 *         {@code 0} if Hamiltonicity is not checked
+	 * @throws IllegalArgumentException if {@code lengths} is shorter than the
+	 *         number of tours, or if a tour contains a node which does not
+	 *         exist
+	 */
+	public int evaluate(final int[][] tours, double[] lengths) {
+		int n = 0;
+
+		for (int[] tour : tours) {
+			n += tour.length;
+		}
+
+		return evaluate(tours.length, (tours.length == 0) ? 0 : n / tours.length, lengths, new Source() {
+			@Override
+			public int[] array(int t) {
+				return tours[t];
+			}
+
+			@Override
+			public int offset(int t) {
+				return 0;
+			}
+
+			@Override
+			public int length(int t) {
+				return tours[t].length;
+			}
+		});
+	}
+
+	/**
+	 * Computes the lengths of the given tours.
+	 *
+	 * @param tours the tours
+	 * @param lengths receives the length of each tour, or {@code NaN} if
+	 *        Hamiltonicity is checked and the tour is not a Hamiltonian cycle
+	 * @return the number of tours which are not Hamiltonian cycles, or
+	 *         {@code 0} if Hamiltonicity is not checked
+	 * @throws IllegalArgumentException if {@code lengths} is shorter than the
+	 *         number of tours, or if a tour contains a node which does not
+	 *         exist
+	 */
+	public int evaluate(List<TSPLibTour> tours, double[] lengths) {
+		int[][] arrays = new int[tours.size()][];
+
+		for (int t = 0; t < arrays.length; t++) {
+			arrays[t] = tours.get(t).toArray();
+		}
+
+		return evaluate(arrays, lengths);
+	}
+
+	/**
+	 * Evaluates the tours on the pool.
+	 *
+	 * @param count the number of tours
+	 * @param n the average number of nodes of a tour
+	 * @param lengths receives the length of each tour
+	 * @param source the tours
+	 * @return the number of tours which are not Hamiltonian cycles
+	 */
+	private int evaluate(int count, int n, double[] lengths, Source source) {
+		if (lengths.length < count) {
+			throw new IllegalArgumentException("lengths hold " + lengths.length + " of " + count + " tours");
+		}
+
+		AtomicInteger violations = new AtomicInteger();
+		int grain = Math.max(1, THRESHOLD / Math.max(1, n));
+		pool.invoke(new Evaluation(source, lengths, violations, checkHamiltonicity, grain, 0, count));
+		return violations.get();
+	}
+
+	/**
+	 * Locates the tours to evaluate.
+	 */
+	private interface Source {
+
+		/**
+		 * Returns the array containing a tour.
+		 *
+		 * @param t the index of the tour
+		 * @return the array containing the tour
+		 */
+		int[] array(int t);
+
+		/**
+		 * Returns the index of the first node of a tour in its array.
+		 *
+		 * @param t the index of the tour
+		 * @return the index of the first node of the tour
+		 */
+		int offset(int t);
+
+		/**
+		 * Returns the number of nodes of a tour.
+		 *
+		 * @param t the index of the tour
+		 * @return the number of nodes of the tour
+		 */
+		int length(int t);
+
+	}
+
+	/**
+	 * Evaluates a range of tours, splitting it in halves while it exceeds the
+	 * grain size.
+	 */
+	private class Evaluation extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The tours.
+		 */
+		private final Source source;
+
+		/**
+		 * Receives the length of each tour.
+		 */
+		private final double[] lengths;
+
+		/**
+		 * Counts the tours which are not Hamiltonian cycles.
+		 */
+		private final AtomicInteger violations;
+
+		/**
+		 * {@code true} if tours are checked to be Hamiltonian cycles;
+		 * {@code false} otherwise.
+		 */
+		private final boolean check;
+
+		/**
+		 * The maximum number of tours evaluated without splitting.
+		 */
+		private final int grain;
+
+		/**
+		 * The first tour of the range, inclusive.
+		 */
+		private final int from;
+
+		/**
+		 * The last tour of the range, exclusive.
+		 */
+		private final int to;
+
+		/**
+		 * Constructs the evaluation of a range of tours.
+		 *
+		 * @param source the tours
+		 * @param lengths receives the length of each tour
+		 * @param violations counts the tours which are not Hamiltonian cycles
+		 * @param check {@code true} if tours are checked to be Hamiltonian
+		 *        cycles; {@code false} otherwise
+		 * @param grain the maximum number of tours evaluated without splitting
+		 * @param from the first tour of the range, inclusive
+		 * @param to the last tour of the range, exclusive
+		 */
+		Evaluation(Source source, double[] lengths, AtomicInteger violations, boolean check, int grain,
+				int from, int to) {
+			super();
+			this.source = source;
+			this.lengths = lengths;
+			this.violations = violations;
+			this.check = check;
+			this.grain = grain;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Evaluation(source, lengths, violations, check, grain, from, middle),
+						new Evaluation(source, lengths, violations, check, grain, middle, to));
+				return;
+			}
+
+			int size = distanceTable.size();
+			// the last tour which visited each node, offset by one
+			int[] visited = check ? new int[size] : null;
+			int invalid = 0;
+
+			for (int t = from; t < to; t++) {
+				int[] array = source.array(t);
+				int offset = source.offset(t);
+				int length = source.length(t);
+				double value = distanceTable.length(array, offset, length);
+
+				if (check) {
+					boolean hamiltonian = (length == size) && (size > 0) && !Double.isInfinite(value);
+
+					for (int i = offset; hamiltonian && (i < offset + length); i++) {
+						int id = array[i];
+						hamiltonian = visited[id] != t + 1;
+						visited[id] = t + 1;
+					}
+
+					if (!hamiltonian) {
+						value = Double.NaN;
+						invalid++;
+					}
+				}
+
+				lengths[t] = value;
+			}
+
+			if (invalid > 0) {
+				violations.addAndGet(invalid);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,177 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * RandomTours.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates uniformly random tours as primitive arrays.  Every method draws
+ * its random numbers from a caller-supplied {@link SplittableRandom}, so that
+ * the tours are reproducible from a seed.  Permutations are generated by the
+ * inside-out variant of the Fisher-Yates shuffle, which initializes and
+ * shuffles the array in a single pass.
+ * <p>
+ * Many tours may be generated at once into a single flat buffer, e.g. to
+ * initialize the population of an evolutionary algorithm; tour {@code t}
+ * occupies the entries {@code t*N, ..., t*N + N-1}.  The tours are generated
+ * in parallel, each from its own generator split from the supplied one in
+ * order, so the buffer only depends on the state of the supplied generator,
+ * and not on the number of threads.
+ *
+ * @author Joris Kinable
+ */
+public final class RandomTours {
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private RandomTours() {
+		super();
+	}
+
+	/**
+	 * Returns a uniformly random permutation of {@code 0, 1, ..., N-1}.
+	 *
+	 * @param n the number of nodes
+	 * @param random the source of randomness
+	 * @return the random permutation
+	 */
+	public static int[] permutation(int n, SplittableRandom random) {
+		int[] permutation = new int[n];
+		fill(permutation, 0, n, random);
+		return permutation;
+	}
+
+	/**
+	 * Returns a uniformly random tour visiting the nodes
+	 * {@code 0, 1, ..., N-1}.
+	 *
+	 * @param n the number of nodes
+	 * @param random the source of randomness
+	 * @return the random tour
+	 */
+	public static TSPLibTour tour(int n, SplittableRandom random) {
+		return TSPLibTour.createTour(permutation(n, random));
+	}
+
+	/**
+	 * Shuffles an array uniformly at random.
+	 *
+	 * @param values the values, which are shuffled in place
+	 * @param random the source of randomness
+	 */
+	public static void shuffle(int[] values, SplittableRandom random) {
+		shuffle(values, 0, values.length, random);
+	}
+
+	/**
+	 * Shuffles a range of an array uniformly at random.
+	 *
+	 * @param values the values, whose range is shuffled in place
+	 * @param from the first index of the range, inclusive
+	 * @param to the last index of the range, exclusive
+	 * @param random the source of randomness
+	 * @throws IndexOutOfBoundsException if the range exceeds the array
+	 */
+	public static void shuffle(int[] values, int from, int to, SplittableRandom random) {
+		if ((from < 0) || (to > values.length) || (from > to)) {
+			throw new IndexOutOfBoundsException("invalid range [" + from + ", " + to + ")");
+		}
+
+		for (int i = to - 1; i > from; i--) {
+			int j = from + random.nextInt(i - from + 1);
+			int t = values[i];
+			values[i] = values[j];
+			values[j] = t;
+		}
+	}
+
+	/**
+	 * Returns many uniformly random tours in a flat buffer.
+	 *
+	 * @param count the number of tours
+	 * @param n the number of nodes of each tour
+	 * @param random the source of randomness
+	 * @return the buffer, in which tour {@code t} occupies the entries
+	 *         {@code t*N, ..., t*N + N-1}
+	 * @throws IllegalArgumentException if the buffer would exceed the
+	 *         maximum array size
+	 */
+	public static int[] tours(int count, int n, SplittableRandom random) {
+		if ((long)count * n > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(count + " tours of " + n + " nodes exceed the maximum array size");
+		}
+
+		int[] buffer = new int[count * n];
+		tours(buffer, n, random);
+		return buffer;
+	}
+
+	/**
+	 * Fills a flat buffer with uniformly random tours.
+	 *
+	 * @param buffer the buffer, whose length is a multiple of {@code n}; tour
+	 *        {@code t} is written to the entries {@code t*N, ..., t*N + N-1}
+	 * @param n the number of nodes of each tour
+	 * @param random the source of randomness
+	 * @throws IllegalArgumentException if the length of the buffer is not a
+	 *         multiple of {@code n}
+	 */
+	public static void tours(final int[] buffer, final int n, SplittableRandom random) {
+		if ((n == 0) ? (buffer.length != 0) : (buffer.length % n != 0)) {
+			throw new IllegalArgumentException("buffer length is not a multiple of " + n);
+		}
+
+		int count = (n == 0) ? 0 : buffer.length / n;
+		final SplittableRandom[] randoms = new SplittableRandom[count];
+
+		for (int t = 0; t < count; t++) {
+			randoms[t] = random.split();
+		}
+
+		IntStream.range(0, count).parallel().forEach(t -> fill(buffer, t * n, n, randoms[t]));
+	}
+
+	/**
+	 * Writes a uniformly random permutation of {@code 0, 1, ..., N-1} to a
+	 * range of an array by the inside-out Fisher-Yates shuffle.
+	 *
+	 * @param values the array
+	 * @param offset the first index of the range
+	 * @param n the number of nodes
+	 * @param random the source of randomness
+	 */
+	private static void fill(int[] values, int offset, int n, SplittableRandom random) {
+		for (int i = 0; i < n; i++) {
+			int j = random.nextInt(i + 1);
+			values[offset + i] = values[offset + j];
+			values[offset + j] = i;
+		}
+	}
+
+}
@@ -23,10 +23,8 @@ package org.jorlib.io.tspLibReader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.SplittableRandom;
 
 import org.jorlib.io.tspLibReader.graph.DistanceTable;
 import org.jorlib.io.tspLibReader.graph.Edge;
@@ -195,45 +193,22 @@ public class TSPLibTour {
 		if (fixedEdges == null) {
 			return true;
 		} else {
-			return toEdges().containsAll(fixedEdges.getEdges());
+			return new TourValidator(fixedEdges).containsFixedEdges(this);
 		}
 	}
 	
 	/**
 	 * Returns {@code true} if this tour is a Hamiltonian cycle; {@code false}
 	 * otherwise.  A Hamiltonian cycle is a path through a graph that visits
-	 * every node exactly once.
+	 * every node exactly once.  Use a {@link TourValidator} directly to
+	 * validate many tours for the same problem instance.
 	 * 
 	 * @param problem the TSPLIB problem instance this tour is a solution for
 	 * @return {@code true} if this tour is a Hamiltonian cycle; {@code false}
 	 *         otherwise
 	 */
 	public boolean isHamiltonianCycle(TSPLibInstance problem) {
-		DistanceTable distanceTable = problem.getDistanceTable();
-		Set<Integer> visited = new HashSet<Integer>();
-		
-		// scan through nodes to determine if any invalid edges are followed
-		for (int i = 0; i < nodes.size(); i++) {
-			int id1 = get(i);
-			int id2 = get(i+1);
-			
-			if (visited.contains(id2)) {
-				return false;
-			} else if (!distanceTable.isNeighbor(id1, id2)) {
-				return false;
-			} else {
-				visited.add(id2);
-			}
-		}
-		
-		// determine if all nodes were visited
-		for (int id : distanceTable.listNodes()) {
-			if (!visited.contains(id)) {
-				return false;
-			}
-		}
-		
-		return true;
+		return new TourValidator(problem.getDistanceTable()).isHamiltonianCycle(this);
 	}
 	
 	/**
@@ -347,9 +322,21 @@ public class TSPLibTour {
 	 * @return the random tour with the given length
 	 */
 	public static TSPLibTour createRandomTour(int length) {
-		TSPLibTour tour = createCanonicalTour(length);
-		Collections.shuffle(tour.nodes);
-		return tour;
+		return createRandomTour(length, new SplittableRandom());
+	}
+	
+	/**
+	 * Returns a random tour with the given length, drawing its random numbers
+	 * from the given generator.  The same tour is returned for generators in
+	 * the same state.
+	 * 
+	 * @param length the number of nodes in the resulting tour
+	 * @param random the source of randomness
+	 * @return the random tour with the given length
+	 * @see RandomTours
+	 */
+	public static TSPLibTour createRandomTour(int length, SplittableRandom random) {
+		return RandomTours.tour(length, random);
 	}
 	
 	/**
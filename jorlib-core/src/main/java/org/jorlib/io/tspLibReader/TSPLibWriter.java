@@ -0,0 +1,823 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TSPLibWriter.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.DataType;
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.DisplayDataType;
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.EdgeWeightFormat;
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.EdgeWeightType;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.Edge;
+import org.jorlib.io.tspLibReader.graph.EdgeData;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.Node;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+import org.jorlib.io.tspLibReader.graph.VehicleRoutingTable;
+
+/**
+ * Writes problem instances and tours in the TSPLIB format, such that they can
+ * be read back by {@link TSPLibInstance} and {@link GTSPLibInstance}.  Node
+ * coordinates are written to a {@code NODE_COORD_SECTION}, edge weight
+ * matrices to an {@code EDGE_WEIGHT_SECTION} in any of the matrix formats of
+ * {@link EdgeWeightFormat}, and graphs to an {@code EDGE_DATA_SECTION} in the
+ * {@code EDGE_LIST} format; fixed edges, display data, demands, depots, GTSP
+ * sets and tours are written to their own sections.  Node identifiers, which
+ * start at {@code 0} in this library, start at {@code 1} in the output.
+ * <p>
+ * The writer formats numbers directly into a byte buffer, without creating
+ * strings, so that large instances and many tours can be written quickly.
+ * Integral values are written without a fractional part; other values with
+ * the fewest decimals which parse back to the same {@code double}.  Files
+ * whose name ends with {@code .gz} are compressed with gzip.
+ *
+ * @author Joris Kinable
+ */
+public class TSPLibWriter implements Closeable, Flushable {
+
+	/**
+	 * The size of the output buffer in bytes.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The maximum number of decimals of a number written without exponent.
+	 */
+	private static final int MAX_DECIMALS = 17;
+
+	/**
+	 * The powers of ten, which are represented exactly as {@code double}.
+	 */
+	private static final double[] POWERS = new double[MAX_DECIMALS + 1];
+
+	/**
+	 * The powers of ten as {@code long}.
+	 */
+	private static final long[] LONG_POWERS = new long[MAX_DECIMALS + 1];
+
+	static {
+		POWERS[0] = 1.0;
+		LONG_POWERS[0] = 1L;
+
+		for (int k = 1; k <= MAX_DECIMALS; k++) {
+			POWERS[k] = POWERS[k - 1] * 10.0;
+			LONG_POWERS[k] = LONG_POWERS[k - 1] * 10L;
+		}
+	}
+
+	/**
+	 * The underlying output stream.
+	 */
+	private final OutputStream out;
+
+	/**
+	 * The output buffer.
+	 */
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+
+	/**
+	 * The number of bytes in the output buffer.
+	 */
+	private int position;
+
+	/**
+	 * The digits of the integer being written, in reverse order.
+	 */
+	private final byte[] digits = new byte[20];
+
+	/**
+	 * Constructs a writer to the given output stream.
+	 *
+	 * @param out the output stream, which is closed by {@link #close()}
+	 */
+	public TSPLibWriter(OutputStream out) {
+		super();
+		this.out = out;
+	}
+
+	/**
+	 * Constructs a writer to the given file, which is compressed with gzip if
+	 * its name ends with {@code .gz}.
+	 *
+	 * @param file the file
+	 * @throws IOException if the file could not be opened
+	 */
+	public TSPLibWriter(File file) throws IOException {
+		this(file, file.getName().endsWith(".gz"));
+	}
+
+	/**
+	 * Constructs a writer to the given file.
+	 *
+	 * @param file the file
+	 * @param gzip {@code true} to compress the file with gzip; {@code false}
+	 *        otherwise
+	 * @throws IOException if the file could not be opened
+	 */
+	public TSPLibWriter(File file, boolean gzip) throws IOException {
+		this(gzip ? new GZIPOutputStream(new FileOutputStream(file), BUFFER_SIZE)
+				: new FileOutputStream(file));
+	}
+
+	/**
+	 * Writes a problem instance in the formats in which it was read.  Distance
+	 * tables which are neither node coordinates, edge weight matrices nor
+	 * edge data are written as a full matrix.
+	 *
+	 * @param instance the problem instance
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void write(TSPLibInstance instance) throws IOException {
+		DistanceTable table = instance.getDistanceTable();
+		EdgeWeightType type = instance.getEdgeWeightType();
+		EdgeWeightFormat format = isMatrix(instance.getEdgeWeightFormat()) ? instance.getEdgeWeightFormat()
+				: EdgeWeightFormat.FULL_MATRIX;
+
+		writeSpecification(instance.getName(), instance.getDataType(), instance.getComment(),
+				instance.getDimension(), instance.getCapacity());
+		writeData(instance.getDataType(), instance.getDimension(), table, type, format,
+				instance.getDisplayDataType(), instance.getDisplayData(), instance.getFixedEdges(),
+				instance.getVehicleRoutingTable());
+
+		for (TSPLibTour tour : instance.getTours()) {
+			writeTourSection(tour.toArray());
+		}
+
+		writeEOF();
+	}
+
+	/**
+	 * Writes a problem instance with its distances as an explicit matrix in
+	 * the given format, e.g. to store the distances of a geographical
+	 * instance once rather than recomputing them whenever it is read.
+	 *
+	 * @param instance the problem instance
+	 * @param format the format of the matrix
+	 * @throws IOException if an I/O error occurred
+	 * @throws IllegalArgumentException if {@code format} is not a matrix
+	 *         format
+	 */
+	public void write(TSPLibInstance instance, EdgeWeightFormat format) throws IOException {
+		checkMatrix(format);
+		writeSpecification(instance.getName(), instance.getDataType(), instance.getComment(),
+				instance.getDimension(), instance.getCapacity());
+		writeData(instance.getDataType(), instance.getDimension(), instance.getDistanceTable().freeze(),
+				EdgeWeightType.EXPLICIT, format, instance.getDisplayDataType(), instance.getDisplayData(),
+				instance.getFixedEdges(), instance.getVehicleRoutingTable());
+
+		for (TSPLibTour tour : instance.getTours()) {
+			writeTourSection(tour.toArray());
+		}
+
+		writeEOF();
+	}
+
+	/**
+	 * Writes an instance defined by a distance table, e.g. a renumbered or
+	 * reduced instance, as an explicit matrix in the given format.
+	 *
+	 * @param name the name of the instance
+	 * @param type the type of the instance
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param format the format of the matrix
+	 * @throws IOException if an I/O error occurred
+	 * @throws IllegalArgumentException if {@code format} is not a matrix
+	 *         format
+	 */
+	public void write(String name, DataType type, DistanceTable distanceTable, EdgeWeightFormat format)
+			throws IOException {
+		checkMatrix(format);
+		FrozenDistanceTable table = distanceTable.freeze();
+		writeSpecification(name, type, null, table.size(), 0);
+		writeData(type, table.size(), table, EdgeWeightType.EXPLICIT, format, null, null, null, null);
+		writeEOF();
+	}
+
+	/**
+	 * Writes a generalized TSP instance in the formats in which it was read.
+	 *
+	 * @param instance the generalized TSP instance
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void write(GTSPLibInstance instance) throws IOException {
+		EdgeWeightFormat format = isMatrix(instance.getEdgeWeightFormat()) ? instance.getEdgeWeightFormat()
+				: EdgeWeightFormat.FULL_MATRIX;
+
+		writeSpecification(instance.getName(), instance.getDataType(), instance.getComment(),
+				instance.getDimension(), instance.getCapacity());
+		writeKeyword("GTSP_SETS", instance.getnClusters());
+		writeData(instance.getDataType(), instance.getDimension(), instance.getDistanceTable(),
+				instance.getEdgeWeightType(), format, instance.getDisplayDataType(), instance.getDisplayData(),
+				instance.getFixedEdges(), instance.getVehicleRoutingTable());
+
+		List<Integer>[] clusters = instance.getClusters();
+
+		if (clusters != null) {
+			// the reader expects a colon, and single spaces between entries
+			writeAscii("GTSP_SET_SECTION:");
+			newLine();
+
+			for (int k = 0; k < clusters.length; k++) {
+				writeInteger(k + 1);
+
+				for (int id : clusters[k]) {
+					writeByte(' ');
+					writeInteger(id);
+				}
+
+				writeAscii(" -1");
+				newLine();
+			}
+		}
+
+		for (TSPLibTour tour : instance.getTours()) {
+			writeTourSection(tour.toArray());
+		}
+
+		writeEOF();
+	}
+
+	/**
+	 * Writes a tour file.
+	 *
+	 * @param name the name of the tour
+	 * @param tour the tour
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeTour(String name, TSPLibTour tour) throws IOException {
+		writeTour(name, tour.toArray());
+	}
+
+	/**
+	 * Writes a tour file.
+	 *
+	 * @param name the name of the tour
+	 * @param tour the nodes in the order they are visited, identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeTour(String name, int[] tour) throws IOException {
+		writeSpecification(name, DataType.TOUR, null, tour.length, 0);
+		writeTourSection(tour);
+		writeEOF();
+	}
+
+	/**
+	 * Writes the keywords of the specification part which all instances have
+	 * in common.
+	 *
+	 * @param name the name, or {@code null}
+	 * @param type the type, or {@code null}
+	 * @param comment the comment, whose lines are written as separate
+	 *        keywords, or {@code null}
+	 * @param dimension the number of nodes
+	 * @param capacity the vehicle capacity, or {@code 0} if there is none
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeSpecification(String name, DataType type, String comment, int dimension, int capacity)
+			throws IOException {
+		if (name != null) {
+			writeKeyword("NAME", name);
+		}
+
+		if (type != null) {
+			writeKeyword("TYPE", type.name());
+		}
+
+		if (comment != null) {
+			for (String line : comment.split("\n")) {
+				writeKeyword("COMMENT", line);
+			}
+		}
+
+		writeKeyword("DIMENSION", dimension);
+
+		if (capacity > 0) {
+			writeKeyword("CAPACITY", capacity);
+		}
+	}
+
+	/**
+	 * Writes the keywords describing the distances, followed by the data
+	 * sections.
+	 *
+	 * @param type the type of the instance, or {@code null}
+	 * @param dimension the number of nodes
+	 * @param table the distance table
+	 * @param weightType the edge weight type, or {@code null}
+	 * @param format the matrix format used if the distances are written as a
+	 *        matrix
+	 * @param displayType the display data type, or {@code null}
+	 * @param displayData the display data, or {@code null}
+	 * @param fixedEdges the fixed edges, or {@code null}
+	 * @param vehicleRoutingTable the demands and depots, or {@code null}
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeData(DataType type, int dimension, DistanceTable table, EdgeWeightType weightType,
+			EdgeWeightFormat format, DisplayDataType displayType, NodeCoordinates displayData,
+			EdgeData fixedEdges, VehicleRoutingTable vehicleRoutingTable) throws IOException {
+		if (table instanceof NodeCoordinates && !EdgeWeightType.EXPLICIT.equals(weightType)) {
+			writeKeyword("EDGE_WEIGHT_TYPE", weightType.name());
+		} else if (table instanceof EdgeData) {
+			if (weightType != null) {
+				writeKeyword("EDGE_WEIGHT_TYPE", weightType.name());
+			}
+
+			writeKeyword("EDGE_DATA_FORMAT", "EDGE_LIST");
+		} else if (table != null) {
+			writeKeyword("EDGE_WEIGHT_TYPE", EdgeWeightType.EXPLICIT.name());
+			writeKeyword("EDGE_WEIGHT_FORMAT", format.name());
+		}
+
+		if ((displayData != null) && DisplayDataType.TWOD_DISPLAY.equals(displayType)) {
+			writeKeyword("DISPLAY_DATA_TYPE", displayType.name());
+		}
+
+		if (table instanceof NodeCoordinates && !EdgeWeightType.EXPLICIT.equals(weightType)) {
+			writeNodeCoordSection((NodeCoordinates)table, dimension);
+		} else if (table instanceof EdgeData) {
+			writeEdgeDataSection((EdgeData)table);
+		} else if (table != null) {
+			writeEdgeWeightSection(table, dimension, format, DataType.SOP.equals(type));
+		}
+
+		if (fixedEdges != null) {
+			writeAscii("FIXED_EDGES_SECTION");
+			newLine();
+			writeEdges(fixedEdges);
+		}
+
+		if ((displayData != null) && DisplayDataType.TWOD_DISPLAY.equals(displayType)) {
+			writeAscii("DISPLAY_DATA_SECTION");
+			newLine();
+			writeNodes(displayData, dimension);
+		}
+
+		if (vehicleRoutingTable != null) {
+			writeDemandSection(vehicleRoutingTable, dimension);
+			writeDepotSection(vehicleRoutingTable, dimension);
+		}
+	}
+
+	/**
+	 * Writes a keyword of the specification part.
+	 *
+	 * @param keyword the keyword
+	 * @param value the value
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeKeyword(String keyword, String value) throws IOException {
+		writeAscii(keyword);
+		writeAscii(" : ");
+		writeAscii(value);
+		newLine();
+	}
+
+	/**
+	 * Writes a keyword of the specification part with an integer value.
+	 *
+	 * @param keyword the keyword
+	 * @param value the value
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeKeyword(String keyword, long value) throws IOException {
+		writeAscii(keyword);
+		writeAscii(" : ");
+		writeInteger(value);
+		newLine();
+	}
+
+	/**
+	 * Writes a {@code NODE_COORD_SECTION}.
+	 *
+	 * @param coordinates the node coordinates
+	 * @param dimension the number of nodes
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeNodeCoordSection(NodeCoordinates coordinates, int dimension) throws IOException {
+		writeAscii("NODE_COORD_SECTION");
+		newLine();
+		writeNodes(coordinates, dimension);
+	}
+
+	/**
+	 * Writes the lines of a section listing the position of each node.
+	 *
+	 * @param coordinates the node coordinates
+	 * @param dimension the number of nodes
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeNodes(NodeCoordinates coordinates, int dimension) throws IOException {
+		for (int i = 0; i < dimension; i++) {
+			Node node = coordinates.get(i);
+			writeInteger(i + 1);
+
+			for (double value : node.getPosition()) {
+				writeByte(' ');
+				writeNumber(value);
+			}
+
+			newLine();
+		}
+	}
+
+	/**
+	 * Writes an {@code EDGE_WEIGHT_SECTION}.
+	 *
+	 * @param distanceTable the distance table, whose nodes are identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @param dimension the number of nodes
+	 * @param format the format of the matrix, which must correspond to the
+	 *        {@code EDGE_WEIGHT_FORMAT} keyword
+	 * @throws IOException if an I/O error occurred
+	 * @throws IllegalArgumentException if {@code format} is not a matrix
+	 *         format
+	 */
+	public void writeEdgeWeightSection(DistanceTable distanceTable, int dimension, EdgeWeightFormat format)
+			throws IOException {
+		writeEdgeWeightSection(distanceTable, dimension, format, false);
+	}
+
+	/**
+	 * Writes an {@code EDGE_WEIGHT_SECTION}, one row or column per line.
+	 *
+	 * @param distanceTable the distance table
+	 * @param dimension the number of nodes
+	 * @param format the format of the matrix
+	 * @param sop {@code true} to precede the matrix by the line with the
+	 *        number of nodes which SOP instances have; {@code false}
+	 *        otherwise
+	 * @throws IOException if an I/O error occurred
+	 * @throws IllegalArgumentException if {@code format} is not a matrix
+	 *         format
+	 */
+	private void writeEdgeWeightSection(DistanceTable distanceTable, int dimension, EdgeWeightFormat format,
+			boolean sop) throws IOException {
+		checkMatrix(format);
+		FrozenDistanceTable table = distanceTable.freeze();
+		writeAscii("EDGE_WEIGHT_SECTION");
+		newLine();
+
+		if (sop) {
+			writeInteger(dimension);
+			newLine();
+		}
+
+		for (int a = 0; a < dimension; a++) {
+			// the range of the inner index b within row or column a
+			int from;
+			int to;
+
+			switch (format) {
+			case FULL_MATRIX:
+				from = 0;
+				to = dimension;
+				break;
+			case UPPER_ROW:
+			case LOWER_COL:
+				from = a + 1;
+				to = dimension;
+				break;
+			case UPPER_DIAG_ROW:
+			case LOWER_DIAG_COL:
+				from = a;
+				to = dimension;
+				break;
+			case LOWER_ROW:
+			case UPPER_COL:
+				from = 0;
+				to = a;
+				break;
+			default:
+				from = 0;
+				to = a + 1;
+				break;
+			}
+
+			if (from == to) {
+				continue;
+			}
+
+			boolean row = (format == EdgeWeightFormat.FULL_MATRIX) || (format == EdgeWeightFormat.UPPER_ROW)
+					|| (format == EdgeWeightFormat.LOWER_ROW) || (format == EdgeWeightFormat.UPPER_DIAG_ROW)
+					|| (format == EdgeWeightFormat.LOWER_DIAG_ROW);
+
+			for (int b = from; b < to; b++) {
+				if (b > from) {
+					writeByte(' ');
+				}
+
+				writeNumber(row ? table.getDistanceBetween(a, b) : table.getDistanceBetween(b, a));
+			}
+
+			newLine();
+		}
+	}
+
+	/**
+	 * Writes an {@code EDGE_DATA_SECTION} in the {@code EDGE_LIST} format.
+	 *
+	 * @param edgeData the edges
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeEdgeDataSection(EdgeData edgeData) throws IOException {
+		writeAscii("EDGE_DATA_SECTION");
+		newLine();
+		writeEdges(edgeData);
+	}
+
+	/**
+	 * Writes one edge per line, followed by {@code -1}.
+	 *
+	 * @param edgeData the edges
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeEdges(EdgeData edgeData) throws IOException {
+		for (Edge edge : edgeData.getEdges()) {
+			writeInteger(edge.getId1() + 1);
+			writeByte(' ');
+			writeInteger(edge.getId2() + 1);
+			newLine();
+		}
+
+		writeAscii("-1");
+		newLine();
+	}
+
+	/**
+	 * Writes a {@code TOUR_SECTION}, one node per line, followed by
+	 * {@code -1}.
+	 *
+	 * @param tour the nodes in the order they are visited, identified by
+	 *        {@code 0, 1, ..., N-1}
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeTourSection(int[] tour) throws IOException {
+		writeAscii("TOUR_SECTION");
+		newLine();
+
+		for (int id : tour) {
+			writeInteger(id + 1);
+			newLine();
+		}
+
+		writeAscii("-1");
+		newLine();
+	}
+
+	/**
+	 * Writes a {@code DEMAND_SECTION}.
+	 *
+	 * @param vehicleRoutingTable the demands
+	 * @param dimension the number of nodes
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeDemandSection(VehicleRoutingTable vehicleRoutingTable, int dimension) throws IOException {
+		writeAscii("DEMAND_SECTION");
+		newLine();
+
+		for (int i = 0; i < dimension; i++) {
+			writeInteger(i + 1);
+			writeByte(' ');
+			writeInteger(vehicleRoutingTable.getDemand(i));
+			newLine();
+		}
+	}
+
+	/**
+	 * Writes a {@code DEPOT_SECTION}, one depot per line, followed by
+	 * {@code -1}.
+	 *
+	 * @param vehicleRoutingTable the depots
+	 * @param dimension the number of nodes
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeDepotSection(VehicleRoutingTable vehicleRoutingTable, int dimension) throws IOException {
+		writeAscii("DEPOT_SECTION");
+		newLine();
+
+		for (int i = 0; i < dimension; i++) {
+			if (vehicleRoutingTable.isDepot(i)) {
+				writeInteger(i + 1);
+				newLine();
+			}
+		}
+
+		writeAscii("-1");
+		newLine();
+	}
+
+	/**
+	 * Writes the {@code EOF} line which ends an instance.
+	 *
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeEOF() throws IOException {
+		writeAscii("EOF");
+		newLine();
+	}
+
+	/**
+	 * Writes an integer.
+	 *
+	 * @param value the integer
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeInteger(long value) throws IOException {
+		if (value == Long.MIN_VALUE) {
+			writeAscii("-9223372036854775808");
+			return;
+		}
+
+		if (value < 0) {
+			writeByte('-');
+			value = -value;
+		}
+
+		int count = 0;
+
+		do {
+			digits[count++] = (byte)('0' + (value % 10));
+			value /= 10;
+		} while (value != 0);
+
+		ensure(count);
+
+		while (count > 0) {
+			buffer[position++] = digits[--count];
+		}
+	}
+
+	/**
+	 * Writes a number.  Integral values are written as integers, and other
+	 * values with the fewest decimals, up to 17, which parse back to the same
+	 * {@code double}.  Values which cannot be written in this way, such as
+	 * very small or very large values, are written by
+	 * {@link Double#toString(double)}.
+	 *
+	 * @param value the number
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeNumber(double value) throws IOException {
+		double magnitude = Math.abs(value);
+
+		if ((magnitude < 1e18) && (value == Math.rint(value))) {
+			writeInteger((long)value);
+			return;
+		}
+
+		// the decimal m / 10^k parses back to the nearest double, which is
+		// also the result of the exact division for m < 2^53
+		for (int k = 1; k <= MAX_DECIMALS; k++) {
+			double scaled = magnitude * POWERS[k];
+
+			if (scaled >= 0x1p53) {
+				break;
+			}
+
+			long m = Math.round(scaled);
+
+			if (m / POWERS[k] == magnitude) {
+				if (value < 0) {
+					writeByte('-');
+				}
+
+				writeInteger(m / LONG_POWERS[k]);
+				writeByte('.');
+				long fraction = m % LONG_POWERS[k];
+
+				for (int d = k - 1; d >= 0; d--) {
+					writeByte('0' + (int)((fraction / LONG_POWERS[d]) % 10));
+				}
+
+				return;
+			}
+		}
+
+		writeAscii(Double.toString(value));
+	}
+
+	/**
+	 * Writes a string of ASCII characters.  Other characters are written as
+	 * {@code ?}.
+	 *
+	 * @param value the string
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void writeAscii(String value) throws IOException {
+		int length = value.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			writeByte((c < 128) ? c : '?');
+		}
+	}
+
+	/**
+	 * Ends the current line.
+	 *
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void newLine() throws IOException {
+		writeByte('\n');
+	}
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b the byte
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void writeByte(int b) throws IOException {
+		ensure(1);
+		buffer[position++] = (byte)b;
+	}
+
+	/**
+	 * Flushes the buffer if it cannot take the given number of bytes.
+	 *
+	 * @param count the number of bytes
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void ensure(int count) throws IOException {
+		if (position + count > BUFFER_SIZE) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the format describes a matrix; {@code false}
+	 * otherwise.
+	 *
+	 * @param format the format, or {@code null}
+	 * @return {@code true} if the format describes a matrix; {@code false}
+	 *         otherwise
+	 */
+	private static boolean isMatrix(EdgeWeightFormat format) {
+		return (format != null) && (format != EdgeWeightFormat.FUNCTION);
+	}
+
+	/**
+	 * Checks that a format describes a matrix.
+	 *
+	 * @param format the format
+	 * @throws IllegalArgumentException if {@code format} is not a matrix
+	 *         format
+	 */
+	private static void checkMatrix(EdgeWeightFormat format) {
+		if (!isMatrix(format)) {
+			throw new IllegalArgumentException(format + " is not a matrix format");
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.write(buffer, 0, position);
+		position = 0;
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			out.close();
+		}
+	}
+
+}
@@ -0,0 +1,263 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TourValidator.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.util.BitSet;
+
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.Edge;
+import org.jorlib.io.tspLibReader.graph.EdgeData;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.PackedEdgeSet;
+
+/**
+ * Validates tours against a distance table and an optional set of fixed
+ * edges.  Adjacency is tested through the table's own
+ * {@link DistanceTable#isNeighbor(int, int)}, so validation never copies the
+ * table and takes linear time on tables answering adjacency in constant
+ * time.  Visited nodes are tracked in a {@link BitSet}, and fixed edges are
+ * stored in a {@link PackedEdgeSet}.  A validator constructed without a
+ * distance table only checks fixed edges.
+ * <p>
+ * The validator holds a reference to the distance table, so it may be shared
+ * between threads as long as the table is not modified; pass a
+ * {@link DistanceTable#freeze() snapshot} otherwise.  Construct it once and
+ * reuse it when validating many tours for the same problem instance.
+ *
+ * @author Joris Kinable
+ */
+public class TourValidator {
+
+	/**
+	 * The distance table defining the valid edges, or {@code null} if only
+	 * fixed edges are checked.
+	 */
+	private final DistanceTable distanceTable;
+
+	/**
+	 * The number of nodes of the distance table.
+	 */
+	private final int size;
+
+	/**
+	 * The edges which must appear in every tour.
+	 */
+	private final PackedEdgeSet fixedEdges;
+
+	/**
+	 * Constructs a validator for the given TSPLIB problem instance, including
+	 * its fixed edges if any are defined.
+	 *
+	 * @param problem the TSPLIB problem instance
+	 * @throws IllegalStateException if the node identifiers of the problem
+	 *         instance are not {@code 0, 1, ..., N-1}
+	 */
+	public TourValidator(TSPLibInstance problem) {
+		this(problem.getDistanceTable(), problem.getFixedEdges());
+	}
+
+	/**
+	 * Constructs a validator for the given distance table without fixed edges.
+	 *
+	 * @param distanceTable the distance table defining the valid edges
+	 * @throws IllegalStateException if the node identifiers of the distance
+	 *         table are not {@code 0, 1, ..., N-1}
+	 */
+	public TourValidator(DistanceTable distanceTable) {
+		this(distanceTable, null);
+	}
+
+	/**
+	 * Constructs a validator which only checks the given fixed edges.  Such a
+	 * validator does not read any distance table, and cannot check whether a
+	 * tour is a Hamiltonian cycle.
+	 *
+	 * @param fixedEdges the edges which must appear in every tour, or
+	 *        {@code null} if there are none
+	 */
+	public TourValidator(EdgeData fixedEdges) {
+		this(null, fixedEdges);
+	}
+
+	/**
+	 * Constructs a validator for the given distance table and fixed edges.
+	 * This takes O(N) time; the distance table is not copied.
+	 *
+	 * @param distanceTable the distance table defining the valid edges, or
+	 *        {@code null} if only fixed edges are checked
+	 * @param fixedEdges the edges which must appear in every tour, or
+	 *        {@code null} if there are none
+	 * @throws IllegalStateException if the node identifiers of the distance
+	 *         table are not {@code 0, 1, ..., N-1}
+	 */
+	public TourValidator(DistanceTable distanceTable, EdgeData fixedEdges) {
+		super();
+		this.distanceTable = distanceTable;
+		this.size = (distanceTable == null) ? 0 :
+				FrozenDistanceTable.checkIdentifiers(distanceTable.listNodes());
+
+		if (fixedEdges == null) {
+			this.fixedEdges = new PackedEdgeSet(0);
+		} else {
+			this.fixedEdges = new PackedEdgeSet(fixedEdges.getEdges().size());
+
+			for (Edge edge : fixedEdges.getEdges()) {
+				this.fixedEdges.add(edge.getId1(), edge.getId2());
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the given tour is a Hamiltonian cycle; {@code
+	 * false} otherwise.
+	 *
+	 * @param tour the tour
+	 * @return {@code true} if the given tour is a Hamiltonian cycle; {@code
+	 *         false} otherwise
+	 * @throws IllegalStateException if this validator has no distance table
+	 */
+	public boolean isHamiltonianCycle(TSPLibTour tour) {
+		return isHamiltonianCycle(tour.toArray());
+	}
+
+	/**
+	 * Returns {@code true} if the given sequence of nodes is a Hamiltonian
+	 * cycle; {@code false} otherwise.
+	 *
+	 * @param tour the nodes in the order they are visited
+	 * @return {@code true} if the given sequence of nodes is a Hamiltonian
+	 *         cycle; {@code false} otherwise
+	 * @throws IllegalStateException if this validator has no distance table
+	 */
+	public boolean isHamiltonianCycle(int[] tour) {
+		return findViolation(tour) < 0;
+	}
+
+	/**
+	 * Returns the first position at which the given sequence of nodes fails to
+	 * be a Hamiltonian cycle, or {@code -1} if it is a Hamiltonian cycle.  The
+	 * nodes are scanned in order, and a position {@code i < tour.length} is
+	 * reported if {@code tour[i]} is not a node of the graph, was already
+	 * visited, or is not adjacent to {@code tour[i-1]}.  Position {@code
+	 * tour.length} is reported if the scan succeeds but the tour does not
+	 * visit every node or its last node is not adjacent to its first node.
+	 *
+	 * @param tour the nodes in the order they are visited
+	 * @return the first violating position, or {@code -1} if the given
+	 *         sequence of nodes is a Hamiltonian cycle
+	 * @throws IllegalStateException if this validator has no distance table
+	 */
+	public int findViolation(int[] tour) {
+		if (distanceTable == null) {
+			throw new IllegalStateException("validator has no distance table");
+		}
+
+		BitSet visited = new BitSet(size);
+
+		for (int i = 0; i < tour.length; i++) {
+			int id = tour[i];
+
+			if ((id < 0) || (id > size-1) || visited.get(id)) {
+				return i;
+			} else if ((i > 0) && !distanceTable.isNeighbor(tour[i-1], id)) {
+				return i;
+			}
+
+			visited.set(id);
+		}
+
+		// every node is visited exactly once if no duplicates were found
+		if ((tour.length != size) || (size == 0)) {
+			return tour.length;
+		} else if (!distanceTable.isNeighbor(tour[size-1], tour[0])) {
+			return tour.length;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns {@code true} if the given tour contains every fixed edge;
+	 * {@code false} otherwise.
+	 *
+	 * @param tour the tour
+	 * @return {@code true} if the given tour contains every fixed edge;
+	 *         {@code false} otherwise
+	 */
+	public boolean containsFixedEdges(TSPLibTour tour) {
+		return findMissingFixedEdge(tour.toArray()) == null;
+	}
+
+	/**
+	 * Returns {@code true} if the given sequence of nodes contains every fixed
+	 * edge; {@code false} otherwise.
+	 *
+	 * @param tour the nodes in the order they are visited
+	 * @return {@code true} if the given sequence of nodes contains every fixed
+	 *         edge; {@code false} otherwise
+	 */
+	public boolean containsFixedEdges(int[] tour) {
+		return findMissingFixedEdge(tour) == null;
+	}
+
+	/**
+	 * Returns the first fixed edge, in the order in which the fixed edges were
+	 * defined, which is not contained in the given sequence of nodes; or
+	 * {@code null} if the sequence contains every fixed edge.  Tours are
+	 * cyclic, so the edge between the last and first node is considered.
+	 *
+	 * @param tour the nodes in the order they are visited
+	 * @return the first missing fixed edge, or {@code null} if there is none
+	 */
+	public Edge findMissingFixedEdge(int[] tour) {
+		int count = fixedEdges.size();
+
+		if (count == 0) {
+			return null;
+		}
+
+		BitSet found = new BitSet(count);
+
+		for (int i = 0; i < tour.length; i++) {
+			int ordinal = fixedEdges.indexOf(tour[i], tour[(i+1) % tour.length]);
+
+			if (ordinal >= 0) {
+				found.set(ordinal);
+			}
+		}
+
+		int missing = found.nextClearBit(0);
+
+		if (missing < count) {
+			long edge = fixedEdges.get(missing);
+			return new Edge(PackedEdgeSet.getFirstNode(edge), PackedEdgeSet.getSecondNode(edge));
+		}
+
+		return null;
+	}
+
+}
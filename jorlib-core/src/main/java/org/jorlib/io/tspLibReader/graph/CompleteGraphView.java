@@ -0,0 +1,390 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CompleteGraphView.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jgrapht.EdgeFactory;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.WeightedGraph;
+import org.jgrapht.graph.AbstractGraph;
+
+/**
+ * Read-only jGraphT view of the complete, undirected graph defined by a
+ * {@link DistanceTable}.  The vertices are the node identifiers
+ * {@code 0, 1, ..., N-1}; the edges are implicit integer identifiers in
+ * {@code [0, N(N-1)/2)} as defined by {@link EdgeIndex}, so the view
+ * requires O(1) memory instead of materializing N(N-1)/2 edge objects.  The
+ * edge between nodes {@code i < j} has identifier {@code j(j-1)/2 + i}, its
+ * source is {@code i} and its target is {@code j}.  Edge weights are obtained
+ * from {@link DistanceTable#getDistanceBetween(int, int)} on demand.
+ * <p>
+ * All methods which would modify the graph throw an
+ * {@link UnsupportedOperationException}.  Because edge identifiers must fit
+ * in an {@code int}, the view supports at most 65536 nodes.
+ *
+ * @author Joris Kinable
+ */
+public class CompleteGraphView extends AbstractGraph<Integer, Integer>
+		implements UndirectedGraph<Integer, Integer>, WeightedGraph<Integer, Integer> {
+
+	/**
+	 * The maximum number of nodes supported by this view.
+	 */
+	public static final int MAX_NODES = EdgeIndex.MAX_NODES;
+
+	/**
+	 * The distance table defining the edge weights.
+	 */
+	private final DistanceTable table;
+
+	/**
+	 * The number of vertices.
+	 */
+	private final int size;
+
+	/**
+	 * The mapping between node pairs and edge identifiers.
+	 */
+	private final EdgeIndex edgeIndex;
+
+	/**
+	 * The number of edges.
+	 */
+	private final int edgeCount;
+
+	/**
+	 * The set of vertices.
+	 */
+	private final Set<Integer> vertices;
+
+	/**
+	 * The set of edges.
+	 */
+	private final Set<Integer> edges;
+
+	/**
+	 * Constructs a complete graph view over the given distance table.
+	 *
+	 * @param table the distance table; its nodes must be
+	 *        {@code 0, 1, ..., N-1}
+	 * @throws IllegalArgumentException if the table has more than
+	 *         {@link #MAX_NODES} nodes
+	 */
+	public CompleteGraphView(DistanceTable table) {
+		this(table, table.listNodes().length);
+	}
+
+	/**
+	 * Constructs a complete graph view over the first {@code size} nodes of
+	 * the given distance table.
+	 *
+	 * @param table the distance table
+	 * @param size the number of nodes
+	 * @throws IllegalArgumentException if {@code size} exceeds
+	 *         {@link #MAX_NODES}
+	 */
+	public CompleteGraphView(DistanceTable table, int size) {
+		super();
+
+		this.table = table;
+		this.size = size;
+		this.edgeIndex = new EdgeIndex(size);
+		this.edgeCount = edgeIndex.getEdgeCount();
+
+		vertices = new RangeSet(size) {
+			@Override
+			public boolean contains(Object o) {
+				return containsVertex(toInteger(o));
+			}
+		};
+
+		edges = new RangeSet(edgeCount) {
+			@Override
+			public boolean contains(Object o) {
+				return containsEdge(toInteger(o));
+			}
+		};
+	}
+
+	/**
+	 * Converts an arbitrary object to an integer, or {@code null} if it is
+	 * not an integer.
+	 *
+	 * @param o the object
+	 * @return the object as an integer, or {@code null}
+	 */
+	private static Integer toInteger(Object o) {
+		return (o instanceof Integer) ? (Integer)o : null;
+	}
+
+	/**
+	 * Returns the distance table underlying this view.
+	 *
+	 * @return the distance table underlying this view
+	 */
+	public DistanceTable getDistanceTable() {
+		return table;
+	}
+
+	/**
+	 * Returns the mapping between node pairs and edge identifiers used by
+	 * this view, e.g. to create an {@link EdgeValueVector} over its edges.
+	 *
+	 * @return the mapping between node pairs and edge identifiers
+	 */
+	public EdgeIndex getEdgeIndex() {
+		return edgeIndex;
+	}
+
+	@Override
+	public Set<Integer> getAllEdges(Integer sourceVertex, Integer targetVertex) {
+		if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+			return null;
+		} else if (sourceVertex.intValue() == targetVertex.intValue()) {
+			return Collections.emptySet();
+		} else {
+			return Collections.singleton(EdgeIndex.index(sourceVertex, targetVertex));
+		}
+	}
+
+	@Override
+	public Integer getEdge(Integer sourceVertex, Integer targetVertex) {
+		if (!containsVertex(sourceVertex) || !containsVertex(targetVertex) ||
+				(sourceVertex.intValue() == targetVertex.intValue())) {
+			return null;
+		}
+
+		return EdgeIndex.index(sourceVertex, targetVertex);
+	}
+
+	@Override
+	public EdgeFactory<Integer, Integer> getEdgeFactory() {
+		return new EdgeFactory<Integer, Integer>() {
+			@Override
+			public Integer createEdge(Integer sourceVertex, Integer targetVertex) {
+				return getEdge(sourceVertex, targetVertex);
+			}
+		};
+	}
+
+	@Override
+	public boolean containsEdge(Integer e) {
+		return (e != null) && (e >= 0) && (e < edgeCount);
+	}
+
+	@Override
+	public boolean containsVertex(Integer v) {
+		return (v != null) && (v >= 0) && (v < size);
+	}
+
+	@Override
+	public Set<Integer> edgeSet() {
+		return edges;
+	}
+
+	@Override
+	public Set<Integer> edgesOf(final Integer vertex) {
+		assertVertexExist(vertex);
+		final int v = vertex;
+
+		return new AbstractSet<Integer>() {
+			@Override
+			public Iterator<Integer> iterator() {
+				return new Iterator<Integer>() {
+					private int next = (v == 0) ? 1 : 0;
+
+					@Override
+					public boolean hasNext() {
+						return next < size;
+					}
+
+					@Override
+					public Integer next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+
+						int e = EdgeIndex.index(v, next);
+						next += (next+1 == v) ? 2 : 1;
+						return e;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size-1;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				Integer e = toInteger(o);
+				return containsEdge(e) && ((getEdgeSource(e) == v) || (getEdgeTarget(e) == v));
+			}
+		};
+	}
+
+	@Override
+	public Set<Integer> vertexSet() {
+		return vertices;
+	}
+
+	@Override
+	public Integer getEdgeSource(Integer e) {
+		return EdgeIndex.smaller(e);
+	}
+
+	@Override
+	public Integer getEdgeTarget(Integer e) {
+		return EdgeIndex.larger(e);
+	}
+
+	@Override
+	public double getEdgeWeight(Integer e) {
+		return table.getDistanceBetween(EdgeIndex.smaller(e), EdgeIndex.larger(e));
+	}
+
+	@Override
+	public int degreeOf(Integer vertex) {
+		assertVertexExist(vertex);
+		return size-1;
+	}
+
+	@Override
+	public void setEdgeWeight(Integer e, double weight) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public Integer addEdge(Integer sourceVertex, Integer targetVertex) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public boolean addEdge(Integer sourceVertex, Integer targetVertex, Integer e) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public boolean addVertex(Integer v) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public boolean removeAllEdges(Collection<? extends Integer> edges) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public Set<Integer> removeAllEdges(Integer sourceVertex, Integer targetVertex) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public boolean removeAllVertices(Collection<? extends Integer> vertices) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public Integer removeEdge(Integer sourceVertex, Integer targetVertex) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public boolean removeEdge(Integer e) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public boolean removeVertex(Integer v) {
+		throw new UnsupportedOperationException("complete graph views are read-only");
+	}
+
+	@Override
+	public String toString() {
+		return "CompleteGraphView(" + size + " vertices, " + edgeCount + " edges)";
+	}
+
+	/**
+	 * Unmodifiable set view of the integers {@code 0, 1, ..., size-1}.
+	 */
+	private static abstract class RangeSet extends AbstractSet<Integer> {
+
+		/**
+		 * The number of elements in this set.
+		 */
+		private final int size;
+
+		RangeSet(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+				private int next = 0;
+
+				@Override
+				public boolean hasNext() {
+					return next < size;
+				}
+
+				@Override
+				public Integer next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+
+					return next++;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ComputedDistances.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+/**
+ * Distances of a complete graph which are computed on demand from immutable
+ * state, such as the distances of a transformed instance derived from those
+ * of another {@link FrozenDistanceTable}.  A
+ * {@link FrozenDistanceTable#of(int, ComputedDistances) frozen table} backed
+ * by computed distances requires no memory beyond that state.
+ * <p>
+ * Implementations must be immutable, so that they can be shared by
+ * concurrent threads like the frozen tables wrapping them.
+ *
+ * @author Joris Kinable
+ */
+public interface ComputedDistances {
+
+	/**
+	 * Returns the distance between two nodes.  Both identifiers have been
+	 * checked to be in {@code 0, 1, ..., N-1}.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the distance between the two nodes
+	 */
+	double distance(int id1, int id2);
+
+}
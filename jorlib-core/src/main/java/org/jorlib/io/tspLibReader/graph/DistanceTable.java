@@ -26,6 +26,10 @@ import java.io.IOException;
 /**
  * A distance table provides a lookup of the distances between the nodes in a
  * TSPLIB problem instance.
+ * <p>
+ * Distance tables created by the TSPLIB readers are mutable and provide no
+ * thread-safety guarantees.  Use {@link #freeze()} to obtain an immutable
+ * snapshot which can be shared between concurrent threads.
  * 
  * @author David Hadka
  */
@@ -97,5 +101,19 @@ public abstract class DistanceTable {
 		
 		return false;
 	}
+	
+	/**
+	 * Returns an immutable snapshot of this distance table which can be
+	 * shared by concurrent threads without copies or locks.  Subsequent
+	 * changes to this table are not reflected in the snapshot.
+	 * 
+	 * @return an immutable snapshot of this distance table
+	 * @throws IllegalStateException if the node identifiers are not
+	 *         {@code 0, 1, ..., N-1}
+	 * @see FrozenDistanceTable
+	 */
+	public FrozenDistanceTable freeze() {
+		return FrozenDistanceTable.copyOf(this);
+	}
 
 }
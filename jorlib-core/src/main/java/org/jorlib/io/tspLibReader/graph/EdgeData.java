@@ -24,6 +24,7 @@ import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
@@ -221,5 +222,54 @@ public class EdgeData extends DistanceTable {
 			return Double.POSITIVE_INFINITY;
 		}
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The snapshot is built directly from the edge list in O(N+E) time.
+	 */
+	@Override
+	public FrozenDistanceTable freeze() {
+		int[][] adjacency = new int[size][];
+		int[] degree = new int[size];
+		
+		for (Edge edge : edges) {
+			degree[edge.getId1()]++;
+			
+			if (edge.getId1() != edge.getId2()) {
+				degree[edge.getId2()]++;
+			}
+		}
+		
+		for (int i = 0; i < size; i++) {
+			adjacency[i] = new int[degree[i]];
+			degree[i] = 0;
+		}
+		
+		for (Edge edge : edges) {
+			adjacency[edge.getId1()][degree[edge.getId1()]++] = edge.getId2();
+			
+			if (edge.getId1() != edge.getId2()) {
+				adjacency[edge.getId2()][degree[edge.getId2()]++] = edge.getId1();
+			}
+		}
+		
+		int[] offsets = new int[size+1];
+		
+		for (int i = 0; i < size; i++) {
+			adjacency[i] = FrozenDistanceTable.sortedUnique(adjacency[i]);
+			offsets[i+1] = offsets[i] + adjacency[i].length;
+		}
+		
+		int[] neighbors = new int[offsets[size]];
+		double[] weights = new double[offsets[size]];
+		
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(adjacency[i], 0, neighbors, offsets[i], adjacency[i].length);
+		}
+		
+		Arrays.fill(weights, 1.0);
+		return new FrozenDistanceTable(offsets, neighbors, weights);
+	}
 
 }
@@ -0,0 +1,202 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * EdgeIndex.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+/**
+ * Maps the unordered pairs of nodes of a complete graph on N nodes to the
+ * dense indices {@code 0, 1, ..., N(N-1)/2-1} and back, both in O(1) time and
+ * without any lookup tables.  The pair {@code (i, j)} with {@code i < j} has
+ * index {@code j(j-1)/2 + i}; this ordering is independent of N, so indices
+ * remain valid when nodes are appended.
+ *
+ * @author Joris Kinable
+ */
+public final class EdgeIndex {
+
+	/**
+	 * The maximum number of nodes for which all edge indices fit in an
+	 * {@code int}.
+	 */
+	public static final int MAX_NODES = 65536;
+
+	/**
+	 * The number of nodes.
+	 */
+	private final int size;
+
+	/**
+	 * The number of edges, N(N-1)/2.
+	 */
+	private final int edgeCount;
+
+	/**
+	 * Constructs an edge index for the complete graph on the given number of
+	 * nodes.
+	 *
+	 * @param size the number of nodes
+	 * @throws IllegalArgumentException if the number of nodes is negative or
+	 *         exceeds {@link #MAX_NODES}
+	 */
+	public EdgeIndex(int size) {
+		super();
+
+		if ((size < 0) || (size > MAX_NODES)) {
+			throw new IllegalArgumentException("number of nodes must be between 0 and " + MAX_NODES);
+		}
+
+		this.size = size;
+		this.edgeCount = (int)((long)size * (size-1) / 2);
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNodeCount() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of edges, N(N-1)/2.
+	 *
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Returns the index of the edge between two distinct nodes.  The order of
+	 * the nodes is irrelevant.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the index of the edge between the two nodes
+	 * @throws IllegalArgumentException if the nodes are equal, or if no node
+	 *         exists with the specified identifier
+	 */
+	public int indexOf(int id1, int id2) {
+		if ((id1 < 0) || (id1 > size-1)) {
+			throw new IllegalArgumentException("no node with identifier " + id1);
+		}
+
+		if ((id2 < 0) || (id2 > size-1)) {
+			throw new IllegalArgumentException("no node with identifier " + id2);
+		}
+
+		if (id1 == id2) {
+			throw new IllegalArgumentException("no edge from node " + id1 + " to itself");
+		}
+
+		return index(id1, id2);
+	}
+
+	/**
+	 * Returns the smaller end point of the edge with the given index.
+	 *
+	 * @param index the index of the edge
+	 * @return the smaller end point of the edge
+	 * @throws IllegalArgumentException if no edge exists with the given index
+	 */
+	public int getFirstNode(int index) {
+		checkIndex(index);
+		int j = larger(index);
+		return (int)(index - (long)j*(j-1)/2);
+	}
+
+	/**
+	 * Returns the larger end point of the edge with the given index.
+	 *
+	 * @param index the index of the edge
+	 * @return the larger end point of the edge
+	 * @throws IllegalArgumentException if no edge exists with the given index
+	 */
+	public int getSecondNode(int index) {
+		checkIndex(index);
+		return larger(index);
+	}
+
+	/**
+	 * Throws an exception if the given edge index is out of range.
+	 *
+	 * @param index the index of the edge
+	 */
+	private void checkIndex(int index) {
+		if ((index < 0) || (index > edgeCount-1)) {
+			throw new IllegalArgumentException("no edge with index " + index);
+		}
+	}
+
+	/**
+	 * Returns the index of the edge between two distinct nodes without
+	 * checking its arguments.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the index of the edge between the two nodes
+	 */
+	static int index(int id1, int id2) {
+		return (id1 < id2) ? (int)((long)id2*(id2-1)/2 + id1) :
+				(int)((long)id1*(id1-1)/2 + id2);
+	}
+
+	/**
+	 * Returns the larger end point of the edge with the given index without
+	 * checking its argument.
+	 *
+	 * @param index the index of the edge
+	 * @return the larger end point of the edge
+	 */
+	static int larger(int index) {
+		int j = (int)((1 + Math.sqrt(1 + 8.0*index)) / 2);
+
+		// correct floating point rounding
+		while ((long)j*(j-1)/2 > index) {
+			j--;
+		}
+
+		while ((long)(j+1)*j/2 <= index) {
+			j++;
+		}
+
+		return j;
+	}
+
+	/**
+	 * Returns the smaller end point of the edge with the given index without
+	 * checking its argument.
+	 *
+	 * @param index the index of the edge
+	 * @return the smaller end point of the edge
+	 */
+	static int smaller(int index) {
+		int j = larger(index);
+		return (int)(index - (long)j*(j-1)/2);
+	}
+
+}
@@ -0,0 +1,242 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * EdgeValueVector.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+import java.util.Arrays;
+
+/**
+ * A {@code double} value for every edge of a complete graph, e.g. the
+ * fractional values x_e of an LP solution.  Values are stored in a primitive
+ * array indexed by {@link EdgeIndex}, so no boxing takes place.
+ * <p>
+ * The vector keeps track of its <i>support</i>: the edges which were modified
+ * since the last call to {@link #clear()}.  Clearing only resets those entries,
+ * so a vector can be reused across iterations at a cost proportional to the
+ * number of modified edges rather than N(N-1)/2.  Note that the support may
+ * contain edges whose value was explicitly set back to zero.
+ *
+ * @author Joris Kinable
+ */
+public final class EdgeValueVector {
+
+	/**
+	 * The mapping between node pairs and edge indices.
+	 */
+	private final EdgeIndex edgeIndex;
+
+	/**
+	 * The value of each edge.
+	 */
+	private final double[] values;
+
+	/**
+	 * Whether each edge is contained in the support.
+	 */
+	private final boolean[] inSupport;
+
+	/**
+	 * The edges in the support, in the order they were first modified.
+	 */
+	private int[] support;
+
+	/**
+	 * The number of edges in the support.
+	 */
+	private int supportSize;
+
+	/**
+	 * Constructs a vector in which every edge has value zero.
+	 *
+	 * @param edgeIndex the mapping between node pairs and edge indices
+	 */
+	public EdgeValueVector(EdgeIndex edgeIndex) {
+		super();
+		this.edgeIndex = edgeIndex;
+
+		values = new double[edgeIndex.getEdgeCount()];
+		inSupport = new boolean[edgeIndex.getEdgeCount()];
+		support = new int[16];
+	}
+
+	/**
+	 * Returns the mapping between node pairs and edge indices.
+	 *
+	 * @return the mapping between node pairs and edge indices
+	 */
+	public EdgeIndex getEdgeIndex() {
+		return edgeIndex;
+	}
+
+	/**
+	 * Adds the given edge to the support.
+	 *
+	 * @param index the index of the edge
+	 */
+	private void touch(int index) {
+		if (!inSupport[index]) {
+			if (supportSize == support.length) {
+				support = Arrays.copyOf(support, 2*support.length);
+			}
+
+			inSupport[index] = true;
+			support[supportSize++] = index;
+		}
+	}
+
+	/**
+	 * Returns the value of the edge with the given index.
+	 *
+	 * @param index the index of the edge
+	 * @return the value of the edge
+	 */
+	public double get(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the value of the edge between two distinct nodes.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the value of the edge
+	 * @throws IllegalArgumentException if the nodes are equal, or if no node
+	 *         exists with the specified identifier
+	 */
+	public double get(int id1, int id2) {
+		return values[edgeIndex.indexOf(id1, id2)];
+	}
+
+	/**
+	 * Sets the value of the edge with the given index.
+	 *
+	 * @param index the index of the edge
+	 * @param value the new value
+	 */
+	public void set(int index, double value) {
+		touch(index);
+		values[index] = value;
+	}
+
+	/**
+	 * Sets the value of the edge between two distinct nodes.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @param value the new value
+	 * @throws IllegalArgumentException if the nodes are equal, or if no node
+	 *         exists with the specified identifier
+	 */
+	public void set(int id1, int id2, double value) {
+		set(edgeIndex.indexOf(id1, id2), value);
+	}
+
+	/**
+	 * Adds a value to the edge with the given index.
+	 *
+	 * @param index the index of the edge
+	 * @param value the value to add
+	 */
+	public void add(int index, double value) {
+		touch(index);
+		values[index] += value;
+	}
+
+	/**
+	 * Adds a value to the edge between two distinct nodes.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @param value the value to add
+	 * @throws IllegalArgumentException if the nodes are equal, or if no node
+	 *         exists with the specified identifier
+	 */
+	public void add(int id1, int id2, double value) {
+		add(edgeIndex.indexOf(id1, id2), value);
+	}
+
+	/**
+	 * Returns the number of edges in the support.
+	 *
+	 * @return the number of edges in the support
+	 */
+	public int getSupportSize() {
+		return supportSize;
+	}
+
+	/**
+	 * Returns the index of the k-th edge in the support.  Edges are returned
+	 * in the order in which they were first modified.
+	 *
+	 * @param k the position in the support, {@code 0 <= k < getSupportSize()}
+	 * @return the index of the k-th edge in the support
+	 */
+	public int getSupportEdge(int k) {
+		if ((k < 0) || (k > supportSize-1)) {
+			throw new IndexOutOfBoundsException("support position " + k);
+		}
+
+		return support[k];
+	}
+
+	/**
+	 * Resets the value of every edge to zero in time proportional to the size
+	 * of the support.
+	 */
+	public void clear() {
+		for (int k = 0; k < supportSize; k++) {
+			values[support[k]] = 0.0;
+			inSupport[support[k]] = false;
+		}
+
+		supportSize = 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+
+		for (int k = 0; k < supportSize; k++) {
+			int index = support[k];
+
+			if (k > 0) {
+				sb.append(", ");
+			}
+
+			sb.append("(");
+			sb.append(EdgeIndex.smaller(index));
+			sb.append(",");
+			sb.append(EdgeIndex.larger(index));
+			sb.append(")=");
+			sb.append(values[index]);
+		}
+
+		sb.append("}");
+		return sb.toString();
+	}
+
+}
@@ -136,6 +136,8 @@ public class EdgeWeightMatrix extends DistanceTable {
 					matrix[j][i] = matrix[i][j];
 				}
 			}
+			
+			break;
 		case LOWER_ROW:
 			for (int i = 1; i<size; i++) {
 				for (int j = 0; j < i; j++) {
@@ -272,6 +274,21 @@ public class EdgeWeightMatrix extends DistanceTable {
 		return neighbors;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Every pair of distinct nodes is adjacent, so this takes O(1) time.
+	 */
+	@Override
+	public boolean isNeighbor(int id1, int id2) {
+		if ((id1 < 0) || (id1 > size-1)) {
+			throw new IllegalArgumentException("no node with identifier " +
+					id1);
+		}
+		
+		return (id2 >= 0) && (id2 < size) && (id1 != id2);
+	}
+
 	@Override
 	public double getDistanceBetween(int id1, int id2) {
 		if ((id1 < 0) || (id1 > size-1)) {
@@ -286,5 +303,16 @@ public class EdgeWeightMatrix extends DistanceTable {
 		
 		return matrix[id1][id2];
 	}
+	
+	@Override
+	public FrozenDistanceTable freeze() {
+		double[] copy = new double[size*size];
+		
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(matrix[i], 0, copy, i*size, size);
+		}
+		
+		return new FrozenDistanceTable(size, copy);
+	}
 
 }
@@ -0,0 +1,611 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * FrozenDistanceTable.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+import java.io.BufferedReader;
+import java.util.Arrays;
+
+import org.jorlib.io.tspLibReader.distanceFunctions.DistanceFunction;
+
+/**
+ * An immutable, array-backed snapshot of a {@link DistanceTable}.  Instances
+ * are obtained through {@link DistanceTable#freeze()}.
+ * <p>
+ * All state is stored in final fields and is never modified after
+ * construction, so a frozen table is safely published by the Java memory model
+ * and may be shared by any number of threads without copies or locks.  Arrays
+ * returned by this class are always fresh copies.
+ * <p>
+ * Depending on the table it was created from, the snapshot stores one of the
+ * following:
+ * <ul>
+ * <li>the node coordinates and the (stateless) distance function, requiring
+ * O(N) memory;</li>
+ * <li>a dense row-major distance matrix for complete graphs, requiring O(N^2)
+ * memory;</li>
+ * <li>sorted adjacency arrays with edge weights for sparse graphs, requiring
+ * O(N+E) memory.  The distance between two nodes which are not neighbors is
+ * {@code Double.POSITIVE_INFINITY}, consistent with {@link EdgeData}.</li>
+ * <li>{@link ComputedDistances} of a complete graph, e.g. of a transformed
+ * instance, requiring only the memory of their state; optionally together
+ * with the adjacency arrays of a sparse graph.</li>
+ * </ul>
+ * Node identifiers must be {@code 0, 1, ..., N-1}, which holds for all
+ * distance tables created by the TSPLIB readers.
+ *
+ * @author Joris Kinable
+ */
+public final class FrozenDistanceTable extends DistanceTable {
+
+	/**
+	 * The number of nodes in this distance table.
+	 */
+	private final int size;
+
+	/**
+	 * The distance matrix in row-major order; or {@code null} if this table is
+	 * not backed by a matrix.
+	 */
+	private final double[] matrix;
+
+	/**
+	 * The position of each node; or {@code null} if this table is not backed
+	 * by coordinates.
+	 */
+	private final double[][] positions;
+
+	/**
+	 * The distance function applied to the positions; or {@code null} if this
+	 * table is not backed by coordinates.
+	 */
+	private final DistanceFunction distanceFunction;
+
+	/**
+	 * Start index of the neighbors of each node in {@link #neighbors}; or
+	 * {@code null} if the underlying graph is complete.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * The neighbors of all nodes, sorted in ascending order per node; or
+	 * {@code null} if the underlying graph is complete.
+	 */
+	private final int[] neighbors;
+
+	/**
+	 * The weight of the edge to each entry in {@link #neighbors}; or
+	 * {@code null} if this table is not backed by adjacency arrays.
+	 */
+	private final double[] weights;
+
+	/**
+	 * The distances computed on demand; or {@code null} if this table is not
+	 * backed by computed distances.
+	 */
+	private final ComputedDistances computed;
+
+	/**
+	 * Constructs a frozen table backed by node coordinates.  The positions
+	 * array is not copied.
+	 *
+	 * @param positions the position of each node
+	 * @param distanceFunction the distance function
+	 */
+	FrozenDistanceTable(double[][] positions, DistanceFunction distanceFunction) {
+		this(positions.length, null, positions, distanceFunction, null, null, null, null);
+	}
+
+	/**
+	 * Constructs a frozen table backed by a dense row-major matrix.  The matrix
+	 * is not copied.
+	 *
+	 * @param size the number of nodes
+	 * @param matrix the distance matrix in row-major order
+	 */
+	FrozenDistanceTable(int size, double[] matrix) {
+		this(size, matrix, null, null, null, null, null, null);
+	}
+
+	/**
+	 * Constructs a frozen table backed by adjacency arrays.  The arrays are not
+	 * copied; the neighbors of each node must be sorted.
+	 *
+	 * @param offsets start index of the neighbors of each node, with one
+	 *        additional trailing entry
+	 * @param neighbors the neighbors of all nodes
+	 * @param weights the weight of the edge to each neighbor
+	 */
+	FrozenDistanceTable(int[] offsets, int[] neighbors, double[] weights) {
+		this(offsets.length - 1, null, null, null, offsets, neighbors, weights, null);
+	}
+
+	/**
+	 * Constructs a frozen table of a complete graph backed by distances
+	 * computed on demand.
+	 *
+	 * @param size the number of nodes
+	 * @param computed the distances
+	 */
+	private FrozenDistanceTable(int size, ComputedDistances computed) {
+		this(size, null, null, null, null, null, null, computed);
+	}
+
+	/**
+	 * Constructs a frozen table backed by adjacency arrays and distances
+	 * computed on demand.  The arrays are not copied; the neighbors of each
+	 * node must be sorted.
+	 *
+	 * @param offsets start index of the neighbors of each node, with one
+	 *        additional trailing entry, or {@code null} for a complete graph
+	 * @param neighbors the neighbors of all nodes, or {@code null} for a
+	 *        complete graph
+	 * @param size the number of nodes
+	 * @param computed the distances
+	 */
+	private FrozenDistanceTable(int[] offsets, int[] neighbors, int size, ComputedDistances computed) {
+		this(size, null, null, null, offsets, neighbors, null, computed);
+	}
+
+	private FrozenDistanceTable(int size, double[] matrix, double[][] positions,
+			DistanceFunction distanceFunction, int[] offsets, int[] neighbors,
+			double[] weights, ComputedDistances computed) {
+		super();
+		this.size = size;
+		this.matrix = matrix;
+		this.positions = positions;
+		this.distanceFunction = distanceFunction;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.weights = weights;
+		this.computed = computed;
+	}
+
+	/**
+	 * Returns a frozen table of the complete graph over the nodes
+	 * {@code 0, 1, ..., N-1} whose distances are computed on demand.  Nothing
+	 * is materialized, so the table requires O(1) memory beyond the state of
+	 * the distances.
+	 *
+	 * @param size the number of nodes
+	 * @param distances the distances, which must be immutable
+	 * @return the frozen table
+	 * @throws IllegalArgumentException if the number of nodes is negative
+	 */
+	public static FrozenDistanceTable of(int size, ComputedDistances distances) {
+		if (size < 0) {
+			throw new IllegalArgumentException("number of nodes must be non-negative");
+		}
+
+		return new FrozenDistanceTable(size, distances);
+	}
+
+	/**
+	 * Returns a frozen table with the nodes and adjacency of the given table
+	 * whose distances are computed on demand, e.g. to observe the distance
+	 * queries made to a snapshot.  The adjacency arrays are shared.
+	 *
+	 * @param table the table whose nodes and adjacency are used
+	 * @param distances the distances, which must be immutable and infinite
+	 *        between nodes which are not neighbors
+	 * @return the frozen table
+	 */
+	static FrozenDistanceTable withDistances(FrozenDistanceTable table, ComputedDistances distances) {
+		return new FrozenDistanceTable(table.offsets, table.neighbors, table.size, distances);
+	}
+
+	/**
+	 * Creates a frozen snapshot of an arbitrary distance table by querying its
+	 * public methods.  If every node is adjacent to every other node, the
+	 * snapshot stores a dense matrix; otherwise adjacency arrays are used.
+	 *
+	 * @param table the distance table to copy
+	 * @return the frozen snapshot
+	 * @throws IllegalStateException if the node identifiers are not
+	 *         {@code 0, 1, ..., N-1}
+	 */
+	static FrozenDistanceTable copyOf(DistanceTable table) {
+		int size = checkIdentifiers(table.listNodes());
+		int[][] adjacency = new int[size][];
+		boolean complete = true;
+
+		for (int i = 0; i < size; i++) {
+			adjacency[i] = sortedUnique(table.getNeighborsOf(i));
+			complete &= (adjacency[i].length == size-1);
+		}
+
+		if (complete) {
+			double[] matrix = new double[size*size];
+
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					matrix[i*size+j] = table.getDistanceBetween(i, j);
+				}
+			}
+
+			return new FrozenDistanceTable(size, matrix);
+		} else {
+			int[] offsets = new int[size+1];
+
+			for (int i = 0; i < size; i++) {
+				offsets[i+1] = offsets[i] + adjacency[i].length;
+			}
+
+			int[] neighbors = new int[offsets[size]];
+			double[] weights = new double[offsets[size]];
+
+			for (int i = 0; i < size; i++) {
+				for (int k = 0; k < adjacency[i].length; k++) {
+					neighbors[offsets[i]+k] = adjacency[i][k];
+					weights[offsets[i]+k] = table.getDistanceBetween(i, adjacency[i][k]);
+				}
+			}
+
+			return new FrozenDistanceTable(offsets, neighbors, weights);
+		}
+	}
+
+	/**
+	 * Returns a copy of this table whose nodes are renumbered: node {@code i}
+	 * of the copy is node {@code order[i]} of this table.  The copy has the
+	 * same backing as this table.  Node positions, distance matrices and
+	 * adjacency arrays are copied in the new order, so that the data of nodes
+	 * with nearby identifiers is stored next to each other; computed
+	 * distances are wrapped, translating the identifiers on demand.
+	 *
+	 * @param order the node of this table corresponding to each node of the
+	 *        copy
+	 * @return the renumbered copy
+	 * @throws IllegalArgumentException if {@code order} is not a permutation
+	 *         of {@code 0, 1, ..., N-1}
+	 */
+	public FrozenDistanceTable permute(int[] order) {
+		if (order.length != size) {
+			throw new IllegalArgumentException("order must contain every node once");
+		}
+
+		int[] inverse = new int[size];
+		Arrays.fill(inverse, -1);
+
+		for (int i = 0; i < size; i++) {
+			if ((order[i] < 0) || (order[i] > size-1) || (inverse[order[i]] >= 0)) {
+				throw new IllegalArgumentException("order must contain every node once");
+			}
+
+			inverse[order[i]] = i;
+		}
+
+		if (matrix != null) {
+			double[] permuted = new double[size*size];
+
+			for (int i = 0; i < size; i++) {
+				int row = order[i]*size;
+
+				for (int j = 0; j < size; j++) {
+					permuted[i*size+j] = matrix[row+order[j]];
+				}
+			}
+
+			return new FrozenDistanceTable(size, permuted);
+		} else if (positions != null) {
+			double[][] permuted = new double[size][];
+
+			for (int i = 0; i < size; i++) {
+				permuted[i] = positions[order[i]].clone();
+			}
+
+			return new FrozenDistanceTable(permuted, distanceFunction);
+		}
+
+		ComputedDistances permutedDistances = null;
+
+		if (computed != null) {
+			final int[] original = order.clone();
+			final ComputedDistances distances = computed;
+			permutedDistances = new ComputedDistances() {
+				@Override
+				public double distance(int id1, int id2) {
+					return distances.distance(original[id1], original[id2]);
+				}
+			};
+
+			if (neighbors == null) {
+				return new FrozenDistanceTable(size, permutedDistances);
+			}
+		}
+
+		int[] permutedOffsets = new int[size+1];
+		int[] permutedNeighbors = new int[neighbors.length];
+		double[] permutedWeights = (weights == null) ? null : new double[weights.length];
+
+		for (int i = 0; i < size; i++) {
+			int from = offsets[order[i]];
+			int degree = offsets[order[i]+1] - from;
+			int start = permutedOffsets[i];
+			permutedOffsets[i+1] = start + degree;
+
+			// sort the renumbered neighbors together with their weights
+			long[] keys = new long[degree];
+
+			for (int k = 0; k < degree; k++) {
+				keys[k] = ((long)inverse[neighbors[from+k]] << 32) | k;
+			}
+
+			Arrays.sort(keys);
+
+			for (int k = 0; k < degree; k++) {
+				permutedNeighbors[start+k] = (int)(keys[k] >>> 32);
+
+				if (weights != null) {
+					permutedWeights[start+k] = weights[from+(int)keys[k]];
+				}
+			}
+		}
+
+		if (permutedDistances != null) {
+			return new FrozenDistanceTable(permutedOffsets, permutedNeighbors, size, permutedDistances);
+		}
+
+		return new FrozenDistanceTable(permutedOffsets, permutedNeighbors, permutedWeights);
+	}
+
+	/**
+	 * Verifies that the given node identifiers are {@code 0, 1, ..., N-1},
+	 * as required by frozen tables and by the algorithms working on them.
+	 *
+	 * @param ids the node identifiers, in any order
+	 * @return the number of nodes
+	 * @throws IllegalStateException if the identifiers are not contiguous
+	 */
+	public static int checkIdentifiers(int[] ids) {
+		boolean[] seen = new boolean[ids.length];
+
+		for (int id : ids) {
+			if ((id < 0) || (id > ids.length-1) || seen[id]) {
+				throw new IllegalStateException(
+						"node identifiers must be 0, 1, ..., N-1");
+			}
+
+			seen[id] = true;
+		}
+
+		return ids.length;
+	}
+
+	/**
+	 * Sorts the given array and removes duplicate entries.
+	 *
+	 * @param values the values, which may be modified by this method
+	 * @return the sorted, unique values
+	 */
+	static int[] sortedUnique(int[] values) {
+		Arrays.sort(values);
+		int length = 0;
+
+		for (int i = 0; i < values.length; i++) {
+			if ((i == 0) || (values[i] != values[i-1])) {
+				values[length++] = values[i];
+			}
+		}
+
+		return (length == values.length) ? values : Arrays.copyOf(values, length);
+	}
+
+	/**
+	 * Returns the number of nodes in this distance table.
+	 *
+	 * @return the number of nodes in this distance table
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if every node is a neighbor of every other node;
+	 * {@code false} otherwise.
+	 *
+	 * @return {@code true} if the underlying graph is complete; {@code false}
+	 *         otherwise
+	 */
+	public boolean isComplete() {
+		return neighbors == null;
+	}
+
+	/**
+	 * Throws an exception if no node exists with the given identifier.
+	 *
+	 * @param id the identifier of the node
+	 * @throws IllegalArgumentException if no node exists with the specified
+	 *         identifier
+	 */
+	private void checkNode(int id) {
+		if ((id < 0) || (id > size-1)) {
+			throw new IllegalArgumentException("no node with identifier " + id);
+		}
+	}
+
+	/**
+	 * Returns the position of {@code id2} in the sorted neighbors of
+	 * {@code id1}, or a negative value if the nodes are not adjacent.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the index of {@code id2} in {@link #neighbors}, or a negative
+	 *         value
+	 */
+	private int indexOfNeighbor(int id1, int id2) {
+		int index = Arrays.binarySearch(neighbors, offsets[id1], offsets[id1+1], id2);
+		return (index >= 0) ? index : -1;
+	}
+
+	@Override
+	public int[] listNodes() {
+		int[] nodes = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			nodes[i] = i;
+		}
+
+		return nodes;
+	}
+
+	@Override
+	public int[] getNeighborsOf(int id) {
+		checkNode(id);
+
+		if (neighbors != null) {
+			return Arrays.copyOfRange(neighbors, offsets[id], offsets[id+1]);
+		}
+
+		int index = 0;
+		int[] result = new int[size-1];
+
+		for (int i = 0; i < size; i++) {
+			if (i != id) {
+				result[index++] = i;
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public double getDistanceBetween(int id1, int id2) {
+		checkNode(id1);
+		checkNode(id2);
+
+		if (matrix != null) {
+			return matrix[id1*size+id2];
+		} else if (positions != null) {
+			return distanceFunction.distance(positions[id1].length,
+					positions[id1], positions[id2]);
+		} else if (computed != null) {
+			return computed.distance(id1, id2);
+		} else {
+			int index = indexOfNeighbor(id1, id2);
+			return (index < 0) ? Double.POSITIVE_INFINITY : weights[index];
+		}
+	}
+
+	/**
+	 * Returns the length of the closed tour formed by a range of an array,
+	 * including the edge from its last node back to its first node.  The
+	 * distances are read directly from the underlying storage, which is
+	 * considerably faster than summing {@link #getDistanceBetween(int, int)}.
+	 * Tours using an edge which is not in the graph have infinite length.
+	 *
+	 * @param nodes the array containing the tour
+	 * @param from the index of the first node of the tour
+	 * @param count the number of nodes of the tour
+	 * @return the length of the tour
+	 * @throws IllegalArgumentException if the tour contains a node which does
+	 *         not exist
+	 */
+	public double length(int[] nodes, int from, int count) {
+		if (count == 0) {
+			return 0.0;
+		}
+
+		int to = from + count;
+		int previous = nodes[to-1];
+		checkNode(previous);
+		double length = 0.0;
+
+		if (matrix != null) {
+			for (int i = from; i < to; i++) {
+				int id = nodes[i];
+				checkNode(id);
+				length += matrix[previous*size+id];
+				previous = id;
+			}
+		} else if (positions != null) {
+			for (int i = from; i < to; i++) {
+				int id = nodes[i];
+				checkNode(id);
+				length += distanceFunction.distance(positions[id].length, positions[previous], positions[id]);
+				previous = id;
+			}
+		} else if (computed != null) {
+			for (int i = from; i < to; i++) {
+				int id = nodes[i];
+				checkNode(id);
+				length += computed.distance(previous, id);
+				previous = id;
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				int id = nodes[i];
+				checkNode(id);
+				int index = indexOfNeighbor(previous, id);
+				length += (index < 0) ? Double.POSITIVE_INFINITY : weights[index];
+				previous = id;
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Lookup time is O(1) for complete graphs and O(log D) otherwise, where D
+	 * is the degree of the first node.
+	 */
+	@Override
+	public boolean isNeighbor(int id1, int id2) {
+		checkNode(id1);
+
+		if ((id2 < 0) || (id2 > size-1)) {
+			return false;
+		} else if (neighbors == null) {
+			return id1 != id2;
+		} else {
+			return indexOfNeighbor(id1, id2) >= 0;
+		}
+	}
+
+	/**
+	 * Frozen distance tables cannot be modified.
+	 *
+	 * @param reader ignored
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void load(BufferedReader reader) {
+		throw new UnsupportedOperationException("frozen distance tables are immutable");
+	}
+
+	/**
+	 * Returns this instance, as it is already immutable.
+	 *
+	 * @return this distance table
+	 */
+	@Override
+	public FrozenDistanceTable freeze() {
+		return this;
+	}
+
+}
@@ -0,0 +1,412 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * InstrumentedDistanceTable.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator which counts the queries made to an underlying
+ * {@link DistanceTable}, and optionally measures how long they take.  This is
+ * useful to determine how many distance evaluations each phase of an
+ * algorithm performs.
+ * <p>
+ * Counters are striped {@link LongAdder}s, so the decorator adds little
+ * contention when it is shared between threads; it is exactly as thread-safe
+ * as the decorated table.  Timing is sampled: when a sampling interval
+ * {@code k > 0} is given, on average one out of every {@code k} calls is
+ * timed with {@link System#nanoTime()}, and the total time is extrapolated
+ * from the sampled calls.
+ *
+ * @author Joris Kinable
+ */
+public class InstrumentedDistanceTable extends DistanceTable {
+
+	/**
+	 * The instrumented operations.
+	 */
+	public enum Operation {
+		/** {@link DistanceTable#getDistanceBetween(int, int)} */
+		GET_DISTANCE_BETWEEN,
+		/** {@link DistanceTable#getNeighborsOf(int)} */
+		GET_NEIGHBORS_OF,
+		/** {@link DistanceTable#isNeighbor(int, int)} */
+		IS_NEIGHBOR
+	}
+
+	/**
+	 * The decorated distance table.
+	 */
+	private final DistanceTable table;
+
+	/**
+	 * On average, one out of this many calls is timed; {@code 0} disables
+	 * timing.
+	 */
+	private final int samplingInterval;
+
+	/**
+	 * Number of calls per operation.
+	 */
+	private final LongAdder[] calls;
+
+	/**
+	 * Number of timed calls per operation.
+	 */
+	private final LongAdder[] sampledCalls;
+
+	/**
+	 * Total time, in nanoseconds, spent in the timed calls per operation.
+	 */
+	private final LongAdder[] sampledNanos;
+
+	/**
+	 * Constructs a decorator which counts calls without timing them.
+	 *
+	 * @param table the distance table to instrument
+	 */
+	public InstrumentedDistanceTable(DistanceTable table) {
+		this(table, 0);
+	}
+
+	/**
+	 * Constructs a decorator which counts calls and times a sample of them.
+	 *
+	 * @param table the distance table to instrument
+	 * @param samplingInterval on average, one out of this many calls is
+	 *        timed; {@code 1} times every call and {@code 0} disables timing
+	 * @throws IllegalArgumentException if the sampling interval is negative
+	 */
+	public InstrumentedDistanceTable(DistanceTable table, int samplingInterval) {
+		super();
+
+		if (samplingInterval < 0) {
+			throw new IllegalArgumentException("sampling interval must be non-negative");
+		}
+
+		this.table = table;
+		this.samplingInterval = samplingInterval;
+
+		int operations = Operation.values().length;
+		calls = new LongAdder[operations];
+		sampledCalls = new LongAdder[operations];
+		sampledNanos = new LongAdder[operations];
+
+		for (int i = 0; i < operations; i++) {
+			calls[i] = new LongAdder();
+			sampledCalls[i] = new LongAdder();
+			sampledNanos[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Returns the decorated distance table.
+	 *
+	 * @return the decorated distance table
+	 */
+	public DistanceTable getDistanceTable() {
+		return table;
+	}
+
+	/**
+	 * Decides whether the current call is timed.
+	 *
+	 * @return {@code true} if the current call should be timed
+	 */
+	private boolean sample() {
+		return (samplingInterval == 1) || ((samplingInterval > 1) &&
+				(ThreadLocalRandom.current().nextInt(samplingInterval) == 0));
+	}
+
+	/**
+	 * Records a timed call.
+	 *
+	 * @param operation the operation that was timed
+	 * @param start the value of {@link System#nanoTime()} when the call
+	 *        started
+	 */
+	private void record(Operation operation, long start) {
+		long elapsed = System.nanoTime() - start;
+		sampledCalls[operation.ordinal()].increment();
+		sampledNanos[operation.ordinal()].add(elapsed);
+	}
+
+	@Override
+	public int[] listNodes() {
+		return table.listNodes();
+	}
+
+	@Override
+	public int[] getNeighborsOf(int id) {
+		calls[Operation.GET_NEIGHBORS_OF.ordinal()].increment();
+
+		if (sample()) {
+			long start = System.nanoTime();
+			int[] result = table.getNeighborsOf(id);
+			record(Operation.GET_NEIGHBORS_OF, start);
+			return result;
+		} else {
+			return table.getNeighborsOf(id);
+		}
+	}
+
+	@Override
+	public double getDistanceBetween(int id1, int id2) {
+		calls[Operation.GET_DISTANCE_BETWEEN.ordinal()].increment();
+
+		if (sample()) {
+			long start = System.nanoTime();
+			double result = table.getDistanceBetween(id1, id2);
+			record(Operation.GET_DISTANCE_BETWEEN, start);
+			return result;
+		} else {
+			return table.getDistanceBetween(id1, id2);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The call is forwarded to the decorated table, so it is counted as a
+	 * single {@link Operation#IS_NEIGHBOR} query.
+	 */
+	@Override
+	public boolean isNeighbor(int id1, int id2) {
+		calls[Operation.IS_NEIGHBOR.ordinal()].increment();
+
+		if (sample()) {
+			long start = System.nanoTime();
+			boolean result = table.isNeighbor(id1, id2);
+			record(Operation.IS_NEIGHBOR, start);
+			return result;
+		} else {
+			return table.isNeighbor(id1, id2);
+		}
+	}
+
+	@Override
+	public void load(BufferedReader reader) throws IOException {
+		table.load(reader);
+	}
+
+	/**
+	 * Returns a frozen snapshot of the decorated table whose distance queries
+	 * are counted, and sampled, as {@link Operation#GET_DISTANCE_BETWEEN}
+	 * calls of this decorator; this includes every edge summed by
+	 * {@link FrozenDistanceTable#length(int[], int, int)}.  Algorithms which
+	 * freeze the tables they are given therefore still report their distance
+	 * evaluations.  Adjacency queries made to the snapshot are not counted.
+	 *
+	 * @return a counting snapshot of the decorated table
+	 */
+	@Override
+	public FrozenDistanceTable freeze() {
+		final FrozenDistanceTable snapshot = table.freeze();
+		return FrozenDistanceTable.withDistances(snapshot, new ComputedDistances() {
+			@Override
+			public double distance(int id1, int id2) {
+				return countedDistance(snapshot, id1, id2);
+			}
+		});
+	}
+
+	/**
+	 * Returns the distance between two nodes of a snapshot, counting the
+	 * query as a {@link Operation#GET_DISTANCE_BETWEEN} call.
+	 *
+	 * @param snapshot the snapshot of the decorated table
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the distance between the two nodes
+	 */
+	private double countedDistance(FrozenDistanceTable snapshot, int id1, int id2) {
+		calls[Operation.GET_DISTANCE_BETWEEN.ordinal()].increment();
+
+		if (sample()) {
+			long start = System.nanoTime();
+			double result = snapshot.getDistanceBetween(id1, id2);
+			record(Operation.GET_DISTANCE_BETWEEN, start);
+			return result;
+		} else {
+			return snapshot.getDistanceBetween(id1, id2);
+		}
+	}
+
+	/**
+	 * Resets all counters to zero.  Calls made concurrently with this method
+	 * may or may not be included in subsequent snapshots.
+	 */
+	public void reset() {
+		for (int i = 0; i < calls.length; i++) {
+			calls[i].reset();
+			sampledCalls[i].reset();
+			sampledNanos[i].reset();
+		}
+	}
+
+	/**
+	 * Returns an immutable copy of the current counter values, e.g. to
+	 * attach to a benchmark or solver report.
+	 *
+	 * @return a copy of the current counter values
+	 */
+	public Snapshot snapshot() {
+		long[] callCounts = new long[calls.length];
+		long[] sampledCallCounts = new long[calls.length];
+		long[] sampledNanoCounts = new long[calls.length];
+
+		for (int i = 0; i < calls.length; i++) {
+			callCounts[i] = calls[i].sum();
+			sampledCallCounts[i] = sampledCalls[i].sum();
+			sampledNanoCounts[i] = sampledNanos[i].sum();
+		}
+
+		return new Snapshot(callCounts, sampledCallCounts, sampledNanoCounts);
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+
+	/**
+	 * Immutable copy of the counters of an {@link InstrumentedDistanceTable}.
+	 */
+	public static final class Snapshot {
+
+		/**
+		 * Number of calls per operation.
+		 */
+		private final long[] calls;
+
+		/**
+		 * Number of timed calls per operation.
+		 */
+		private final long[] sampledCalls;
+
+		/**
+		 * Time spent in the timed calls per operation, in nanoseconds.
+		 */
+		private final long[] sampledNanos;
+
+		private Snapshot(long[] calls, long[] sampledCalls, long[] sampledNanos) {
+			this.calls = calls;
+			this.sampledCalls = sampledCalls;
+			this.sampledNanos = sampledNanos;
+		}
+
+		/**
+		 * Returns the number of calls of the given operation.
+		 *
+		 * @param operation the operation
+		 * @return the number of calls of the given operation
+		 */
+		public long getCalls(Operation operation) {
+			return calls[operation.ordinal()];
+		}
+
+		/**
+		 * Returns the total number of calls over all operations.
+		 *
+		 * @return the total number of calls over all operations
+		 */
+		public long getTotalCalls() {
+			long total = 0;
+
+			for (long count : calls) {
+				total += count;
+			}
+
+			return total;
+		}
+
+		/**
+		 * Returns the number of timed calls of the given operation.
+		 *
+		 * @param operation the operation
+		 * @return the number of timed calls of the given operation
+		 */
+		public long getSampledCalls(Operation operation) {
+			return sampledCalls[operation.ordinal()];
+		}
+
+		/**
+		 * Returns the time spent in the timed calls of the given operation.
+		 *
+		 * @param operation the operation
+		 * @return the time spent in the timed calls, in nanoseconds
+		 */
+		public long getSampledNanos(Operation operation) {
+			return sampledNanos[operation.ordinal()];
+		}
+
+		/**
+		 * Returns the estimated total time spent in the given operation,
+		 * extrapolated from the timed calls; or {@code 0} if no call was
+		 * timed.
+		 *
+		 * @param operation the operation
+		 * @return the estimated total time, in nanoseconds
+		 */
+		public double getEstimatedNanos(Operation operation) {
+			int i = operation.ordinal();
+
+			if (sampledCalls[i] == 0) {
+				return 0.0;
+			}
+
+			return (double)sampledNanos[i] * calls[i] / sampledCalls[i];
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+
+			for (Operation operation : Operation.values()) {
+				if (sb.length() > 0) {
+					sb.append(", ");
+				}
+
+				sb.append(operation);
+				sb.append('=');
+				sb.append(getCalls(operation));
+
+				if (getSampledCalls(operation) > 0) {
+					sb.append(" (~");
+					sb.append(Math.round(getEstimatedNanos(operation) / 1e6));
+					sb.append(" ms)");
+				}
+			}
+
+			return sb.toString();
+		}
+
+	}
+
+}
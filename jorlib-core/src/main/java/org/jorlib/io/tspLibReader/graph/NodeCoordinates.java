@@ -128,6 +128,15 @@ public class NodeCoordinates extends DistanceTable {
 		return nodes.get(id);
 	}
 	
+	/**
+	 * Returns the distance function applied to the node positions.
+	 * 
+	 * @return the distance function
+	 */
+	public DistanceFunction getDistanceFunction() {
+		return distanceFunction;
+	}
+	
 	/**
 	 * Removes the node with the specified identifier from this problem
 	 * instance.
@@ -184,6 +193,21 @@ public class NodeCoordinates extends DistanceTable {
 		return neighbors;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Every pair of distinct nodes is adjacent, so this takes O(1) time.
+	 */
+	@Override
+	public boolean isNeighbor(int id1, int id2) {
+		if (!nodes.containsKey(id1)) {
+			throw new IllegalArgumentException("no node with identifier " +
+					id1);
+		}
+		
+		return nodes.containsKey(id2) && (id1 != id2);
+	}
+
 	@Override
 	public double getDistanceBetween(int id1, int id2) {
 		Node node1 = get(id1);
@@ -202,6 +226,24 @@ public class NodeCoordinates extends DistanceTable {
 		return distanceFunction.distance(node1, node2);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The snapshot stores a copy of the node positions together with the
+	 * distance function, requiring O(N) memory.
+	 */
+	@Override
+	public FrozenDistanceTable freeze() {
+		int[] ids = listNodes();
+		double[][] positions = new double[FrozenDistanceTable.checkIdentifiers(ids)][];
+		
+		for (int id : ids) {
+			positions[id] = nodes.get(id).getPosition().clone();
+		}
+		
+		return new FrozenDistanceTable(positions, distanceFunction);
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
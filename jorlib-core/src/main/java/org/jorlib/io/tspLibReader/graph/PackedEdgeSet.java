@@ -0,0 +1,255 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * PackedEdgeSet.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader.graph;
+
+import java.util.Arrays;
+
+/**
+ * A set of undirected edges backed by an open-addressing hash table of
+ * primitive {@code long} keys.  Each edge is packed into a single key holding
+ * the smaller end point in the upper and the larger end point in the lower 32
+ * bits, so membership tests take O(1) expected time without creating
+ * {@link Edge} objects.  Every edge receives an ordinal reflecting the order
+ * in which it was added.
+ *
+ * @author Joris Kinable
+ */
+public final class PackedEdgeSet {
+
+	/**
+	 * Marks an empty slot in the hash table; valid keys are non-negative.
+	 */
+	private static final long EMPTY = -1L;
+
+	/**
+	 * The hash table of packed edges.
+	 */
+	private long[] table;
+
+	/**
+	 * The ordinal of the edge stored in each slot of the hash table.
+	 */
+	private int[] ordinals;
+
+	/**
+	 * The packed edges in the order they were added.
+	 */
+	private long[] edges;
+
+	/**
+	 * The number of edges in this set.
+	 */
+	private int size;
+
+	/**
+	 * Constructs an empty set.
+	 *
+	 * @param expectedSize the expected number of edges
+	 */
+	public PackedEdgeSet(int expectedSize) {
+		super();
+		allocate(Math.max(4, Integer.highestOneBit(Math.max(1, expectedSize)) << 2));
+		edges = new long[Math.max(4, expectedSize)];
+	}
+
+	/**
+	 * Allocates an empty hash table with the given capacity.
+	 *
+	 * @param capacity the capacity, which must be a power of two
+	 */
+	private void allocate(int capacity) {
+		table = new long[capacity];
+		ordinals = new int[capacity];
+		Arrays.fill(table, EMPTY);
+	}
+
+	/**
+	 * Packs the undirected edge between two nodes into a single key.  The
+	 * order of the nodes is irrelevant.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the packed edge
+	 * @throws IllegalArgumentException if an identifier is negative
+	 */
+	public static long pack(int id1, int id2) {
+		if ((id1 < 0) || (id2 < 0)) {
+			throw new IllegalArgumentException("node identifiers must be non-negative");
+		}
+
+		return (id1 < id2) ? ((long)id1 << 32) | id2 : ((long)id2 << 32) | id1;
+	}
+
+	/**
+	 * Returns the smaller end point of a packed edge.
+	 *
+	 * @param edge the packed edge
+	 * @return the smaller end point of the edge
+	 */
+	public static int getFirstNode(long edge) {
+		return (int)(edge >>> 32);
+	}
+
+	/**
+	 * Returns the larger end point of a packed edge.
+	 *
+	 * @param edge the packed edge
+	 * @return the larger end point of the edge
+	 */
+	public static int getSecondNode(long edge) {
+		return (int)edge;
+	}
+
+	/**
+	 * Returns the slot of the given key, or of the empty slot where it would
+	 * be inserted.
+	 *
+	 * @param key the packed edge
+	 * @return the slot of the key
+	 */
+	private int slot(long key) {
+		// 64-bit finalizer of MurmurHash3 to spread the bits of both end points
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+
+		int mask = table.length - 1;
+		int slot = (int)h & mask;
+
+		while ((table[slot] != EMPTY) && (table[slot] != key)) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Adds the edge between two nodes to this set.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return {@code true} if the edge was not yet contained in this set;
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException if an identifier is negative
+	 */
+	public boolean add(int id1, int id2) {
+		long key = pack(id1, id2);
+		int slot = slot(key);
+
+		if (table[slot] == key) {
+			return false;
+		}
+
+		if (size == edges.length) {
+			edges = Arrays.copyOf(edges, 2*edges.length);
+		}
+
+		table[slot] = key;
+		ordinals[slot] = size;
+		edges[size++] = key;
+
+		// keep the load factor below 1/2
+		if (2*size > table.length) {
+			allocate(2*table.length);
+
+			for (int i = 0; i < size; i++) {
+				int newSlot = slot(edges[i]);
+				table[newSlot] = edges[i];
+				ordinals[newSlot] = i;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if this set contains the edge between two nodes;
+	 * {@code false} otherwise.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return {@code true} if this set contains the edge; {@code false}
+	 *         otherwise
+	 */
+	public boolean contains(int id1, int id2) {
+		return indexOf(id1, id2) >= 0;
+	}
+
+	/**
+	 * Returns the ordinal of the edge between two nodes, i.e., the number of
+	 * edges added to this set before it; or {@code -1} if this set does not
+	 * contain the edge.
+	 *
+	 * @param id1 the identifier of the first node
+	 * @param id2 the identifier of the second node
+	 * @return the ordinal of the edge, or {@code -1}
+	 */
+	public int indexOf(int id1, int id2) {
+		if ((id1 < 0) || (id2 < 0)) {
+			return -1;
+		}
+
+		long key = pack(id1, id2);
+		int slot = slot(key);
+		return (table[slot] == key) ? ordinals[slot] : -1;
+	}
+
+	/**
+	 * Returns the packed edge with the given ordinal.
+	 *
+	 * @param ordinal the ordinal of the edge, {@code 0 <= ordinal < size()}
+	 * @return the packed edge
+	 */
+	public long get(int ordinal) {
+		if ((ordinal < 0) || (ordinal > size-1)) {
+			throw new IndexOutOfBoundsException("edge ordinal " + ordinal);
+		}
+
+		return edges[ordinal];
+	}
+
+	/**
+	 * Returns the number of edges in this set.
+	 *
+	 * @return the number of edges in this set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all edges from this set.
+	 */
+	public void clear() {
+		Arrays.fill(table, EMPTY);
+		size = 0;
+	}
+
+}
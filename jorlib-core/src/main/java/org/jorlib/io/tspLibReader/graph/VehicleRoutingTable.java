@@ -22,14 +22,14 @@ package org.jorlib.io.tspLibReader.graph;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.BitSet;
 
 /**
  * Stores the demand at each node and identifies the depot nodes for vehicle
- * routing problems.
+ * routing problems.  Demands are stored in an {@code int} array indexed by
+ * node and depots in a {@link BitSet}; route evaluation should obtain them
+ * once through {@link #getDemands()} and {@link #getDepots()} rather than
+ * query them node by node.
  * 
  * @author David Hadka
  */
@@ -41,14 +41,14 @@ public class VehicleRoutingTable {
 	private final int size;
 	
 	/**
-	 * The mapping from node identifiers to the node demand.
+	 * The demand at each node.
 	 */
-	private final Map<Integer, Integer> demands;
+	private final int[] demands;
 	
 	/**
 	 * The set of depot nodes.
 	 */
-	private final Set<Integer> depots;
+	private final BitSet depots;
 	
 	/**
 	 * Constructs a new, empty vehicle routing table.
@@ -59,8 +59,8 @@ public class VehicleRoutingTable {
 		super();
 		this.size = size;
 		
-		demands = new HashMap<Integer, Integer>();
-		depots = new HashSet<Integer>();
+		demands = new int[size];
+		depots = new BitSet(size);
 	}
 	
 	/**
@@ -76,7 +76,11 @@ public class VehicleRoutingTable {
 			int id = Integer.parseInt(tokens[0]);
 			int demand = Integer.parseInt(tokens[1]);
 			
-			demands.put(id, demand);
+			if ((id < 1) || (id > size)) {
+				throw new IOException("no node with identifier " + id);
+			}
+			
+			demands[id-1] = demand;
 		}
 	}
 	
@@ -99,7 +103,11 @@ public class VehicleRoutingTable {
 				if (id == -1) {
 					break outer;
 				} else {
-					depots.add(id);
+					if ((id < 1) || (id > size)) {
+						throw new IOException("no node with identifier " + id);
+					}
+					
+					depots.set(id-1);
 				}
 			}
 		}
@@ -118,11 +126,7 @@ public class VehicleRoutingTable {
 			throw new IllegalArgumentException("no node with identifier " + id);
 		}
 		
-		if (demands.containsKey(id)) {
-			return demands.get(id);
-		} else {
-			return 0;
-		}
+		return demands[id];
 	}
 	
 	/**
@@ -138,7 +142,34 @@ public class VehicleRoutingTable {
 			throw new IllegalArgumentException("no node with identifier " + id);
 		}
 		
-		return depots.contains(id);
+		return depots.get(id);
+	}
+	
+	/**
+	 * Returns the number of nodes in the problem instance.
+	 * 
+	 * @return the number of nodes in the problem instance
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the demand at each node.
+	 * 
+	 * @return a copy of the demand at each node
+	 */
+	public int[] getDemands() {
+		return demands.clone();
+	}
+	
+	/**
+	 * Returns the depot nodes.
+	 * 
+	 * @return a copy of the set of depot nodes
+	 */
+	public BitSet getDepots() {
+		return (BitSet)depots.clone();
 	}
 
 }
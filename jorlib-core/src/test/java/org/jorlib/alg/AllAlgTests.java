@@ -29,7 +29,25 @@ package org.jorlib.alg;
 import org.jorlib.alg.knapsack.*;
 import org.jorlib.alg.knapsack.separation.*;
 import org.jorlib.alg.packing.circlePacking.SmallestEnclosingCircleCalculatorTest;
+import org.jorlib.alg.tsp.atsp.JonkerVolgenantTransformationTest;
+import org.jorlib.alg.tsp.bounds.HeldKarpBoundTest;
+import org.jorlib.alg.tsp.construction.ConstructionHeuristicTest;
+import org.jorlib.alg.tsp.construction.HilbertCurveTest;
+import org.jorlib.alg.tsp.exact.HeldKarpSolverTest;
+import org.jorlib.alg.tsp.gtsp.ClusterOptimizationTest;
+import org.jorlib.alg.tsp.gtsp.NoonBeanTransformationTest;
+import org.jorlib.alg.tsp.localsearch.JournaledTourTest;
+import org.jorlib.alg.tsp.localsearch.LengthTrackingTourTest;
+import org.jorlib.alg.tsp.localsearch.LinKernighanTest;
+import org.jorlib.alg.tsp.localsearch.NodeRenumberingTest;
+import org.jorlib.alg.tsp.localsearch.OrOptTest;
+import org.jorlib.alg.tsp.localsearch.TourPoolTest;
+import org.jorlib.alg.tsp.localsearch.TwoLevelListTourTest;
+import org.jorlib.alg.tsp.localsearch.TwoOptTest;
 import org.jorlib.alg.tsp.separation.SubtourSeparatorTest;
+import org.jorlib.alg.tsp.sop.PrecedenceGraphTest;
+import org.jorlib.alg.vrp.CVRPEvaluatorTest;
+import org.jorlib.alg.vrp.ClarkeWrightSavingsTest;
 import org.junit.runner.*;
 import org.junit.runners.*;
 
@@ -41,10 +59,28 @@ import org.junit.runners.*;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	CVRPEvaluatorTest.class,
+	ClarkeWrightSavingsTest.class,
+	ClusterOptimizationTest.class,
+	ConstructionHeuristicTest.class,
+	HeldKarpBoundTest.class,
+	HeldKarpSolverTest.class,
+	HilbertCurveTest.class,
+	JonkerVolgenantTransformationTest.class,
+	JournaledTourTest.class,
 	KnapsackTest.class,
+	LengthTrackingTourTest.class,
 	LiftedCoverInequalitySeparatorTest.class,
+	LinKernighanTest.class,
+	NodeRenumberingTest.class,
+	NoonBeanTransformationTest.class,
+	OrOptTest.class,
+	PrecedenceGraphTest.class,
 	SmallestEnclosingCircleCalculatorTest.class,
-	SubtourSeparatorTest.class
+	SubtourSeparatorTest.class,
+	TourPoolTest.class,
+	TwoLevelListTourTest.class,
+	TwoOptTest.class
 })
 
 public final class AllAlgTests {
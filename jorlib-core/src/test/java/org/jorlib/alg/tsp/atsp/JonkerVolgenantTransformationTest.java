@@ -0,0 +1,191 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * JonkerVolgenantTransformationTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.atsp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import org.jorlib.alg.tsp.exact.HeldKarpSolver;
+import org.jorlib.alg.tsp.localsearch.TwoOpt;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.ComputedDistances;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the JonkerVolgenantTransformation class
+ *
+ * @author Joris Kinable
+ */
+public final class JonkerVolgenantTransformationTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private double length(DistanceTable table, TSPLibTour tour) {
+		double length = 0;
+		for (int i = 0; i < tour.size(); i++)
+			length += table.getDistanceBetween(tour.get(i), tour.get(i + 1));
+		return length;
+	}
+
+	/**
+	 * Test 1 - The view is symmetric, with zero dummy edges, penalized arcs between tails and heads, and forbidden edges otherwise.
+	 */
+	public void testDistances() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/br17.atsp");
+		DistanceTable table = problem.getDistanceTable();
+		JonkerVolgenantTransformation transformation = new JonkerVolgenantTransformation(table);
+		double penalty = transformation.getPenalty();
+		assertEquals(34, transformation.size());
+		assertEquals(33, transformation.getNeighborsOf(5).length);
+
+		for (int a = 0; a < 34; a++)
+			for (int b = 0; b < 34; b++)
+				assertEquals(transformation.getDistanceBetween(a, b), transformation.getDistanceBetween(b, a), PRECISION);
+		assertEquals(0, transformation.getDistanceBetween(3, 20), PRECISION);
+		assertEquals(table.getDistanceBetween(3, 5) + penalty, transformation.getDistanceBetween(20, 5), PRECISION);
+		assertEquals(table.getDistanceBetween(5, 3) + penalty, transformation.getDistanceBetween(3, 22), PRECISION);
+		assertTrue(transformation.getDistanceBetween(3, 5) > 34 * penalty);
+		assertTrue(transformation.getDistanceBetween(20, 22) > 34 * penalty);
+
+		try {
+			new JonkerVolgenantTransformation(table, Double.POSITIVE_INFINITY);
+			fail("Penalty must be finite");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		try {
+			transformation.getDistanceBetween(0, 34);
+			fail("No such node");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 2 - Directed and symmetric tours convert both ways, in either direction of the symmetric tour.
+	 */
+	public void testConversion() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/ftv33.atsp");
+		JonkerVolgenantTransformation transformation = new JonkerVolgenantTransformation(problem.getDistanceTable());
+		TSPLibTour directed = TSPLibTour.createRandomTour(34, new SplittableRandom(7));
+
+		TSPLibTour symmetric = transformation.toSymmetric(directed);
+		assertEquals(directed.distance(problem) + 34 * transformation.getPenalty(), length(transformation, symmetric), PRECISION);
+		Assert.assertArrayEquals(directed.toArray(), transformation.toDirected(symmetric).toArray());
+
+		int[] nodes = symmetric.toArray();
+		int[] reversed = new int[68];
+		for (int i = 0; i < 68; i++)
+			reversed[i] = nodes[(68 + 5 - i) % 68];
+		assertEquals(directed.distance(problem), transformation.toDirected(TSPLibTour.createTour(reversed)).distance(problem), PRECISION);
+
+		try {
+			transformation.toDirected(directed);
+			fail("Tour does not match");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 3 - Symmetric algorithms solve the asymmetric instance through the view.
+	 */
+	public void testSymmetricAlgorithms() throws IOException{
+		String text = "NAME : six\nTYPE : ATSP\nDIMENSION : 6\nEDGE_WEIGHT_TYPE : EXPLICIT\n"
+				+ "EDGE_WEIGHT_FORMAT : FULL_MATRIX\nEDGE_WEIGHT_SECTION\n"
+				+ "0 3 9 4 7 2\n8 0 1 6 9 5\n2 7 0 3 8 6\n6 2 9 0 1 9\n3 8 5 7 0 4\n1 9 6 8 3 0\nEOF\n";
+		TSPLibInstance problem = new TSPLibInstance(new ByteArrayInputStream(text.getBytes("US-ASCII")));
+		DistanceTable table = problem.getDistanceTable();
+		JonkerVolgenantTransformation transformation = new JonkerVolgenantTransformation(table);
+
+		//brute force over the tours starting at node 0
+		double optimum = Double.POSITIVE_INFINITY;
+		int[] tour = {0, 1, 2, 3, 4, 5};
+		for (int p = 0; p < 120; p++) {
+			int[] perm = tour.clone();
+			int rest = p;
+			for (int i = 1; i < 6; i++) {
+				int j = i + rest % (6 - i);
+				rest /= 6 - i;
+				int t = perm[i]; perm[i] = perm[j]; perm[j] = t;
+			}
+			optimum = Math.min(optimum, TSPLibTour.createTour(perm).distance(problem));
+		}
+
+		TSPLibTour symmetric = new HeldKarpSolver(transformation).solve();
+		assertEquals(optimum + 6 * transformation.getPenalty(), length(transformation, symmetric), PRECISION);
+		assertEquals(optimum, transformation.toDirected(symmetric).distance(problem), PRECISION);
+
+		//2-opt never breaks dummy edges, so lengths carry over
+		TSPLibInstance ftv33 = TSPLibResources.load("./tspLib/atsp/ftv33.atsp");
+		JonkerVolgenantTransformation view = new JonkerVolgenantTransformation(ftv33.getDistanceTable());
+		TSPLibTour start = TSPLibTour.createRandomTour(34, new SplittableRandom(3));
+		TSPLibTour improved = new TwoOpt(view).improve(view.toSymmetric(start));
+		TSPLibTour directed = view.toDirected(improved);
+		assertEquals(length(view, improved) - 34 * view.getPenalty(), directed.distance(ftv33), PRECISION);
+		assertTrue(directed.distance(ftv33) <= start.distance(ftv33));
+	}
+
+	/**
+	 * Test 4 - Freezing the view keeps it lazy instead of materializing the (2N)^2 matrix.
+	 */
+	public void testFreeze() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/ftv33.atsp");
+		JonkerVolgenantTransformation transformation = new JonkerVolgenantTransformation(problem.getDistanceTable());
+		FrozenDistanceTable frozen = transformation.freeze();
+		assertEquals(68, frozen.size());
+		assertTrue(frozen.isComplete());
+		for (int a = 0; a < 68; a++)
+			for (int b = 0; b < 68; b++)
+				assertEquals(transformation.getDistanceBetween(a, b), frozen.getDistanceBetween(a, b), PRECISION);
+
+		//a materialized view of 100000 nodes would need 80 GB
+		final int n = 50000;
+		FrozenDistanceTable large = FrozenDistanceTable.of(n, new ComputedDistances() {
+			@Override
+			public double distance(int id1, int id2) {
+				return (id1 == id2) ? 0 : (id1 * 31 + id2 * 17) % 100;
+			}
+		});
+		JonkerVolgenantTransformation view = new JonkerVolgenantTransformation(large, 1e7);
+		FrozenDistanceTable frozenView = view.freeze();
+		assertEquals(2 * n, frozenView.size());
+		assertEquals(large.getDistanceBetween(12345, 678) + 1e7, frozenView.getDistanceBetween(n + 12345, 678), PRECISION);
+		assertEquals(0, frozenView.getDistanceBetween(n - 1, 2 * n - 1), PRECISION);
+		TSPLibTour tour = view.toSymmetric(TSPLibTour.createCanonicalTour(n));
+		assertEquals(view.getDistanceBetween(1, n + 1), frozenView.getDistanceBetween(1, n + 1), PRECISION);
+		assertTrue(frozenView.length(tour.toArray(), 0, 2 * n) < Double.POSITIVE_INFINITY);
+	}
+
+}
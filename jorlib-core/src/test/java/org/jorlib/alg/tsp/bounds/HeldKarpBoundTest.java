@@ -0,0 +1,157 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * HeldKarpBoundTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.bounds;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import org.jorlib.alg.tsp.exact.HeldKarpSolver;
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.graph.ComputedDistances;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the HeldKarpBound class
+ *
+ * @author Joris Kinable
+ */
+public final class HeldKarpBoundTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Test 1 - The bound is below and within 2% of the optimum, on the complete and on the candidate graph.
+	 */
+	public void testBound() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		HeldKarpBound bound = new HeldKarpBound(table);
+		double value = bound.compute();
+		assertEquals(value, bound.getBound(), PRECISION);
+		assertTrue(value <= 21282);
+		assertTrue(value >= 0.98 * 21282);
+		assertFalse(bound.isOptimal());
+		assertEquals(100, bound.getPenalties().length);
+
+		HeldKarpBound sparse = new HeldKarpBound(table, CandidateLists.nearestNeighbors(table.freeze(), 10));
+		assertEquals(value, sparse.compute(), 0.001 * value);
+	}
+
+	/**
+	 * Test 2 - The optimization stops at a 1-tree which is an optimal tour.
+	 */
+	public void testOptimal() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/burma14.tsp");
+		HeldKarpBound bound = new HeldKarpBound(problem.getDistanceTable());
+		assertEquals(3323, bound.compute(), PRECISION);
+		assertTrue(bound.isOptimal());
+		assertTrue(bound.getIterations() < 100);
+	}
+
+	/**
+	 * Test 3 - Warm starts never lose the bound of the given penalties, and the time limit ends the run early.
+	 */
+	public void testWarmStartAndTimeLimit() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		HeldKarpBound bound = new HeldKarpBound(problem.getDistanceTable());
+		bound.setMaxIterations(20);
+		double cold = bound.compute();
+		double[] penalties = bound.getPenalties();
+
+		HeldKarpBound warm = new HeldKarpBound(problem.getDistanceTable());
+		warm.setPenalties(penalties);
+		warm.setMaxIterations(20);
+		assertTrue(warm.compute() >= cold - PRECISION);
+
+		warm.setMaxIterations(Integer.MAX_VALUE);
+		warm.setTimeLimit(20);
+		warm.compute();
+		assertTrue(warm.getIterations() < Integer.MAX_VALUE);
+		assertTrue(warm.getBound() <= 426);
+
+		try {
+			warm.setPenalties(new double[3]);
+			fail("Penalties do not match");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		try {
+			warm.setMaxIterations(2);
+			fail("Too few iterations");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 4 - Bounds computed on candidate graphs never exceed the optimum.
+	 */
+	public void testCandidateBound() throws IOException{
+		TSPLibInstance burma14 = TSPLibResources.load("./tspLib/tsp/burma14.tsp");
+		HeldKarpBound bound = new HeldKarpBound(burma14.getDistanceTable(),
+				CandidateLists.nearestNeighbors(burma14.getDistanceTable().freeze(), 3));
+		assertTrue(bound.compute() <= 3323 + PRECISION);
+
+		TSPLibInstance kroA100 = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		bound = new HeldKarpBound(kroA100.getDistanceTable(),
+				CandidateLists.nearestNeighbors(kroA100.getDistanceTable().freeze(), 5));
+		assertTrue(bound.compute() <= 21282);
+		assertTrue(bound.getBound() >= 0.97 * 21282);
+
+		//small random instances, whose candidate graphs are far from complete
+		SplittableRandom random = new SplittableRandom(17);
+		for (int r = 0; r < 300; r++) {
+			int n = 6 + random.nextInt(4);
+			final double[][] points = new double[n][2];
+			for (int i = 0; i < n; i++) {
+				points[i][0] = random.nextInt(100);
+				points[i][1] = random.nextInt(100);
+			}
+			FrozenDistanceTable table = FrozenDistanceTable.of(n, new ComputedDistances() {
+				@Override
+				public double distance(int i, int j) {
+					return Math.rint(Math.hypot(points[i][0] - points[j][0], points[i][1] - points[j][1]));
+				}
+			});
+			HeldKarpSolver solver = new HeldKarpSolver(table);
+			solver.solve();
+			double optimum = solver.getLength();
+
+			HeldKarpBound sparse = new HeldKarpBound(table, CandidateLists.nearestNeighbors(table, 2 + random.nextInt(2)));
+			double value = sparse.compute();
+			assertTrue(value <= optimum + PRECISION);
+			if (sparse.isOptimal())
+				assertEquals(optimum, value, PRECISION);
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ConstructionHeuristicTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the construction heuristics and the MultiStartConstruction class
+ *
+ * @author Joris Kinable
+ */
+public final class ConstructionHeuristicTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private ConstructionHeuristic[] heuristics(TSPLibInstance problem) {
+		FrozenDistanceTable table = problem.getDistanceTable().freeze();
+		return new ConstructionHeuristic[]{
+				new NearestNeighborHeuristic(table),
+				new GreedyEdgeHeuristic(table),
+				new CheapestInsertionHeuristic(table),
+				new FarthestInsertionHeuristic(table),
+				new ChristofidesHeuristic(table),
+				new SpaceFillingCurveHeuristic((NodeCoordinates)problem.getDistanceTable())
+		};
+	}
+
+	/**
+	 * Test 1 - Every heuristic constructs a reasonable tour, starting at the given node if it depends on it.
+	 */
+	public void testTours() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		for (ConstructionHeuristic heuristic : heuristics(problem)) {
+			for (int start : new int[]{0, 37, 99}) {
+				TSPLibTour tour = heuristic.construct(start);
+				assertTrue(heuristic.getName(), tour.isHamiltonianCycle(problem));
+				if (heuristic.isStartDependent())
+					assertEquals(start, tour.get(0));
+				//all heuristics are within 75% of the optimum of 21282 on kroA100
+				assertTrue(heuristic.getName(), tour.distance(problem) < 1.75 * 21282);
+			}
+		}
+	}
+
+	/**
+	 * Test 2 - The nearest neighbor tour always proceeds to a nearest unvisited node.
+	 */
+	public void testNearestNeighbor() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		FrozenDistanceTable table = problem.getDistanceTable().freeze();
+		NearestNeighborHeuristic heuristic = new NearestNeighborHeuristic(table, CandidateLists.nearestNeighbors(table, 3));
+		for (int start = 0; start < 51; start++) {
+			int[] order = heuristic.construct(start).toArray();
+			boolean[] visited = new boolean[51];
+			visited[start] = true;
+			for (int i = 1; i < 51; i++) {
+				double nearest = Double.POSITIVE_INFINITY;
+				for (int j = 0; j < 51; j++) {
+					if (!visited[j])
+						nearest = Math.min(nearest, table.getDistanceBetween(order[i-1], j));
+				}
+				assertFalse(visited[order[i]]);
+				assertEquals(nearest, table.getDistanceBetween(order[i-1], order[i]), PRECISION);
+				visited[order[i]] = true;
+			}
+		}
+	}
+
+	/**
+	 * Test 3 - The heuristics handle asymmetric instances and tiny instances.
+	 */
+	public void testAsymmetricAndTiny() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/ftv33.atsp");
+		FrozenDistanceTable table = problem.getDistanceTable().freeze();
+		ConstructionHeuristic[] asymmetric = {
+				new NearestNeighborHeuristic(table),
+				new CheapestInsertionHeuristic(table),
+				new FarthestInsertionHeuristic(table)
+		};
+		for (ConstructionHeuristic heuristic : asymmetric) {
+			TSPLibTour tour = heuristic.construct(5);
+			assertTrue(tour.isHamiltonianCycle(problem));
+			assertEquals(5, tour.get(0));
+		}
+
+		TSPLibInstance small = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		for (ConstructionHeuristic heuristic : heuristics(small)) {
+			try {
+				heuristic.construct(51);
+				fail("Node 51 does not exist");
+			} catch (IllegalArgumentException e) {
+				//expected
+			}
+		}
+	}
+
+	/**
+	 * Test 4 - The multi-start construction reports every run and returns the shortest tour.
+	 */
+	public void testMultiStart() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		MultiStartConstruction construction = new MultiStartConstruction();
+		try {
+			construction.solve();
+			fail("No heuristic was added");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+		for (ConstructionHeuristic heuristic : heuristics(problem))
+			construction.addHeuristic(heuristic);
+		construction.setRandomStarts(5, 42);
+
+		TSPLibTour tour = construction.solve();
+		assertTrue(tour.isHamiltonianCycle(problem));
+		List<ConstructionResult> results = construction.getResults();
+		//nearest neighbor, cheapest and farthest insertion and Christofides depend on the starting node
+		assertEquals(4 * 5 + 2, results.size());
+		ConstructionResult best = construction.getBestResult();
+		assertEquals(tour.distance(problem), best.getLength(), PRECISION);
+		for (ConstructionResult result : results) {
+			assertTrue(result.getLength() >= best.getLength());
+			assertTrue(result.getTime() >= 0);
+			assertEquals(result.getTour().distance(problem), result.getLength(), PRECISION);
+		}
+
+		construction.setStarts(3);
+		construction.solve();
+		assertEquals(6, construction.getResults().size());
+		assertEquals(3, construction.getResults().get(0).getStart());
+	}
+
+}
@@ -0,0 +1,120 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * HilbertCurveTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.construction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.EdgeWeightType;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the HilbertCurve class
+ *
+ * @author Joris Kinable
+ */
+public final class HilbertCurveTest extends TestCase {
+
+	/**
+	 * Test 1 - The curve fills the 64 by 64 cells at the origin first, moving between adjacent cells.
+	 */
+	public void testIndex() {
+		int[] xs = new int[64 * 64];
+		int[] ys = new int[64 * 64];
+		boolean[] seen = new boolean[64 * 64];
+		for (int x = 0; x < 64; x++) {
+			for (int y = 0; y < 64; y++) {
+				long index = HilbertCurve.index(x, y);
+				assertTrue(index < 64 * 64);
+				assertFalse(seen[(int)index]);
+				seen[(int)index] = true;
+				xs[(int)index] = x;
+				ys[(int)index] = y;
+			}
+		}
+		for (int k = 1; k < 64 * 64; k++)
+			assertEquals(1, Math.abs(xs[k] - xs[k-1]) + Math.abs(ys[k] - ys[k-1]));
+		assertEquals(0, HilbertCurve.index(0, 0));
+	}
+
+	/**
+	 * Test 2 - Points are ordered along the curve.
+	 */
+	public void testOrder() {
+		//the first quadrant visited is the lower left, followed by the upper left, upper right and lower right
+		double[] xs = {9, 0, 9, 0};
+		double[] ys = {0, 9, 9, 0};
+		Assert.assertArrayEquals(new int[]{3, 1, 2, 0}, HilbertCurve.order(xs, ys));
+		Assert.assertArrayEquals(new int[]{0}, HilbertCurve.order(new double[]{5}, new double[]{5}));
+		Assert.assertArrayEquals(new int[0], HilbertCurve.order(new double[0], new double[0]));
+		try {
+			HilbertCurve.order(new double[2], new double[3]);
+			fail("Arrays differ in length");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 3 - Planar and geographical instances yield reasonable tours.
+	 */
+	public void testTours() throws IOException{
+		TSPLibInstance planar = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		TSPLibTour tour = HilbertCurve.tour((NodeCoordinates)planar.getDistanceTable());
+		assertTrue(tour.isHamiltonianCycle(planar));
+		//within 75% of the optimum of 21282
+		assertTrue(tour.distance(planar) < 1.75 * 21282);
+
+		TSPLibInstance geographical = TSPLibResources.load("./tspLib/tsp/gr96.tsp");
+		tour = new SpaceFillingCurveHeuristic((NodeCoordinates)geographical.getDistanceTable()).construct(0);
+		assertTrue(tour.isHamiltonianCycle(geographical));
+		//within 60% of the optimum of 55209
+		assertTrue(tour.distance(geographical) < 1.6 * 55209);
+	}
+
+	/**
+	 * Test 4 - Three-dimensional coordinates are rejected.
+	 */
+	public void testThreeDimensional() throws IOException{
+		NodeCoordinates coordinates = new NodeCoordinates(2, EdgeWeightType.EUC_3D);
+		coordinates.load(new BufferedReader(new StringReader("1 0 0 0\n2 1 1 1\n")));
+		try {
+			HilbertCurve.order(coordinates);
+			fail("Coordinates are three-dimensional");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * HeldKarpSolverTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.exact;
+
+import java.io.IOException;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the HeldKarpSolver class
+ *
+ * @author Joris Kinable
+ */
+public final class HeldKarpSolverTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private void assertOptimal(String resource, double optimum) throws IOException{
+		TSPLibInstance problem = TSPLibResources.load(resource);
+		HeldKarpSolver solver = new HeldKarpSolver(problem.getDistanceTable());
+		TSPLibTour tour = solver.solve();
+		assertTrue(tour.isHamiltonianCycle(problem));
+		assertEquals(optimum, solver.getLength(), PRECISION);
+		assertEquals(optimum, tour.distance(problem), PRECISION);
+	}
+
+	/**
+	 * Test 1 - Symmetric instances are solved to optimality.
+	 */
+	public void testSymmetric() throws IOException{
+		assertOptimal("./tspLib/tsp/burma14.tsp", 3323);
+		assertOptimal("./tspLib/tsp/ulysses16.tsp", 6859);
+		assertOptimal("./tspLib/tsp/ulysses22.tsp", 7013);
+	}
+
+	/**
+	 * Test 2 - Asymmetric instances are solved to optimality.
+	 */
+	public void testAsymmetric() throws IOException{
+		assertOptimal("./tspLib/atsp/br17.atsp", 39);
+	}
+
+	/**
+	 * Test 3 - Instances exceeding the maximum size are rejected.
+	 */
+	public void testTooLarge() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/att48.tsp");
+		try {
+			new HeldKarpSolver(problem.getDistanceTable());
+			fail("Instance is too large");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+}
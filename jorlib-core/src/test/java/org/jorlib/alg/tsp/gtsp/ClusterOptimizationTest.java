@@ -0,0 +1,188 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ClusterOptimizationTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.gtsp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.jorlib.io.tspLibReader.GTSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the GTSPEvaluator and ClusterOptimization classes
+ *
+ * @author Joris Kinable
+ */
+public final class ClusterOptimizationTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Partitions the nodes into clusters by their identifier modulo the number of clusters.
+	 */
+	private int[][] clusters(int n, int m) {
+		int[][] clusters = new int[m][];
+		for (int k = 0; k < m; k++) {
+			clusters[k] = new int[(n - k + m - 1) / m];
+			for (int i = 0; i < clusters[k].length; i++)
+				clusters[k][i] = k + i * m;
+		}
+		return clusters;
+	}
+
+	/**
+	 * Returns the length of the shortest tour visiting the clusters in the given order.
+	 */
+	private double bestNodes(DistanceTable table, int[][] clusters, int[] order, int[] nodes, int position) {
+		if (position == order.length) {
+			double length = 0;
+			for (int i = 0; i < nodes.length; i++)
+				length += table.getDistanceBetween(nodes[i], nodes[(i + 1) % nodes.length]);
+			return length;
+		}
+		double best = Double.POSITIVE_INFINITY;
+		for (int id : clusters[order[position]]) {
+			nodes[position] = id;
+			best = Math.min(best, bestNodes(table, clusters, order, nodes, position + 1));
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the length of the shortest tour over all cluster orders starting at cluster 0.
+	 */
+	private double bruteForce(DistanceTable table, int[][] clusters, int[] order, int position) {
+		if (position == order.length)
+			return bestNodes(table, clusters, order, new int[order.length], 0);
+		double best = Double.POSITIVE_INFINITY;
+		for (int i = position; i < order.length; i++) {
+			int t = order[position]; order[position] = order[i]; order[i] = t;
+			best = Math.min(best, bruteForce(table, clusters, order, position + 1));
+			t = order[position]; order[position] = order[i]; order[i] = t;
+		}
+		return best;
+	}
+
+	/**
+	 * Test 1 - The node choice of a fixed cluster order is optimal, on symmetric and asymmetric instances.
+	 */
+	public void testOptimize() throws IOException{
+		for (String resource : new String[]{"./tspLib/tsp/burma14.tsp", "./tspLib/atsp/br17.atsp"}) {
+			TSPLibInstance problem = TSPLibResources.load(resource);
+			DistanceTable table = problem.getDistanceTable();
+			int[][] clusters = clusters(problem.getDimension(), 5);
+			GTSPEvaluator evaluator = new GTSPEvaluator(table, clusters);
+			ClusterOptimization optimization = new ClusterOptimization(evaluator);
+
+			for (int[] order : new int[][]{{0, 1, 2, 3, 4}, {3, 1, 4, 0, 2}, {4, 3, 2, 1, 0}}) {
+				GTSPSolution solution = optimization.optimize(order);
+				assertTrue(evaluator.isFeasible(solution.getNodes()));
+				assertEquals(evaluator.length(solution.getNodes()), solution.getLength(), PRECISION);
+				assertEquals(bestNodes(table, clusters, order, new int[5], 0), solution.getLength(), PRECISION);
+				for (int i = 0; i < 5; i++)
+					assertEquals(evaluator.getClusterOf(solution.getNodes()[i]), solution.getClusterOrder()[i]);
+			}
+		}
+	}
+
+	/**
+	 * Test 2 - The local search returns feasible solutions close to the brute force optimum.
+	 */
+	public void testSolve() throws IOException{
+		for (String resource : new String[]{"./tspLib/tsp/burma14.tsp", "./tspLib/atsp/br17.atsp"}) {
+			TSPLibInstance problem = TSPLibResources.load(resource);
+			DistanceTable table = problem.getDistanceTable();
+			int[][] clusters = clusters(problem.getDimension(), 6);
+			GTSPEvaluator evaluator = new GTSPEvaluator(table, clusters);
+			ClusterOptimization optimization = new ClusterOptimization(evaluator);
+			double optimum = bruteForce(table, clusters, new int[]{0, 1, 2, 3, 4, 5}, 1);
+
+			GTSPSolution start = optimization.optimize(new int[]{5, 0, 3, 1, 4, 2});
+			GTSPSolution solution = optimization.improve(start);
+			assertTrue(evaluator.isFeasible(solution.getNodes()));
+			assertEquals(evaluator.length(solution.getNodes()), solution.getLength(), PRECISION);
+			assertTrue(solution.getLength() <= start.getLength() + PRECISION);
+			assertTrue(solution.getLength() >= optimum - PRECISION);
+			assertTrue(solution.getLength() <= 1.2 * optimum);
+		}
+
+		//larger instance in the size range of the GTSP library
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		GTSPEvaluator evaluator = new GTSPEvaluator(problem.getDistanceTable(), clusters(100, 20));
+		ClusterOptimization optimization = new ClusterOptimization(evaluator);
+		GTSPSolution start = optimization.optimize(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19});
+		GTSPSolution solution = optimization.solve();
+		assertTrue(evaluator.isFeasible(solution.getNodes()));
+		assertTrue(solution.getLength() < start.getLength());
+		assertEquals(solution.getLength(), solution.toTour().distance(problem), PRECISION);
+	}
+
+	/**
+	 * Test 3 - Clusters of a GTSPLIB instance are converted to zero-based identifiers, and invalid input is rejected.
+	 */
+	public void testInstance() throws IOException{
+		String text = "NAME : four\nTYPE : AGTSP\nDIMENSION : 4\nGTSP_SETS : 2\nEDGE_WEIGHT_TYPE : EXPLICIT\n"
+				+ "EDGE_WEIGHT_FORMAT : FULL_MATRIX\nEDGE_WEIGHT_SECTION\n0 1 9 4\n3 0 2 7\n5 6 0 8\n1 9 9 0\n"
+				+ "GTSP_SET_SECTION:\n1 1 2 -1\n2 3 4 -1\nEOF\n";
+		GTSPLibInstance instance = new GTSPLibInstance(new ByteArrayInputStream(text.getBytes("US-ASCII")));
+		GTSPEvaluator evaluator = new GTSPEvaluator(instance);
+		assertEquals(2, evaluator.getClusterCount());
+		Assert.assertArrayEquals(new int[]{2, 3}, evaluator.getCluster(1));
+		GTSPSolution solution = new ClusterOptimization(evaluator).solve();
+		//the best tour is 0 -> 3 -> 0 in zero-based identifiers with length 4 + 1
+		Assert.assertArrayEquals(new int[]{0, 1}, solution.getClusterOrder());
+		Assert.assertArrayEquals(new int[]{0, 3}, solution.getNodes());
+		assertEquals(5, solution.getLength(), PRECISION);
+
+		assertFalse(evaluator.isFeasible(new int[]{0, 1}));
+		assertFalse(evaluator.isFeasible(new int[]{0}));
+		try {
+			evaluator.evaluate(new int[]{2, 3});
+			fail("Cluster visited twice");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		try {
+			new ClusterOptimization(evaluator).optimize(new int[]{1, 1});
+			fail("Not a cluster order");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		try {
+			new GTSPEvaluator(instance.getDistanceTable(), new int[][]{{0, 1}, {2}});
+			fail("Node without cluster");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * NoonBeanTransformationTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.gtsp;
+
+import java.io.IOException;
+
+import org.jorlib.alg.tsp.exact.HeldKarpSolver;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.ComputedDistances;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the NoonBeanTransformation class
+ *
+ * @author Joris Kinable
+ */
+public final class NoonBeanTransformationTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private GTSPEvaluator evaluator(String resource, int m) throws IOException {
+		TSPLibInstance problem = TSPLibResources.load(resource);
+		int n = problem.getDimension();
+		int[][] clusters = new int[m][];
+		for (int k = 0; k < m; k++) {
+			clusters[k] = new int[(n - k + m - 1) / m];
+			for (int i = 0; i < clusters[k].length; i++)
+				clusters[k][i] = k + i * m;
+		}
+		return new GTSPEvaluator(problem.getDistanceTable(), clusters);
+	}
+
+	private double length(DistanceTable table, TSPLibTour tour) {
+		double length = 0;
+		for (int i = 0; i < tour.size(); i++)
+			length += table.getDistanceBetween(tour.get(i), tour.get(i + 1));
+		return length;
+	}
+
+	/**
+	 * Test 1 - The view has zero cycles within clusters, shifted and penalized arcs between them, and forbidden arcs otherwise.
+	 */
+	public void testDistances() throws IOException{
+		GTSPEvaluator evaluator = evaluator("./tspLib/atsp/br17.atsp", 4);
+		DistanceTable table = evaluator.getDistanceTable();
+		NoonBeanTransformation transformation = new NoonBeanTransformation(evaluator);
+		double penalty = transformation.getPenalty();
+		assertEquals(17, transformation.size());
+		assertEquals(16, transformation.getNeighborsOf(3).length);
+
+		//cluster 1 is 1 -> 5 -> 9 -> 13 -> 1
+		assertEquals(0, transformation.getDistanceBetween(1, 5), PRECISION);
+		assertEquals(0, transformation.getDistanceBetween(13, 1), PRECISION);
+		assertTrue(transformation.getDistanceBetween(5, 1) > 17 * penalty);
+		assertTrue(transformation.getDistanceBetween(1, 9) > 17 * penalty);
+		assertEquals(table.getDistanceBetween(5, 2) + penalty, transformation.getDistanceBetween(1, 2), PRECISION);
+		assertEquals(table.getDistanceBetween(1, 0) + penalty, transformation.getDistanceBetween(13, 0), PRECISION);
+
+		NoonBeanTransformation fixed = new NoonBeanTransformation(evaluator, 1000);
+		assertEquals(table.getDistanceBetween(5, 2) + 1000, fixed.getDistanceBetween(1, 2), PRECISION);
+		try {
+			new NoonBeanTransformation(evaluator, 0);
+			fail("Penalty must be positive");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 2 - Solutions and tours convert both ways, and the tour length is the solution length plus the penalties.
+	 */
+	public void testConversion() throws IOException{
+		GTSPEvaluator evaluator = evaluator("./tspLib/tsp/kroA100.tsp", 20);
+		NoonBeanTransformation transformation = new NoonBeanTransformation(evaluator);
+		GTSPSolution solution = new ClusterOptimization(evaluator).solve();
+
+		TSPLibTour tour = transformation.toTour(solution);
+		assertEquals(100, tour.size());
+		assertEquals(solution.getLength() + 20 * transformation.getPenalty(), length(transformation, tour), PRECISION);
+		GTSPSolution converted = transformation.toSolution(tour);
+		Assert.assertArrayEquals(solution.getNodes(), converted.getNodes());
+		assertEquals(solution.getLength(), converted.getLength(), PRECISION);
+
+		//rotating the tour into the middle of a cluster yields the same solution
+		int[] nodes = tour.toArray();
+		int[] rotated = new int[100];
+		for (int i = 0; i < 100; i++)
+			rotated[i] = nodes[(i + 2) % 100];
+		assertEquals(solution.getLength(), transformation.toSolution(TSPLibTour.createTour(rotated)).getLength(), PRECISION);
+
+		//tours which split clusters still yield feasible solutions
+		GTSPSolution split = transformation.toSolution(TSPLibTour.createCanonicalTour(100));
+		assertTrue(evaluator.isFeasible(split.getNodes()));
+		Assert.assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19}, split.getNodes());
+
+		try {
+			transformation.toSolution(TSPLibTour.createCanonicalTour(99));
+			fail("Tour does not match");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 3 - An optimal tour of the transformed instance yields an optimal GTSP solution.
+	 */
+	public void testOptimal() throws IOException{
+		for (String resource : new String[]{"./tspLib/tsp/burma14.tsp", "./tspLib/atsp/br17.atsp"}) {
+			GTSPEvaluator evaluator = evaluator(resource, 4);
+			NoonBeanTransformation transformation = new NoonBeanTransformation(evaluator);
+			ClusterOptimization optimization = new ClusterOptimization(evaluator);
+
+			//the node choice is optimal for each order, so enumerating the orders is exact
+			double optimum = Double.POSITIVE_INFINITY;
+			for (int[] order : new int[][]{{0, 1, 2, 3}, {0, 1, 3, 2}, {0, 2, 1, 3}, {0, 2, 3, 1}, {0, 3, 1, 2}, {0, 3, 2, 1}})
+				optimum = Math.min(optimum, optimization.optimize(order).getLength());
+
+			TSPLibTour tour = new HeldKarpSolver(transformation).solve();
+			GTSPSolution solution = transformation.toSolution(tour);
+			assertEquals(optimum, solution.getLength(), PRECISION);
+			assertEquals(optimum + 4 * transformation.getPenalty(), length(transformation, tour), PRECISION);
+		}
+	}
+
+	/**
+	 * Test 4 - Freezing the view keeps it lazy instead of materializing the N^2 matrix.
+	 */
+	public void testFreeze() throws IOException{
+		GTSPEvaluator evaluator = evaluator("./tspLib/atsp/br17.atsp", 4);
+		NoonBeanTransformation transformation = new NoonBeanTransformation(evaluator);
+		FrozenDistanceTable frozen = transformation.freeze();
+		assertTrue(frozen.isComplete());
+		for (int a = 0; a < 17; a++)
+			for (int b = 0; b < 17; b++)
+				assertEquals(transformation.getDistanceBetween(a, b), frozen.getDistanceBetween(a, b), PRECISION);
+
+		//a materialized view of 100000 nodes would need 80 GB
+		final int n = 100000;
+		FrozenDistanceTable large = FrozenDistanceTable.of(n, new ComputedDistances() {
+			@Override
+			public double distance(int id1, int id2) {
+				return (id1 == id2) ? 0 : (id1 * 31 + id2 * 17) % 100;
+			}
+		});
+		int[][] clusters = new int[n / 5][];
+		for (int k = 0; k < n / 5; k++)
+			clusters[k] = new int[]{5 * k, 5 * k + 1, 5 * k + 2, 5 * k + 3, 5 * k + 4};
+		NoonBeanTransformation view = new NoonBeanTransformation(new GTSPEvaluator(large, clusters), 1e7);
+		FrozenDistanceTable frozenView = view.freeze();
+		assertEquals(n, frozenView.size());
+		assertEquals(0, frozenView.getDistanceBetween(9, 5), PRECISION);
+		assertEquals(large.getDistanceBetween(5, 777) + 1e7, frozenView.getDistanceBetween(9, 777), PRECISION);
+		assertEquals(frozenView.getDistanceBetween(9, 777), view.getDistanceBetween(9, 777), PRECISION);
+	}
+
+}
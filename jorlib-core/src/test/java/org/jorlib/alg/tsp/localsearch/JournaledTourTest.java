@@ -0,0 +1,120 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * JournaledTourTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the JournaledTour class
+ *
+ * @author Joris Kinable
+ */
+public final class JournaledTourTest extends TestCase {
+
+	/**
+	 * Checks that a tour visits the nodes in the given cyclic order, in either direction.
+	 */
+	private static void assertCycle(int[] expected, MutableTour tour) {
+		int n = expected.length;
+		for (int k = 0; k < n; k++) {
+			int id = expected[k];
+			int next = expected[(k + 1) % n];
+			int prev = expected[(k + n - 1) % n];
+			assertTrue((tour.next(id) == next && tour.prev(id) == prev) || (tour.next(id) == prev && tour.prev(id) == next));
+		}
+	}
+
+	/**
+	 * Returns the node reached by following the tour for the given number of steps.
+	 */
+	private static int walk(MutableTour tour, int id, int steps) {
+		for (int k = 0; k < steps; k++)
+			id = tour.next(id);
+		return id;
+	}
+
+	/**
+	 * Applies a random reversal or segment move, including moves which leave the path in place.
+	 */
+	private static void randomMove(MutableTour tour, Random random) {
+		int n = tour.size();
+		int first = random.nextInt(n);
+		if (random.nextBoolean()) {
+			tour.reverse(first, walk(tour, first, random.nextInt(n)));
+		} else {
+			int length = 1 + random.nextInt(n - 2);
+			int last = walk(tour, first, length - 1);
+			int after = walk(tour, tour.next(last), random.nextInt(n - length));
+			tour.moveSegment(first, last, after, random.nextBoolean());
+		}
+	}
+
+	/**
+	 * Test 1 - Rolling back random reversals and segment moves restores the tour.
+	 */
+	public void testRollback(){
+		Random random = new Random(0);
+		for (int n : new int[] {3, 4, 7, 50, 300}) {
+			for (boolean twoLevel : new boolean[] {false, true}) {
+				int[] nodes = TSPLibTour.createRandomTour(n, new SplittableRandom(n)).toArray();
+				JournaledTour tour = new JournaledTour(twoLevel ? new TwoLevelListTour(nodes) : new ArrayTour(nodes));
+				for (int iteration = 0; iteration < 200; iteration++) {
+					int[] before = tour.toArray();
+					int moves = 1 + random.nextInt(10);
+					for (int k = 0; k < moves; k++)
+						randomMove(tour, random);
+					tour.rollback();
+					assertEquals(0, tour.getJournalSize());
+					assertCycle(before, tour);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test 2 - A rollback only undoes the operations recorded since the last commit.
+	 */
+	public void testCommit(){
+		Random random = new Random(1);
+		JournaledTour tour = new JournaledTour(new ArrayTour(TSPLibTour.createCanonicalTour(20).toArray()));
+		randomMove(tour, random);
+		randomMove(tour, random);
+		tour.commit();
+		assertEquals(0, tour.getJournalSize());
+		int[] committed = tour.toArray();
+		tour.reverse(3, tour.prev(3));
+		randomMove(tour, random);
+		tour.rollback();
+		assertCycle(committed, tour);
+	}
+
+}
@@ -0,0 +1,142 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * LengthTrackingTourTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the LengthTrackingTour class
+ *
+ * @author Joris Kinable
+ */
+public final class LengthTrackingTourTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Applies random moves, checking the predicted changes and the cached length after every move.
+	 */
+	private void randomMoves(TSPLibInstance problem, boolean symmetric, MutableTour underlying, long seed) {
+		DistanceTable table = problem.getDistanceTable();
+		int n = underlying.size();
+		LengthTrackingTour tour = new LengthTrackingTour(underlying, table, symmetric);
+		tour.setVerificationInterval(1);
+		Random random = new Random(seed);
+
+		for (int iteration = 0; iteration < 1000; iteration++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			double before = tour.length();
+			double predicted;
+
+			switch (random.nextInt(4)) {
+			case 0:
+				predicted = tour.deltaReverse(a, b);
+				tour.reverse(a, b);
+				break;
+			case 1:
+				int c = tour.next(a);
+				int d = tour.next(b);
+				if ((a == b) || (c == b) || (d == a))
+					continue;
+				predicted = tour.deltaTwoOpt(a, c, b, d);
+				tour.reverse(c, b);
+				break;
+			case 2:
+				int last = a;
+				for (int k = random.nextInt(3); k > 0; k--)
+					last = tour.next(last);
+				if (tour.between(a, b, last))
+					continue;
+				boolean reversed = random.nextBoolean();
+				predicted = tour.deltaMoveSegment(a, last, b, reversed);
+				tour.moveSegment(a, last, b, reversed);
+				break;
+			default:
+				predicted = tour.deltaSwap(a, b);
+				tour.swap(a, b);
+				break;
+			}
+
+			assertEquals(before + predicted, tour.length(), PRECISION);
+		}
+
+		assertEquals(tour.toTour().distance(problem), tour.length(table), PRECISION);
+		assertTrue(tour.toTour().isHamiltonianCycle(problem));
+	}
+
+	/**
+	 * Test 1 - The length is maintained on symmetric instances for both tour representations.
+	 */
+	public void testSymmetric() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		randomMoves(problem, true, new ArrayTour(TSPLibTour.createCanonicalTour(100)), 0);
+		randomMoves(problem, true, new TwoLevelListTour(TSPLibTour.createCanonicalTour(100)), 1);
+	}
+
+	/**
+	 * Test 2 - The length is maintained in the direction of travel on asymmetric instances.
+	 */
+	public void testAsymmetric() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/ftv170.atsp");
+		randomMoves(problem, false, new ArrayTour(TSPLibTour.createCanonicalTour(171)), 2);
+		randomMoves(problem, false, new TwoLevelListTour(TSPLibTour.createCanonicalTour(171)), 3);
+	}
+
+	/**
+	 * Test 3 - Verification detects modifications that bypass the tracking tour.
+	 */
+	public void testVerify() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		LengthTrackingTour tour = new LengthTrackingTour(new ArrayTour(TSPLibTour.createCanonicalTour(100)),
+				problem.getDistanceTable(), true);
+		tour.verify();
+		tour.getTour().reverse(10, 50);
+		try {
+			tour.verify();
+			fail("Cached length should be stale");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+
+		//Copying recomputes the length
+		LengthTrackingTour copy = new LengthTrackingTour(new ArrayTour(TSPLibTour.createCanonicalTour(100)),
+				problem.getDistanceTable(), true);
+		copy.copyFrom(tour.getTour());
+		copy.verify();
+		assertEquals(tour.toTour().distance(problem), copy.length(), PRECISION);
+	}
+
+}
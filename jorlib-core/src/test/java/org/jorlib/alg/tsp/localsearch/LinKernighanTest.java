@@ -0,0 +1,146 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * LinKernighanTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the LinKernighan and IteratedLinKernighan classes
+ *
+ * @author Joris Kinable
+ */
+public final class LinKernighanTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Test 1 - The search reports the exact change in length and returns a permutation.
+	 */
+	public void testImprove() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(100));
+		double before = tour.length(table);
+
+		LinKernighan linKernighan = new LinKernighan(table);
+		double delta = linKernighan.improve(tour);
+		assertTrue(delta < 0);
+		assertEquals(before + delta, tour.length(table), PRECISION);
+		assertFalse(linKernighan.isInterrupted());
+		assertTrue(tour.toTour().isHamiltonianCycle(problem));
+		//Lin-Kernighan tours on kroA100 are within 5% of the optimum of 21282
+		assertTrue(tour.length(table) < 1.05 * 21282);
+	}
+
+	/**
+	 * Test 2 - A search which finds no improvement leaves a tour which is 2-optimal with respect to the
+	 * candidates.  Don't-look bits may skip improving moves within a single search, so the search is
+	 * repeated until it finds no improvement.
+	 */
+	public void testLocalOptimum() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		CandidateLists candidates = CandidateLists.nearestNeighbors(table, 10);
+		for (int seed = 0; seed < 5; seed++) {
+			ArrayTour tour = new ArrayTour(TSPLibTour.createRandomTour(51, new SplittableRandom(seed)));
+			LinKernighan linKernighan = new LinKernighan(table, candidates);
+			while (linKernighan.improve(tour) < 0);
+			assertEquals(0.0, new TwoOpt(table, candidates).improve(tour), 0.0);
+		}
+	}
+
+	/**
+	 * Test 3 - Restricting the depth to a single step yields a 2-opt local search.
+	 */
+	public void testMaxDepth() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/berlin52.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		LinKernighan linKernighan = new LinKernighan(table);
+		linKernighan.setMaxDepth(1);
+		ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(52));
+		double before = tour.length(table);
+		double delta = linKernighan.improve(tour);
+		assertEquals(before + delta, tour.length(table), PRECISION);
+		try {
+			linKernighan.setMaxDepth(0);
+			fail("Depth must be positive");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 4 - Kicks further improve the tour and runs with the same seed are identical.
+	 */
+	public void testIterated() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		TSPLibTour initial = TSPLibTour.createCanonicalTour(100);
+		LinKernighan linKernighan = new LinKernighan(table);
+		double local = linKernighan.improve(initial).distance(problem);
+
+		IteratedLinKernighan ilk = new IteratedLinKernighan(table);
+		ilk.setSeed(42);
+		ilk.setMaxKicks(500);
+		TSPLibTour tour = ilk.solve(initial);
+		assertTrue(tour.isHamiltonianCycle(problem));
+		assertEquals(tour.distance(problem), ilk.getBestLength(), PRECISION);
+		assertEquals(500, ilk.getKicks());
+		assertTrue(ilk.getBestLength() <= local);
+		//Iterated Lin-Kernighan tours on kroA100 are within 2% of the optimum of 21282
+		assertTrue(ilk.getBestLength() < 1.02 * 21282);
+
+		TSPLibTour again = ilk.solve(initial);
+		Assert.assertArrayEquals(tour.toArray(), again.toArray());
+	}
+
+	/**
+	 * Test 5 - The time limit ends the iterated search.
+	 */
+	public void testTimeLimit() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/d15112.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		IteratedLinKernighan ilk = new IteratedLinKernighan(table, CandidateLists.nearestNeighbors(table, 6));
+		ilk.setSeed(1);
+		ilk.setTimeLimit(1000);
+		long start = System.currentTimeMillis();
+		TSPLibTour tour = ilk.solve();
+		assertTrue(System.currentTimeMillis() - start < 10000);
+		assertTrue(tour.isHamiltonianCycle(problem));
+		assertTrue(ilk.getKicks() < 15112);
+	}
+
+}
@@ -0,0 +1,174 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * NodeRenumberingTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.io.IOException;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the NodeRenumbering class and FrozenDistanceTable.permute
+ *
+ * @author Joris Kinable
+ */
+public final class NodeRenumberingTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private void assertRenumbered(DistanceTable table, NodeRenumbering renumbering) {
+		FrozenDistanceTable renumbered = renumbering.apply(table);
+		int n = renumbering.size();
+		assertEquals(n, renumbered.size());
+		for (int i = 0; i < n; i++) {
+			assertEquals(i, renumbering.toRenumbered(renumbering.toOriginal(i)));
+			for (int j = 0; j < n; j++) {
+				assertEquals(table.getDistanceBetween(renumbering.toOriginal(i), renumbering.toOriginal(j)),
+						renumbered.getDistanceBetween(i, j), PRECISION);
+				assertEquals(table.isNeighbor(renumbering.toOriginal(i), renumbering.toOriginal(j)),
+						renumbered.isNeighbor(i, j));
+			}
+		}
+	}
+
+	/**
+	 * Test 1 - Renumbered coordinate and matrix tables preserve all distances, and tours translate both ways.
+	 */
+	public void testSpaceFillingCurve() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		NodeCoordinates coordinates = (NodeCoordinates)problem.getDistanceTable();
+		NodeRenumbering renumbering = NodeRenumbering.spaceFillingCurve(coordinates);
+		assertRenumbered(coordinates, renumbering);
+
+		TSPLibTour tour = TSPLibTour.createRandomTour(100);
+		TSPLibTour renumbered = renumbering.toRenumbered(tour);
+		assertEquals(tour.distance(problem), new ArrayTour(renumbered).length(renumbering.apply(coordinates)), PRECISION);
+		Assert.assertArrayEquals(tour.toArray(), renumbering.toOriginal(renumbered).toArray());
+
+		TSPLibInstance asymmetric = TSPLibResources.load("./tspLib/atsp/ftv33.atsp");
+		DistanceTable matrix = asymmetric.getDistanceTable();
+		int[] order = new int[34];
+		for (int i = 0; i < 34; i++)
+			order[i] = (7 * i) % 34;
+		assertRenumbered(matrix, new NodeRenumbering(order));
+	}
+
+	/**
+	 * Test 2 - Reverse Cuthill-McKee reduces the bandwidth of a sparse graph.
+	 */
+	public void testReverseCuthillMcKee() throws IOException{
+		//a grid graph whose nodes are numbered in a scattered order
+		final int side = 20;
+		final int n = side * side;
+		final int[] scatter = new int[n];
+		for (int i = 0; i < n; i++)
+			scatter[i] = (int)((i * 173L) % n);
+		DistanceTable grid = new DistanceTable() {
+			@Override
+			public int[] listNodes() {
+				return TSPLibTour.createCanonicalTour(n).toArray();
+			}
+			@Override
+			public int[] getNeighborsOf(int id) {
+				int cell = scatter[id];
+				int x = cell % side, y = cell / side;
+				int[] cells = new int[4];
+				int count = 0;
+				if (x > 0) cells[count++] = cell - 1;
+				if (x < side - 1) cells[count++] = cell + 1;
+				if (y > 0) cells[count++] = cell - side;
+				if (y < side - 1) cells[count++] = cell + side;
+				int[] neighbors = new int[count];
+				for (int k = 0; k < count; k++)
+					neighbors[k] = indexOf(cells[k]);
+				return neighbors;
+			}
+			private int indexOf(int cell) {
+				for (int i = 0; i < n; i++)
+					if (scatter[i] == cell)
+						return i;
+				return -1;
+			}
+			@Override
+			public double getDistanceBetween(int id1, int id2) {
+				return isNeighbor(id1, id2) ? 1.0 : Double.POSITIVE_INFINITY;
+			}
+			@Override
+			public void load(java.io.BufferedReader reader) {
+			}
+		};
+
+		FrozenDistanceTable table = grid.freeze();
+		NodeRenumbering renumbering = NodeRenumbering.reverseCuthillMcKee(table);
+		assertRenumbered(table, renumbering);
+		FrozenDistanceTable renumbered = renumbering.apply(table);
+		assertTrue(bandwidth(table) > 100);
+		assertTrue(bandwidth(renumbered) <= 2 * side);
+	}
+
+	private int bandwidth(FrozenDistanceTable table) {
+		int bandwidth = 0;
+		for (int i = 0; i < table.size(); i++)
+			for (int j : table.getNeighborsOf(i))
+				bandwidth = Math.max(bandwidth, Math.abs(i - j));
+		return bandwidth;
+	}
+
+	/**
+	 * Test 3 - Invalid permutations and tours are rejected.
+	 */
+	public void testInvalid() throws IOException{
+		try {
+			new NodeRenumbering(new int[]{0, 1, 1});
+			fail("Not a permutation");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		NodeRenumbering renumbering = new NodeRenumbering(new int[]{2, 0, 1});
+		try {
+			renumbering.toOriginal(TSPLibTour.createCanonicalTour(4));
+			fail("Tour does not match");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		try {
+			renumbering.apply(problem.getDistanceTable());
+			fail("Table does not match");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * OrOptTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the OrOpt class and segment moves of ArrayTour
+ *
+ * @author Joris Kinable
+ */
+public final class OrOptTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Test 1 - Segment moves match a naive list implementation and keep the orientation.
+	 */
+	public void testMoveSegment(){
+		int n = 9;
+		for (int start = 0; start < n; start++) {
+			for (int length = 1; length <= 4; length++) {
+				for (int offset = length; offset < n; offset++) {
+					for (int r = 0; r < 2; r++) {
+						boolean reversed = (r == 1);
+						int[] nodes = {4, 7, 1, 0, 8, 2, 6, 3, 5};
+						int first = nodes[start];
+						int last = nodes[(start + length - 1) % n];
+						int after = nodes[(start + offset) % n];
+
+						List<Integer> expected = new ArrayList<>();
+						List<Integer> segment = new ArrayList<>();
+						for (int k = 0; k < n; k++) {
+							if (k < length)
+								segment.add(nodes[(start + k) % n]);
+							else
+								expected.add(nodes[(start + k) % n]);
+						}
+						if (reversed)
+							Collections.reverse(segment);
+						expected.addAll(expected.indexOf(after) + 1, segment);
+
+						ArrayTour tour = new ArrayTour(nodes);
+						tour.moveSegment(first, last, after, reversed);
+
+						//Compare as directed cycles
+						int[] actual = tour.toArray();
+						int shift = 0;
+						while (actual[shift] != expected.get(0))
+							shift++;
+						for (int k = 0; k < n; k++) {
+							assertEquals(expected.get(k).intValue(), actual[(shift + k) % n]);
+							assertEquals(k, tour.indexOf(actual[k]));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test 2 - Or-opt further improves a 2-optimal symmetric tour and reports the exact change.
+	 */
+	public void testSymmetric() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		CandidateLists candidates = CandidateLists.nearestNeighbors(table, 10);
+		ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(100));
+		new TwoOpt(table, candidates).improve(tour);
+		double before = tour.length(table);
+
+		OrOpt orOpt = new OrOpt(table, candidates);
+		double delta = orOpt.improve(tour);
+		assertTrue(delta <= 0);
+		assertEquals(before + delta, tour.length(table), PRECISION);
+		assertTrue(tour.toTour().isHamiltonianCycle(problem));
+	}
+
+	/**
+	 * Test 3 - Deltas account for the direction of travel on ATSP instances.
+	 */
+	public void testAsymmetric() throws IOException{
+		for (String instance : new String[] {"ftv33", "ftv170", "rbg323"}) {
+			TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/" + instance + ".atsp");
+			DistanceTable table = problem.getDistanceTable();
+			int n = table.listNodes().length;
+			ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(n));
+			double before = tour.length(table);
+
+			OrOpt orOpt = new OrOpt(table);
+			double delta = orOpt.improve(tour);
+			assertTrue(delta < 0);
+			assertTrue(orOpt.getIterations() > 0);
+			assertEquals(before + delta, tour.length(table), PRECISION);
+			Assert.assertEquals(before + delta, tour.toTour().distance(problem), PRECISION);
+		}
+	}
+
+	/**
+	 * Test 4 - The iteration limit interrupts the search.
+	 */
+	public void testIterationLimit() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/ftv170.atsp");
+		OrOpt orOpt = new OrOpt(problem.getDistanceTable());
+		orOpt.setIterationLimit(3);
+		orOpt.improve(TSPLibTour.createCanonicalTour(171));
+		assertEquals(3, orOpt.getIterations());
+		assertTrue(orOpt.isInterrupted());
+	}
+
+}
@@ -0,0 +1,135 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TourPoolTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.util.Random;
+
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the TourFingerprint and TourPool classes
+ *
+ * @author Joris Kinable
+ */
+public final class TourPoolTest extends TestCase {
+
+	/**
+	 * Test 1 - Rotated and reflected tours have the same fingerprint, other tours do not.
+	 */
+	public void testInvariance() {
+		int[] order = {3, 0, 5, 1, 4, 2, 6};
+		TourFingerprint fingerprint = TourFingerprint.of(order);
+
+		int[] rotated = {1, 4, 2, 6, 3, 0, 5};
+		int[] reflected = {6, 2, 4, 1, 5, 0, 3};
+		assertEquals(fingerprint, TourFingerprint.of(rotated));
+		assertEquals(fingerprint, TourFingerprint.of(reflected));
+		assertEquals(fingerprint.hashCode(), TourFingerprint.of(reflected).hashCode());
+		assertEquals(fingerprint, TourFingerprint.of(TSPLibTour.createTour(reflected)));
+		assertEquals(fingerprint, TourFingerprint.of(new ArrayTour(TSPLibTour.createTour(rotated))));
+
+		int[] swapped = {0, 3, 5, 1, 4, 2, 6};
+		assertFalse(fingerprint.equals(TourFingerprint.of(swapped)));
+	}
+
+	/**
+	 * Test 2 - The fingerprint maintained under 2-opt moves matches the fingerprint of the tour.
+	 */
+	public void testTwoOptMove() {
+		Random random = new Random(0);
+		ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(200));
+		TourFingerprint fingerprint = TourFingerprint.of(tour);
+
+		for (int k = 0; k < 1000; k++) {
+			int a = random.nextInt(200);
+			int b = tour.next(a);
+			int c = random.nextInt(200);
+			int d = tour.next(c);
+			if ((c == a) || (c == b) || (d == a)) {
+				continue;
+			}
+			//replace (a, b) and (c, d) by (a, c) and (b, d)
+			tour.reverse(b, c);
+			fingerprint.twoOptMove(a, b, c, d);
+			assertEquals(TourFingerprint.of(tour), fingerprint);
+		}
+	}
+
+	/**
+	 * Test 3 - The pool rejects tours equivalent to pooled tours.
+	 */
+	public void testDeduplication() {
+		TourPool pool = new TourPool();
+		assertNull(pool.best());
+		assertTrue(pool.add(new int[]{0, 1, 2, 3, 4}, 10));
+		assertFalse(pool.add(new int[]{2, 3, 4, 0, 1}, 10));
+		assertFalse(pool.add(TSPLibTour.createTour(4, 3, 2, 1, 0), 10));
+		assertTrue(pool.add(new ArrayTour(TSPLibTour.createTour(0, 2, 1, 3, 4)), 8));
+		assertEquals(2, pool.size());
+
+		assertTrue(pool.contains(new int[]{1, 0, 4, 3, 2}));
+		assertFalse(pool.contains(new int[]{0, 1, 3, 2, 4}));
+
+		TourFingerprint best = pool.best();
+		assertEquals(8, pool.getLength(best), 0.0);
+		Assert.assertArrayEquals(new int[]{0, 2, 1, 3, 4}, pool.getTour(best).toArray());
+		assertEquals(2, pool.tours().size());
+		assertEquals(best, pool.fingerprints().get(1));
+
+		assertTrue(pool.remove(best));
+		assertFalse(pool.remove(best));
+		assertEquals(1, pool.size());
+		try {
+			pool.getLength(best);
+			fail("Tour was removed");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+
+		pool.clear();
+		assertEquals(0, pool.size());
+	}
+
+	/**
+	 * Test 4 - Distinct random tours receive distinct fingerprints.
+	 */
+	public void testDistinctTours() {
+		TourPool pool = new TourPool(10000);
+		int added = 0;
+		for (int k = 0; k < 10000; k++) {
+			TSPLibTour tour = TSPLibTour.createRandomTour(50);
+			if (pool.add(tour, k))
+				added++;
+		}
+		assertEquals(10000, added);
+		assertEquals(10000, pool.size());
+	}
+
+}
@@ -0,0 +1,215 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TwoLevelListTourTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the TwoLevelListTour class
+ *
+ * @author Joris Kinable
+ */
+public final class TwoLevelListTourTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Checks that the queries of a tour agree with the given order.
+	 */
+	private static void assertOrder(List<Integer> expected, MutableTour tour) {
+		int n = expected.size();
+		int[] actual = tour.toArray();
+		int shift = actual.length > 0 ? expected.indexOf(actual[0]) : 0;
+		for (int k = 0; k < n; k++) {
+			int id = expected.get((shift + k) % n);
+			assertEquals(id, actual[k]);
+			assertEquals(expected.get((shift + k + 1) % n).intValue(), tour.next(id));
+			assertEquals(expected.get((shift + k + n - 1) % n).intValue(), tour.prev(id));
+		}
+	}
+
+	/**
+	 * Test 1 - Random reversals match a naive list implementation, including the orientation.
+	 */
+	public void testReverse(){
+		Random random = new Random(0);
+		for (int n : new int[] {2, 3, 5, 16, 50, 101}) {
+			List<Integer> expected = new ArrayList<>();
+			for (int id = 0; id < n; id++)
+				expected.add(id);
+			Collections.shuffle(expected, random);
+			int[] nodes = new int[n];
+			for (int k = 0; k < n; k++)
+				nodes[k] = expected.get(k);
+			TwoLevelListTour tour = new TwoLevelListTour(nodes);
+
+			for (int iteration = 0; iteration < 2000; iteration++) {
+				int i = random.nextInt(n);
+				int length = 1 + random.nextInt(n);
+				int from = expected.get(i);
+				int to = expected.get((i + length - 1) % n);
+				List<Integer> path = new ArrayList<>();
+				for (int k = 0; k < length; k++)
+					path.add(expected.get((i + k) % n));
+				for (int k = 0; k < length; k++)
+					expected.set((i + k) % n, path.get(length - 1 - k));
+
+				tour.reverse(from, to);
+				assertOrder(expected, tour);
+			}
+		}
+	}
+
+	/**
+	 * Test 2 - Betweenness follows the direction of the tour after reversals.
+	 */
+	public void testBetween(){
+		Random random = new Random(1);
+		int n = 40;
+		TwoLevelListTour tour = new TwoLevelListTour(TSPLibTour.createCanonicalTour(n));
+		for (int iteration = 0; iteration < 200; iteration++) {
+			tour.reverse(random.nextInt(n), random.nextInt(n));
+			int[] order = tour.toArray();
+			int[] index = new int[n];
+			for (int k = 0; k < n; k++)
+				index[order[k]] = k;
+			int a = random.nextInt(n), b = random.nextInt(n), c = random.nextInt(n);
+			int ab = (index[b] - index[a] + n) % n;
+			int ac = (index[c] - index[a] + n) % n;
+			assertEquals(ab <= ac, tour.between(a, b, c));
+		}
+	}
+
+	/**
+	 * Test 3 - Segment moves match a naive list implementation and keep the orientation.
+	 */
+	public void testMoveSegment(){
+		Random random = new Random(2);
+		int n = 60;
+		List<Integer> expected = new ArrayList<>();
+		for (int id = 0; id < n; id++)
+			expected.add(id);
+		TwoLevelListTour tour = new TwoLevelListTour(TSPLibTour.createCanonicalTour(n));
+
+		for (int iteration = 0; iteration < 2000; iteration++) {
+			int start = random.nextInt(n);
+			int length = 1 + random.nextInt(n - 2);
+			int offset = length + random.nextInt(n - length);
+			boolean reversed = random.nextBoolean();
+			int first = expected.get(start);
+			int last = expected.get((start + length - 1) % n);
+			int after = expected.get((start + offset) % n);
+
+			List<Integer> rest = new ArrayList<>();
+			List<Integer> segment = new ArrayList<>();
+			for (int k = 0; k < n; k++) {
+				if (k < length)
+					segment.add(expected.get((start + k) % n));
+				else
+					rest.add(expected.get((start + k) % n));
+			}
+			if (reversed)
+				Collections.reverse(segment);
+			rest.addAll(rest.indexOf(after) + 1, segment);
+			expected = rest;
+
+			tour.moveSegment(first, last, after, reversed);
+			assertOrder(expected, tour);
+		}
+	}
+
+	/**
+	 * Test 4 - Conversions and copies preserve the tour.
+	 */
+	public void testConversion(){
+		TSPLibTour random = TSPLibTour.createRandomTour(1000);
+		TwoLevelListTour tour = new TwoLevelListTour(random);
+		Assert.assertArrayEquals(random.toArray(), tour.toArray());
+		assertTrue(tour.toTour().isEquivalent(random));
+
+		tour.reverse(random.get(10), random.get(900));
+		TwoLevelListTour copy = new TwoLevelListTour(TSPLibTour.createCanonicalTour(1000));
+		copy.copyFrom(tour);
+		Assert.assertArrayEquals(tour.toArray(), copy.toArray());
+
+		ArrayTour array = new ArrayTour(TSPLibTour.createCanonicalTour(1000));
+		array.copyFrom(tour);
+		Assert.assertArrayEquals(tour.toArray(), array.toArray());
+		copy.copyFrom(new ArrayTour(random));
+		Assert.assertArrayEquals(random.toArray(), copy.toArray());
+
+		try {
+			copy.copyFrom(new ArrayTour(0, 1, 2));
+			fail("Tours of different sizes cannot be copied");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		try {
+			new TwoLevelListTour(0, 1, 1);
+			fail("Nodes must be a permutation");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 5 - Local search engines produce the same kind of tours on both representations.
+	 */
+	public void testLocalSearch() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		CandidateLists candidates = CandidateLists.nearestNeighbors(table, 10);
+
+		for (AbstractLocalSearch search : new AbstractLocalSearch[] {new TwoOpt(table, candidates),
+				new OrOpt(table, candidates), new LinKernighan(table, candidates)}) {
+			search.setTwoLevelThreshold(0);
+			MutableTour tour = search.createTour(TSPLibTour.createCanonicalTour(100).toArray());
+			assertTrue(tour instanceof TwoLevelListTour);
+			double before = tour.length(table);
+			double delta = search.improve(tour);
+			assertTrue(delta < 0);
+			assertEquals(before + delta, tour.length(table), PRECISION);
+			assertTrue(tour.toTour().isHamiltonianCycle(problem));
+		}
+
+		TwoOpt twoOpt = new TwoOpt(table, candidates);
+		assertTrue(twoOpt.createTour(TSPLibTour.createCanonicalTour(100).toArray()) instanceof ArrayTour);
+	}
+
+}
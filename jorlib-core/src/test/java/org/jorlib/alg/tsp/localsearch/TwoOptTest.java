@@ -0,0 +1,159 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TwoOptTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.localsearch;
+
+import java.io.IOException;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the ArrayTour and TwoOpt classes
+ *
+ * @author Joris Kinable
+ */
+public final class TwoOptTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	/**
+	 * Test 1 - Reversals pick the shorter side but preserve the cycle.
+	 */
+	public void testReverse(){
+		ArrayTour tour = new ArrayTour(0, 1, 2, 3, 4, 5, 6, 7);
+		tour.reverse(2, 4);
+		Assert.assertArrayEquals(new int[]{0, 1, 4, 3, 2, 5, 6, 7}, tour.toArray());
+
+		//The path 5..1 wraps around and is longer than its complement 4..2
+		int[] before = tour.toArray();
+		tour.reverse(5, 1);
+		assertTrue(tour.toTour().isEquivalent(reference(before, 5, 1)));
+
+		for (int id = 0; id < 8; id++) {
+			assertEquals(id, tour.next(tour.prev(id)));
+			assertEquals(id, tour.get(tour.indexOf(id)));
+		}
+	}
+
+	/**
+	 * Reverses a path of an array naively, wrapping around the end.
+	 */
+	private static TSPLibTour reference(int[] nodes, int from, int to) {
+		int n = nodes.length;
+		int i = 0, j = 0;
+		for (int k = 0; k < n; k++) {
+			if (nodes[k] == from) i = k;
+			if (nodes[k] == to) j = k;
+		}
+		int length = ((j - i + n) % n) + 1;
+		int[] result = nodes.clone();
+		for (int k = 0; k < length; k++)
+			result[(i + k) % n] = nodes[(j - k + n) % n];
+		return TSPLibTour.createTour(result);
+	}
+
+	/**
+	 * Test 2 - Betweenness follows the direction of the tour.
+	 */
+	public void testBetween(){
+		ArrayTour tour = new ArrayTour(3, 0, 4, 1, 2);
+		assertTrue(tour.between(0, 1, 2));
+		assertFalse(tour.between(0, 3, 2));
+		assertTrue(tour.between(2, 3, 0));
+		assertTrue(tour.between(2, 2, 0));
+		assertFalse(tour.between(2, 4, 0));
+		assertEquals(3, tour.next(2));
+		assertEquals(2, tour.prev(3));
+	}
+
+	/**
+	 * Test 3 - The search reports the exact change in length and returns a permutation.
+	 */
+	public void testImprove() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(100));
+		double before = tour.length(table);
+
+		TwoOpt twoOpt = new TwoOpt(table);
+		double delta = twoOpt.improve(tour);
+		assertTrue(delta < 0);
+		assertEquals(before + delta, tour.length(table), PRECISION);
+		assertEquals(delta, twoOpt.getImprovement(), 0.0);
+		assertFalse(twoOpt.isInterrupted());
+		assertTrue(twoOpt.getIterations() > 0);
+		assertTrue(twoOpt.getEvaluations() >= twoOpt.getIterations());
+		assertTrue(tour.toTour().isHamiltonianCycle(problem));
+		//2-opt tours on kroA100 are within 10% of the optimum of 21282
+		assertTrue(tour.length(table) < 1.1 * 21282);
+	}
+
+	/**
+	 * Test 4 - With complete candidate lists, a search which finds no improvement leaves a 2-optimal tour.
+	 * Don't-look bits may skip improving moves within a single search, so the search is repeated until
+	 * it starts with every node active and finds no improvement.
+	 */
+	public void testLocalOptimum() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		DistanceTable table = problem.getDistanceTable();
+		TwoOpt twoOpt = new TwoOpt(table, CandidateLists.nearestNeighbors(table, 50));
+		ArrayTour tour = new ArrayTour(TSPLibTour.createRandomTour(51));
+		while (twoOpt.improve(tour) < 0);
+
+		int[] nodes = tour.toArray();
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 2; j < nodes.length; j++) {
+				int a = nodes[i], b = nodes[i + 1], c = nodes[j], d = nodes[(j + 1) % nodes.length];
+				if (d == a)
+					continue;
+				double delta = table.getDistanceBetween(a, c) + table.getDistanceBetween(b, d)
+						- table.getDistanceBetween(a, b) - table.getDistanceBetween(c, d);
+				assertTrue(delta > -PRECISION);
+			}
+		}
+	}
+
+	/**
+	 * Test 5 - The iteration limit interrupts the search.
+	 */
+	public void testIterationLimit() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		TwoOpt twoOpt = new TwoOpt(problem.getDistanceTable());
+		twoOpt.setIterationLimit(5);
+		TSPLibTour tour = twoOpt.improve(TSPLibTour.createCanonicalTour(100));
+		assertEquals(5, twoOpt.getIterations());
+		assertTrue(twoOpt.isInterrupted());
+		assertEquals(TSPLibTour.createCanonicalTour(100).distance(problem) + twoOpt.getImprovement(),
+				tour.distance(problem), PRECISION);
+	}
+
+}
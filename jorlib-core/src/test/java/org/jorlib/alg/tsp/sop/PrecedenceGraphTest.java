@@ -0,0 +1,167 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * PrecedenceGraphTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.tsp.sop;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import org.jorlib.io.tspLibReader.RandomTours;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.TSPLibTour;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the PrecedenceGraph and PrecedenceInsertion classes
+ *
+ * @author Joris Kinable
+ */
+public final class PrecedenceGraphTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private static final String[] INSTANCES = {"./tspLib/sop/ESC07.sop", "./tspLib/sop/ESC25.sop",
+			"./tspLib/sop/br17.10.sop", "./tspLib/sop/ft53.4.sop", "./tspLib/sop/rbg109a.sop"};
+
+	/**
+	 * Test 1 - The closure, reduction and levels agree with the constraints of the matrix.
+	 */
+	public void testStructure() throws IOException{
+		for (String resource : INSTANCES) {
+			DistanceTable table = TSPLibResources.load(resource).getDistanceTable();
+			PrecedenceGraph graph = new PrecedenceGraph(table);
+			int n = graph.size();
+
+			//closure by Floyd-Warshall; j must precede i if entry (i, j) is -1
+			boolean[][] before = new boolean[n][n];
+			for (int i = 0; i < n; i++)
+				for (int j = 0; j < n; j++)
+					before[j][i] = (i != j) && (table.getDistanceBetween(i, j) == -1);
+			for (int k = 0; k < n; k++)
+				for (int i = 0; i < n; i++)
+					if (before[i][k])
+						for (int j = 0; j < n; j++)
+							before[i][j] |= before[k][j];
+
+			int arcs = 0;
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					assertEquals(before[i][j], graph.mustPrecede(i, j));
+					assertEquals((i != j) && !before[j][i], graph.mayPrecede(i, j));
+				}
+				for (int j : graph.getSuccessors(i)) {
+					assertTrue(before[i][j]);
+					assertTrue(graph.getLevel(j) > graph.getLevel(i));
+					//no other successor implies the arc
+					for (int k : graph.getSuccessors(i))
+						assertFalse(before[k][j]);
+					arcs++;
+				}
+				for (int j : graph.getPredecessors(i))
+					assertTrue(before[j][i]);
+			}
+			assertEquals(arcs, graph.getArcCount());
+			assertTrue(graph.isFeasible(graph.getTopologicalOrder()));
+		}
+
+		//in ESC07, node 0 precedes all nodes and node 8 follows them
+		PrecedenceGraph graph = new PrecedenceGraph(TSPLibResources.load("./tspLib/sop/ESC07.sop"));
+		for (int i = 1; i < 8; i++) {
+			assertTrue(graph.mustPrecede(0, i));
+			assertTrue(graph.mustPrecede(i, 8));
+		}
+		assertEquals(0, graph.getLevel(0));
+		assertEquals(graph.getLevelCount() - 1, graph.getLevel(8));
+	}
+
+	/**
+	 * Test 2 - Feasibility checks detect violated precedences, and repair yields feasible sequences.
+	 */
+	public void testFeasibility() throws IOException{
+		PrecedenceGraph graph = new PrecedenceGraph(TSPLibResources.load("./tspLib/sop/ft53.4.sop"));
+		int n = graph.size();
+		int[] order = graph.getTopologicalOrder();
+		assertTrue(graph.isFeasible(TSPLibTour.createTour(order)));
+		Assert.assertArrayEquals(order, graph.repair(order));
+
+		//moving a node before one of its predecessors is infeasible
+		int v = -1;
+		for (int i = 0; i < n && v < 0; i++)
+			if (graph.getPredecessors(order[i]).length > 0)
+				v = i;
+		int[] moved = order.clone();
+		int t = moved[v]; moved[v] = moved[0]; moved[0] = t;
+		assertFalse(graph.isFeasible(moved));
+		assertTrue(graph.isFeasible(graph.repair(moved)));
+
+		SplittableRandom random = new SplittableRandom(11);
+		for (int r = 0; r < 20; r++) {
+			int[] sequence = RandomTours.permutation(n, random);
+			int[] repaired = graph.repair(sequence);
+			assertTrue(graph.isFeasible(repaired));
+			Assert.assertArrayEquals(repaired, graph.repair(repaired));
+		}
+
+		assertFalse(graph.isFeasible(new int[]{0, 1, 2}));
+		int[] duplicate = order.clone();
+		duplicate[1] = duplicate[2];
+		assertFalse(graph.isFeasible(duplicate));
+		try {
+			graph.repair(duplicate);
+			fail("Not a sequence");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 3 - Precedence-preserving insertion builds feasible sequences no shorter than the optimum.
+	 */
+	public void testInsertion() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/sop/ESC07.sop");
+		PrecedenceInsertion insertion = new PrecedenceInsertion(problem.getDistanceTable(), new PrecedenceGraph(problem));
+		int[] sequence = insertion.build();
+		assertTrue(new PrecedenceGraph(problem).isFeasible(sequence));
+		assertTrue(insertion.length(sequence) >= 2125 - PRECISION);
+		assertTrue(insertion.length(sequence) < 1000000);
+
+		for (String resource : INSTANCES) {
+			problem = TSPLibResources.load(resource);
+			PrecedenceGraph graph = new PrecedenceGraph(problem);
+			insertion = new PrecedenceInsertion(problem.getDistanceTable(), graph);
+			TSPLibTour tour = insertion.construct();
+			assertTrue(graph.isFeasible(tour));
+			//insertion improves on the repaired random sequence
+			int[] repaired = graph.repair(RandomTours.permutation(graph.size(), new SplittableRandom(5)));
+			assertTrue(insertion.length(tour.toArray()) <= insertion.length(repaired));
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CVRPEvaluatorTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.vrp;
+
+import java.io.IOException;
+
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.VehicleRoutingTable;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the CVRPEvaluator class and the primitive VehicleRoutingTable
+ *
+ * @author Joris Kinable
+ */
+public final class CVRPEvaluatorTest extends TestCase {
+
+	public static final double PRECISION=0.000001;
+
+	private double distance(DistanceTable table, int... nodes) {
+		double distance = 0;
+		for (int i = 0; i + 1 < nodes.length; i++)
+			distance += table.getDistanceBetween(nodes[i], nodes[i+1]);
+		return distance;
+	}
+
+	/**
+	 * Test 1 - Demands and depots are read into primitive storage.
+	 */
+	public void testVehicleRoutingTable() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/vrp/eil7.vrp");
+		VehicleRoutingTable table = problem.getVehicleRoutingTable();
+		assertEquals(7, table.size());
+		assertEquals(1, table.getDepots().cardinality());
+		assertTrue(table.isDepot(0));
+		int[] demands = table.getDemands();
+		assertEquals(0, demands[0]);
+		for (int i = 1; i < 7; i++)
+			assertEquals(1, demands[i]);
+		demands[1] = 5;
+		assertEquals(1, table.getDemand(1));
+		try {
+			table.getDemand(7);
+			fail("Node does not exist");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Test 2 - A feasible solution is evaluated in both representations.
+	 */
+	public void testFeasible() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/vrp/eil7.vrp");
+		DistanceTable table = problem.getDistanceTable();
+		CVRPEvaluator evaluator = new CVRPEvaluator(problem);
+		assertEquals(0, evaluator.getDepot());
+		assertEquals(3, evaluator.getCapacity());
+
+		int[][] routes = {{1, 2, 3}, {6, 5, 4}};
+		double expected = distance(table, 0, 1, 2, 3, 0) + distance(table, 0, 6, 5, 4, 0);
+		CVRPEvaluation evaluation = evaluator.evaluate(routes);
+		assertTrue(evaluation.isFeasible());
+		assertEquals(expected, evaluation.getDistance(), PRECISION);
+		assertEquals(2, evaluation.getRoutes());
+		assertEquals(6, evaluation.getLoad());
+
+		CVRPEvaluation flat = evaluator.evaluate(new int[]{1, 2, 3, 6, 5, 4}, new int[]{0, 3, 6});
+		assertTrue(flat.isFeasible());
+		assertEquals(expected, flat.getDistance(), PRECISION);
+		assertEquals(distance(table, 0, 1, 2, 3, 0), evaluator.routeDistance(routes[0], 0, 3), PRECISION);
+		assertEquals(3, evaluator.routeLoad(routes[1], 0, 3));
+	}
+
+	/**
+	 * Test 3 - Capacity violations, missing customers and repeated visits are reported.
+	 */
+	public void testViolations() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/vrp/eil7.vrp");
+		CVRPEvaluator evaluator = new CVRPEvaluator(problem);
+
+		CVRPEvaluation overloaded = evaluator.evaluate(new int[][]{{1, 2, 3, 4, 5}, {6}});
+		assertFalse(overloaded.isFeasible());
+		assertEquals(2, overloaded.getExcess());
+		assertEquals(1, overloaded.getOverloadedRoutes());
+		assertEquals(0, overloaded.getMissingCustomers());
+
+		CVRPEvaluation incomplete = evaluator.evaluate(new int[][]{{1, 2}, {2, 0, 4}});
+		assertFalse(incomplete.isFeasible());
+		assertEquals(3, incomplete.getMissingCustomers());
+		assertEquals(2, incomplete.getInvalidVisits());
+		assertEquals(0, incomplete.getExcess());
+
+		try {
+			evaluator.evaluate(new int[]{1, 2}, new int[]{0, 1});
+			fail("Offsets do not span the customers");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+	}
+
+}
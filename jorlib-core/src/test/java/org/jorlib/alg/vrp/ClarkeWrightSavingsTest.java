@@ -0,0 +1,95 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * ClarkeWrightSavingsTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.alg.vrp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.jorlib.alg.tsp.localsearch.CandidateLists;
+import org.jorlib.io.tspLibReader.TSPLibInstance;
+import org.jorlib.io.tspLibReader.TSPLibResources;
+import org.jorlib.io.tspLibReader.graph.VehicleRoutingTable;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the ClarkeWrightSavings class
+ *
+ * @author Joris Kinable
+ */
+public final class ClarkeWrightSavingsTest extends TestCase {
+
+	/**
+	 * Test 1 - The routes are feasible and close to the optimum, with and without candidate neighbors.
+	 */
+	public void testSavings() throws IOException{
+		String[] instances = {"eil22", "eil51"};
+		double[] optima = {375, 521};
+		for (int k = 0; k < instances.length; k++) {
+			TSPLibInstance problem = TSPLibResources.load("./tspLib/vrp/" + instances[k] + ".vrp");
+			CVRPEvaluator evaluator = new CVRPEvaluator(problem);
+			ClarkeWrightSavings savings = new ClarkeWrightSavings(problem);
+			CVRPEvaluation evaluation = evaluator.evaluate(savings.solve());
+			assertTrue(evaluation.isFeasible());
+			//within 15% of the optimum
+			assertTrue(evaluation.getDistance() < 1.15 * optima[k]);
+
+			savings.setCandidates(CandidateLists.nearestNeighbors(problem.getDistanceTable().freeze(), 8));
+			evaluation = evaluator.evaluate(savings.solve());
+			assertTrue(evaluation.isFeasible());
+			assertTrue(evaluation.getDistance() < 1.2 * optima[k]);
+		}
+	}
+
+	/**
+	 * Test 2 - Routes are only joined within the capacity, and oversized customers are served alone.
+	 */
+	public void testCapacity() throws IOException{
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/vrp/eil7.vrp");
+		VehicleRoutingTable table = new VehicleRoutingTable(7);
+		table.loadDemands(new BufferedReader(new StringReader("1 0\n2 1\n3 5\n4 1\n5 1\n6 1\n7 1\n")));
+		table.loadDepots(new BufferedReader(new StringReader("1\n-1\n")));
+
+		int[][] routes = new ClarkeWrightSavings(problem.getDistanceTable(), table, 3).solve();
+		CVRPEvaluation evaluation = new CVRPEvaluator(problem.getDistanceTable(), table, 3).evaluate(routes);
+		assertEquals(0, evaluation.getMissingCustomers());
+		assertEquals(0, evaluation.getInvalidVisits());
+		assertEquals(1, evaluation.getOverloadedRoutes());
+		assertEquals(2, evaluation.getExcess());
+		boolean alone = false;
+		for (int[] route : routes)
+			alone |= (route.length == 1) && (route[0] == 2);
+		assertTrue(alone);
+
+		//without capacity, all customers are joined into one route
+		routes = new ClarkeWrightSavings(problem.getDistanceTable(), table, Integer.MAX_VALUE).solve();
+		assertEquals(1, routes.length);
+		assertEquals(6, routes[0].length);
+	}
+
+}
@@ -36,6 +36,8 @@ import org.jorlib.frameworks.columnGeneration.tsp.cg.Matching;
 import org.jorlib.frameworks.columnGeneration.tsp.cg.PricingProblemByColor;
 import org.jorlib.frameworks.columnGeneration.tsp.model.TSP;
 import org.jorlib.frameworks.columnGeneration.util.MathProgrammingUtil;
+import org.jorlib.io.tspLibReader.graph.EdgeIndex;
+import org.jorlib.io.tspLibReader.graph.EdgeValueVector;
 
 import java.util.*;
 
@@ -52,8 +54,15 @@ public final class BranchOnEdge extends AbstractBranchCreator<TSP, Matching, Pri
     private DefaultWeightedEdge edgeForBranching=null; //Edge to branch on
     private PricingProblemByColor pricingProblemForMatching=null; //Edge is fractional in red or blue matching
 
+    private final EdgeIndex edgeIndex; //Maps the edges of the complete graph to a dense index
+    private final Map<PricingProblemByColor, EdgeValueVector> edgeValues; //Aggregated edge values per pricing problem; reused between invocations
+
     public BranchOnEdge(TSP modelData, List<PricingProblemByColor> pricingProblems){
         super(modelData, pricingProblems);
+        edgeIndex=new EdgeIndex(modelData.N);
+        edgeValues=new HashMap<>();
+        for(PricingProblemByColor pricingProblem : pricingProblems)
+            edgeValues.put(pricingProblem, new EdgeValueVector(edgeIndex));
     }
 
     /**
@@ -68,30 +77,27 @@ public final class BranchOnEdge extends AbstractBranchCreator<TSP, Matching, Pri
         edgeForBranching=null;
         double bestEdgeValue = 0;
 
-        //For each color, determine whether there's a fractional edge for branching
-        Map<PricingProblemByColor,Map<DefaultWeightedEdge, Double>> edgeValueMap=new HashMap<>();
-        for(PricingProblemByColor pricingProblem : pricingProblems)
-            edgeValueMap.put(pricingProblem, new LinkedHashMap<>());
+        //For each color, determine whether there's a fractional edge for branching. Only the edges touched in the
+        //previous invocation need to be reset.
+        for(EdgeValueVector values : edgeValues.values())
+            values.clear();
 
         //Aggregate edge values
         for(Matching matching : solution){
-            for(DefaultWeightedEdge edge : matching.edges){
-                Double edgeValue=edgeValueMap.get(matching.associatedPricingProblem).get(edge);
-                if(edgeValue == null)
-                    edgeValueMap.get(matching.associatedPricingProblem).put(edge,matching.value);
-                else
-                    edgeValueMap.get(matching.associatedPricingProblem).put(edge,matching.value+edgeValue);
-            }
+            EdgeValueVector values=edgeValues.get(matching.associatedPricingProblem);
+            for(DefaultWeightedEdge edge : matching.edges)
+                values.add(dataModel.getEdgeSource(edge), dataModel.getEdgeTarget(edge), matching.value);
         }
 
         //Select the edge with a fractional value closest to 0.5
         for(PricingProblemByColor pricingProblem : pricingProblems){
-            Map<DefaultWeightedEdge, Double> edgeValues=edgeValueMap.get(pricingProblem);
-            for(DefaultWeightedEdge edge : edgeValues.keySet()){
-                double value=edgeValues.get(edge);
+            EdgeValueVector values=edgeValues.get(pricingProblem);
+            for(int k=0; k<values.getSupportSize(); k++){
+                int edge=values.getSupportEdge(k);
+                double value=values.get(edge);
                 if(Math.abs(0.5-value) < Math.abs(0.5- bestEdgeValue)){
                     pricingProblemForMatching=pricingProblem;
-                    edgeForBranching=edge;
+                    edgeForBranching=dataModel.getEdge(edgeIndex.getFirstNode(edge), edgeIndex.getSecondNode(edge));
                     bestEdgeValue =value;
                 }
             }
@@ -26,14 +26,22 @@
  */
 package org.jorlib.io;
 
+import org.jorlib.io.tspLibReader.BatchTourEvaluatorTest;
+import org.jorlib.io.tspLibReader.CompleteGraphViewTest;
 import org.jorlib.io.tspLibReader.DistanceFunctionTest;
+import org.jorlib.io.tspLibReader.EdgeIndexTest;
 import org.jorlib.io.tspLibReader.EdgeTest;
+import org.jorlib.io.tspLibReader.FrozenDistanceTableTest;
+import org.jorlib.io.tspLibReader.InstrumentedDistanceTableTest;
+import org.jorlib.io.tspLibReader.RandomToursTest;
+import org.jorlib.io.tspLibReader.TSPLibWriterTest;
 import org.jorlib.io.tspLibReader.TestATSP;
 import org.jorlib.io.tspLibReader.TestHCP;
 import org.jorlib.io.tspLibReader.TestSOP;
 import org.jorlib.io.tspLibReader.TestTSP;
 import org.jorlib.io.tspLibReader.TestVRP;
 import org.jorlib.io.tspLibReader.TourTest;
+import org.jorlib.io.tspLibReader.TourValidatorTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -45,14 +53,22 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	BatchTourEvaluatorTest.class,
+	CompleteGraphViewTest.class,
 	DistanceFunctionTest.class,
+	EdgeIndexTest.class,
 	EdgeTest.class,
+	FrozenDistanceTableTest.class,
+	InstrumentedDistanceTableTest.class,
+	RandomToursTest.class,
+	TSPLibWriterTest.class,
 	TestATSP.class,
 	TestHCP.class,
 	TestSOP.class,
 	TestTSP.class,
 	TestVRP.class,
-	TourTest.class
+	TourTest.class,
+	TourValidatorTest.class
 })
 
 public final class AllIOTests {
@@ -0,0 +1,107 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * BatchTourEvaluatorTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link BatchTourEvaluator} class.
+ *
+ * @author Joris Kinable
+ */
+public final class BatchTourEvaluatorTest {
+
+	public static final double PRECISION=0.000001;
+
+	@Test
+	public void testFlatBuffer() throws IOException {
+		for (String resource : new String[]{"./tspLib/tsp/kroA100.tsp", "./tspLib/atsp/ftv33.atsp", "./tspLib/tsp/gr96.tsp"}) {
+			TSPLibInstance problem = TSPLibResources.load(resource);
+			int n = problem.getDimension();
+			int[] tours = RandomTours.tours(500, n, new SplittableRandom(3));
+			double[] lengths = new double[500];
+			BatchTourEvaluator evaluator = new BatchTourEvaluator(problem.getDistanceTable());
+			evaluator.setCheckHamiltonicity(true);
+			Assert.assertEquals(0, evaluator.evaluate(tours, n, lengths));
+			for (int t = 0; t < 500; t++) {
+				int[] tour = new int[n];
+				System.arraycopy(tours, t * n, tour, 0, n);
+				Assert.assertEquals(TSPLibTour.createTour(tour).distance(problem), lengths[t], PRECISION);
+			}
+		}
+	}
+
+	@Test
+	public void testHamiltonicity() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		List<TSPLibTour> tours = new ArrayList<TSPLibTour>();
+		tours.add(TSPLibTour.createCanonicalTour(51));
+		int[] repeated = TSPLibTour.createCanonicalTour(51).toArray();
+		repeated[7] = 3;
+		tours.add(TSPLibTour.createTour(repeated));
+		tours.add(TSPLibTour.createCanonicalTour(50));
+		tours.add(TSPLibTour.createRandomTour(51, new SplittableRandom(9)));
+
+		BatchTourEvaluator evaluator = new BatchTourEvaluator(problem.getDistanceTable(), new ForkJoinPool(2));
+		double[] lengths = new double[4];
+		Assert.assertEquals(0, evaluator.evaluate(tours, lengths));
+		Assert.assertEquals(tours.get(1).distance(problem), lengths[1], PRECISION);
+
+		evaluator.setCheckHamiltonicity(true);
+		Assert.assertEquals(2, evaluator.evaluate(tours, lengths));
+		Assert.assertEquals(tours.get(0).distance(problem), lengths[0], PRECISION);
+		Assert.assertTrue(Double.isNaN(lengths[1]));
+		Assert.assertTrue(Double.isNaN(lengths[2]));
+		Assert.assertEquals(tours.get(3).distance(problem), lengths[3], PRECISION);
+
+		//non-edges of sparse graphs
+		TSPLibInstance graph = TSPLibResources.load("./tspLib/hcp/alb1000.hcp");
+		evaluator = new BatchTourEvaluator(graph.getDistanceTable());
+		evaluator.setCheckHamiltonicity(true);
+		Assert.assertEquals(1, evaluator.evaluate(new int[][]{TSPLibTour.createCanonicalTour(1000).toArray()}, lengths));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownNode() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/burma14.tsp");
+		new BatchTourEvaluator(problem.getDistanceTable()).evaluate(new int[]{0, 1, 14}, 3, new double[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testShortResults() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/burma14.tsp");
+		new BatchTourEvaluator(problem.getDistanceTable()).evaluate(RandomTours.tours(3, 14, new SplittableRandom(1)), 14, new double[2]);
+	}
+
+}
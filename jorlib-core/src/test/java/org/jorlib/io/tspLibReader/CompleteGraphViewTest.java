@@ -0,0 +1,111 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * CompleteGraphViewTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jorlib.io.tspLibReader.graph.CompleteGraphView;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CompleteGraphView} class.
+ *
+ * @author Joris Kinable
+ */
+public final class CompleteGraphViewTest {
+
+	@Test
+	public void testStructure() throws IOException {
+		DistanceTable table = TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable();
+		CompleteGraphView graph = new CompleteGraphView(table);
+
+		Assert.assertEquals(14, graph.vertexSet().size());
+		Assert.assertEquals(14 * 13 / 2, graph.edgeSet().size());
+		Assert.assertTrue(graph.containsVertex(13));
+		Assert.assertFalse(graph.containsVertex(14));
+		Assert.assertNull(graph.getEdge(3, 3));
+		Assert.assertNull(graph.getEdge(3, 14));
+
+		Set<Integer> seen = new HashSet<>();
+		for (int i = 0; i < 14; i++) {
+			Assert.assertEquals(13, graph.degreeOf(i));
+			Assert.assertEquals(13, graph.edgesOf(i).size());
+			for (int j = i + 1; j < 14; j++) {
+				Integer e = graph.getEdge(i, j);
+				Assert.assertEquals(e, graph.getEdge(j, i));
+				Assert.assertTrue(graph.containsEdge(i, j));
+				Assert.assertTrue(graph.edgeSet().contains(e));
+				Assert.assertTrue(graph.edgesOf(i).contains(e));
+				Assert.assertTrue(graph.edgesOf(j).contains(e));
+				Assert.assertEquals(i, graph.getEdgeSource(e).intValue());
+				Assert.assertEquals(j, graph.getEdgeTarget(e).intValue());
+				Assert.assertEquals(table.getDistanceBetween(i, j), graph.getEdgeWeight(e), 0.0);
+				Assert.assertTrue(seen.add(e));
+			}
+		}
+		//Edge identifiers are dense
+		for (int e : graph.edgeSet())
+			Assert.assertTrue(seen.contains(e));
+	}
+
+	@Test
+	public void testEdgesOf() throws IOException {
+		CompleteGraphView graph = new CompleteGraphView(TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable());
+		for (int v = 0; v < 14; v++) {
+			Set<Integer> neighbors = new HashSet<>();
+			for (int e : graph.edgesOf(v)) {
+				int other = graph.getEdgeSource(e) == v ? graph.getEdgeTarget(e) : graph.getEdgeSource(e);
+				Assert.assertNotEquals(v, other);
+				neighbors.add(other);
+			}
+			Assert.assertEquals(13, neighbors.size());
+		}
+	}
+
+	@Test
+	public void testLargeEdgeIdentifiers() throws IOException {
+		CompleteGraphView graph = new CompleteGraphView(TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable(), CompleteGraphView.MAX_NODES);
+		int n = CompleteGraphView.MAX_NODES;
+		Integer e = graph.getEdge(n - 2, n - 1);
+		Assert.assertEquals(graph.edgeSet().size() - 1, e.intValue());
+		Assert.assertEquals(n - 2, graph.getEdgeSource(e).intValue());
+		Assert.assertEquals(n - 1, graph.getEdgeTarget(e).intValue());
+		e = graph.getEdge(12345, 54321);
+		Assert.assertEquals(12345, graph.getEdgeSource(e).intValue());
+		Assert.assertEquals(54321, graph.getEdgeTarget(e).intValue());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReadOnly() throws IOException {
+		new CompleteGraphView(TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable()).addEdge(0, 1);
+	}
+
+}
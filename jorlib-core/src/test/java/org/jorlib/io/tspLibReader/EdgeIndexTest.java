@@ -0,0 +1,106 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * EdgeIndexTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import org.jorlib.io.tspLibReader.graph.EdgeIndex;
+import org.jorlib.io.tspLibReader.graph.EdgeValueVector;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link EdgeIndex} and {@link EdgeValueVector} classes.
+ *
+ * @author Joris Kinable
+ */
+public final class EdgeIndexTest {
+
+	@Test
+	public void testRoundTrip() {
+		EdgeIndex index = new EdgeIndex(50);
+		Assert.assertEquals(50 * 49 / 2, index.getEdgeCount());
+		boolean[] used = new boolean[index.getEdgeCount()];
+		for (int i = 0; i < 50; i++) {
+			for (int j = i + 1; j < 50; j++) {
+				int e = index.indexOf(i, j);
+				Assert.assertEquals(e, index.indexOf(j, i));
+				Assert.assertFalse(used[e]);
+				used[e] = true;
+				Assert.assertEquals(i, index.getFirstNode(e));
+				Assert.assertEquals(j, index.getSecondNode(e));
+			}
+		}
+	}
+
+	@Test
+	public void testLargestGraph() {
+		EdgeIndex index = new EdgeIndex(EdgeIndex.MAX_NODES);
+		int e = index.indexOf(EdgeIndex.MAX_NODES - 1, EdgeIndex.MAX_NODES - 2);
+		Assert.assertEquals(index.getEdgeCount() - 1, e);
+		Assert.assertEquals(EdgeIndex.MAX_NODES - 2, index.getFirstNode(e));
+		Assert.assertEquals(EdgeIndex.MAX_NODES - 1, index.getSecondNode(e));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSelfLoop() {
+		new EdgeIndex(10).indexOf(3, 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyNodes() {
+		new EdgeIndex(EdgeIndex.MAX_NODES + 1);
+	}
+
+	@Test
+	public void testEdgeValueVector() {
+		EdgeIndex index = new EdgeIndex(10);
+		EdgeValueVector values = new EdgeValueVector(index);
+		values.add(1, 2, 0.5);
+		values.add(2, 1, 0.25);
+		values.set(7, 3, 1.0);
+		Assert.assertEquals(0.75, values.get(1, 2), 0.0);
+		Assert.assertEquals(1.0, values.get(index.indexOf(3, 7)), 0.0);
+		Assert.assertEquals(0.0, values.get(0, 9), 0.0);
+
+		//The support contains the modified edges in the order they were first modified
+		Assert.assertEquals(2, values.getSupportSize());
+		Assert.assertEquals(index.indexOf(1, 2), values.getSupportEdge(0));
+		Assert.assertEquals(index.indexOf(3, 7), values.getSupportEdge(1));
+
+		values.clear();
+		Assert.assertEquals(0, values.getSupportSize());
+		Assert.assertEquals(0.0, values.get(1, 2), 0.0);
+		Assert.assertEquals(0.0, values.get(3, 7), 0.0);
+
+		//Grow beyond the initial support capacity
+		for (int e = 0; e < index.getEdgeCount(); e++)
+			values.add(e, e);
+		Assert.assertEquals(index.getEdgeCount(), values.getSupportSize());
+		for (int e = 0; e < index.getEdgeCount(); e++)
+			Assert.assertEquals(e, values.get(e), 0.0);
+	}
+
+}
@@ -0,0 +1,200 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * FrozenDistanceTableTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jorlib.io.tspLibReader.graph.ComputedDistances;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link FrozenDistanceTable} class.
+ *
+ * @author Joris Kinable
+ */
+public final class FrozenDistanceTableTest {
+
+	private static final int THREADS = 8;
+
+	/**
+	 * Verifies that the frozen table answers every query exactly like the original table.
+	 */
+	private void assertSameTable(DistanceTable original, FrozenDistanceTable frozen) {
+		int[] nodes = original.listNodes();
+		Arrays.sort(nodes);
+		Assert.assertArrayEquals(nodes, frozen.listNodes());
+
+		for (int i : nodes) {
+			int[] expectedNeighbors = original.getNeighborsOf(i);
+			int[] actualNeighbors = frozen.getNeighborsOf(i);
+			Arrays.sort(expectedNeighbors);
+			Arrays.sort(actualNeighbors);
+			Assert.assertArrayEquals(expectedNeighbors, actualNeighbors);
+
+			for (int j : nodes)
+				Assert.assertEquals(Arrays.binarySearch(expectedNeighbors, j) >= 0, frozen.isNeighbor(i, j));
+			for (int j : expectedNeighbors)
+				Assert.assertEquals(original.getDistanceBetween(i, j), frozen.getDistanceBetween(i, j), 0.0);
+		}
+	}
+
+	@Test
+	public void testNodeCoordinates() throws IOException {
+		for (String instance : Arrays.asList("burma14", "att48", "ulysses22", "berlin52")) {
+			TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/"+instance+".tsp");
+			FrozenDistanceTable frozen = problem.getDistanceTable().freeze();
+			Assert.assertTrue(frozen.isComplete());
+			assertSameTable(problem.getDistanceTable(), frozen);
+		}
+	}
+
+	@Test
+	public void testEdgeWeightMatrix() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/atsp/br17.atsp");
+		FrozenDistanceTable frozen = problem.getDistanceTable().freeze();
+		Assert.assertTrue(frozen.isComplete());
+		assertSameTable(problem.getDistanceTable(), frozen);
+	}
+
+	@Test
+	public void testEdgeData() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/hcp/alb1000.hcp");
+		FrozenDistanceTable frozen = problem.getDistanceTable().freeze();
+		Assert.assertFalse(frozen.isComplete());
+		Assert.assertEquals(problem.getDimension(), frozen.size());
+		assertSameTable(problem.getDistanceTable(), frozen);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, frozen.getDistanceBetween(0, 0), 0.0);
+	}
+
+	@Test
+	public void testFreezeIsIdempotent() throws IOException {
+		FrozenDistanceTable frozen = TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable().freeze();
+		Assert.assertSame(frozen, frozen.freeze());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testLoadIsUnsupported() throws IOException {
+		TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable().freeze().load(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownNode() throws IOException {
+		TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable().freeze().getDistanceBetween(0, 14);
+	}
+
+	/**
+	 * Tables of computed distances are complete, and permuting them translates identifiers on demand.
+	 */
+	@Test
+	public void testComputedDistances() {
+		FrozenDistanceTable computed = FrozenDistanceTable.of(5, new ComputedDistances() {
+			@Override
+			public double distance(int id1, int id2) {
+				return 10 * id1 + id2;
+			}
+		});
+		Assert.assertTrue(computed.isComplete());
+		Assert.assertEquals(4, computed.getNeighborsOf(2).length);
+		Assert.assertEquals(23, computed.getDistanceBetween(2, 3), 0.0);
+		Assert.assertEquals(1 + 12 + 20, computed.length(new int[]{0, 1, 2}, 0, 3), 0.0);
+		FrozenDistanceTable permuted = computed.permute(new int[]{4, 3, 2, 1, 0});
+		Assert.assertEquals(41, permuted.getDistanceBetween(0, 3), 0.0);
+		Assert.assertEquals(43 + 32 + 24, permuted.length(new int[]{0, 1, 2}, 0, 3), 0.0);
+	}
+
+	@Test
+	public void testReturnedArraysAreCopies() throws IOException {
+		FrozenDistanceTable frozen = TSPLibResources.load("./tspLib/hcp/alb1000.hcp").getDistanceTable().freeze();
+		int[] neighbors = frozen.getNeighborsOf(0);
+		int first = neighbors[0];
+		neighbors[0] = -1;
+		Assert.assertEquals(first, frozen.getNeighborsOf(0)[0]);
+	}
+
+	/**
+	 * Many threads query a single shared snapshot concurrently; every answer must match the original table.
+	 */
+	@Test
+	public void testConcurrentReads() throws IOException, InterruptedException, ExecutionException {
+		for (String resource : Arrays.asList("./tspLib/tsp/pr1002.tsp", "./tspLib/atsp/ftv170.atsp", "./tspLib/hcp/alb1000.hcp")) {
+			DistanceTable original = TSPLibResources.load(resource).getDistanceTable();
+			final int n = original.listNodes().length;
+			final double[][] expected = new double[n][n];
+			final boolean[][] expectedNeighbor = new boolean[n][n];
+			final int[] expectedDegree = new int[n];
+			for (int i = 0; i < n; i++) {
+				expectedDegree[i] = original.getNeighborsOf(i).length;
+				for (int j : original.getNeighborsOf(i)) {
+					expected[i][j] = original.getDistanceBetween(i, j);
+					expectedNeighbor[i][j] = true;
+				}
+			}
+
+			final FrozenDistanceTable frozen = original.freeze();
+			ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				final long seed = t;
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						Random random = new Random(seed);
+						int mismatches = 0;
+						for (int k = 0; k < 200000; k++) {
+							int i = random.nextInt(n);
+							int j = random.nextInt(n);
+							if (frozen.isNeighbor(i, j) != expectedNeighbor[i][j])
+								mismatches++;
+							else if (expectedNeighbor[i][j] && frozen.getDistanceBetween(i, j) != expected[i][j])
+								mismatches++;
+							if (k % 1000 == 0 && frozen.getNeighborsOf(i).length != expectedDegree[i])
+								mismatches++;
+						}
+						return mismatches;
+					}
+				}));
+			}
+			executor.shutdown();
+
+			for (Future<Integer> result : results)
+				Assert.assertEquals(0, result.get().intValue());
+		}
+	}
+
+}
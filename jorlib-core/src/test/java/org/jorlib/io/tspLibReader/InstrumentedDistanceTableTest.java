@@ -0,0 +1,167 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * InstrumentedDistanceTableTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.jorlib.alg.tsp.localsearch.ArrayTour;
+import org.jorlib.alg.tsp.localsearch.TwoOpt;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.InstrumentedDistanceTable;
+import org.jorlib.io.tspLibReader.graph.InstrumentedDistanceTable.Operation;
+import org.jorlib.io.tspLibReader.graph.InstrumentedDistanceTable.Snapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link InstrumentedDistanceTable} class.
+ *
+ * @author Joris Kinable
+ */
+public final class InstrumentedDistanceTableTest {
+
+	@Test
+	public void testCounters() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/burma14.tsp");
+		InstrumentedDistanceTable table = new InstrumentedDistanceTable(problem.getDistanceTable());
+
+		for (int i = 0; i < 14; i++)
+			for (int j = 0; j < 14; j++)
+				Assert.assertEquals(problem.getDistanceTable().getDistanceBetween(i, j), table.getDistanceBetween(i, j), 0.0);
+		table.getNeighborsOf(0);
+		Assert.assertTrue(table.isNeighbor(0, 1));
+		Assert.assertFalse(table.isNeighbor(0, 0));
+
+		Snapshot snapshot = table.snapshot();
+		Assert.assertEquals(196, snapshot.getCalls(Operation.GET_DISTANCE_BETWEEN));
+		Assert.assertEquals(1, snapshot.getCalls(Operation.GET_NEIGHBORS_OF));
+		Assert.assertEquals(2, snapshot.getCalls(Operation.IS_NEIGHBOR));
+		Assert.assertEquals(199, snapshot.getTotalCalls());
+		Assert.assertEquals(0, snapshot.getSampledCalls(Operation.GET_DISTANCE_BETWEEN));
+		Assert.assertEquals(0, snapshot.getEstimatedNanos(Operation.GET_DISTANCE_BETWEEN), 0.0);
+
+		table.reset();
+		Assert.assertEquals(0, table.snapshot().getTotalCalls());
+		//Snapshots are not affected by later calls
+		table.getDistanceBetween(0, 1);
+		Assert.assertEquals(199, snapshot.getTotalCalls());
+	}
+
+	@Test
+	public void testTourDistanceCountsOneCallPerEdge() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/burma14.tsp");
+		InstrumentedDistanceTable table = new InstrumentedDistanceTable(problem.getDistanceTable(), 1);
+		TSPLibTour tour = TSPLibTour.createCanonicalTour(14);
+		double length = 0;
+		for (int i = 0; i < tour.size(); i++)
+			length += table.getDistanceBetween(tour.get(i), tour.get(i+1));
+
+		Assert.assertEquals(tour.distance(problem), length, 0.0);
+		Snapshot snapshot = table.snapshot();
+		Assert.assertEquals(14, snapshot.getCalls(Operation.GET_DISTANCE_BETWEEN));
+		Assert.assertEquals(14, snapshot.getSampledCalls(Operation.GET_DISTANCE_BETWEEN));
+		Assert.assertTrue(snapshot.getEstimatedNanos(Operation.GET_DISTANCE_BETWEEN) >= snapshot.getSampledNanos(Operation.GET_DISTANCE_BETWEEN));
+	}
+
+	@Test
+	public void testConcurrentCounting() throws IOException, InterruptedException {
+		final InstrumentedDistanceTable table = new InstrumentedDistanceTable(TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable().freeze(), 10);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int k = 0; k < 100000; k++)
+						table.getDistanceBetween(k % 14, (k + 1) % 14);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		Snapshot snapshot = table.snapshot();
+		Assert.assertEquals(400000, snapshot.getCalls(Operation.GET_DISTANCE_BETWEEN));
+		Assert.assertTrue(snapshot.getSampledCalls(Operation.GET_DISTANCE_BETWEEN) > 0);
+		Assert.assertTrue(snapshot.getSampledCalls(Operation.GET_DISTANCE_BETWEEN) < 400000);
+	}
+
+	/**
+	 * Algorithms freeze the tables they are given; the distance queries made to the snapshot must still be counted.
+	 */
+	@Test
+	public void testFrozenSnapshotCounts() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/tsp/kroA100.tsp");
+		InstrumentedDistanceTable table = new InstrumentedDistanceTable(problem.getDistanceTable());
+		TwoOpt twoOpt = new TwoOpt(table);
+		long candidateCalls = table.snapshot().getCalls(Operation.GET_DISTANCE_BETWEEN);
+		Assert.assertTrue(candidateCalls > 0);
+
+		ArrayTour tour = new ArrayTour(TSPLibTour.createCanonicalTour(100));
+		twoOpt.improve(tour);
+		Assert.assertTrue(table.snapshot().getCalls(Operation.GET_DISTANCE_BETWEEN) > candidateCalls);
+
+		//Counting does not change the result
+		ArrayTour expected = new ArrayTour(TSPLibTour.createCanonicalTour(100));
+		new TwoOpt(problem.getDistanceTable()).improve(expected);
+		Assert.assertArrayEquals(expected.toArray(), tour.toArray());
+	}
+
+	@Test
+	public void testSparseSnapshotCounts() throws IOException {
+		DistanceTable original = TSPLibResources.load("./tspLib/hcp/alb1000.hcp").getDistanceTable();
+		InstrumentedDistanceTable table = new InstrumentedDistanceTable(original);
+		FrozenDistanceTable frozen = table.freeze();
+		Assert.assertFalse(frozen.isComplete());
+		int[] expectedNeighbors = original.getNeighborsOf(7);
+		Arrays.sort(expectedNeighbors);
+		Assert.assertArrayEquals(expectedNeighbors, frozen.getNeighborsOf(7));
+		int neighbor = frozen.getNeighborsOf(7)[0];
+		Assert.assertEquals(1.0, frozen.getDistanceBetween(7, neighbor), 0.0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, frozen.getDistanceBetween(7, 7), 0.0);
+		Assert.assertEquals(2, table.snapshot().getCalls(Operation.GET_DISTANCE_BETWEEN));
+
+		//Renumbered snapshots keep the adjacency and keep counting
+		int n = frozen.size();
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++)
+			order[i] = n - 1 - i;
+		FrozenDistanceTable permuted = frozen.permute(order);
+		Assert.assertFalse(permuted.isComplete());
+		Assert.assertTrue(permuted.isNeighbor(n - 1 - 7, n - 1 - neighbor));
+		Assert.assertEquals(1.0, permuted.getDistanceBetween(n - 1 - 7, n - 1 - neighbor), 0.0);
+		Assert.assertEquals(3, table.snapshot().getCalls(Operation.GET_DISTANCE_BETWEEN));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeSamplingInterval() throws IOException {
+		new InstrumentedDistanceTable(TSPLibResources.load("./tspLib/tsp/burma14.tsp").getDistanceTable(), -1);
+	}
+
+}
@@ -0,0 +1,102 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * RandomToursTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link RandomTours} class.
+ *
+ * @author Joris Kinable
+ */
+public final class RandomToursTest {
+
+	private static void assertPermutation(int[] values, int from, int n) {
+		int[] sorted = Arrays.copyOfRange(values, from, from + n);
+		Arrays.sort(sorted);
+		for (int i = 0; i < n; i++)
+			Assert.assertEquals(i, sorted[i]);
+	}
+
+	@Test
+	public void testDeterministic() {
+		int[] first = RandomTours.permutation(100, new SplittableRandom(42));
+		int[] second = RandomTours.permutation(100, new SplittableRandom(42));
+		Assert.assertArrayEquals(first, second);
+		assertPermutation(first, 0, 100);
+		Assert.assertFalse(Arrays.equals(first, RandomTours.permutation(100, new SplittableRandom(43))));
+		Assert.assertArrayEquals(first, TSPLibTour.createRandomTour(100, new SplittableRandom(42)).toArray());
+		Assert.assertEquals(0, RandomTours.permutation(0, new SplittableRandom(42)).length);
+
+		int[] shuffled = TSPLibTour.createCanonicalTour(50).toArray();
+		RandomTours.shuffle(shuffled, 10, 20, new SplittableRandom(7));
+		for (int i = 0; i < 50; i++)
+			if (i < 10 || i >= 20)
+				Assert.assertEquals(i, shuffled[i]);
+		assertPermutation(shuffled, 0, 50);
+	}
+
+	@Test
+	public void testUniform() {
+		//every permutation of 3 nodes appears about 1000 times
+		SplittableRandom random = new SplittableRandom(1);
+		int[] counts = new int[9];
+		for (int k = 0; k < 6000; k++) {
+			int[] p = RandomTours.permutation(3, random);
+			counts[3 * p[0] + p[1]]++;
+		}
+		for (int first = 0; first < 3; first++)
+			for (int second = 0; second < 3; second++)
+				if (first != second)
+					Assert.assertTrue(Math.abs(counts[3 * first + second] - 1000) < 150);
+	}
+
+	@Test
+	public void testBulk() {
+		int[] buffer = RandomTours.tours(200, 30, new SplittableRandom(5));
+		Assert.assertEquals(6000, buffer.length);
+		for (int t = 0; t < 200; t++)
+			assertPermutation(buffer, 30 * t, 30);
+		Assert.assertArrayEquals(buffer, RandomTours.tours(200, 30, new SplittableRandom(5)));
+		Assert.assertFalse(Arrays.equals(Arrays.copyOfRange(buffer, 0, 30), Arrays.copyOfRange(buffer, 30, 60)));
+
+		int[] reused = new int[6000];
+		Arrays.fill(reused, -1);
+		RandomTours.tours(reused, 30, new SplittableRandom(5));
+		Assert.assertArrayEquals(buffer, reused);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBufferLength() {
+		RandomTours.tours(new int[31], 30, new SplittableRandom(5));
+	}
+
+}
@@ -0,0 +1,61 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TSPLibResources.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+
+/**
+ * Loads the TSPLIB problem instances shipped as test resources.
+ *
+ * @author Joris Kinable
+ */
+public final class TSPLibResources {
+
+	private TSPLibResources() {
+	}
+
+	/**
+	 * Loads a problem instance from the test resources, failing the calling
+	 * test if the resource does not exist.
+	 *
+	 * @param resource the path of the resource, e.g. {@code ./tspLib/tsp/burma14.tsp}
+	 * @return the problem instance
+	 * @throws IOException if an I/O error occurred while loading the instance
+	 */
+	public static TSPLibInstance load(String resource) throws IOException {
+		InputStream inputStream = TSPLibResources.class.getClassLoader().getResourceAsStream(resource);
+		if(inputStream == null)
+			Assert.fail("Cannot find problem instance!");
+		TSPLibInstance problem = new TSPLibInstance(inputStream);
+		inputStream.close();
+		return problem;
+	}
+
+}
@@ -0,0 +1,199 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TSPLibWriterTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.DataType;
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.EdgeWeightFormat;
+import org.jorlib.io.tspLibReader.graph.DistanceTable;
+import org.jorlib.io.tspLibReader.graph.EdgeData;
+import org.jorlib.io.tspLibReader.graph.VehicleRoutingTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TSPLibWriter} class.
+ *
+ * @author Joris Kinable
+ */
+public final class TSPLibWriterTest {
+
+	private static ByteArrayOutputStream write(TSPLibInstance instance, EdgeWeightFormat format) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TSPLibWriter writer = new TSPLibWriter(bytes);
+		if (format == null)
+			writer.write(instance);
+		else
+			writer.write(instance, format);
+		writer.close();
+		return bytes;
+	}
+
+	private static TSPLibInstance read(ByteArrayOutputStream bytes) throws IOException {
+		return new TSPLibInstance(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	private static void assertDistances(DistanceTable expected, DistanceTable actual, int n) {
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				if (i != j)
+					Assert.assertEquals(expected.getDistanceBetween(i, j), actual.getDistanceBetween(i, j), 0.0);
+	}
+
+	@Test
+	public void testNodeCoordinates() throws IOException {
+		for (String name : new String[]{"kroA100", "gr96", "berlin52"}) {
+			TSPLibInstance instance = TSPLibResources.load("./tspLib/tsp/" + name + ".tsp");
+			TSPLibInstance copy = read(write(instance, null));
+			Assert.assertEquals(instance.getName(), copy.getName());
+			Assert.assertEquals(instance.getEdgeWeightType(), copy.getEdgeWeightType());
+			Assert.assertEquals(instance.getDimension(), copy.getDimension());
+			assertDistances(instance.getDistanceTable(), copy.getDistanceTable(), instance.getDimension());
+		}
+	}
+
+	@Test
+	public void testEdgeWeightFormats() throws IOException {
+		TSPLibInstance instance = TSPLibResources.load("./tspLib/tsp/ulysses16.tsp");
+		for (EdgeWeightFormat format : EdgeWeightFormat.values()) {
+			if (format == EdgeWeightFormat.FUNCTION)
+				continue;
+			TSPLibInstance copy = read(write(instance, format));
+			Assert.assertEquals(format, copy.getEdgeWeightFormat());
+			assertDistances(instance.getDistanceTable(), copy.getDistanceTable(), 16);
+		}
+		try {
+			write(instance, EdgeWeightFormat.FUNCTION);
+			Assert.fail("FUNCTION is not a matrix format");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+
+		TSPLibInstance asymmetric = TSPLibResources.load("./tspLib/atsp/ftv33.atsp");
+		TSPLibInstance copy = read(write(asymmetric, null));
+		assertDistances(asymmetric.getDistanceTable(), copy.getDistanceTable(), 34);
+	}
+
+	@Test
+	public void testVehicleRouting() throws IOException {
+		TSPLibInstance instance = TSPLibResources.load("./tspLib/vrp/eil7.vrp");
+		TSPLibInstance copy = read(write(instance, null));
+		Assert.assertEquals(DataType.CVRP, copy.getDataType());
+		Assert.assertEquals(3, copy.getCapacity());
+		assertDistances(instance.getDistanceTable(), copy.getDistanceTable(), 7);
+		VehicleRoutingTable table = copy.getVehicleRoutingTable();
+		Assert.assertTrue(table.isDepot(0));
+		Assert.assertEquals(0, table.getDemand(0));
+		for (int i = 1; i < 7; i++) {
+			Assert.assertFalse(table.isDepot(i));
+			Assert.assertEquals(1, table.getDemand(i));
+		}
+	}
+
+	@Test
+	public void testEdgeData() throws IOException {
+		TSPLibInstance instance = TSPLibResources.load("./tspLib/hcp/alb1000.hcp");
+		TSPLibInstance copy = read(write(instance, null));
+		Assert.assertEquals(((EdgeData)instance.getDistanceTable()).getEdges(), ((EdgeData)copy.getDistanceTable()).getEdges());
+	}
+
+	@Test
+	public void testTours() throws IOException {
+		TSPLibTour tour = TSPLibTour.createRandomTour(200);
+		File file = File.createTempFile("tour", ".tour.gz");
+		file.deleteOnExit();
+		TSPLibWriter writer = new TSPLibWriter(file);
+		writer.writeTour("random", tour);
+		writer.close();
+
+		TSPLibInstance copy = new TSPLibInstance();
+		InputStream inputStream = new GZIPInputStream(new FileInputStream(file));
+		copy.addTour(inputStream);
+		inputStream.close();
+		Assert.assertArrayEquals(tour.toArray(), copy.getTours().get(0).toArray());
+	}
+
+	@Test
+	public void testGeneralized() throws IOException {
+		String text = "NAME : four\nTYPE : AGTSP\nDIMENSION : 4\nGTSP_SETS : 2\nEDGE_WEIGHT_TYPE : EXPLICIT\n"
+				+ "EDGE_WEIGHT_FORMAT : FULL_MATRIX\nEDGE_WEIGHT_SECTION\n0 1 2 3\n4 0 5 6\n7 8 0 9\n1 2 3 0\n"
+				+ "GTSP_SET_SECTION:\n1 1 2 -1\n2 3 4 -1\nEOF\n";
+		GTSPLibInstance instance = new GTSPLibInstance(new ByteArrayInputStream(text.getBytes("US-ASCII")));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TSPLibWriter writer = new TSPLibWriter(bytes);
+		writer.write(instance);
+		writer.close();
+
+		GTSPLibInstance copy = new GTSPLibInstance(new ByteArrayInputStream(bytes.toByteArray()));
+		Assert.assertEquals(2, copy.getnClusters());
+		Assert.assertEquals(instance.getClusters()[0], copy.getClusters()[0]);
+		Assert.assertEquals(instance.getClusters()[1], copy.getClusters()[1]);
+		assertDistances(instance.getDistanceTable(), copy.getDistanceTable(), 4);
+	}
+
+	@Test
+	public void testNumbers() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TSPLibWriter writer = new TSPLibWriter(bytes);
+		double[] values = {0, 3, -42, 0.1, -2.5, 123456.789, 1e-20, Long.MAX_VALUE, 1.0 / 3};
+		for (double value : values) {
+			writer.writeNumber(value);
+			writer.newLine();
+		}
+		writer.writeInteger(Long.MIN_VALUE);
+		writer.close();
+		String[] lines = new String(bytes.toByteArray(), "US-ASCII").split("\n");
+		Assert.assertEquals("3", lines[1]);
+		Assert.assertEquals("-42", lines[2]);
+		Assert.assertEquals("0.1", lines[3]);
+		Assert.assertEquals("-2.5", lines[4]);
+		Assert.assertEquals("123456.789", lines[5]);
+		for (int i = 0; i < values.length; i++)
+			Assert.assertEquals(values[i], Double.parseDouble(lines[i]), 0.0);
+		Assert.assertEquals(Long.MIN_VALUE, Long.parseLong(lines[values.length]));
+	}
+
+	@Test
+	public void testDerivedInstance() throws IOException {
+		TSPLibInstance instance = TSPLibResources.load("./tspLib/tsp/eil51.tsp");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TSPLibWriter writer = new TSPLibWriter(bytes);
+		writer.write("eil51-explicit", DataType.TSP, instance.getDistanceTable().freeze(), EdgeWeightFormat.UPPER_ROW);
+		writer.close();
+		TSPLibInstance copy = read(bytes);
+		Assert.assertEquals("eil51-explicit", copy.getName());
+		assertDistances(instance.getDistanceTable(), copy.getDistanceTable(), 51);
+	}
+
+}
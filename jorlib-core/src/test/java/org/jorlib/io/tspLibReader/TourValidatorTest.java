@@ -0,0 +1,218 @@
+/* ==========================================
+ * jORLib : a free Java OR library
+ * ==========================================
+ *
+ * Project Info:  https://github.com/jkinable/jorlib
+ * Project Creator:  Joris Kinable (https://github.com/jkinable)
+ *
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * This program and the accompanying materials are licensed under LGPLv2.1
+ *
+ */
+/* -----------------
+ * TourValidatorTest.java
+ * -----------------
+ * (C) Copyright 2016, by Joris Kinable and Contributors.
+ *
+ * Original Author:  Joris Kinable
+ * Contributor(s):   -
+ *
+ * $Id$
+ *
+ * Changes
+ * -------
+ *
+ */
+package org.jorlib.io.tspLibReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jorlib.io.tspLibReader.fieldTypesAndFormats.EdgeWeightType;
+import org.jorlib.io.tspLibReader.graph.Edge;
+import org.jorlib.io.tspLibReader.graph.EdgeData;
+import org.jorlib.io.tspLibReader.graph.FrozenDistanceTable;
+import org.jorlib.io.tspLibReader.graph.Node;
+import org.jorlib.io.tspLibReader.graph.NodeCoordinates;
+import org.jorlib.io.tspLibReader.graph.PackedEdgeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TourValidator} and {@link PackedEdgeSet} classes.
+ *
+ * @author Joris Kinable
+ */
+public final class TourValidatorTest {
+
+	@Test
+	public void testViolations() throws IOException {
+		TourValidator validator = new TourValidator(TSPLibResources.load("./tspLib/tsp/burma14.tsp"));
+		int[] tour = TSPLibTour.createCanonicalTour(14).toArray();
+		Assert.assertEquals(-1, validator.findViolation(tour));
+		Assert.assertTrue(validator.isHamiltonianCycle(tour));
+
+		//Repeated node
+		int[] repeated = tour.clone();
+		repeated[5] = repeated[2];
+		Assert.assertEquals(5, validator.findViolation(repeated));
+
+		//Unknown node
+		int[] unknown = tour.clone();
+		unknown[3] = 14;
+		Assert.assertEquals(3, validator.findViolation(unknown));
+		unknown[3] = -1;
+		Assert.assertEquals(3, validator.findViolation(unknown));
+
+		//Missing nodes are reported at the end of the tour
+		int[] partial = new int[] {0, 1, 2};
+		Assert.assertEquals(3, validator.findViolation(partial));
+		Assert.assertEquals(0, validator.findViolation(new int[0]));
+	}
+
+	@Test
+	public void testSparseGraph() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/hcp/alb1000.hcp");
+		InputStream inputStream = getClass().getClassLoader().getResourceAsStream("./tspLib/hcp/alb1000.opt.tour");
+		problem.addTour(inputStream);
+		inputStream.close();
+
+		TourValidator validator = new TourValidator(problem);
+		int[] tour = problem.getTours().get(0).toArray();
+		Assert.assertEquals(-1, validator.findViolation(tour));
+
+		//Swapping two nodes breaks the adjacency of a sparse graph
+		int[] swapped = tour.clone();
+		int temp = swapped[10];
+		swapped[10] = swapped[500];
+		swapped[500] = temp;
+		Assert.assertEquals(10, validator.findViolation(swapped));
+
+		//The edge closing the cycle is checked as well
+		int[] shifted = new int[tour.length];
+		System.arraycopy(tour, 1, shifted, 0, tour.length - 1);
+		shifted[tour.length - 1] = tour[0];
+		Assert.assertEquals(-1, validator.findViolation(shifted));
+		Assert.assertEquals(-1, new TourValidator(problem.getDistanceTable()).findViolation(shifted));
+	}
+
+	@Test
+	public void testFixedEdges() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/hcp/alb4000.hcp");
+		InputStream inputStream = getClass().getClassLoader().getResourceAsStream("./tspLib/hcp/alb4000.opt.tour");
+		problem.addTour(inputStream);
+		inputStream.close();
+
+		TourValidator validator = new TourValidator(problem);
+		TSPLibTour tour = problem.getTours().get(0);
+		Assert.assertTrue(validator.containsFixedEdges(tour));
+		Assert.assertNull(validator.findMissingFixedEdge(tour.toArray()));
+
+		//Without the first fixed edge, it is the one reported
+		Edge first = problem.getFixedEdges().getEdges().get(0);
+		int[] nodes = tour.toArray();
+		int[] broken = new int[nodes.length];
+		int position = 0;
+		for (int i = 0; i < nodes.length; i++)
+			if (nodes[i] == first.getId1())
+				position = i;
+		//Rotate the tour so that it starts at one end point of the edge
+		for (int i = 0; i < nodes.length; i++)
+			broken[i] = nodes[(position + i) % nodes.length];
+		Assert.assertTrue(validator.containsFixedEdges(broken));
+		//Move the first node to the middle, removing both of its edges
+		int[] moved = new int[nodes.length];
+		System.arraycopy(broken, 1, moved, 0, nodes.length / 2);
+		moved[nodes.length / 2] = broken[0];
+		System.arraycopy(broken, nodes.length / 2 + 1, moved, nodes.length / 2 + 1, nodes.length - nodes.length / 2 - 1);
+		Edge missing = validator.findMissingFixedEdge(moved);
+		Assert.assertEquals(first, missing);
+		Assert.assertFalse(validator.containsFixedEdges(moved));
+	}
+
+	@Test
+	public void testLargeTour() {
+		final int n = 1000000;
+		NodeCoordinates table = new NodeCoordinates(n, EdgeWeightType.EUC_2D) {
+			{
+				for (int i = 0; i < n; i++)
+					add(new Node(i, i % 1000, i / 1000));
+			}
+		};
+
+		TourValidator validator = new TourValidator(table);
+		int[] tour = TSPLibTour.createCanonicalTour(n).toArray();
+		Assert.assertEquals(-1, validator.findViolation(tour));
+		tour[n - 1] = tour[0];
+		Assert.assertEquals(n - 1, validator.findViolation(tour));
+	}
+
+	/**
+	 * Validation reads adjacency from the table itself and never takes a snapshot of it.
+	 */
+	@Test
+	public void testDoesNotFreeze() {
+		final int n = 1000;
+		NodeCoordinates table = new NodeCoordinates(n, EdgeWeightType.EUC_2D) {
+			{
+				for (int i = 0; i < n; i++)
+					add(new Node(i, i, 0));
+			}
+
+			@Override
+			public FrozenDistanceTable freeze() {
+				throw new AssertionError("validator must not freeze the table");
+			}
+		};
+
+		TourValidator validator = new TourValidator(table);
+		Assert.assertTrue(validator.isHamiltonianCycle(TSPLibTour.createCanonicalTour(n)));
+	}
+
+	@Test
+	public void testFixedEdgesOnly() throws IOException {
+		TSPLibInstance problem = TSPLibResources.load("./tspLib/hcp/alb4000.hcp");
+		InputStream inputStream = getClass().getClassLoader().getResourceAsStream("./tspLib/hcp/alb4000.opt.tour");
+		problem.addTour(inputStream);
+		inputStream.close();
+
+		TourValidator validator = new TourValidator(problem.getFixedEdges());
+		TSPLibTour tour = problem.getTours().get(0);
+		Assert.assertTrue(validator.containsFixedEdges(tour));
+		Assert.assertTrue(tour.containsFixedEdges(problem));
+		Edge first = problem.getFixedEdges().getEdges().get(0);
+		Assert.assertEquals(first, validator.findMissingFixedEdge(new int[]{first.getId1()}));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFixedEdgesOnlyCannotCheckCycles() {
+		new TourValidator((EdgeData)null).isHamiltonianCycle(new int[0]);
+	}
+
+	@Test
+	public void testPackedEdgeSet() {
+		PackedEdgeSet set = new PackedEdgeSet(1);
+		Assert.assertTrue(set.add(3, 1));
+		Assert.assertFalse(set.add(1, 3));
+		Assert.assertTrue(set.add(Integer.MAX_VALUE, 0));
+		for (int i = 0; i < 1000; i++)
+			set.add(i, i + 7);
+		Assert.assertTrue(set.contains(1, 3));
+		Assert.assertTrue(set.contains(0, Integer.MAX_VALUE));
+		Assert.assertFalse(set.contains(3, 2));
+		Assert.assertFalse(set.contains(-1, 2));
+		Assert.assertEquals(0, set.indexOf(3, 1));
+		Assert.assertEquals(1, set.indexOf(0, Integer.MAX_VALUE));
+		Assert.assertEquals(1002, set.size());
+
+		long edge = set.get(2);
+		Assert.assertEquals(0, PackedEdgeSet.getFirstNode(edge));
+		Assert.assertEquals(7, PackedEdgeSet.getSecondNode(edge));
+
+		set.clear();
+		Assert.assertEquals(0, set.size());
+		Assert.assertFalse(set.contains(1, 3));
+	}
+
+}